@@ -30,6 +30,7 @@ dependencies {
     implementation("io.jsonwebtoken:jjwt-api:0.11.5")
     implementation("io.jsonwebtoken:jjwt-impl:0.11.5")
     implementation("io.jsonwebtoken:jjwt-jackson:0.11.5")
+    implementation("com.github.ben-manes.caffeine:caffeine") // Bounded in-process caches (version managed by Spring Boot)
 
     // For Javadoc "When.MAYBE" warning, ensure this is available.
     compileOnly("javax.annotation:javax.annotation-api:1.3.2")
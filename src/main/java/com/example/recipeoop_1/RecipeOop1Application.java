@@ -12,6 +12,7 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.core.env.Environment;
 import org.springframework.data.mongodb.repository.config.EnableMongoRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
@@ -25,7 +26,8 @@ import java.util.Scanner;
  * This class serves as the entry point for the Spring Boot application.
  * It is annotated with {@link SpringBootApplication}, which enables auto-configuration,
  * component scanning, and other Spring Boot features.
- * {@link EnableMongoRepositories} is used to enable Spring Data MongoDB repositories.
+ * {@link EnableMongoRepositories} is used to enable Spring Data MongoDB repositories, and
+ * {@link EnableScheduling} enables the background jobs declared with {@code @Scheduled}.
  * </p>
  * <p>
  * The application includes a {@link ConsoleUI} component that provides a command-line
@@ -40,6 +42,7 @@ import java.util.Scanner;
  */
 @SpringBootApplication
 @EnableMongoRepositories // Enables Spring Data MongoDB repositories
+@EnableScheduling // Enables background jobs such as the category registry refresh
 public class RecipeOop1Application {
 
     /**
@@ -0,0 +1,685 @@
+package com.example.recipeoop_1.controller;
+
+import com.example.recipeoop_1.security.JwtUserDetailsService;
+import com.example.recipeoop_1.security.LoginExecutor;
+import com.example.recipeoop_1.security.RateLimitFilter;
+import com.example.recipeoop_1.security.TokenRevocationService;
+import com.example.recipeoop_1.service.CategoryService;
+import com.example.recipeoop_1.service.EmptyCategorySweeper;
+import com.example.recipeoop_1.service.IngredientKeysBackfill;
+import com.example.recipeoop_1.service.RecipeCache;
+import com.example.recipeoop_1.service.RecipeIndexManager;
+import com.example.recipeoop_1.service.RecipeLocator;
+import com.example.recipeoop_1.service.RecipeSearchIndex;
+import com.example.recipeoop_1.service.RecipeStorageMigrationService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Handles administrative HTTP requests for operating the recipe service.
+ * <p>
+ * Provides endpoints for inspecting the internal caches and registries and for
+ * triggering maintenance tasks. All endpoints require the ADMIN role.
+ * The base path for these endpoints is {@code /api/recipes/admin}, which is also restricted
+ * to administrators in {@link com.example.recipeoop_1.security.WebSecurityConfig}.
+ * </p>
+ *
+ * @author Elie Issa/Michel Ghazaly
+ * @version 1.9
+ * @since 2026-10-16
+ */
+@RestController
+@RequestMapping("/api/recipes/admin")
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminController {
+
+    private final CategoryService categoryService;
+    private final RecipeLocator recipeLocator;
+    private final RecipeStorageMigrationService storageMigrationService;
+    private final RecipeIndexManager indexManager;
+    private final RecipeCache recipeCache;
+    private final JwtUserDetailsService userDetailsService;
+    private final LoginExecutor loginExecutor;
+    private final TokenRevocationService tokenRevocationService;
+    private final RateLimitFilter rateLimitFilter;
+    private final ObjectProvider<EmptyCategorySweeper> emptyCategorySweeper;
+    private final ObjectProvider<RecipeSearchIndex> searchIndex;
+    private final IngredientKeysBackfill ingredientKeysBackfill;
+
+    /**
+     * Constructs an {@code AdminController} with the necessary service dependencies.
+     *
+     * @param categoryService Service for category-related operations (e.g., {@link CategoryService}).
+     * @param recipeLocator Locator mapping recipe IDs to their collections (e.g., {@link RecipeLocator}).
+     * @param storageMigrationService Service migrating recipes between storage layouts
+     * (e.g., {@link RecipeStorageMigrationService}).
+     * @param indexManager Service keeping the indexes of the recipe collections in line with their declaration
+     * (e.g., {@link RecipeIndexManager}).
+     * @param recipeCache Read-through cache of recipes by ID (e.g., {@link RecipeCache}).
+     * @param userDetailsService Service managing the user accounts (e.g., {@link JwtUserDetailsService}).
+     * @param loginExecutor Bounded pool on which passwords are verified (e.g., {@link LoginExecutor}).
+     * @param tokenRevocationService Service revoking JWT tokens (e.g., {@link TokenRevocationService}).
+     * @param rateLimitFilter Filter limiting the request rate of each client (e.g., {@link RateLimitFilter}).
+     * @param emptyCategorySweeper Sweeper dropping empty category collections (e.g., {@link EmptyCategorySweeper});
+     * absent in the single-collection layout.
+     * @param searchIndex In-memory title and ingredient index (e.g., {@link RecipeSearchIndex}); absent in the
+     * single-collection layout.
+     * @param ingredientKeysBackfill Service deriving the ingredient keys of older recipes
+     * (e.g., {@link IngredientKeysBackfill}).
+     */
+    @Autowired
+    public AdminController(CategoryService categoryService, RecipeLocator recipeLocator,
+                           RecipeStorageMigrationService storageMigrationService,
+                           RecipeIndexManager indexManager, RecipeCache recipeCache,
+                           JwtUserDetailsService userDetailsService, LoginExecutor loginExecutor,
+                           TokenRevocationService tokenRevocationService, RateLimitFilter rateLimitFilter,
+                           ObjectProvider<EmptyCategorySweeper> emptyCategorySweeper,
+                           ObjectProvider<RecipeSearchIndex> searchIndex,
+                           IngredientKeysBackfill ingredientKeysBackfill) {
+        this.categoryService = categoryService;
+        this.recipeLocator = recipeLocator;
+        this.storageMigrationService = storageMigrationService;
+        this.indexManager = indexManager;
+        this.recipeCache = recipeCache;
+        this.userDetailsService = userDetailsService;
+        this.loginExecutor = loginExecutor;
+        this.tokenRevocationService = tokenRevocationService;
+        this.rateLimitFilter = rateLimitFilter;
+        this.emptyCategorySweeper = emptyCategorySweeper;
+        this.searchIndex = searchIndex;
+        this.ingredientKeysBackfill = ingredientKeysBackfill;
+    }
+
+    /**
+     * Retrieves the metrics of the in-memory category registry.
+     * <p>
+     * Requires ADMIN role.
+     * </p>
+     * HTTP Method: GET
+     * Path: /api/recipes/admin/categories/stats
+     * <p>
+     * Response:
+     * <ul>
+     * <li>200 OK: Returns the registry metrics.
+     * <pre>{@code
+     * { "version": 4, "categories": 62, "ageMillis": 12450, "hits": 10231, "misses": 3,
+     *   "hitRatio": 0.9997, "refreshes": 40, "refreshFailures": 0 }
+     * }</pre>
+     * </li>
+     * <li>401 Unauthorized: If the user is not authenticated.</li>
+     * <li>403 Forbidden: If the authenticated user does not have the ADMIN role.</li>
+     * </ul>
+     *
+     * @return A {@link ResponseEntity} containing the registry metrics and HTTP status 200 (OK).
+     * @see CategoryService#getRegistryStats()
+     */
+    @GetMapping("/categories/stats")
+    public ResponseEntity<Map<String, Object>> getCategoryRegistryStats() {
+        return ResponseEntity.ok(categoryService.getRegistryStats());
+    }
+
+    /**
+     * Reloads the category registry from MongoDB immediately, instead of waiting for the next
+     * background refresh.
+     * <p>
+     * Requires ADMIN role.
+     * </p>
+     * HTTP Method: POST
+     * Path: /api/recipes/admin/categories/refresh
+     *
+     * @return A {@link ResponseEntity} containing the registry metrics after the reload and HTTP status 200 (OK).
+     * @see CategoryService#refreshCategories()
+     */
+    @PostMapping("/categories/refresh")
+    public ResponseEntity<Map<String, Object>> refreshCategoryRegistry() {
+        categoryService.refreshCategories();
+        return ResponseEntity.ok(categoryService.getRegistryStats());
+    }
+
+    /**
+     * Retrieves the metrics of the sweeper dropping empty category collections.
+     * <p>
+     * Requires ADMIN role.
+     * </p>
+     * HTTP Method: GET
+     * Path: /api/recipes/admin/categories/sweeper/stats
+     * <p>
+     * Response:
+     * <ul>
+     * <li>200 OK: Returns the sweeper metrics, or {@code { "enabled": false }} in the single-collection layout.
+     * <pre>{@code
+     * { "pending": 2, "graceMillis": 300000, "sweeps": 118, "marked": 431, "cancelled": 27,
+     *   "dropped": 5, "keptNonEmpty": 396, "failures": 0, "lastSweepMillis": 4 }
+     * }</pre>
+     * </li>
+     * <li>401 Unauthorized: If the user is not authenticated.</li>
+     * <li>403 Forbidden: If the authenticated user does not have the ADMIN role.</li>
+     * </ul>
+     *
+     * @return A {@link ResponseEntity} containing the sweeper metrics and HTTP status 200 (OK).
+     * @see EmptyCategorySweeper#getStats()
+     */
+    @GetMapping("/categories/sweeper/stats")
+    public ResponseEntity<Map<String, Object>> getEmptyCategorySweeperStats() {
+        EmptyCategorySweeper sweeper = emptyCategorySweeper.getIfAvailable();
+        return ResponseEntity.ok(sweeper != null ? sweeper.getStats() : Map.of("enabled", false));
+    }
+
+    /**
+     * Retrieves the metrics of the recipe locator cache.
+     * <p>
+     * Requires ADMIN role.
+     * </p>
+     * HTTP Method: GET
+     * Path: /api/recipes/admin/locator/stats
+     *
+     * @return A {@link ResponseEntity} containing the locator metrics and HTTP status 200 (OK).
+     * @see RecipeLocator#getStats()
+     */
+    @GetMapping("/locator/stats")
+    public ResponseEntity<Map<String, Object>> getLocatorStats() {
+        return ResponseEntity.ok(recipeLocator.getStats());
+    }
+
+    /**
+     * Backfills the recipe locator from the recipes stored in all category collections.
+     * <p>
+     * Requires ADMIN role. Needs to be run once after upgrading a database that already contains
+     * recipes; afterwards the locator is kept up to date as recipes are created, moved and deleted.
+     * </p>
+     * HTTP Method: POST
+     * Path: /api/recipes/admin/locator/rebuild
+     * <p>
+     * Response:
+     * <ul>
+     * <li>200 OK: Returns a summary of the rebuild.
+     * <pre>{@code
+     * { "collections": 62, "indexed": 18240, "elapsedMillis": 2310 }
+     * }</pre>
+     * </li>
+     * <li>401 Unauthorized: If the user is not authenticated.</li>
+     * <li>403 Forbidden: If the authenticated user does not have the ADMIN role.</li>
+     * </ul>
+     *
+     * @return A {@link ResponseEntity} containing the rebuild summary and HTTP status 200 (OK).
+     * @see RecipeLocator#rebuild()
+     */
+    @PostMapping("/locator/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildLocator() {
+        return ResponseEntity.ok(recipeLocator.rebuild());
+    }
+
+    /**
+     * Retrieves the metrics of the in-memory title and ingredient search index.
+     * <p>
+     * Requires ADMIN role.
+     * </p>
+     * HTTP Method: GET
+     * Path: /api/recipes/admin/search-index/stats
+     * <p>
+     * Response:
+     * <ul>
+     * <li>200 OK: Returns the index metrics, or {@code { "enabled": false }} in the single-collection layout.
+     * <pre>{@code
+     * { "enabled": true, "ready": true, "recipes": 48210, "titleTrigrams": 21873, "ingredientTrigrams": 30412,
+     *   "postings": 3920117, "queries": 1822, "bypassed": 4, "rebuilds": 7, "rebuildFailures": 0,
+     *   "lastRebuildMillis": 2310, "ageMillis": 312004 }
+     * }</pre>
+     * </li>
+     * <li>401 Unauthorized: If the user is not authenticated.</li>
+     * <li>403 Forbidden: If the authenticated user does not have the ADMIN role.</li>
+     * </ul>
+     *
+     * @return A {@link ResponseEntity} containing the index metrics and HTTP status 200 (OK).
+     * @see RecipeSearchIndex#getStats()
+     */
+    @GetMapping("/search-index/stats")
+    public ResponseEntity<Map<String, Object>> getSearchIndexStats() {
+        RecipeSearchIndex index = searchIndex.getIfAvailable();
+        return ResponseEntity.ok(index != null ? index.getStats() : Map.of("enabled", false));
+    }
+
+    /**
+     * Rebuilds the in-memory search index from the recipes stored in all category collections, for example after
+     * recipes were changed directly in the database.
+     * <p>
+     * Requires ADMIN role.
+     * </p>
+     * HTTP Method: POST
+     * Path: /api/recipes/admin/search-index/rebuild
+     * <p>
+     * Response:
+     * <ul>
+     * <li>200 OK: Returns the number of collections scanned, recipes indexed and the elapsed time.</li>
+     * <li>401 Unauthorized: If the user is not authenticated.</li>
+     * <li>403 Forbidden: If the authenticated user does not have the ADMIN role.</li>
+     * </ul>
+     *
+     * @return A {@link ResponseEntity} containing the rebuild summary and HTTP status 200 (OK).
+     * @see RecipeSearchIndex#rebuild()
+     */
+    @PostMapping("/search-index/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildSearchIndex() {
+        RecipeSearchIndex index = searchIndex.getIfAvailable();
+        return ResponseEntity.ok(index != null ? index.rebuild() : Map.of("enabled", false));
+    }
+
+    /**
+     * Derives the normalized ingredient keys of the recipes that have none, in all recipe collections.
+     * <p>
+     * Requires ADMIN role. The backfill also runs once after startup; running it again only updates the recipes
+     * written directly in the database since.
+     * </p>
+     * HTTP Method: POST
+     * Path: /api/recipes/admin/ingredients/backfill
+     * <p>
+     * Response:
+     * <ul>
+     * <li>200 OK: Returns the number of collections scanned, recipes updated and the elapsed time.</li>
+     * <li>401 Unauthorized: If the user is not authenticated.</li>
+     * <li>403 Forbidden: If the authenticated user does not have the ADMIN role.</li>
+     * </ul>
+     *
+     * @return A {@link ResponseEntity} containing the backfill summary and HTTP status 200 (OK).
+     * @see IngredientKeysBackfill#backfill()
+     */
+    @PostMapping("/ingredients/backfill")
+    public ResponseEntity<Map<String, Object>> backfillIngredientKeys() {
+        return ResponseEntity.ok(ingredientKeysBackfill.backfill());
+    }
+
+    /**
+     * Copies all per-category recipe collections into the single "recipes" collection and verifies the counts.
+     * <p>
+     * Requires ADMIN role. Can be run while the application is serving requests, and repeatedly.
+     * </p>
+     * HTTP Method: POST
+     * Path: /api/recipes/admin/storage/migrate
+     * <p>
+     * Response:
+     * <ul>
+     * <li>200 OK: Returns a summary of the migration and the verification report.
+     * <pre>{@code
+     * { "copied": 18240, "elapsedMillis": 5120,
+     *   "verification": { "verified": true, "sourceTotal": 18240, "targetTotal": 18240,
+     *                     "categories": { "dessert": { "source": 310, "target": 310 }, ... } } }
+     * }</pre>
+     * </li>
+     * <li>401 Unauthorized: If the user is not authenticated.</li>
+     * <li>403 Forbidden: If the authenticated user does not have the ADMIN role.</li>
+     * </ul>
+     *
+     * @return A {@link ResponseEntity} containing the migration summary and HTTP status 200 (OK).
+     * @see RecipeStorageMigrationService#migrateToSingleCollection()
+     */
+    @PostMapping("/storage/migrate")
+    public ResponseEntity<Map<String, Object>> migrateStorage() {
+        return ResponseEntity.ok(storageMigrationService.migrateToSingleCollection());
+    }
+
+    /**
+     * Compares the per-category recipe collections with the single "recipes" collection, without copying anything.
+     * <p>
+     * Requires ADMIN role.
+     * </p>
+     * HTTP Method: GET
+     * Path: /api/recipes/admin/storage/verify
+     *
+     * @return A {@link ResponseEntity} containing the verification report and HTTP status 200 (OK).
+     * @see RecipeStorageMigrationService#verify()
+     */
+    @GetMapping("/storage/verify")
+    public ResponseEntity<Map<String, Object>> verifyStorage() {
+        return ResponseEntity.ok(storageMigrationService.verify());
+    }
+
+    /**
+     * Compares the indexes of every recipe collection with the indexes declared on recipes.
+     * <p>
+     * Requires ADMIN role.
+     * </p>
+     * HTTP Method: GET
+     * Path: /api/recipes/admin/indexes
+     * <p>
+     * Response:
+     * <ul>
+     * <li>200 OK: Returns the index report. Only collections that differ from the declaration are listed.
+     * <pre>{@code
+     * { "consistent": false, "collectionsChecked": 62, "indexesCreated": 3, "failures": 0,
+     *   "collections": { "recipe_dessert": { "missing": ["cookingTime: 1"], "extra": [] } } }
+     * }</pre>
+     * </li>
+     * <li>401 Unauthorized: If the user is not authenticated.</li>
+     * <li>403 Forbidden: If the authenticated user does not have the ADMIN role.</li>
+     * </ul>
+     *
+     * @return A {@link ResponseEntity} containing the index report and HTTP status 200 (OK).
+     * @see RecipeIndexManager#report()
+     */
+    @GetMapping("/indexes")
+    public ResponseEntity<Map<String, Object>> getIndexReport() {
+        return ResponseEntity.ok(indexManager.report());
+    }
+
+    /**
+     * Creates the missing declared indexes on every recipe collection.
+     * <p>
+     * Requires ADMIN role. Extra indexes are left in place.
+     * </p>
+     * HTTP Method: POST
+     * Path: /api/recipes/admin/indexes/reconcile
+     *
+     * @return A {@link ResponseEntity} containing a summary of the reconciliation and HTTP status 200 (OK).
+     * @see RecipeIndexManager#reconcileAll()
+     */
+    @PostMapping("/indexes/reconcile")
+    public ResponseEntity<Map<String, Object>> reconcileIndexes() {
+        return ResponseEntity.ok(indexManager.reconcileAll());
+    }
+
+    /**
+     * Retrieves the metrics of the recipe cache.
+     * <p>
+     * Requires ADMIN role.
+     * </p>
+     * HTTP Method: GET
+     * Path: /api/recipes/admin/cache/stats
+     * <p>
+     * Response:
+     * <ul>
+     * <li>200 OK: Returns the cache metrics.
+     * <pre>{@code
+     * { "size": 8120, "hits": 412877, "misses": 9304, "hitRatio": 0.978, "evictions": 1190,
+     *   "sizeEvictions": 1020, "expirations": 170, "invalidations": 655, "loadFailures": 12,
+     *   "averageLoadMillis": 3.4 }
+     * }</pre>
+     * </li>
+     * <li>401 Unauthorized: If the user is not authenticated.</li>
+     * <li>403 Forbidden: If the authenticated user does not have the ADMIN role.</li>
+     * </ul>
+     *
+     * @return A {@link ResponseEntity} containing the cache metrics and HTTP status 200 (OK).
+     * @see RecipeCache#getStats()
+     */
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        return ResponseEntity.ok(recipeCache.getStats());
+    }
+
+    /**
+     * Empties the recipe cache, for example after recipes were changed directly in the database.
+     * <p>
+     * Requires ADMIN role.
+     * </p>
+     * HTTP Method: POST
+     * Path: /api/recipes/admin/cache/clear
+     *
+     * @return A {@link ResponseEntity} containing the cache metrics after clearing and HTTP status 200 (OK).
+     * @see RecipeCache#invalidateAll()
+     */
+    @PostMapping("/cache/clear")
+    public ResponseEntity<Map<String, Object>> clearCache() {
+        recipeCache.invalidateAll();
+        return ResponseEntity.ok(recipeCache.getStats());
+    }
+
+    /**
+     * Creates a user account.
+     * <p>
+     * Requires ADMIN role.
+     * </p>
+     * HTTP Method: POST
+     * Path: /api/recipes/admin/users
+     * <p>
+     * Request body: {@code { "username": "alice", "password": "secret", "roles": ["USER"] }}
+     * </p>
+     * <p>
+     * Response:
+     * <ul>
+     * <li>201 Created: The account was created.</li>
+     * <li>400 Bad Request: If the username or password is missing.</li>
+     * <li>409 Conflict: If the username is already taken.</li>
+     * <li>401 Unauthorized: If the user is not authenticated.</li>
+     * <li>403 Forbidden: If the authenticated user does not have the ADMIN role.</li>
+     * </ul>
+     *
+     * @param userRequest The account to create.
+     * @return A {@link ResponseEntity} with the status of the operation.
+     * @see JwtUserDetailsService#createUser(String, String, List)
+     */
+    @PostMapping("/users")
+    public ResponseEntity<String> createUser(@RequestBody UserRequest userRequest) {
+        if (userRequest.getUsername() == null || userRequest.getUsername().isBlank()
+                || userRequest.getPassword() == null || userRequest.getPassword().isEmpty()) {
+            return ResponseEntity.badRequest().body("Username and password are required");
+        }
+        if (!userDetailsService.createUser(userRequest.getUsername().trim(), userRequest.getPassword(),
+                userRequest.getRoles() != null ? userRequest.getRoles() : List.of("ROLE_USER"))) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Username is already taken");
+        }
+        return ResponseEntity.status(HttpStatus.CREATED).build();
+    }
+
+    /**
+     * Replaces the roles of a user. The user is evicted from the user cache, so the change applies
+     * to the next request that loads the user.
+     * <p>
+     * Requires ADMIN role.
+     * </p>
+     * HTTP Method: PUT
+     * Path: /api/recipes/admin/users/{username}/roles
+     * <p>
+     * Request body: {@code ["ROLE_ADMIN", "ROLE_USER"]}
+     * </p>
+     * <p>
+     * Response:
+     * <ul>
+     * <li>204 No Content: The roles were updated.</li>
+     * <li>404 Not Found: If the user does not exist.</li>
+     * <li>401 Unauthorized: If the user is not authenticated.</li>
+     * <li>403 Forbidden: If the authenticated user does not have the ADMIN role.</li>
+     * </ul>
+     *
+     * @param username The username.
+     * @param roles The new roles.
+     * @return A {@link ResponseEntity} with the status of the operation.
+     * @see JwtUserDetailsService#updateRoles(String, List)
+     */
+    @PutMapping("/users/{username}/roles")
+    public ResponseEntity<Void> updateUserRoles(@PathVariable String username, @RequestBody List<String> roles) {
+        return userDetailsService.updateRoles(username, roles)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * Retrieves the metrics of the user cache.
+     * <p>
+     * Requires ADMIN role.
+     * </p>
+     * HTTP Method: GET
+     * Path: /api/recipes/admin/users/cache/stats
+     *
+     * @return A {@link ResponseEntity} containing the user cache metrics and HTTP status 200 (OK).
+     * @see JwtUserDetailsService#getCacheStats()
+     */
+    @GetMapping("/users/cache/stats")
+    public ResponseEntity<Map<String, Object>> getUserCacheStats() {
+        return ResponseEntity.ok(userDetailsService.getCacheStats());
+    }
+
+    /**
+     * Retrieves the metrics of the login pool.
+     * <p>
+     * Requires ADMIN role.
+     * </p>
+     * HTTP Method: GET
+     * Path: /api/recipes/admin/login/stats
+     * <p>
+     * Response:
+     * <ul>
+     * <li>200 OK: Returns the login pool metrics.
+     * <pre>{@code
+     * { "queueDepth": 12, "queueRemainingCapacity": 52, "activeThreads": 4, "parallelism": 4,
+     *   "submitted": 9120, "rejected": 37, "timedOut": 0, "verifications": 9108,
+     *   "averageQueueWaitMillis": 41.2, "averageVerificationMillis": 78.5, "maxVerificationMillis": 210.3 }
+     * }</pre>
+     * </li>
+     * <li>401 Unauthorized: If the user is not authenticated.</li>
+     * <li>403 Forbidden: If the authenticated user does not have the ADMIN role.</li>
+     * </ul>
+     *
+     * @return A {@link ResponseEntity} containing the login pool metrics and HTTP status 200 (OK).
+     * @see LoginExecutor#getStats()
+     */
+    @GetMapping("/login/stats")
+    public ResponseEntity<Map<String, Object>> getLoginStats() {
+        return ResponseEntity.ok(loginExecutor.getStats());
+    }
+
+    /**
+     * Retrieves the metrics of the token revocation checks.
+     * <p>
+     * Requires ADMIN role. {@code filterRatio} is the share of checks answered by the in-memory filter
+     * without a database lookup.
+     * </p>
+     * HTTP Method: GET
+     * Path: /api/recipes/admin/tokens/revocation/stats
+     * <p>
+     * Response:
+     * <ul>
+     * <li>200 OK: Returns the revocation metrics.
+     * <pre>{@code
+     * { "checks": 52310, "filterNegatives": 52296, "filterRatio": 0.9997, "storeLookups": 14,
+     *   "falsePositives": 2, "revocations": 12, "refreshFailures": 0, "filterBits": 1437760,
+     *   "filterHashes": 10, "ageMillis": 812004 }
+     * }</pre>
+     * </li>
+     * <li>401 Unauthorized: If the user is not authenticated.</li>
+     * <li>403 Forbidden: If the authenticated user does not have the ADMIN role.</li>
+     * </ul>
+     *
+     * @return A {@link ResponseEntity} containing the revocation metrics and HTTP status 200 (OK).
+     * @see TokenRevocationService#getStats()
+     */
+    @GetMapping("/tokens/revocation/stats")
+    public ResponseEntity<Map<String, Object>> getTokenRevocationStats() {
+        return ResponseEntity.ok(tokenRevocationService.getStats());
+    }
+
+    /**
+     * Retrieves the rate limiting metrics.
+     * <p>
+     * Requires ADMIN role.
+     * </p>
+     * HTTP Method: GET
+     * Path: /api/recipes/admin/rate-limit/stats
+     * <p>
+     * Response:
+     * <ul>
+     * <li>200 OK: Returns the limit, active buckets and allowed and rejected requests of each route group.
+     * <pre>{@code
+     * { "enabled": true,
+     *   "auth": { "capacity": 20, "refillPerSecond": 5.0, "buckets": 3, "allowed": 410, "rejected": 0 },
+     *   "search": { "capacity": 50, "refillPerSecond": 20.0, "buckets": 12, "allowed": 20931, "rejected": 118 },
+     *   "write": { "capacity": 30, "refillPerSecond": 10.0, "buckets": 4, "allowed": 602, "rejected": 0 },
+     *   "evictions": 87 }
+     * }</pre>
+     * </li>
+     * <li>401 Unauthorized: If the user is not authenticated.</li>
+     * <li>403 Forbidden: If the authenticated user does not have the ADMIN role.</li>
+     * </ul>
+     *
+     * @return A {@link ResponseEntity} containing the rate limiting metrics and HTTP status 200 (OK).
+     * @see RateLimitFilter#getStats()
+     */
+    @GetMapping("/rate-limit/stats")
+    public ResponseEntity<Map<String, Object>> getRateLimitStats() {
+        return ResponseEntity.ok(rateLimitFilter.getStats());
+    }
+
+    /**
+     * Represents the request body for creating a user account.
+     */
+    public static class UserRequest {
+        /**
+         * The username of the new account.
+         */
+        private String username;
+        /**
+         * The password of the new account, in clear text.
+         */
+        private String password;
+        /**
+         * The roles of the new account; "ROLE_USER" if absent.
+         */
+        private List<String> roles;
+
+        /**
+         * Default constructor for {@link UserRequest}.
+         */
+        public UserRequest() {
+        }
+
+        /**
+         * Gets the username.
+         * @return The username.
+         */
+        public String getUsername() {
+            return username;
+        }
+
+        /**
+         * Sets the username.
+         * @param username The username to set.
+         */
+        public void setUsername(String username) {
+            this.username = username;
+        }
+
+        /**
+         * Gets the password.
+         * @return The password.
+         */
+        public String getPassword() {
+            return password;
+        }
+
+        /**
+         * Sets the password.
+         * @param password The password to set.
+         */
+        public void setPassword(String password) {
+            this.password = password;
+        }
+
+        /**
+         * Gets the roles.
+         * @return The role names, or {@code null}.
+         */
+        public List<String> getRoles() {
+            return roles;
+        }
+
+        /**
+         * Sets the roles.
+         * @param roles The role names to set.
+         */
+        public void setRoles(List<String> roles) {
+            this.roles = roles;
+        }
+    }
+}
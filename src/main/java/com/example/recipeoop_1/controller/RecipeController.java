@@ -1,17 +1,32 @@
 package com.example.recipeoop_1.controller;
 
+import com.example.recipeoop_1.dto.PantryMatch;
+import com.example.recipeoop_1.dto.RecipeResponse;
+import com.example.recipeoop_1.dto.Suggestion;
+import com.example.recipeoop_1.exception.RecipeAccessDeniedException;
+import com.example.recipeoop_1.exception.RecipeNotFoundException;
 import com.example.recipeoop_1.model.Recipe;
 import com.example.recipeoop_1.service.CategoryService;
+import com.example.recipeoop_1.service.QueryStrategy;
+import com.example.recipeoop_1.service.RecipeFilter;
+import com.example.recipeoop_1.service.RecipeProjection;
 import com.example.recipeoop_1.service.RecipeService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Handles HTTP requests related to recipe management.
@@ -21,10 +36,26 @@ import java.util.List;
  * Authentication is required for all endpoints, and specific roles (USER, ADMIN)
  * are enforced per endpoint as detailed in method documentation.
  * The base path for these endpoints is {@code /api/recipes}.
+ * </p><p>
+ * Endpoints that search across all categories accept an optional {@code strategy} query parameter
+ * selecting the {@link QueryStrategy} of the cross-category query, so both strategies can be compared
+ * on the same requests.
+ * </p><p>
+ * Every list and search endpoint also has a paginated form, selected by the {@code size} query parameter.
+ * It returns a {@link RecipeResponse} holding at most {@code size} recipes (capped at {@value #MAX_PAGE_SIZE})
+ * and a {@code nextCursor} token; passing that token back as {@code cursor} returns the next page. Pages are
+ * read with keyset conditions, so following the cursors to the end of a large catalog costs the same per page.
+ * </p><p>
+ * For bulk consumers, {@code /api/recipes} and the search endpoints also answer requests with
+ * {@code Accept: application/x-ndjson} by streaming one JSON recipe per line, straight from the MongoDB cursor.
+ * </p><p>
+ * All list endpoints, in every form, accept a {@code fields} parameter: a comma-separated list of recipe fields
+ * (e.g. {@code fields=title,cookingTime}) or {@code fields=summary} for the fields shown on a recipe card.
+ * Only those fields are read from MongoDB and returned; the recipe ID is always included.
  * </p>
  *
  * @author Elie Issa/Michel Ghazaly
- * @version 1.1
+ * @version 1.11
  * @since 2025-05-14
  */
 @RestController
@@ -33,19 +64,35 @@ import java.util.List;
 // @SecurityRequirement(name = "bearerAuth") // Swagger annotation removed
 public class RecipeController {
 
+    /**
+     * The largest page returned by the paginated endpoints; larger {@code size} values are capped.
+     */
+    static final int MAX_PAGE_SIZE = 100;
+
     private final RecipeService recipeService;
     private final CategoryService categoryService;
+    private final ObjectMapper objectMapper;
+    /**
+     * The most suggestions returned by {@code /suggest}: the number the search index keeps for every prefix.
+     */
+    private final int maxSuggestions;
 
     /**
      * Constructs a {@code RecipeController} with the necessary service dependencies.
      *
      * @param recipeService Service for recipe-related operations (e.g., {@link RecipeService}).
      * @param categoryService Service for category-related operations (e.g., {@link CategoryService}).
+     * @param objectMapper The application's {@link ObjectMapper}, used to write streamed recipes.
+     * @param maxSuggestions The number of suggestions the search index keeps for every prefix, which caps the
+     * {@code limit} of {@code /suggest} whether or not the index is ready.
      */
     @Autowired
-    public RecipeController(RecipeService recipeService, CategoryService categoryService) {
+    public RecipeController(RecipeService recipeService, CategoryService categoryService, ObjectMapper objectMapper,
+                            @Value("${recipe.search-index.suggestions-per-prefix:10}") int maxSuggestions) {
         this.recipeService = recipeService;
         this.categoryService = categoryService;
+        this.objectMapper = objectMapper;
+        this.maxSuggestions = maxSuggestions;
     }
 
     /**
@@ -144,16 +191,92 @@ public class RecipeController {
      * <li>403 Forbidden: If the authenticated user does not have the required role.</li>
      * </ul>
      *
+     * @param strategy Optional {@link QueryStrategy} for the cross-category query ({@code FAN_OUT} or
+     * {@code UNION_WITH}); the configured default if omitted.
+     * @param fields Optional sparse fieldset: comma-separated recipe fields, or {@code summary}.
      * @return A {@link ResponseEntity} containing a list of all {@link Recipe} objects and HTTP status 200 (OK).
-     * @see RecipeService#getAllRecipes()
+     * @see RecipeService#getAllRecipes(QueryStrategy)
      */
     @GetMapping
     @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
-    public ResponseEntity<List<Recipe>> getAllRecipes() {
-        List<Recipe> recipes = recipeService.getAllRecipes();
+    public ResponseEntity<List<Recipe>> getAllRecipes(
+            @RequestParam(required = false) QueryStrategy strategy,
+            @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return list(RecipeFilter.all(), strategy, null, fields);
+        }
+        List<Recipe> recipes = strategy == null ? recipeService.getAllRecipes() : recipeService.getAllRecipes(strategy);
         return ResponseEntity.ok(recipes);
     }
 
+    /**
+     * Retrieves one page of all recipes.
+     * <p>
+     * Requires USER or ADMIN role.
+     * </p>
+     * HTTP Method: GET
+     * Path: /api/recipes?size={size}&amp;cursor={cursor}
+     * <p>
+     * Response:
+     * <ul>
+     * <li>200 OK: Returns a {@link RecipeResponse} page.
+     * <pre>{@code
+     * { "content": [ ... ], "pageNo": 0, "pageSize": 20, "totalElements": -1, "totalPages": -1,
+     *   "last": false, "nextCursor": "eyJjIjogInJlY2lwZV9kZXNzZXJ0Ii..." }
+     * }</pre>
+     * </li>
+     * <li>400 Bad Request: If the cursor cannot be decoded.</li>
+     * <li>401 Unauthorized: If the user is not authenticated.</li>
+     * <li>403 Forbidden: If the authenticated user does not have the required role.</li>
+     * </ul>
+     *
+     * @param size The maximum number of recipes on the page.
+     * @param cursor The {@code nextCursor} of the previous page; omitted for the first page.
+     * @param fields Optional sparse fieldset: comma-separated recipe fields, or {@code summary}.
+     * @return A {@link ResponseEntity} containing the page and HTTP status 200 (OK).
+     * @see RecipeService#findRecipesPage(RecipeFilter, int, String)
+     */
+    @GetMapping(params = "size")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<RecipeResponse> getAllRecipesPage(
+            @RequestParam int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String fields) {
+        return page(RecipeFilter.all(), size, cursor, fields);
+    }
+
+    /**
+     * Streams all recipes as newline-delimited JSON.
+     * <p>
+     * Recipes are written as they are read from the database, one JSON object per line, so the response starts
+     * with the first recipe and the server's memory use does not depend on the number of recipes.
+     * Requires USER or ADMIN role.
+     * </p>
+     * HTTP Method: GET
+     * Path: /api/recipes with {@code Accept: application/x-ndjson}
+     * <p>
+     * Response:
+     * <ul>
+     * <li>200 OK: Streams the recipes.
+     * <pre>{@code
+     * {"id":"1","title":"Recipe A",...}
+     * {"id":"2","title":"Recipe B",...}
+     * }</pre>
+     * </li>
+     * <li>401 Unauthorized: If the user is not authenticated.</li>
+     * <li>403 Forbidden: If the authenticated user does not have the required role.</li>
+     * </ul>
+     *
+     * @param fields Optional sparse fieldset: comma-separated recipe fields, or {@code summary}.
+     * @return A {@link ResponseEntity} streaming all recipes as NDJSON.
+     * @see RecipeService#streamRecipes(RecipeFilter, java.util.function.Consumer)
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<StreamingResponseBody> streamAllRecipes(@RequestParam(required = false) String fields) {
+        return stream(RecipeFilter.all(), fields);
+    }
+
     /**
      * Retrieves a specific recipe by its ID.
      * <p>
@@ -239,6 +362,7 @@ public class RecipeController {
      * <p>
      * The recipe details are provided in the request body.
      * A user can update a recipe if they are an ADMIN or if they are the original creator of the recipe.
+     * The ownership check is part of the update itself, so the recipe is not read beforehand.
      * If the category of the recipe is changed, the recipe might be moved to a different underlying storage/collection.
      * Requires USER or ADMIN role.
      * </p>
@@ -272,29 +396,20 @@ public class RecipeController {
      * @param recipeDetails A {@link Recipe} object containing the new details for the recipe.
      * @return A {@link ResponseEntity} containing the updated {@link Recipe} and HTTP status 200 (OK),
      * or an appropriate error status.
-     * @see RecipeService#updateRecipe(String, Recipe)
-     * @see RecipeService#getRecipeById(String)
+     * @see RecipeService#updateRecipe(String, Recipe, String, boolean)
      */
     @PutMapping("/{id}")
     @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
     public ResponseEntity<Recipe> updateRecipe(
             @PathVariable String id,
             @RequestBody Recipe recipeDetails) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         try {
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String username = authentication.getName();
-            Recipe existingRecipe = recipeService.getRecipeById(id); // Throws if not found
-
-            boolean isAdmin = authentication.getAuthorities().stream()
-                    .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
-
-            if (!isAdmin && !username.equals(existingRecipe.getCreatedBy())) {
-                return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
-            }
-
-            Recipe updatedRecipe = recipeService.updateRecipe(id, recipeDetails);
+            Recipe updatedRecipe = recipeService.updateRecipe(id, recipeDetails, authentication.getName(), isAdmin(authentication));
             return ResponseEntity.ok(updatedRecipe);
-        } catch (RuntimeException e) { // Catch specific RecipeNotFoundException
+        } catch (RecipeAccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        } catch (RecipeNotFoundException e) {
             return ResponseEntity.notFound().build();
         }
     }
@@ -302,8 +417,8 @@ public class RecipeController {
     /**
      * Deletes a specific recipe by its ID.
      * <p>
-     * This method searches across all categories for the recipe to delete.
      * A user can delete a recipe if they are an ADMIN or if they are the original creator of the recipe.
+     * The ownership check is part of the delete itself, so the recipe is not read beforehand.
      * Requires USER or ADMIN role.
      * </p>
      * HTTP Method: DELETE
@@ -323,28 +438,19 @@ public class RecipeController {
      * @param id The ID of the recipe to be deleted.
      * @return A {@link ResponseEntity} with HTTP status 204 (No Content) on successful deletion,
      * or an appropriate error status.
-     * @see RecipeService#deleteRecipe(String)
-     * @see RecipeService#getRecipeById(String)
+     * @see RecipeService#deleteRecipe(String, String, boolean)
      */
     @DeleteMapping("/{id}")
     @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
     public ResponseEntity<Void> deleteRecipe(
             @PathVariable String id) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         try {
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String username = authentication.getName();
-            Recipe existingRecipe = recipeService.getRecipeById(id); // Throws if not found
-
-            boolean isAdmin = authentication.getAuthorities().stream()
-                    .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
-
-            if (!isAdmin && !username.equals(existingRecipe.getCreatedBy())) {
-                return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
-            }
-
-            recipeService.deleteRecipe(id);
+            recipeService.deleteRecipe(id, authentication.getName(), isAdmin(authentication));
             return ResponseEntity.noContent().build();
-        } catch (RuntimeException e) { // Catch specific RecipeNotFoundException
+        } catch (RecipeAccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        } catch (RecipeNotFoundException e) {
             return ResponseEntity.notFound().build();
         }
     }
@@ -353,6 +459,7 @@ public class RecipeController {
      * Deletes a specific recipe by its category and ID.
      * <p>
      * A user can delete a recipe if they are an ADMIN or if they are the original creator of the recipe.
+     * As for {@code DELETE /api/recipes/{id}}, the ownership check is part of the delete itself.
      * Requires USER or ADMIN role.
      * </p>
      * HTTP Method: DELETE
@@ -376,33 +483,20 @@ public class RecipeController {
      * @param id The ID of the recipe to delete.
      * @return A {@link ResponseEntity} with HTTP status 204 (No Content) on successful deletion,
      * or an appropriate error status.
-     * @see RecipeService#deleteRecipe(String)
-     * @see RecipeService#getRecipeById(String, String)
+     * @see RecipeService#deleteRecipe(String, String, String, boolean)
      */
     @DeleteMapping("/category/{category}/id/{id}")
     @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
     public ResponseEntity<Void> deleteRecipeByCategoryAndId(
             @PathVariable String category,
             @PathVariable String id) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         try {
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String username = authentication.getName();
-            Recipe existingRecipe = recipeService.getRecipeById(category, id); // Service method might return null
-
-            if (existingRecipe == null) {
-                return ResponseEntity.notFound().build();
-            }
-
-            boolean isAdmin = authentication.getAuthorities().stream()
-                    .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
-
-            if (!isAdmin && !username.equals(existingRecipe.getCreatedBy())) {
-                return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
-            }
-
-            recipeService.deleteRecipe(id); // Assumes deleteRecipe by ID is sufficient even if category is known
+            recipeService.deleteRecipe(category, id, authentication.getName(), isAdmin(authentication));
             return ResponseEntity.noContent().build();
-        } catch (RuntimeException e) { // Catch specific RecipeNotFoundException if service throws it
+        } catch (RecipeAccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        } catch (RecipeNotFoundException e) {
             return ResponseEntity.notFound().build();
         }
     }
@@ -426,17 +520,69 @@ public class RecipeController {
      * </ul>
      *
      * @param title The title keyword to search for.
+     * @param strategy Optional {@link QueryStrategy} for the cross-category query ({@code FAN_OUT} or
+     * {@code UNION_WITH}); the configured default if omitted.
+     * @param fields Optional sparse fieldset: comma-separated recipe fields, or {@code summary}.
      * @return A {@link ResponseEntity} containing a list of matching {@link Recipe} objects.
-     * @see RecipeService#searchRecipesByTitle(String)
+     * @see RecipeService#searchRecipesByTitle(String, QueryStrategy)
      */
     @GetMapping("/search/title/{title}")
     @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
     public ResponseEntity<List<Recipe>> searchRecipesByTitle(
-            @PathVariable String title) {
-        List<Recipe> recipes = recipeService.searchRecipesByTitle(title);
+            @PathVariable String title,
+            @RequestParam(required = false) QueryStrategy strategy,
+            @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return list(RecipeFilter.byTitle(title), strategy, null, fields);
+        }
+        List<Recipe> recipes = strategy == null
+                ? recipeService.searchRecipesByTitle(title)
+                : recipeService.searchRecipesByTitle(title, strategy);
         return ResponseEntity.ok(recipes);
     }
 
+    /**
+     * Paginated form of {@link #searchRecipesByTitle(String, QueryStrategy, String)}.
+     * <p>
+     * HTTP Method: GET
+     * Path: /api/recipes/search/title/{title}?size={size}&amp;cursor={cursor}
+     * </p>
+     *
+     * @param title The title keyword to search for.
+     * @param size The maximum number of recipes on the page.
+     * @param cursor The {@code nextCursor} of the previous page; omitted for the first page.
+     * @param fields Optional sparse fieldset: comma-separated recipe fields, or {@code summary}.
+     * @return A {@link ResponseEntity} containing the page of matching recipes.
+     */
+    @GetMapping(value = "/search/title/{title}", params = "size")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<RecipeResponse> searchRecipesByTitlePage(
+            @PathVariable String title,
+            @RequestParam int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String fields) {
+        return page(RecipeFilter.byTitle(title), size, cursor, fields);
+    }
+
+    /**
+     * Streaming form of {@link #searchRecipesByTitle(String, QueryStrategy, String)}.
+     * <p>
+     * HTTP Method: GET
+     * Path: /api/recipes/search/title/{title} with {@code Accept: application/x-ndjson}
+     * </p>
+     *
+     * @param title The title keyword to search for.
+     * @param fields Optional sparse fieldset: comma-separated recipe fields, or {@code summary}.
+     * @return A {@link ResponseEntity} streaming the matching recipes as NDJSON.
+     */
+    @GetMapping(value = "/search/title/{title}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<StreamingResponseBody> streamRecipesByTitle(
+            @PathVariable String title,
+            @RequestParam(required = false) String fields) {
+        return stream(RecipeFilter.byTitle(title), fields);
+    }
+
     /**
      * Searches for recipes by their category name.
      * <p>
@@ -458,17 +604,64 @@ public class RecipeController {
      * </ul>
      *
      * @param category The category name to search for.
+     * @param fields Optional sparse fieldset: comma-separated recipe fields, or {@code summary}.
      * @return A {@link ResponseEntity} containing a list of matching {@link Recipe} objects.
      * @see RecipeService#searchRecipesByCategory(String)
      */
     @GetMapping("/search/category/{category}")
     @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
     public ResponseEntity<List<Recipe>> searchRecipesByCategory(
-            @PathVariable String category) {
+            @PathVariable String category,
+            @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return list(RecipeFilter.byCategory(category), null, null, fields);
+        }
         List<Recipe> recipes = recipeService.searchRecipesByCategory(category);
         return ResponseEntity.ok(recipes);
     }
 
+    /**
+     * Paginated form of {@link #searchRecipesByCategory(String, String)}.
+     * <p>
+     * HTTP Method: GET
+     * Path: /api/recipes/search/category/{category}?size={size}&amp;cursor={cursor}
+     * </p>
+     *
+     * @param category The category name to search for.
+     * @param size The maximum number of recipes on the page.
+     * @param cursor The {@code nextCursor} of the previous page; omitted for the first page.
+     * @param fields Optional sparse fieldset: comma-separated recipe fields, or {@code summary}.
+     * @return A {@link ResponseEntity} containing the page of the category's recipes.
+     */
+    @GetMapping(value = "/search/category/{category}", params = "size")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<RecipeResponse> searchRecipesByCategoryPage(
+            @PathVariable String category,
+            @RequestParam int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String fields) {
+        return page(RecipeFilter.byCategory(category), size, cursor, fields);
+    }
+
+    /**
+     * Streaming form of {@link #searchRecipesByCategory(String, String)}.
+     * <p>
+     * HTTP Method: GET
+     * Path: /api/recipes/search/category/{category} with {@code Accept: application/x-ndjson}
+     * </p>
+     *
+     * @param category The category name to search for.
+     * @param fields Optional sparse fieldset: comma-separated recipe fields, or {@code summary}.
+     * @return A {@link ResponseEntity} streaming the matching recipes as NDJSON.
+     */
+    @GetMapping(value = "/search/category/{category}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<StreamingResponseBody> streamRecipesByCategory(
+            @PathVariable String category,
+            @RequestParam(required = false) String fields) {
+        return stream(RecipeFilter.byCategory(category), fields);
+    }
+
     /**
      * Searches for recipes with a cooking time less than or equal to the specified number of minutes.
      * <p>
@@ -488,17 +681,69 @@ public class RecipeController {
      * </ul>
      *
      * @param minutes The maximum cooking time in minutes.
+     * @param strategy Optional {@link QueryStrategy} for the cross-category query ({@code FAN_OUT} or
+     * {@code UNION_WITH}); the configured default if omitted.
+     * @param fields Optional sparse fieldset: comma-separated recipe fields, or {@code summary}.
      * @return A {@link ResponseEntity} containing a list of matching {@link Recipe} objects.
-     * @see RecipeService#searchRecipesByCookingTime(Integer)
+     * @see RecipeService#searchRecipesByCookingTime(Integer, QueryStrategy)
      */
     @GetMapping("/search/cookingTime/{minutes}")
     @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
     public ResponseEntity<List<Recipe>> searchRecipesByCookingTime(
-            @PathVariable Integer minutes) {
-        List<Recipe> recipes = recipeService.searchRecipesByCookingTime(minutes);
+            @PathVariable Integer minutes,
+            @RequestParam(required = false) QueryStrategy strategy,
+            @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return list(RecipeFilter.byMaxCookingTime(minutes), strategy, null, fields);
+        }
+        List<Recipe> recipes = strategy == null
+                ? recipeService.searchRecipesByCookingTime(minutes)
+                : recipeService.searchRecipesByCookingTime(minutes, strategy);
         return ResponseEntity.ok(recipes);
     }
 
+    /**
+     * Paginated form of {@link #searchRecipesByCookingTime(Integer, QueryStrategy, String)}.
+     * <p>
+     * HTTP Method: GET
+     * Path: /api/recipes/search/cookingTime/{minutes}?size={size}&amp;cursor={cursor}
+     * </p>
+     *
+     * @param minutes The maximum cooking time in minutes.
+     * @param size The maximum number of recipes on the page.
+     * @param cursor The {@code nextCursor} of the previous page; omitted for the first page.
+     * @param fields Optional sparse fieldset: comma-separated recipe fields, or {@code summary}.
+     * @return A {@link ResponseEntity} containing the page of matching recipes.
+     */
+    @GetMapping(value = "/search/cookingTime/{minutes}", params = "size")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<RecipeResponse> searchRecipesByCookingTimePage(
+            @PathVariable Integer minutes,
+            @RequestParam int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String fields) {
+        return page(RecipeFilter.byMaxCookingTime(minutes), size, cursor, fields);
+    }
+
+    /**
+     * Streaming form of {@link #searchRecipesByCookingTime(Integer, QueryStrategy, String)}.
+     * <p>
+     * HTTP Method: GET
+     * Path: /api/recipes/search/cookingTime/{minutes} with {@code Accept: application/x-ndjson}
+     * </p>
+     *
+     * @param minutes The maximum cooking time in minutes.
+     * @param fields Optional sparse fieldset: comma-separated recipe fields, or {@code summary}.
+     * @return A {@link ResponseEntity} streaming the matching recipes as NDJSON.
+     */
+    @GetMapping(value = "/search/cookingTime/{minutes}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<StreamingResponseBody> streamRecipesByCookingTime(
+            @PathVariable Integer minutes,
+            @RequestParam(required = false) String fields) {
+        return stream(RecipeFilter.byMaxCookingTime(minutes), fields);
+    }
+
     /**
      * Searches for recipes containing a specific ingredient.
      * <p>
@@ -519,17 +764,244 @@ public class RecipeController {
      * </ul>
      *
      * @param ingredient The ingredient to search for.
+     * @param strategy Optional {@link QueryStrategy} for the cross-category query ({@code FAN_OUT} or
+     * {@code UNION_WITH}); the configured default if omitted.
+     * @param fields Optional sparse fieldset: comma-separated recipe fields, or {@code summary}.
      * @return A {@link ResponseEntity} containing a list of matching {@link Recipe} objects.
-     * @see RecipeService#searchRecipesByIngredient(String)
+     * @see RecipeService#searchRecipesByIngredient(String, QueryStrategy)
      */
     @GetMapping("/search/ingredient/{ingredient}")
     @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
     public ResponseEntity<List<Recipe>> searchRecipesByIngredient(
-            @PathVariable String ingredient) {
-        List<Recipe> recipes = recipeService.searchRecipesByIngredient(ingredient);
+            @PathVariable String ingredient,
+            @RequestParam(required = false) QueryStrategy strategy,
+            @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return list(RecipeFilter.byIngredient(ingredient), strategy, null, fields);
+        }
+        List<Recipe> recipes = strategy == null
+                ? recipeService.searchRecipesByIngredient(ingredient)
+                : recipeService.searchRecipesByIngredient(ingredient, strategy);
         return ResponseEntity.ok(recipes);
     }
 
+    /**
+     * Paginated form of {@link #searchRecipesByIngredient(String, QueryStrategy, String)}.
+     * <p>
+     * HTTP Method: GET
+     * Path: /api/recipes/search/ingredient/{ingredient}?size={size}&amp;cursor={cursor}
+     * </p>
+     *
+     * @param ingredient The ingredient to search for.
+     * @param size The maximum number of recipes on the page.
+     * @param cursor The {@code nextCursor} of the previous page; omitted for the first page.
+     * @param fields Optional sparse fieldset: comma-separated recipe fields, or {@code summary}.
+     * @return A {@link ResponseEntity} containing the page of matching recipes.
+     */
+    @GetMapping(value = "/search/ingredient/{ingredient}", params = "size")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<RecipeResponse> searchRecipesByIngredientPage(
+            @PathVariable String ingredient,
+            @RequestParam int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String fields) {
+        return page(RecipeFilter.byIngredient(ingredient), size, cursor, fields);
+    }
+
+    /**
+     * Streaming form of {@link #searchRecipesByIngredient(String, QueryStrategy, String)}.
+     * <p>
+     * HTTP Method: GET
+     * Path: /api/recipes/search/ingredient/{ingredient} with {@code Accept: application/x-ndjson}
+     * </p>
+     *
+     * @param ingredient The ingredient to search for.
+     * @param fields Optional sparse fieldset: comma-separated recipe fields, or {@code summary}.
+     * @return A {@link ResponseEntity} streaming the matching recipes as NDJSON.
+     */
+    @GetMapping(value = "/search/ingredient/{ingredient}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<StreamingResponseBody> streamRecipesByIngredient(
+            @PathVariable String ingredient,
+            @RequestParam(required = false) String fields) {
+        return stream(RecipeFilter.byIngredient(ingredient), fields);
+    }
+
+    /**
+     * Finds the recipes using all, or any, of the given ingredients.
+     * <p>
+     * Ingredients are compared by their normalized name, without quantity or unit, ignoring case and simple
+     * plurals: {@code name=2 cups flour} and {@code name=Flour} find the same recipes, but {@code name=egg} does
+     * not find "eggplant" (use {@code /search/ingredient/{ingredient}} for a partial match). Requires USER or
+     * ADMIN role.
+     * </p>
+     * HTTP Method: GET
+     * Path: /api/recipes/search/ingredients?name={ingredient}&amp;name={ingredient}&amp;match={all|any}
+     * <p>
+     * Query Parameters:
+     * <ul>
+     * <li>{@code name} (String, repeatable): An ingredient to look for.</li>
+     * <li>{@code match} (String, optional): {@code all} (default) for the recipes using every ingredient,
+     * {@code any} for those using at least one.</li>
+     * </ul>
+     * Example: {@code /api/recipes/search/ingredients?name=eggs&name=pancetta&match=all}
+     * <p>
+     * Response:
+     * <ul>
+     * <li>200 OK: Returns the matching {@link Recipe} objects. The list may be empty.</li>
+     * <li>400 Bad Request: If {@code name} is missing or {@code match} is neither {@code all} nor {@code any}.</li>
+     * <li>401 Unauthorized: If the user is not authenticated.</li>
+     * <li>403 Forbidden: If the authenticated user does not have the required role.</li>
+     * </ul>
+     *
+     * @param name The ingredients to look for.
+     * @param match {@code all} or {@code any}.
+     * @return A {@link ResponseEntity} containing the matching recipes.
+     * @see RecipeService#searchRecipesByIngredientKeys(List, boolean)
+     */
+    @GetMapping("/search/ingredients")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<List<Recipe>> searchRecipesByIngredientKeys(
+            @RequestParam List<String> name,
+            @RequestParam(defaultValue = "all") String match) {
+        if (!match.equalsIgnoreCase("all") && !match.equalsIgnoreCase("any")) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(recipeService.searchRecipesByIngredientKeys(name, match.equalsIgnoreCase("all")));
+    }
+
+    /**
+     * Searches the title, ingredients and instructions of all recipes for words, returning the most relevant first.
+     * <p>
+     * Words are matched by their stem and case-insensitively, through the text index of every recipe collection;
+     * a match in the title ranks higher than one in the ingredients, which ranks higher than one in the
+     * instructions. Each returned recipe carries its relevance in {@code score}. Requires USER or ADMIN role.
+     * </p>
+     * HTTP Method: GET
+     * Path: /api/recipes/search/text?q={text}&amp;limit={limit}
+     * <p>
+     * Query Parameters:
+     * <ul>
+     * <li>{@code q} (String): The words to search for. A recipe matches any of them; {@code "olive oil"} (quoted)
+     * must appear as a phrase and {@code -curry} must not appear.</li>
+     * <li>{@code limit} (Integer, optional): The maximum number of recipes, 20 by default and at most
+     * {@value #MAX_PAGE_SIZE}.</li>
+     * </ul>
+     * Example: {@code /api/recipes/search/text?q=chicken garlic -curry&limit=10}
+     * <p>
+     * Response:
+     * <ul>
+     * <li>200 OK: Returns the matching {@link Recipe} objects by decreasing score. The list may be empty.</li>
+     * <li>400 Bad Request: If {@code q} is missing or blank.</li>
+     * <li>401 Unauthorized: If the user is not authenticated.</li>
+     * <li>403 Forbidden: If the authenticated user does not have the required role.</li>
+     * </ul>
+     *
+     * @param q The words to search for.
+     * @param limit The maximum number of recipes to return.
+     * @return A {@link ResponseEntity} containing the matching recipes, most relevant first.
+     * @see RecipeService#searchRecipesByText(String, int)
+     */
+    @GetMapping("/search/text")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<List<Recipe>> searchRecipesByText(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "20") int limit) {
+        if (q.isBlank()) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(recipeService.searchRecipesByText(q.trim(), Math.max(1, Math.min(limit, MAX_PAGE_SIZE))));
+    }
+
+    /**
+     * Finds the recipes that can be cooked with the given ingredients, or with few more ("cook with what I have").
+     * <p>
+     * Ingredients are compared by their normalized name, as in {@code /search/ingredients}. Recipes that can be
+     * cooked with the given ingredients come first, then those missing one ingredient, and so on; each result
+     * lists the ingredients it misses. Requires USER or ADMIN role.
+     * </p>
+     * HTTP Method: GET
+     * Path: /api/recipes/search/pantry?name={ingredient}&amp;name={ingredient}&amp;maxMissing={n}&amp;limit={limit}
+     * <p>
+     * Query Parameters:
+     * <ul>
+     * <li>{@code name} (String, repeatable): An ingredient in the pantry.</li>
+     * <li>{@code maxMissing} (Integer, optional): The largest number of missing ingredients of a returned recipe,
+     * 2 by default; {@code 0} for the recipes that can be cooked right away.</li>
+     * <li>{@code limit} (Integer, optional): The maximum number of recipes, 20 by default and at most
+     * {@value #MAX_PAGE_SIZE}.</li>
+     * </ul>
+     * Example: {@code /api/recipes/search/pantry?name=eggs&name=flour&name=milk&maxMissing=1}
+     * <p>
+     * Response:
+     * <ul>
+     * <li>200 OK: Returns the matching recipes as {@link PantryMatch} objects, best first. The list may be empty.</li>
+     * <li>400 Bad Request: If {@code name} is missing or {@code maxMissing} is negative.</li>
+     * <li>401 Unauthorized: If the user is not authenticated.</li>
+     * <li>403 Forbidden: If the authenticated user does not have the required role.</li>
+     * </ul>
+     *
+     * @param name The ingredients in the pantry.
+     * @param maxMissing The largest number of missing ingredients of a returned recipe.
+     * @param limit The maximum number of recipes to return.
+     * @return A {@link ResponseEntity} containing the matching recipes, best first.
+     * @see RecipeService#findRecipesByPantry(List, int, int)
+     */
+    @GetMapping("/search/pantry")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<List<PantryMatch>> findRecipesByPantry(
+            @RequestParam List<String> name,
+            @RequestParam(defaultValue = "2") int maxMissing,
+            @RequestParam(defaultValue = "20") int limit) {
+        if (maxMissing < 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(recipeService.findRecipesByPantry(name, maxMissing, Math.max(1, Math.min(limit, MAX_PAGE_SIZE))));
+    }
+
+    /**
+     * Suggests recipe titles, categories and ingredients starting with the typed text, for autocomplete.
+     * <p>
+     * Suggestions are matched case-insensitively at the start of the title, category or ingredient name, and
+     * ranked by the number of recipes they apply to. They are served from memory, so this endpoint can be called
+     * on every keystroke. Requires USER or ADMIN role.
+     * </p>
+     * HTTP Method: GET
+     * Path: /api/recipes/suggest?prefix={text}&amp;limit={limit}
+     * <p>
+     * Query Parameters:
+     * <ul>
+     * <li>{@code prefix} (String): The typed text.</li>
+     * <li>{@code limit} (Integer, optional): The maximum number of suggestions, 10 by default; larger values are
+     * capped at {@code recipe.search-index.suggestions-per-prefix}, so the results do not change once the search
+     * index is ready.</li>
+     * </ul>
+     * Example: {@code /api/recipes/suggest?prefix=choc}
+     * <p>
+     * Response:
+     * <ul>
+     * <li>200 OK: Returns the {@link Suggestion} objects, most frequent first. The list may be empty.</li>
+     * <li>400 Bad Request: If {@code prefix} is missing or blank.</li>
+     * <li>401 Unauthorized: If the user is not authenticated.</li>
+     * <li>403 Forbidden: If the authenticated user does not have the required role.</li>
+     * </ul>
+     *
+     * @param prefix The typed text.
+     * @param limit The maximum number of suggestions.
+     * @return A {@link ResponseEntity} containing the suggestions, most frequent first.
+     * @see RecipeService#suggest(String, int)
+     */
+    @GetMapping("/suggest")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<List<Suggestion>> suggest(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit) {
+        if (prefix.isBlank()) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(recipeService.suggest(prefix, Math.max(1, Math.min(limit, maxSuggestions))));
+    }
+
     /**
      * Performs an advanced search for recipes based on multiple optional criteria.
      * <p>
@@ -546,8 +1018,11 @@ public class RecipeController {
      * <li>{@code category} (String): Category name to filter by.
      * <li>{@code maxCookingTime} (Integer): Maximum cooking time in minutes.
      * <li>{@code ingredient} (String): Ingredient name or keyword to search for.
+     * <li>{@code strategy} ({@link QueryStrategy}): How a search across all categories is executed.
+     * <li>{@code limit} (Integer): Return only the first {@code limit} matches, ordered by recipe ID.
      * </ul>
      * Example: {@code /api/recipes/search/advanced?title=chicken&category=Main Course&maxCookingTime=60}
+     * or {@code /api/recipes/search/advanced?ingredient=garlic&strategy=UNION_WITH&limit=20}
      * <p>
      * Response:
      * <ul>
@@ -561,8 +1036,11 @@ public class RecipeController {
      * @param category Optional category name.
      * @param maxCookingTime Optional maximum cooking time in minutes.
      * @param ingredient Optional ingredient keyword.
+     * @param strategy Optional strategy for a search across all categories.
+     * @param limit Optional maximum number of results.
+     * @param fields Optional sparse fieldset: comma-separated recipe fields, or {@code summary}.
      * @return A {@link ResponseEntity} containing a list of matching {@link Recipe} objects.
-     * @see RecipeService#advancedSearch(String, String, Integer, String)
+     * @see RecipeService#advancedSearch(String, String, Integer, String, QueryStrategy, Integer)
      */
     @GetMapping("/search/advanced")
     @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
@@ -570,12 +1048,74 @@ public class RecipeController {
             @RequestParam(required = false) String title,
             @RequestParam(required = false) String category,
             @RequestParam(required = false) Integer maxCookingTime,
-            @RequestParam(required = false) String ingredient) {
+            @RequestParam(required = false) String ingredient,
+            @RequestParam(required = false) QueryStrategy strategy,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return list(new RecipeFilter(title, category, maxCookingTime, ingredient, null), strategy, limit, fields);
+        }
 
-        List<Recipe> recipes = recipeService.advancedSearch(title, category, maxCookingTime, ingredient);
+        List<Recipe> recipes = (strategy == null && limit == null)
+                ? recipeService.advancedSearch(title, category, maxCookingTime, ingredient)
+                : recipeService.advancedSearch(title, category, maxCookingTime, ingredient, strategy, limit);
         return ResponseEntity.ok(recipes);
     }
 
+    /**
+     * Paginated form of {@link #advancedSearch(String, String, Integer, String, QueryStrategy, Integer, String)}.
+     * <p>
+     * HTTP Method: GET
+     * Path: /api/recipes/search/advanced?size={size}&amp;cursor={cursor}&amp;title=...
+     * </p>
+     *
+     * @param title Optional title keyword.
+     * @param category Optional category name.
+     * @param maxCookingTime Optional maximum cooking time in minutes.
+     * @param ingredient Optional ingredient keyword.
+     * @param size The maximum number of recipes on the page.
+     * @param cursor The {@code nextCursor} of the previous page; omitted for the first page.
+     * @param fields Optional sparse fieldset: comma-separated recipe fields, or {@code summary}.
+     * @return A {@link ResponseEntity} containing the page of matching recipes.
+     */
+    @GetMapping(value = "/search/advanced", params = "size")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<RecipeResponse> advancedSearchPage(
+            @RequestParam(required = false) String title,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) Integer maxCookingTime,
+            @RequestParam(required = false) String ingredient,
+            @RequestParam int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String fields) {
+        return page(new RecipeFilter(title, category, maxCookingTime, ingredient, null), size, cursor, fields);
+    }
+
+    /**
+     * Streaming form of {@link #advancedSearch(String, String, Integer, String, QueryStrategy, Integer, String)}.
+     * <p>
+     * HTTP Method: GET
+     * Path: /api/recipes/search/advanced?title=... with {@code Accept: application/x-ndjson}
+     * </p>
+     *
+     * @param title Optional title keyword.
+     * @param category Optional category name.
+     * @param maxCookingTime Optional maximum cooking time in minutes.
+     * @param ingredient Optional ingredient keyword.
+     * @param fields Optional sparse fieldset: comma-separated recipe fields, or {@code summary}.
+     * @return A {@link ResponseEntity} streaming the matching recipes as NDJSON.
+     */
+    @GetMapping(value = "/search/advanced", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<StreamingResponseBody> streamAdvancedSearch(
+            @RequestParam(required = false) String title,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) Integer maxCookingTime,
+            @RequestParam(required = false) String ingredient,
+            @RequestParam(required = false) String fields) {
+        return stream(new RecipeFilter(title, category, maxCookingTime, ingredient, null), fields);
+    }
+
     /**
      * Retrieves all recipes created by the currently authenticated user.
      * <p>
@@ -592,24 +1132,56 @@ public class RecipeController {
      * as both USER and ADMIN can access their own recipes).</li>
      * </ul>
      *
+     * @param strategy Optional {@link QueryStrategy} for the cross-category query ({@code FAN_OUT} or
+     * {@code UNION_WITH}); the configured default if omitted.
+     * @param fields Optional sparse fieldset: comma-separated recipe fields, or {@code summary}.
      * @return A {@link ResponseEntity} containing a list of the authenticated user's {@link Recipe} objects.
-     * @see RecipeService#getRecipesByUser(String)
+     * @see RecipeService#getRecipesByUser(String, QueryStrategy)
      */
     @GetMapping("/my-recipes")
     @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
-    public ResponseEntity<List<Recipe>> getMyRecipes() {
+    public ResponseEntity<List<Recipe>> getMyRecipes(
+            @RequestParam(required = false) QueryStrategy strategy,
+            @RequestParam(required = false) String fields) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         String username = authentication.getName();
+        if (fields != null) {
+            return list(RecipeFilter.byCreator(username), strategy, null, fields);
+        }
 
-        List<Recipe> myRecipes = recipeService.getRecipesByUser(username);
+        List<Recipe> myRecipes = strategy == null
+                ? recipeService.getRecipesByUser(username)
+                : recipeService.getRecipesByUser(username, strategy);
         return ResponseEntity.ok(myRecipes);
     }
 
+    /**
+     * Paginated form of {@link #getMyRecipes(QueryStrategy, String)}.
+     * <p>
+     * HTTP Method: GET
+     * Path: /api/recipes/my-recipes?size={size}&amp;cursor={cursor}
+     * </p>
+     *
+     * @param size The maximum number of recipes on the page.
+     * @param cursor The {@code nextCursor} of the previous page; omitted for the first page.
+     * @param fields Optional sparse fieldset: comma-separated recipe fields, or {@code summary}.
+     * @return A {@link ResponseEntity} containing the page of the authenticated user's recipes.
+     */
+    @GetMapping(value = "/my-recipes", params = "size")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<RecipeResponse> getMyRecipesPage(
+            @RequestParam int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String fields) {
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        return page(RecipeFilter.byCreator(username), size, cursor, fields);
+    }
+
     /**
      * Retrieves all recipes in the system. This is an admin-only endpoint.
      * <p>
      * This endpoint provides a comprehensive list of all recipes, potentially for administrative purposes.
-     * It differs from {@link #getAllRecipes()} in its authorization requirement (ADMIN role only).
+     * It differs from {@link #getAllRecipes(QueryStrategy, String)} in its authorization requirement (ADMIN role only).
      * Requires ADMIN role.
      * </p>
      * HTTP Method: GET
@@ -622,13 +1194,123 @@ public class RecipeController {
      * <li>403 Forbidden: If the authenticated user does not have the ADMIN role.</li>
      * </ul>
      *
+     * @param fields Optional sparse fieldset: comma-separated recipe fields, or {@code summary}.
      * @return A {@link ResponseEntity} containing a list of all {@link Recipe} objects in the system.
      * @see RecipeService#getAllRecipes()
      */
     @GetMapping("/admin/all")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<Recipe>> adminGetAllRecipes() {
+    public ResponseEntity<List<Recipe>> adminGetAllRecipes(@RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return list(RecipeFilter.all(), null, null, fields);
+        }
         List<Recipe> recipes = recipeService.getAllRecipes(); // Same service method as public getAllRecipes
         return ResponseEntity.ok(recipes);
     }
+
+    /**
+     * Paginated form of {@link #adminGetAllRecipes(String)}.
+     * <p>
+     * HTTP Method: GET
+     * Path: /api/recipes/admin/all?size={size}&amp;cursor={cursor}
+     * </p>
+     *
+     * @param size The maximum number of recipes on the page.
+     * @param cursor The {@code nextCursor} of the previous page; omitted for the first page.
+     * @param fields Optional sparse fieldset: comma-separated recipe fields, or {@code summary}.
+     * @return A {@link ResponseEntity} containing the page of all recipes.
+     */
+    @GetMapping(value = "/admin/all", params = "size")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<RecipeResponse> adminGetAllRecipesPage(
+            @RequestParam int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String fields) {
+        return page(RecipeFilter.all(), size, cursor, fields);
+    }
+
+    /**
+     * Tells whether the authenticated user is an administrator, who may modify any recipe.
+     *
+     * @param authentication The authentication of the current user.
+     * @return {@code true} if the user has the ADMIN role.
+     */
+    private static boolean isAdmin(Authentication authentication) {
+        return authentication.getAuthorities().stream()
+                .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
+    }
+
+    /**
+     * Reads one page through the {@link RecipeService}, keeping the page size between 1 and {@value #MAX_PAGE_SIZE}.
+     *
+     * @param filter The filter of the endpoint.
+     * @param size The requested page size.
+     * @param cursor The cursor sent by the client, or {@code null}.
+     * @param fields The {@code fields} parameter sent by the client, or {@code null} for all fields.
+     * @return A {@link ResponseEntity} containing the page and HTTP status 200 (OK).
+     */
+    private ResponseEntity<RecipeResponse> page(RecipeFilter filter, int size, String cursor, String fields) {
+        RecipeProjection projection = RecipeProjection.parse(fields);
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        RecipeResponse page = recipeService.findRecipesPage(filter.withProjection(projection), pageSize, cursor);
+        if (projection != null) {
+            page.getContent().forEach(projection::strip);
+        }
+        return ResponseEntity.ok(page);
+    }
+
+    /**
+     * Reads a sparse list of recipes through the {@link RecipeService}.
+     *
+     * @param filter The filter of the endpoint.
+     * @param strategy The cross-category strategy, or {@code null} for the configured default.
+     * @param limit The maximum number of recipes, or {@code null}.
+     * @param fields The {@code fields} parameter sent by the client.
+     * @return A {@link ResponseEntity} containing the recipes, holding only the requested fields.
+     */
+    private ResponseEntity<List<Recipe>> list(RecipeFilter filter, QueryStrategy strategy, Integer limit, String fields) {
+        RecipeProjection projection = RecipeProjection.parse(fields);
+        List<Recipe> recipes = recipeService.findRecipes(filter.withProjection(projection), strategy, limit);
+        if (projection != null) {
+            recipes.forEach(projection::strip);
+        }
+        return ResponseEntity.ok(recipes);
+    }
+
+    /**
+     * Streams the recipes matching a filter as newline-delimited JSON.
+     * <p>
+     * The response is written on an MVC async thread once this method has returned. The output is flushed
+     * after the first recipe, so the client sees data immediately; after that, the servlet container flushes
+     * whenever its buffer fills. A client disconnect fails the next write and closes the database cursor.
+     * </p>
+     *
+     * @param filter The filter of the endpoint.
+     * @param fields The {@code fields} parameter sent by the client, or {@code null} for all fields.
+     * @return A {@link ResponseEntity} with content type {@code application/x-ndjson}.
+     */
+    private ResponseEntity<StreamingResponseBody> stream(RecipeFilter filter, String fields) {
+        RecipeProjection projection = RecipeProjection.parse(fields);
+        RecipeFilter projectedFilter = filter.withProjection(projection);
+        StreamingResponseBody body = outputStream -> {
+            AtomicBoolean flushed = new AtomicBoolean();
+            try {
+                recipeService.streamRecipes(projectedFilter, recipe -> {
+                    try {
+                        outputStream.write(objectMapper.writeValueAsBytes(projection != null ? projection.strip(recipe) : recipe));
+                        outputStream.write('\n');
+                        if (flushed.compareAndSet(false, true)) {
+                            outputStream.flush();
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            outputStream.flush();
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,133 @@
+package com.example.recipeoop_1.dto;
+
+import com.example.recipeoop_1.model.Recipe;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) for a recipe found by a pantry search, with how well the pantry covers it.
+ * <p>
+ * Ingredients are compared by their normalized key (e.g., "2 cups flour" counts as "flour"), so
+ * {@code missingIngredients} lists keys, not the ingredients as written in the recipe.
+ * </p>
+ *
+ * @author Elie Issa/Michel Ghazaly
+ * @version 1.0
+ * @since 2026-10-16
+ * @see com.example.recipeoop_1.service.RecipeService#findRecipesByPantry(List, int, int)
+ */
+public class PantryMatch {
+
+    /**
+     * The matching recipe.
+     */
+    private Recipe recipe;
+
+    /**
+     * The number of ingredients of the recipe that are in the pantry.
+     */
+    private int matched;
+
+    /**
+     * The number of ingredients of the recipe that are not in the pantry.
+     */
+    private int missing;
+
+    /**
+     * The keys of the ingredients of the recipe that are not in the pantry.
+     */
+    private List<String> missingIngredients;
+
+    /**
+     * Default constructor for {@link PantryMatch}.
+     * Required for frameworks like Jackson for JSON deserialization.
+     */
+    public PantryMatch() {
+    }
+
+    /**
+     * Constructs a {@link PantryMatch}.
+     *
+     * @param recipe The matching recipe.
+     * @param matched The number of ingredients of the recipe that are in the pantry.
+     * @param missingIngredients The keys of the ingredients of the recipe that are not in the pantry.
+     */
+    public PantryMatch(Recipe recipe, int matched, List<String> missingIngredients) {
+        this.recipe = recipe;
+        this.matched = matched;
+        this.missing = missingIngredients.size();
+        this.missingIngredients = missingIngredients;
+    }
+
+    /**
+     * Gets the matching recipe.
+     *
+     * @return The {@link Recipe}.
+     */
+    public Recipe getRecipe() {
+        return recipe;
+    }
+
+    /**
+     * Sets the matching recipe.
+     *
+     * @param recipe The {@link Recipe} to set.
+     */
+    public void setRecipe(Recipe recipe) {
+        this.recipe = recipe;
+    }
+
+    /**
+     * Gets the number of ingredients of the recipe that are in the pantry.
+     *
+     * @return The number of matched ingredients.
+     */
+    public int getMatched() {
+        return matched;
+    }
+
+    /**
+     * Sets the number of ingredients of the recipe that are in the pantry.
+     *
+     * @param matched The number of matched ingredients.
+     */
+    public void setMatched(int matched) {
+        this.matched = matched;
+    }
+
+    /**
+     * Gets the number of ingredients of the recipe that are not in the pantry.
+     *
+     * @return The number of missing ingredients; {@code 0} if the recipe can be cooked.
+     */
+    public int getMissing() {
+        return missing;
+    }
+
+    /**
+     * Sets the number of ingredients of the recipe that are not in the pantry.
+     *
+     * @param missing The number of missing ingredients.
+     */
+    public void setMissing(int missing) {
+        this.missing = missing;
+    }
+
+    /**
+     * Gets the keys of the ingredients of the recipe that are not in the pantry.
+     *
+     * @return The missing ingredient keys, in the order of the recipe's ingredients.
+     */
+    public List<String> getMissingIngredients() {
+        return missingIngredients;
+    }
+
+    /**
+     * Sets the keys of the ingredients of the recipe that are not in the pantry.
+     *
+     * @param missingIngredients The missing ingredient keys.
+     */
+    public void setMissingIngredients(List<String> missingIngredients) {
+        this.missingIngredients = missingIngredients;
+    }
+}
@@ -13,9 +13,14 @@ import java.util.List;
  * that return recipes with pagination details such as page number, page size,
  * total elements, and total pages.
  * </p>
+ * <p>
+ * Pages read with a cursor (see {@link #fromKeyset(List, int, int, String)}) carry a {@code nextCursor}
+ * token instead of totals: counting all matches would cost as much as reading them, so
+ * {@code totalElements} and {@code totalPages} are {@code -1} for such pages.
+ * </p>
  *
  * @author Elie Issa/Michel Ghazaly
- * @version 1.0
+ * @version 1.1
  * @since 2025-05-14
  * @see com.example.recipeoop_1.model.Recipe
  * @see org.springframework.data.domain.Page
@@ -59,6 +64,12 @@ public class RecipeResponse {
     // @Schema(description = "Is last page") // Removed
     private boolean last;
 
+    /**
+     * The opaque token to pass as {@code cursor} to fetch the next page, or {@code null} if this is the last page
+     * or the page was not read with a cursor.
+     */
+    private String nextCursor;
+
     /**
      * Default constructor for {@link RecipeResponse}.
      * Required for frameworks like Jackson for JSON deserialization, although this class
@@ -114,6 +125,21 @@ public class RecipeResponse {
         );
     }
 
+    /**
+     * Static factory method to create a {@link RecipeResponse} for a page read with a cursor.
+     *
+     * @param content The recipes of the page.
+     * @param pageNo The page number (0-indexed).
+     * @param pageSize The requested page size.
+     * @param nextCursor The token of the next page, or {@code null} if this is the last page.
+     * @return A new {@link RecipeResponse} whose totals are {@code -1} (not computed).
+     */
+    public static RecipeResponse fromKeyset(List<Recipe> content, int pageNo, int pageSize, String nextCursor) {
+        RecipeResponse response = new RecipeResponse(content, pageNo, pageSize, -1, -1, nextCursor == null);
+        response.setNextCursor(nextCursor);
+        return response;
+    }
+
     // Getters and Setters
 
     /**
@@ -223,4 +249,22 @@ public class RecipeResponse {
     public void setLast(boolean last) {
         this.last = last;
     }
+
+    /**
+     * Gets the token of the next page.
+     *
+     * @return The opaque cursor of the next page, or {@code null} if there is none.
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    /**
+     * Sets the token of the next page.
+     *
+     * @param nextCursor The opaque cursor of the next page, or {@code null} if there is none.
+     */
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,102 @@
+package com.example.recipeoop_1.dto;
+
+/**
+ * Data Transfer Object (DTO) for one autocomplete suggestion: a recipe title, an ingredient or a category
+ * starting with the typed prefix.
+ *
+ * @author Elie Issa/Michel Ghazaly
+ * @version 1.0
+ * @since 2026-10-16
+ * @see com.example.recipeoop_1.service.RecipeService#suggest(String, int)
+ */
+public class Suggestion {
+
+    /**
+     * The suggested text, e.g. "Pasta Carbonara".
+     */
+    private String text;
+
+    /**
+     * What the text is: {@code title}, {@code ingredient} or {@code category}.
+     */
+    private String type;
+
+    /**
+     * The number of recipes with this title, using this ingredient, or in this category.
+     */
+    private int recipes;
+
+    /**
+     * Default constructor for {@link Suggestion}.
+     * Required for frameworks like Jackson for JSON deserialization.
+     */
+    public Suggestion() {
+    }
+
+    /**
+     * Constructs a {@link Suggestion}.
+     *
+     * @param text The suggested text.
+     * @param type {@code title}, {@code ingredient} or {@code category}.
+     * @param recipes The number of recipes the suggestion applies to.
+     */
+    public Suggestion(String text, String type, int recipes) {
+        this.text = text;
+        this.type = type;
+        this.recipes = recipes;
+    }
+
+    /**
+     * Gets the suggested text.
+     *
+     * @return The text.
+     */
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * Sets the suggested text.
+     *
+     * @param text The text to set.
+     */
+    public void setText(String text) {
+        this.text = text;
+    }
+
+    /**
+     * Gets what the text is.
+     *
+     * @return {@code title}, {@code ingredient} or {@code category}.
+     */
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * Sets what the text is.
+     *
+     * @param type {@code title}, {@code ingredient} or {@code category}.
+     */
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    /**
+     * Gets the number of recipes the suggestion applies to, by which suggestions are ranked.
+     *
+     * @return The number of recipes.
+     */
+    public int getRecipes() {
+        return recipes;
+    }
+
+    /**
+     * Sets the number of recipes the suggestion applies to.
+     *
+     * @param recipes The number of recipes.
+     */
+    public void setRecipes(int recipes) {
+        this.recipes = recipes;
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.recipeoop_1.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Custom runtime exception thrown when a query that spans several category collections
+ * cannot be completed.
+ * <p>
+ * This happens when one of the per-category queries fails, when the combined query exceeds
+ * its time budget, or when the query pool rejects the work. Partial results are never returned
+ * in these cases, so the client receives an HTTP 503 Service Unavailable response instead of
+ * an incomplete list.
+ * </p>
+ *
+ * @author Elie Issa/Michel Ghazaly
+ * @version 1.0
+ * @since 2026-10-16
+ * @see GlobalExceptionHandler#handleCategoryQueryException(CategoryQueryException, org.springframework.web.context.request.WebRequest)
+ * @see com.example.recipeoop_1.service.CategoryFanOutExecutor
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE) // Maps this exception to HTTP 503 Service Unavailable
+public class CategoryQueryException extends RuntimeException {
+
+    /**
+     * Constructs a new {@code CategoryQueryException} with the specified detail message.
+     *
+     * @param message The detail message explaining why the cross-category query failed.
+     */
+    public CategoryQueryException(String message) {
+        super(message);
+    }
+
+    /**
+     * Constructs a new {@code CategoryQueryException} with the specified detail message and cause.
+     *
+     * @param message The detail message explaining why the cross-category query failed.
+     * @param cause The underlying failure of the per-category query, if any.
+     */
+    public CategoryQueryException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
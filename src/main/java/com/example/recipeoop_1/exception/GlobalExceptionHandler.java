@@ -68,6 +68,104 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
         return new ResponseEntity<>(errorDetails, HttpStatus.NOT_FOUND);
     }
 
+    /**
+     * Handles {@link CategoryQueryException} specifically.
+     * <p>
+     * This method is invoked when a query spanning several category collections fails or
+     * runs out of time. It returns a 503 Service Unavailable HTTP status with a standardized
+     * {@link ErrorDetails} body, so clients can retry instead of receiving a partial result.
+     * </p>
+     *
+     * @param exception The {@link CategoryQueryException} instance that was thrown.
+     * @param request The current {@link WebRequest} providing context about the request.
+     * @return A {@link ResponseEntity} containing {@link ErrorDetails} and HTTP status 503 (Service Unavailable).
+     */
+    @ExceptionHandler(CategoryQueryException.class)
+    public ResponseEntity<ErrorDetails> handleCategoryQueryException(
+            CategoryQueryException exception, WebRequest request) {
+
+        ErrorDetails errorDetails = new ErrorDetails(
+                new Date(),
+                exception.getMessage(),
+                request.getDescription(false));
+
+        logger.warn("Cross-category query failed: " + exception.getMessage(), exception);
+
+        return new ResponseEntity<>(errorDetails, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    /**
+     * Handles {@link InvalidCursorException} specifically.
+     * <p>
+     * This method is invoked when a client sends a pagination cursor that cannot be decoded.
+     * It returns a 400 Bad Request HTTP status with a standardized {@link ErrorDetails} body.
+     * </p>
+     *
+     * @param exception The {@link InvalidCursorException} instance that was thrown.
+     * @param request The current {@link WebRequest} providing context about the request.
+     * @return A {@link ResponseEntity} containing {@link ErrorDetails} and HTTP status 400 (Bad Request).
+     */
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<ErrorDetails> handleInvalidCursorException(
+            InvalidCursorException exception, WebRequest request) {
+
+        ErrorDetails errorDetails = new ErrorDetails(
+                new Date(),
+                exception.getMessage(),
+                request.getDescription(false));
+
+        return new ResponseEntity<>(errorDetails, HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Handles {@link InvalidFieldsException} specifically.
+     * <p>
+     * This method is invoked when the {@code fields} parameter of a list endpoint names an unknown field.
+     * It returns a 400 Bad Request HTTP status with a standardized {@link ErrorDetails} body.
+     * </p>
+     *
+     * @param exception The {@link InvalidFieldsException} instance that was thrown.
+     * @param request The current {@link WebRequest} providing context about the request.
+     * @return A {@link ResponseEntity} containing {@link ErrorDetails} and HTTP status 400 (Bad Request).
+     */
+    @ExceptionHandler(InvalidFieldsException.class)
+    public ResponseEntity<ErrorDetails> handleInvalidFieldsException(
+            InvalidFieldsException exception, WebRequest request) {
+
+        ErrorDetails errorDetails = new ErrorDetails(
+                new Date(),
+                exception.getMessage(),
+                request.getDescription(false));
+
+        return new ResponseEntity<>(errorDetails, HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Handles {@link TooManyRequestsException} specifically.
+     * <p>
+     * This method is invoked when a request is rejected because the server is at capacity.
+     * It returns a 429 Too Many Requests HTTP status with a {@code Retry-After} header and a
+     * standardized {@link ErrorDetails} body.
+     * </p>
+     *
+     * @param exception The {@link TooManyRequestsException} instance that was thrown.
+     * @param request The current {@link WebRequest} providing context about the request.
+     * @return A {@link ResponseEntity} containing {@link ErrorDetails} and HTTP status 429 (Too Many Requests).
+     */
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<ErrorDetails> handleTooManyRequestsException(
+            TooManyRequestsException exception, WebRequest request) {
+
+        ErrorDetails errorDetails = new ErrorDetails(
+                new Date(),
+                exception.getMessage(),
+                request.getDescription(false));
+
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(exception.getRetryAfterSeconds()))
+                .body(errorDetails);
+    }
+
     /**
      * Handles all other unCaught {@link Exception} instances as a fallback.
      * <p>
@@ -0,0 +1,40 @@
+package com.example.recipeoop_1.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Custom runtime exception thrown when a pagination cursor sent by a client cannot be decoded.
+ * <p>
+ * Cursors are opaque tokens returned in the {@code nextCursor} field of a page. A token that was
+ * altered, truncated or issued by an incompatible version results in an HTTP 400 Bad Request response.
+ * </p>
+ *
+ * @author Elie Issa/Michel Ghazaly
+ * @version 1.0
+ * @since 2026-10-16
+ * @see GlobalExceptionHandler#handleInvalidCursorException(InvalidCursorException, org.springframework.web.context.request.WebRequest)
+ * @see com.example.recipeoop_1.service.RecipeCursor
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST) // Maps this exception to HTTP 400 Bad Request
+public class InvalidCursorException extends RuntimeException {
+
+    /**
+     * Constructs a new {@code InvalidCursorException} with the specified detail message.
+     *
+     * @param message The detail message explaining why the cursor was rejected.
+     */
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+
+    /**
+     * Constructs a new {@code InvalidCursorException} with the specified detail message and cause.
+     *
+     * @param message The detail message explaining why the cursor was rejected.
+     * @param cause The decoding failure.
+     */
+    public InvalidCursorException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
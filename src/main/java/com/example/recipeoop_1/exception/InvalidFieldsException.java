@@ -0,0 +1,30 @@
+package com.example.recipeoop_1.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Custom runtime exception thrown when the {@code fields} parameter of a list endpoint names a field
+ * that recipes do not have.
+ * <p>
+ * The client receives an HTTP 400 Bad Request response listing the accepted field names.
+ * </p>
+ *
+ * @author Elie Issa/Michel Ghazaly
+ * @version 1.0
+ * @since 2026-10-16
+ * @see GlobalExceptionHandler#handleInvalidFieldsException(InvalidFieldsException, org.springframework.web.context.request.WebRequest)
+ * @see com.example.recipeoop_1.service.RecipeProjection
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST) // Maps this exception to HTTP 400 Bad Request
+public class InvalidFieldsException extends RuntimeException {
+
+    /**
+     * Constructs a new {@code InvalidFieldsException} with the specified detail message.
+     *
+     * @param message The detail message naming the unknown field.
+     */
+    public InvalidFieldsException(String message) {
+        super(message);
+    }
+}
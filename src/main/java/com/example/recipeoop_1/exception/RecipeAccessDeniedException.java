@@ -0,0 +1,31 @@
+package com.example.recipeoop_1.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Custom runtime exception thrown when a user tries to modify a recipe they did not create.
+ * <p>
+ * Only the creator of a recipe and administrators may update or delete it. The recipe exists; it was left
+ * unchanged. The exception maps to an HTTP 403 Forbidden response.
+ * </p>
+ *
+ * @author Elie Issa/Michel Ghazaly
+ * @version 1.0
+ * @since 2026-10-16
+ * @see com.example.recipeoop_1.service.RecipeService#updateRecipe(String, com.example.recipeoop_1.model.Recipe, String, boolean)
+ * @see com.example.recipeoop_1.service.RecipeService#deleteRecipe(String, String, boolean)
+ */
+@ResponseStatus(HttpStatus.FORBIDDEN) // Maps this exception to HTTP 403 Forbidden
+public class RecipeAccessDeniedException extends RuntimeException {
+
+    /**
+     * Constructs a new {@code RecipeAccessDeniedException} with the specified detail message.
+     *
+     * @param message The detail message explaining the reason for the exception
+     * (e.g., "Recipe 123 belongs to another user").
+     */
+    public RecipeAccessDeniedException(String message) {
+        super(message);
+    }
+}
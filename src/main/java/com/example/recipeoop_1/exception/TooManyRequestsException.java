@@ -0,0 +1,47 @@
+package com.example.recipeoop_1.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Custom runtime exception thrown when a request is turned away because the server is at capacity.
+ * <p>
+ * The request was not processed, so the client can safely send it again. The exception carries the
+ * number of seconds after which a retry is likely to succeed; it is sent to the client in the
+ * {@code Retry-After} header of an HTTP 429 Too Many Requests response.
+ * </p>
+ *
+ * @author Elie Issa/Michel Ghazaly
+ * @version 1.0
+ * @since 2026-10-16
+ * @see GlobalExceptionHandler#handleTooManyRequestsException(TooManyRequestsException, org.springframework.web.context.request.WebRequest)
+ * @see com.example.recipeoop_1.security.LoginExecutor
+ */
+@ResponseStatus(HttpStatus.TOO_MANY_REQUESTS) // Maps this exception to HTTP 429 Too Many Requests
+public class TooManyRequestsException extends RuntimeException {
+
+    /**
+     * The number of seconds the client should wait before retrying.
+     */
+    private final long retryAfterSeconds;
+
+    /**
+     * Constructs a new {@code TooManyRequestsException} with the specified detail message and retry delay.
+     *
+     * @param message The detail message explaining why the request was rejected.
+     * @param retryAfterSeconds The number of seconds the client should wait before retrying; at least 1.
+     */
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = Math.max(1, retryAfterSeconds);
+    }
+
+    /**
+     * Gets the number of seconds the client should wait before retrying.
+     *
+     * @return The retry delay in seconds, at least 1.
+     */
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
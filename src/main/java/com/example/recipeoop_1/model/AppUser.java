@@ -0,0 +1,118 @@
+package com.example.recipeoop_1.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A user account, stored in the "users" collection.
+ * <p>
+ * The username is the document ID, so lookups during authentication use the default {@code _id}
+ * index and usernames are unique without a separate index. The password is only ever stored
+ * encoded (BCrypt, see {@link com.example.recipeoop_1.config.AppConfig#passwordEncoder()}).
+ * </p>
+ *
+ * @author Elie Issa/Michel Ghazaly
+ * @version 1.0
+ * @since 2026-10-16
+ * @see com.example.recipeoop_1.security.JwtUserDetailsService
+ */
+@Document(collection = AppUser.COLLECTION_NAME)
+public class AppUser {
+
+    /**
+     * The name of the MongoDB collection holding the user accounts.
+     */
+    public static final String COLLECTION_NAME = "users";
+
+    /**
+     * The username. Used as the document ID.
+     */
+    @Id
+    private String username;
+
+    /**
+     * The encoded password.
+     */
+    private String password;
+
+    /**
+     * The roles granted to the user (e.g., "ROLE_USER", "ROLE_ADMIN").
+     */
+    private List<String> roles = new ArrayList<>();
+
+    /**
+     * Default constructor, required by Spring Data MongoDB.
+     */
+    public AppUser() {
+    }
+
+    /**
+     * Constructs an {@code AppUser} with the given details.
+     *
+     * @param username The username.
+     * @param password The encoded password.
+     * @param roles The roles granted to the user.
+     */
+    public AppUser(String username, String password, List<String> roles) {
+        this.username = username;
+        this.password = password;
+        this.roles = roles;
+    }
+
+    /**
+     * Gets the username.
+     *
+     * @return The username.
+     */
+    public String getUsername() {
+        return username;
+    }
+
+    /**
+     * Sets the username.
+     *
+     * @param username The username.
+     */
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    /**
+     * Gets the encoded password.
+     *
+     * @return The encoded password.
+     */
+    public String getPassword() {
+        return password;
+    }
+
+    /**
+     * Sets the encoded password.
+     *
+     * @param password The encoded password.
+     */
+    public void setPassword(String password) {
+        this.password = password;
+    }
+
+    /**
+     * Gets the roles granted to the user.
+     *
+     * @return The role names.
+     */
+    public List<String> getRoles() {
+        return roles;
+    }
+
+    /**
+     * Sets the roles granted to the user.
+     *
+     * @param roles The role names.
+     */
+    public void setRoles(List<String> roles) {
+        this.roles = roles;
+    }
+}
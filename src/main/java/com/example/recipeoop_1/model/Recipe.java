@@ -1,8 +1,16 @@
 package com.example.recipeoop_1.model;
 
 // import io.swagger.v3.oas.annotations.media.Schema; // Ensure this is removed
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.ReadOnlyProperty;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.index.TextIndexed;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.TextScore;
 
 import java.util.List;
 import java.util.ArrayList;
@@ -14,10 +22,22 @@ import java.util.ArrayList;
  * collections like "recipe_desserts" depending on the service implementation).
  * It contains details such as the recipe's title, ingredients, instructions, cooking time,
  * category, and the user who created it.
+ * </p><p>
+ * When all recipes share the single "recipes" collection (see
+ * {@link com.example.recipeoop_1.service.SingleCollectionRecipeService}), recipes are filtered by the
+ * normalized {@link #getCategoryKey() category key}, which the compound index declared here covers.
+ * </p><p>
+ * The index annotations on this class are the single declaration of the indexes every recipe collection
+ * needs. They are applied by {@link com.example.recipeoop_1.service.RecipeIndexManager}, not by Spring Data's
+ * automatic index creation, because recipes are stored in dynamically named collections. They include a
+ * weighted text index over the title, ingredients and instructions, used by full-text searches.
+ * </p><p>
+ * Fields that are {@code null} are left out of the JSON representation, so a recipe read with a sparse
+ * fieldset (see {@link com.example.recipeoop_1.service.RecipeProjection}) only carries the requested fields.
  * </p>
  *
  * @author Elie Issa/Michel Ghazaly
- * @version 1.1
+ * @version 1.7
  * @since 2025-05-14
  */
 // The comment below was an instruction and has been replaced by the Javadoc above.
@@ -27,6 +47,8 @@ import java.util.ArrayList;
 // * src/main/java/com/example/recipeoop_1/model/Recipe.java
 // */
 @Document(collection = "recipes") // Default collection, may be overridden by service logic for categories
+@CompoundIndex(name = "categoryKey_id", def = "{'categoryKey': 1, '_id': 1}")
+@JsonInclude(JsonInclude.Include.NON_NULL)
 // @Schema(description = "Recipe information") // Swagger annotation removed
 public class Recipe {
 
@@ -41,6 +63,7 @@ public class Recipe {
     /**
      * The title of the recipe (e.g., "Chocolate Cake").
      */
+    @TextIndexed(weight = 10)
     private String title;
 
     /**
@@ -48,16 +71,20 @@ public class Recipe {
      * (e.g., "2 cups flour", "100g sugar").
      * Initialized to an empty ArrayList to prevent null pointer exceptions.
      */
+    @Indexed(name = "ingredients_1")
+    @TextIndexed(weight = 5)
     private List<String> ingredients = new ArrayList<>();
 
     /**
      * The step-by-step instructions for preparing the recipe.
      */
+    @TextIndexed
     private String instructions;
 
     /**
      * The estimated cooking time for the recipe, in minutes.
      */
+    @Indexed(name = "cookingTime_1")
     private Integer cookingTime;
 
     /**
@@ -69,8 +96,42 @@ public class Recipe {
      * The username of the user who created this recipe.
      * This field is used for tracking ownership and for authorization purposes.
      */
+    @Indexed(name = "createdBy_1")
     private String createdBy;  // Make sure this field exists
 
+    /**
+     * The normalized category, as used in collection names (e.g., "main_course" for "Main Course").
+     * Only stored when all recipes share a single collection; it is internal and not part of the JSON representation.
+     */
+    @JsonIgnore
+    private String categoryKey;
+
+    /**
+     * The normalized ingredient names (e.g., "flour" for "2 cups flour"), derived from {@link #ingredients}
+     * whenever the recipe is written (see {@link com.example.recipeoop_1.service.IngredientKeys}).
+     * It is internal and not part of the JSON representation.
+     */
+    @JsonIgnore
+    @Indexed(name = "ingredientKeys_1")
+    private List<String> ingredientKeys;
+
+    /**
+     * The relevance of the recipe to a full-text search, higher being more relevant.
+     * Only set on the results of a full-text search; it is never stored.
+     */
+    @TextScore
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Float score;
+
+    /**
+     * The number of ingredients, computed by the database when a recipe is read with the summary view
+     * (see {@link com.example.recipeoop_1.service.RecipeProjection}) instead of the ingredients themselves.
+     * It is never stored.
+     */
+    @ReadOnlyProperty
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Integer ingredientCount;
+
     /**
      * Default constructor for the {@code Recipe} class.
      * <p>
@@ -210,4 +271,76 @@ public class Recipe {
     public void setCategory(String category) {
         this.category = category;
     }
-}
\ No newline at end of file
+
+    /**
+     * Gets the normalized category key of the recipe.
+     *
+     * @return The category key (e.g., "main_course"), or {@code null} if it is not stored.
+     */
+    public String getCategoryKey() {
+        return categoryKey;
+    }
+
+    /**
+     * Sets the normalized category key of the recipe.
+     *
+     * @param categoryKey The category key to set.
+     */
+    public void setCategoryKey(String categoryKey) {
+        this.categoryKey = categoryKey;
+    }
+
+    /**
+     * Gets the normalized ingredient keys of the recipe.
+     *
+     * @return The ingredient keys, or {@code null} if they have not been derived yet.
+     */
+    public List<String> getIngredientKeys() {
+        return ingredientKeys;
+    }
+
+    /**
+     * Sets the normalized ingredient keys of the recipe.
+     *
+     * @param ingredientKeys The ingredient keys to set.
+     */
+    public void setIngredientKeys(List<String> ingredientKeys) {
+        this.ingredientKeys = ingredientKeys;
+    }
+
+    /**
+     * Gets the full-text search relevance of the recipe.
+     *
+     * @return The text score, or {@code null} if the recipe was not read by a full-text search.
+     */
+    public Float getScore() {
+        return score;
+    }
+
+    /**
+     * Sets the full-text search relevance of the recipe.
+     *
+     * @param score The text score to set.
+     */
+    public void setScore(Float score) {
+        this.score = score;
+    }
+
+    /**
+     * Gets the number of ingredients computed by a projection.
+     *
+     * @return The ingredient count, or {@code null} if the recipe was not read with a projection computing it.
+     */
+    public Integer getIngredientCount() {
+        return ingredientCount;
+    }
+
+    /**
+     * Sets the number of ingredients computed by a projection.
+     *
+     * @param ingredientCount The ingredient count to set.
+     */
+    public void setIngredientCount(Integer ingredientCount) {
+        this.ingredientCount = ingredientCount;
+    }
+}
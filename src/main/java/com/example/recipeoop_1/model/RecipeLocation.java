@@ -0,0 +1,96 @@
+package com.example.recipeoop_1.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+/**
+ * Records which category collection holds a given recipe.
+ * <p>
+ * Recipes are stored in one collection per category (e.g., "recipe_desserts"), so a recipe ID
+ * alone does not tell which collection to read. One {@code RecipeLocation} document is kept per
+ * recipe in the "locator_recipes" collection, keyed by the recipe ID, so that a lookup by ID
+ * needs a single targeted query instead of a probe of every category collection.
+ * </p><p>
+ * The collection name deliberately does not start with "recipe_", which would make it show up
+ * as a category.
+ * </p>
+ *
+ * @author Elie Issa/Michel Ghazaly
+ * @version 1.0
+ * @since 2026-10-16
+ * @see com.example.recipeoop_1.service.RecipeLocator
+ */
+@Document(collection = RecipeLocation.COLLECTION_NAME)
+public class RecipeLocation {
+
+    /**
+     * The name of the MongoDB collection holding the locator entries.
+     */
+    public static final String COLLECTION_NAME = "locator_recipes";
+
+    /**
+     * The ID of the located recipe. Used as the document ID, so lookups use the default {@code _id} index.
+     */
+    @Id
+    private String recipeId;
+
+    /**
+     * The name of the category collection holding the recipe (e.g., "recipe_main_course").
+     */
+    @Field("collection")
+    private String collectionName;
+
+    /**
+     * Default constructor, required by Spring Data MongoDB.
+     */
+    public RecipeLocation() {
+    }
+
+    /**
+     * Constructs a {@code RecipeLocation} for the given recipe.
+     *
+     * @param recipeId The ID of the recipe.
+     * @param collectionName The name of the collection holding the recipe.
+     */
+    public RecipeLocation(String recipeId, String collectionName) {
+        this.recipeId = recipeId;
+        this.collectionName = collectionName;
+    }
+
+    /**
+     * Gets the ID of the located recipe.
+     *
+     * @return The recipe ID.
+     */
+    public String getRecipeId() {
+        return recipeId;
+    }
+
+    /**
+     * Sets the ID of the located recipe.
+     *
+     * @param recipeId The recipe ID.
+     */
+    public void setRecipeId(String recipeId) {
+        this.recipeId = recipeId;
+    }
+
+    /**
+     * Gets the name of the collection holding the recipe.
+     *
+     * @return The collection name (e.g., "recipe_main_course").
+     */
+    public String getCollectionName() {
+        return collectionName;
+    }
+
+    /**
+     * Sets the name of the collection holding the recipe.
+     *
+     * @param collectionName The collection name.
+     */
+    public void setCollectionName(String collectionName) {
+        this.collectionName = collectionName;
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.recipeoop_1.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+/**
+ * A refresh token issued at login, stored in the "refresh_tokens" collection.
+ * <p>
+ * Only the HMAC of the token is stored, as the document ID, so a stolen copy of the collection cannot be
+ * used to obtain access tokens, and a presented token is found with one lookup on the default {@code _id}
+ * index. Expired tokens are removed by MongoDB through a TTL index on {@code expiresAt}.
+ * </p>
+ *
+ * @author Elie Issa/Michel Ghazaly
+ * @version 1.0
+ * @since 2026-10-16
+ * @see com.example.recipeoop_1.security.RefreshTokenService
+ */
+@Document(collection = RefreshToken.COLLECTION_NAME)
+public class RefreshToken {
+
+    /**
+     * The name of the MongoDB collection holding the refresh tokens.
+     */
+    public static final String COLLECTION_NAME = "refresh_tokens";
+
+    /**
+     * The HMAC of the token. Used as the document ID.
+     */
+    @Id
+    private String tokenHash;
+
+    /**
+     * The username of the user the token was issued to.
+     */
+    private String username;
+
+    /**
+     * When the token expires.
+     */
+    private Date expiresAt;
+
+    /**
+     * Default constructor, required by Spring Data MongoDB.
+     */
+    public RefreshToken() {
+    }
+
+    /**
+     * Constructs a {@code RefreshToken} with the given details.
+     *
+     * @param tokenHash The HMAC of the token.
+     * @param username The username of the user the token was issued to.
+     * @param expiresAt When the token expires.
+     */
+    public RefreshToken(String tokenHash, String username, Date expiresAt) {
+        this.tokenHash = tokenHash;
+        this.username = username;
+        this.expiresAt = expiresAt;
+    }
+
+    /**
+     * Gets the HMAC of the token.
+     *
+     * @return The token hash.
+     */
+    public String getTokenHash() {
+        return tokenHash;
+    }
+
+    /**
+     * Sets the HMAC of the token.
+     *
+     * @param tokenHash The token hash.
+     */
+    public void setTokenHash(String tokenHash) {
+        this.tokenHash = tokenHash;
+    }
+
+    /**
+     * Gets the username of the user the token was issued to.
+     *
+     * @return The username.
+     */
+    public String getUsername() {
+        return username;
+    }
+
+    /**
+     * Sets the username of the user the token was issued to.
+     *
+     * @param username The username.
+     */
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    /**
+     * Gets the expiration time of the token.
+     *
+     * @return When the token expires.
+     */
+    public Date getExpiresAt() {
+        return expiresAt;
+    }
+
+    /**
+     * Sets the expiration time of the token.
+     *
+     * @param expiresAt When the token expires.
+     */
+    public void setExpiresAt(Date expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
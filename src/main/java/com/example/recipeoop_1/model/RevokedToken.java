@@ -0,0 +1,141 @@
+package com.example.recipeoop_1.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+/**
+ * An access token that was revoked before it expired, stored in the "revoked_tokens" collection.
+ * <p>
+ * The token is identified by its JWT ID ({@code jti} claim), which is the document ID. The entry is only
+ * needed until the token would have expired anyway; a TTL index on {@code expiresAt} removes it then.
+ * </p>
+ *
+ * @author Elie Issa/Michel Ghazaly
+ * @version 1.0
+ * @since 2026-10-16
+ * @see com.example.recipeoop_1.security.TokenRevocationService
+ */
+@Document(collection = RevokedToken.COLLECTION_NAME)
+public class RevokedToken {
+
+    /**
+     * The name of the MongoDB collection holding the revoked tokens.
+     */
+    public static final String COLLECTION_NAME = "revoked_tokens";
+
+    /**
+     * The JWT ID of the revoked token. Used as the document ID.
+     */
+    @Id
+    private String jti;
+
+    /**
+     * The username the token was issued to.
+     */
+    private String username;
+
+    /**
+     * When the token expires; the entry is deleted after this time.
+     */
+    private Date expiresAt;
+
+    /**
+     * When the token was revoked.
+     */
+    private Date revokedAt;
+
+    /**
+     * Default constructor, required by Spring Data MongoDB.
+     */
+    public RevokedToken() {
+    }
+
+    /**
+     * Constructs a {@code RevokedToken} with the given details.
+     *
+     * @param jti The JWT ID of the revoked token.
+     * @param username The username the token was issued to.
+     * @param expiresAt When the token expires.
+     * @param revokedAt When the token was revoked.
+     */
+    public RevokedToken(String jti, String username, Date expiresAt, Date revokedAt) {
+        this.jti = jti;
+        this.username = username;
+        this.expiresAt = expiresAt;
+        this.revokedAt = revokedAt;
+    }
+
+    /**
+     * Gets the JWT ID of the revoked token.
+     *
+     * @return The JWT ID.
+     */
+    public String getJti() {
+        return jti;
+    }
+
+    /**
+     * Sets the JWT ID of the revoked token.
+     *
+     * @param jti The JWT ID.
+     */
+    public void setJti(String jti) {
+        this.jti = jti;
+    }
+
+    /**
+     * Gets the username the token was issued to.
+     *
+     * @return The username.
+     */
+    public String getUsername() {
+        return username;
+    }
+
+    /**
+     * Sets the username the token was issued to.
+     *
+     * @param username The username.
+     */
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    /**
+     * Gets the expiration time of the token.
+     *
+     * @return When the token expires.
+     */
+    public Date getExpiresAt() {
+        return expiresAt;
+    }
+
+    /**
+     * Sets the expiration time of the token.
+     *
+     * @param expiresAt When the token expires.
+     */
+    public void setExpiresAt(Date expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    /**
+     * Gets the time the token was revoked.
+     *
+     * @return When the token was revoked.
+     */
+    public Date getRevokedAt() {
+        return revokedAt;
+    }
+
+    /**
+     * Sets the time the token was revoked.
+     *
+     * @param revokedAt When the token was revoked.
+     */
+    public void setRevokedAt(Date revokedAt) {
+        this.revokedAt = revokedAt;
+    }
+}
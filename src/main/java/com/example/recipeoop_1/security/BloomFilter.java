@@ -0,0 +1,120 @@
+package com.example.recipeoop_1.security;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A thread-safe Bloom filter of strings.
+ * <p>
+ * {@link #mightContain(String)} never answers {@code false} for a string that was added; it answers {@code true}
+ * for a string that was not added with a probability close to the configured false positive rate, as long as no
+ * more than the expected number of strings are added. Strings cannot be removed; the filter is rebuilt instead.
+ * The {@code k} bit positions of a string are derived from one 64-bit FNV-1a hash by double hashing.
+ * </p>
+ *
+ * @author Elie Issa/Michel Ghazaly
+ * @version 1.0
+ * @since 2026-10-16
+ * @see TokenRevocationService
+ */
+final class BloomFilter {
+
+    /**
+     * The bits of the filter, 64 per word.
+     */
+    private final AtomicLongArray words;
+    /**
+     * The number of bits of the filter.
+     */
+    private final long bitCount;
+    /**
+     * The number of bit positions set per string.
+     */
+    private final int hashCount;
+
+    /**
+     * Constructs an empty {@code BloomFilter} sized for the given load.
+     *
+     * @param expectedInsertions The number of strings the filter is sized for; at least 1 is assumed.
+     * @param falsePositiveRate The false positive rate at that number of strings, between 0 and 1.
+     */
+    BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        long n = Math.max(1, expectedInsertions);
+        long bits = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int wordCount = (int) Math.min(Integer.MAX_VALUE, Math.max(1, (bits + 63) / 64));
+        this.words = new AtomicLongArray(wordCount);
+        this.bitCount = (long) wordCount * 64;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+    }
+
+    /**
+     * Adds a string to the filter.
+     *
+     * @param value The string to add.
+     */
+    void put(String value) {
+        long hash = hash(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = Math.floorMod(h1 + (long) i * h2, bitCount);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current = words.get(word);
+            while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask)) {
+                current = words.get(word);
+            }
+        }
+    }
+
+    /**
+     * Tells whether a string may have been added to the filter.
+     *
+     * @param value The string to look up.
+     * @return {@code false} if the string was certainly not added, {@code true} if it probably was.
+     */
+    boolean mightContain(String value) {
+        long hash = hash(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = Math.floorMod(h1 + (long) i * h2, bitCount);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return The size of the filter in bits.
+     */
+    long bitSize() {
+        return bitCount;
+    }
+
+    /**
+     * @return The number of bit positions per string.
+     */
+    int hashCount() {
+        return hashCount;
+    }
+
+    /**
+     * Computes the 64-bit FNV-1a hash of a string, followed by a final avalanche step so that both halves are
+     * usable as independent hashes.
+     *
+     * @param value The string to hash.
+     * @return The hash.
+     */
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -7,16 +7,23 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.security.web.context.RequestAttributeSecurityContextRepository;
+import org.springframework.security.web.context.SecurityContextRepository;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter; // Ensures the filter is executed only once per request
 
 import java.io.IOException;
+import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * A Spring Security filter that intercepts incoming HTTP requests to validate JWT tokens.
@@ -27,9 +34,24 @@ import java.io.IOException;
  * object in the {@link SecurityContextHolder}. This allows subsequent parts of the application
  * (e.g., secured controller methods) to access the authenticated user's details.
  * </p>
+ * <p>
+ * By default the user's authorities are loaded through the {@link UserDetailsService} on every request,
+ * so that role changes take effect immediately. With {@code jwt.stateless-authorization} enabled, the
+ * authorities are taken from the roles signed into the token instead, and the user store is only
+ * consulted for tokens that carry no roles claim. Role changes then take effect when the user's current
+ * tokens expire.
+ * </p>
+ * <p>
+ * Tokens revoked through {@link TokenRevocationService} are rejected like expired ones.
+ * </p>
+ * <p>
+ * The authentication is also saved as a request attribute. Asynchronous responses (e.g., the NDJSON streams)
+ * complete in an {@code ASYNC} dispatch, which this filter skips but Spring Security authorizes again; the
+ * security chain restores the authentication from the request there instead of treating it as anonymous.
+ * </p>
  *
  * @author Elie Issa/Michel Ghazaly
- * @version 1.0
+ * @version 1.3
  * @since 2025-05-14
  * @see OncePerRequestFilter
  * @see JwtTokenUtil
@@ -41,6 +63,9 @@ public class JwtRequestFilter extends OncePerRequestFilter {
 
     private UserDetailsService userDetailsService;
     private JwtTokenUtil jwtTokenUtil;
+    private final TokenRevocationService tokenRevocationService;
+    private final boolean statelessAuthorization;
+    private final SecurityContextRepository securityContextRepository = new RequestAttributeSecurityContextRepository();
 
     /**
      * Constructs a {@code JwtRequestFilter} with necessary dependencies.
@@ -53,12 +78,19 @@ public class JwtRequestFilter extends OncePerRequestFilter {
      *
      * @param userDetailsService The service (qualified as "jwtUserDetailsService") used to load user-specific data.
      * @param jwtTokenUtil The utility class for JWT token generation and validation.
+     * @param tokenRevocationService The service telling whether a token was revoked.
+     * @param statelessAuthorization Whether the authorities are taken from the token's roles claim
+     * instead of being loaded for every request.
      */
     @Autowired
     public JwtRequestFilter(@Lazy @Qualifier("jwtUserDetailsService") UserDetailsService userDetailsService,
-                            JwtTokenUtil jwtTokenUtil) {
+                            JwtTokenUtil jwtTokenUtil,
+                            TokenRevocationService tokenRevocationService,
+                            @Value("${jwt.stateless-authorization:false}") boolean statelessAuthorization) {
         this.userDetailsService = userDetailsService;
         this.jwtTokenUtil = jwtTokenUtil;
+        this.tokenRevocationService = tokenRevocationService;
+        this.statelessAuthorization = statelessAuthorization;
     }
 
     /**
@@ -91,8 +123,9 @@ public class JwtRequestFilter extends OncePerRequestFilter {
      * <p>
      * This method is called for each request that is not excluded by {@link #shouldNotFilter}.
      * It attempts to extract a JWT token from the "Authorization" header. If a token is found,
-     * it's validated. If valid, the user's details are loaded, and an authentication token
-     * is created and set in the {@link SecurityContextHolder}.
+     * it's validated. If valid, the user's details are loaded (or, in stateless mode, built from
+     * the token's claims), and an authentication token is created and set in the {@link SecurityContextHolder}
+     * and saved in the request for a later asynchronous dispatch.
      * </p>
      *
      * @param request The {@link HttpServletRequest}.
@@ -115,7 +148,12 @@ public class JwtRequestFilter extends OncePerRequestFilter {
         if (requestTokenHeader != null && requestTokenHeader.startsWith("Bearer ")) {
             jwtToken = requestTokenHeader.substring(7); // Remove "Bearer " prefix
             try {
-                username = jwtTokenUtil.getUsernameFromToken(jwtToken);
+                String tokenUsername = jwtTokenUtil.getUsernameFromToken(jwtToken);
+                if (tokenRevocationService.isRevoked(jwtTokenUtil.getIdFromToken(jwtToken))) {
+                    logger.warn("JWT Token has been revoked.");
+                } else {
+                    username = tokenUsername;
+                }
             } catch (IllegalArgumentException e) {
                 // Logged by the OncePerRequestFilter's logger (e.g., this.logger.warn)
                 logger.warn("Unable to get JWT Token: Token format might be invalid or claims string is empty.");
@@ -135,7 +173,10 @@ public class JwtRequestFilter extends OncePerRequestFilter {
         // AND there is no existing authentication in the current security context.
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
             try {
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+                UserDetails userDetails = statelessAuthorization ? userDetailsFromClaims(username, jwtToken) : null;
+                if (userDetails == null) {
+                    userDetails = this.userDetailsService.loadUserByUsername(username);
+                }
 
                 // If the token is valid, configure Spring Security to manually set authentication.
                 if (jwtTokenUtil.validateToken(jwtToken, userDetails)) {
@@ -151,6 +192,8 @@ public class JwtRequestFilter extends OncePerRequestFilter {
                     // that the current user is authenticated. So it passes the
                     // Spring Security Configurations successfully.
                     SecurityContextHolder.getContext().setAuthentication(usernamePasswordAuthenticationToken);
+                    // Keep it for the ASYNC dispatch of a streamed response, which this filter does not see.
+                    securityContextRepository.saveContext(SecurityContextHolder.getContext(), request, response);
                 }
             } catch (Exception e) {
                 // Log any error during user details loading or token validation after username extraction
@@ -161,4 +204,19 @@ public class JwtRequestFilter extends OncePerRequestFilter {
         // Continue the filter chain, passing the request and response to the next filter or target resource.
         chain.doFilter(request, response);
     }
-}
\ No newline at end of file
+
+    /**
+     * Builds the user's details from the roles signed into the token, without consulting the user store.
+     *
+     * @param username The username taken from the token's subject.
+     * @param jwtToken The verified JWT token.
+     * @return The user's details with an empty password, or {@code null} if the token has no roles claim.
+     */
+    private UserDetails userDetailsFromClaims(String username, String jwtToken) {
+        List<String> roles = jwtTokenUtil.getRolesFromToken(jwtToken);
+        if (roles == null) {
+            return null;
+        }
+        return new User(username, "", roles.stream().map(SimpleGrantedAuthority::new).collect(Collectors.toList()));
+    }
+}
@@ -1,19 +1,33 @@
 package com.example.recipeoop_1.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys; // For creating secure keys
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Utility class for performing JWT (JSON Web Token) operations.
@@ -22,11 +36,24 @@ import java.util.function.Function;
  * and extracting claims (like username and expiration date) from tokens.
  * It uses a secret key and an expiration time configured in the application properties.
  * </p>
+ * <p>
+ * The signing key and the token parser are built once at startup. Tokens whose signature has been
+ * verified are kept in a bounded cache, keyed by the SHA-256 digest of the token, until the token
+ * expires. The claims of a token are therefore verified once per token rather than on every
+ * call: the lookups made while authenticating one request, and all later requests carrying the
+ * same token, are served from the cache.
+ * </p>
+ * <p>
+ * Every token carries the user's roles in the {@value #ROLES_CLAIM} claim, so that
+ * {@link JwtRequestFilter} can authorize requests without loading the user when
+ * {@code jwt.stateless-authorization} is enabled. Every token also carries a random JWT ID, by which
+ * {@link TokenRevocationService} revokes it.
+ * </p>
  * It implements {@link Serializable} as it's a common practice for components,
  * though not strictly required for its core JWT utility functions.
  *
  * @author Elie Issa/Michel Ghazaly
- * @version 1.0
+ * @version 1.3
  * @since 2025-05-14
  * @see Component
  * @see Serializable
@@ -40,6 +67,11 @@ public class JwtTokenUtil implements Serializable {
      */
     private static final long serialVersionUID = -2550185165626007488L;
 
+    /**
+     * The name of the claim holding the user's granted authorities (e.g., "ROLE_USER").
+     */
+    public static final String ROLES_CLAIM = "roles";
+
     /**
      * The secret key used for signing and verifying JWT tokens.
      * This value is injected from the application property {@code jwt.secret}.
@@ -57,12 +89,65 @@ public class JwtTokenUtil implements Serializable {
     @Value("${jwt.expiration:86400}") // Default to 24 hours in seconds
     private long expiration;
 
+    /**
+     * The maximum number of verified tokens kept in memory.
+     * This value is injected from the application property {@code jwt.verified-cache.max-size}.
+     */
+    @Value("${jwt.verified-cache.max-size:10000}")
+    private long verifiedCacheMaxSize;
+
+    /**
+     * The HMAC key derived from {@link #secret}, built once in {@link #init()}.
+     */
+    private transient Key signingKey;
+
+    /**
+     * The parser verifying tokens against {@link #signingKey}, built once in {@link #init()}.
+     */
+    private transient JwtParser parser;
+
+    /**
+     * Verified claims by token digest; each entry expires when its token does.
+     */
+    private transient Cache<String, Claims> verifiedClaims;
+
+    /**
+     * Builds the signing key, the parser and the verified-claims cache from the injected settings.
+     */
+    @PostConstruct
+    void init() {
+        this.signingKey = getSigningKey();
+        this.parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+        this.verifiedClaims = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheMaxSize)
+                .expireAfter(new Expiry<String, Claims>() {
+                    @Override
+                    public long expireAfterCreate(String digest, Claims claims, long currentTime) {
+                        long remainingMillis = claims.getExpiration() == null ? 0
+                                : claims.getExpiration().getTime() - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMillis));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String digest, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String digest, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
     /**
      * Generates a JWT token for a given user.
      * <p>
-     * The token will include the username as the subject and will be signed using
-     * the configured secret key and HS512 algorithm. It will also have an issue date
-     * and an expiration date based on the configured {@code expiration} time.
+     * The token will include the username as the subject and the user's authorities in the
+     * {@value #ROLES_CLAIM} claim, and will be signed using the configured secret key and HS512
+     * algorithm. It will also have an issue date and an expiration date based on the configured
+     * {@code expiration} time.
      * </p>
      *
      * @param userDetails The {@link UserDetails} object representing the user for whom the token is to be generated.
@@ -71,9 +156,10 @@ public class JwtTokenUtil implements Serializable {
      * @see #doGenerateToken(Map, String)
      */
     public String generateToken(UserDetails userDetails) {
-        Map<String, Object> claims = new HashMap<>(); // No custom claims added by default in this implementation
-        // Additional claims like roles could be added here if needed:
-        // claims.put("roles", userDetails.getAuthorities().stream().map(GrantedAuthority::getAuthority).collect(Collectors.toList()));
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(ROLES_CLAIM, userDetails.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toList()));
         return doGenerateToken(claims, userDetails.getUsername());
     }
 
@@ -88,10 +174,11 @@ public class JwtTokenUtil implements Serializable {
         long currentTimeMillis = System.currentTimeMillis();
         return Jwts.builder()
                 .setClaims(claims)
+                .setId(UUID.randomUUID().toString())
                 .setSubject(subject)
                 .setIssuedAt(new Date(currentTimeMillis))
                 .setExpiration(new Date(currentTimeMillis + expiration * 1000)) // expiration is in seconds
-                .signWith(getSigningKey(), SignatureAlgorithm.HS512)
+                .signWith(signingKey, SignatureAlgorithm.HS512)
                 .compact();
     }
 
@@ -124,6 +211,35 @@ public class JwtTokenUtil implements Serializable {
         return getClaimFromToken(token, Claims::getSubject);
     }
 
+    /**
+     * Retrieves the JWT ID (jti claim) from the given JWT token.
+     *
+     * @param token The JWT token string.
+     * @return The ID of the token, or {@code null} if the token has none (tokens issued before IDs were introduced).
+     * @throws io.jsonwebtoken.JwtException if the token cannot be parsed or is invalid.
+     */
+    public String getIdFromToken(String token) {
+        return getClaimFromToken(token, Claims::getId);
+    }
+
+    /**
+     * Retrieves the roles (the {@value #ROLES_CLAIM} claim) from the given JWT token.
+     *
+     * @param token The JWT token string.
+     * @return The authority names signed into the token, or {@code null} if the token has no roles claim
+     * (tokens issued before the claim was introduced).
+     * @throws io.jsonwebtoken.JwtException if the token cannot be parsed or is invalid.
+     */
+    public List<String> getRolesFromToken(String token) {
+        return getClaimFromToken(token, claims -> {
+            Object roles = claims.get(ROLES_CLAIM);
+            if (!(roles instanceof List<?>)) {
+                return null;
+            }
+            return ((List<?>) roles).stream().map(String::valueOf).collect(Collectors.toList());
+        });
+    }
+
     /**
      * Retrieves the expiration date (expiration claim) from the given JWT token.
      *
@@ -153,7 +269,10 @@ public class JwtTokenUtil implements Serializable {
     /**
      * Parses the JWT token and retrieves all claims contained within it.
      * <p>
-     * This method uses the configured signing key to verify the token's signature before extracting claims.
+     * A token seen before is looked up in the verified-claims cache. Otherwise this method uses the
+     * pre-built parser to verify the token's signature and expiration, and caches the claims until
+     * the token expires. Tokens that fail verification are not cached. The returned claims may be
+     * shared and must not be modified.
      * </p>
      *
      * @param token The JWT token string.
@@ -161,11 +280,32 @@ public class JwtTokenUtil implements Serializable {
      * @throws io.jsonwebtoken.JwtException if the token is malformed, expired, or has an invalid signature.
      */
     private Claims getAllClaimsFromToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token) // Verifies signature and parses claims
-                .getBody();
+        String digest = digest(token);
+        Claims claims = verifiedClaims.getIfPresent(digest);
+        if (claims == null) {
+            claims = parser.parseClaimsJws(token).getBody(); // Verifies signature and parses claims
+            verifiedClaims.put(digest, claims);
+        }
+        return claims;
+    }
+
+    /**
+     * Computes the cache key of a token.
+     *
+     * @param token The JWT token string.
+     * @return The Base64 encoded SHA-256 digest of the token.
+     * @throws IllegalArgumentException if the token is {@code null}.
+     */
+    private static String digest(String token) {
+        if (token == null) {
+            throw new IllegalArgumentException("JWT token must not be null");
+        }
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e); // Required of every JVM
+        }
     }
 
     /**
@@ -184,7 +324,7 @@ public class JwtTokenUtil implements Serializable {
      * Generates the signing key for JWT operations from the configured secret string.
      * <p>
      * The secret string is converted to bytes and then used to create a secure HMAC SHA key
-     * suitable for HS512 algorithm.
+     * suitable for HS512 algorithm. Called once by {@link #init()}.
      * </p>
      *
      * @return A {@link Key} object representing the signing key.
@@ -1,6 +1,20 @@
 package com.example.recipeoop_1.security;
 
+import com.example.recipeoop_1.model.AppUser;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -9,83 +23,123 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Service implementation for {@link UserDetailsService} to load user-specific data.
  * <p>
  * This service is used by Spring Security to retrieve user details (username, password, authorities)
  * during the authentication process, particularly for JWT-based authentication.
- * In this implementation, user details are stored in-memory in a {@link HashMap}.
- * It pre-populates two users: "admin" (with ADMIN and USER roles) and "user" (with USER role).
- * Passwords for these users are encoded using the provided {@link PasswordEncoder}.
+ * The user accounts are stored in the {@value AppUser#COLLECTION_NAME} collection (see {@link AppUser}),
+ * keyed by username. Accounts read from MongoDB are kept in a bounded cache of
+ * {@code auth.users.cache.max-size} entries that expire after {@code auth.users.cache.ttl}, so the
+ * lookups on the authentication path do not go to the database. Changing a user's roles through
+ * {@link #updateRoles(String, List)} evicts the user from the cache.
+ * </p><p>
+ * The cache holds the account data, not {@link UserDetails} instances: Spring Security erases the
+ * credentials of the {@link UserDetails} it authenticated, so every lookup returns a new instance.
+ * </p><p>
+ * Unless {@code auth.users.seed-defaults} is disabled, the two default accounts are created after startup
+ * if they do not exist yet: "admin" (with ADMIN and USER roles, password "1234") and "user"
+ * (with USER role, password "user"). Their passwords are only encoded when they are created.
  * </p>
  * The bean is named "jwtUserDetailsService" and can be injected using this qualifier.
  *
  * @author Elie Issa/Michel Ghazaly
- * @version 1.2
+ * @version 1.3
  * @since 2025-05-14
  * @see UserDetailsService
  * @see UserDetails
  * @see User
+ * @see AppUser
  * @see PasswordEncoder
  * @see Service
  */
 @Service("jwtUserDetailsService")
 public class JwtUserDetailsService implements UserDetailsService {
 
+    /**
+     * Logger for this class.
+     */
+    private static final Logger log = LoggerFactory.getLogger(JwtUserDetailsService.class);
+
+    /**
+     * The prefix Spring Security expects on role authorities.
+     */
+    private static final String ROLE_PREFIX = "ROLE_";
+
     /**
      * The {@link PasswordEncoder} used for encoding passwords.
      * This is typically injected by Spring.
      */
     private final PasswordEncoder passwordEncoder;
     /**
-     * In-memory storage for user information. The key is the username,
-     * and the value is a {@link UserInfo} object containing the hashed password and roles.
+     * MongoTemplate for database interactions.
+     */
+    private final MongoTemplate mongoTemplate;
+    /**
+     * Bounded, expiring cache of username to account.
+     */
+    private final Cache<String, AppUser> cache;
+    /**
+     * Whether the default accounts are created after startup.
      */
-    private final Map<String, UserInfo> users = new HashMap<>();
+    private final boolean seedDefaults;
 
     /**
-     * Constructs the {@code JwtUserDetailsService} and initializes in-memory users.
-     * <p>
-     * It takes a {@link PasswordEncoder} to securely store hashed passwords for the predefined users.
-     * Two users are created by default:
-     * </p>
-     * <ul>
-     * <li><b>admin</b>: Password "1234", Roles "ROLE_ADMIN", "ROLE_USER"</li>
-     * <li><b>user</b>: Password "user", Roles "ROLE_USER"</li>
-     * </ul>
+     * Constructs the {@code JwtUserDetailsService} with the necessary dependencies and settings.
      *
      * @param passwordEncoder The {@link PasswordEncoder} used for encoding passwords.
+     * @param mongoTemplate The Spring Data {@link MongoTemplate} for direct MongoDB interaction.
+     * @param cacheMaxSize The maximum number of accounts kept in memory.
+     * @param cacheTtl How long an account stays cached after it was loaded.
+     * @param seedDefaults Whether the default accounts are created after startup.
      */
     @Autowired
-    public JwtUserDetailsService(PasswordEncoder passwordEncoder) {
+    public JwtUserDetailsService(PasswordEncoder passwordEncoder, MongoTemplate mongoTemplate,
+                                 @Value("${auth.users.cache.max-size:10000}") long cacheMaxSize,
+                                 @Value("${auth.users.cache.ttl:PT5M}") Duration cacheTtl,
+                                 @Value("${auth.users.seed-defaults:true}") boolean seedDefaults) {
         this.passwordEncoder = passwordEncoder;
+        this.mongoTemplate = mongoTemplate;
+        this.seedDefaults = seedDefaults;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(cacheTtl)
+                .recordStats()
+                .build();
+    }
 
-        this.users.put("admin", new UserInfo(
-                "admin",
-                passwordEncoder.encode("1234"),
-                Arrays.asList("ROLE_ADMIN", "ROLE_USER")
-        ));
-
-        this.users.put("user", new UserInfo(
-                "user",
-                passwordEncoder.encode("user"),
-                Collections.singletonList("ROLE_USER")
-        ));
+    /**
+     * Creates the default accounts once the application has started, unless they already exist.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedDefaultUsers() {
+        if (!seedDefaults) {
+            return;
+        }
+        try {
+            createUser("admin", "1234", Arrays.asList("ROLE_ADMIN", "ROLE_USER"));
+            createUser("user", "user", Collections.singletonList("ROLE_USER"));
+        } catch (RuntimeException e) {
+            log.warn("Could not create the default users: {}", e.getMessage());
+        }
     }
 
     /**
      * Locates the user based on the username.
      * <p>
      * This method is called by Spring Security's authentication mechanism.
-     * It retrieves user information from the in-memory {@code users} map.
-     * If the user is found, it constructs and returns a {@link UserDetails} object
+     * It retrieves the account from the cache, or from the {@value AppUser#COLLECTION_NAME} collection
+     * on a cache miss. If the user is found, it constructs and returns a {@link UserDetails} object
      * (specifically, a {@link org.springframework.security.core.userdetails.User})
      * containing the username, hashed password, and granted authorities (roles).
      * </p>
@@ -97,70 +151,107 @@ public class JwtUserDetailsService implements UserDetailsService {
      */
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        UserInfo userInfo = users.get(username);
+        AppUser appUser = username == null ? null
+                : cache.get(username, key -> mongoTemplate.findById(key, AppUser.class));
 
-        if (userInfo == null) {
+        if (appUser == null) {
             throw new UsernameNotFoundException("User not found with username: " + username);
         }
 
         List<SimpleGrantedAuthority> authorities = new ArrayList<>();
-        for (String role : userInfo.getRoles()) {
+        for (String role : appUser.getRoles()) {
             authorities.add(new SimpleGrantedAuthority(role));
         }
 
-        return new User(userInfo.getUsername(), userInfo.getPassword(), authorities);
+        return new User(appUser.getUsername(), appUser.getPassword(), authorities);
     }
 
     /**
-     * Inner static class to hold user information (username, password, roles)
-     * for the in-memory user store.
+     * Creates a user account.
+     *
+     * @param username The username.
+     * @param rawPassword The password in clear text; it is stored encoded.
+     * @param roles The roles to grant; the "ROLE_" prefix is added where missing.
+     * @return {@code true} if the account was created, {@code false} if the username is already taken.
+     */
+    public boolean createUser(String username, String rawPassword, List<String> roles) {
+        if (mongoTemplate.exists(byUsername(username), AppUser.class)) {
+            return false;
+        }
+        try {
+            mongoTemplate.insert(new AppUser(username, passwordEncoder.encode(rawPassword), normalizeRoles(roles)));
+        } catch (DuplicateKeyException e) {
+            return false; // Created concurrently, e.g. by another instance seeding the defaults
+        }
+        cache.invalidate(username);
+        log.info("Created user '{}'", username);
+        return true;
+    }
+
+    /**
+     * Replaces the roles of a user and evicts the user from the cache, so the next lookup sees the new roles.
      * <p>
-     * This class encapsulates the details for each user managed by {@link JwtUserDetailsService}.
+     * Tokens already issued keep the roles they were signed with when {@code jwt.stateless-authorization}
+     * is enabled; the change then applies to them when they expire.
      * </p>
+     *
+     * @param username The username.
+     * @param roles The new roles; the "ROLE_" prefix is added where missing.
+     * @return {@code true} if the roles were updated, {@code false} if the user does not exist.
      */
-    private static class UserInfo {
-        /** The username of the user. */
-        private final String username;
-        /** The encoded password of the user. */
-        private final String password;
-        /** The list of roles assigned to the user. */
-        private final List<String> roles;
-
-        /**
-         * Constructs a {@code UserInfo} object.
-         *
-         * @param username The username.
-         * @param password The encoded password.
-         * @param roles A list of roles assigned to the user (e.g., "ROLE_USER", "ROLE_ADMIN").
-         */
-        public UserInfo(String username, String password, List<String> roles) {
-            this.username = username;
-            this.password = password;
-            this.roles = roles;
+    public boolean updateRoles(String username, List<String> roles) {
+        boolean updated = mongoTemplate.updateFirst(byUsername(username),
+                Update.update("roles", normalizeRoles(roles)), AppUser.class).getMatchedCount() > 0;
+        cache.invalidate(username);
+        if (updated) {
+            log.info("Updated roles of user '{}'", username);
         }
+        return updated;
+    }
 
-        /**
-         * Gets the username.
-         * @return The username.
-         */
-        public String getUsername() {
-            return username;
-        }
+    /**
+     * Returns the metrics of the user cache.
+     *
+     * @return A map with the number of cached accounts, the hit and miss counts, the hit ratio and the evictions.
+     */
+    public Map<String, Object> getCacheStats() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", cache.estimatedSize());
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("hitRatio", stats.hitRate());
+        result.put("evictions", stats.evictionCount());
+        return result;
+    }
 
-        /**
-         * Gets the encoded password.
-         * @return The encoded password string.
-         */
-        public String getPassword() {
-            return password;
-        }
+    /**
+     * Builds the query selecting one account.
+     *
+     * @param username The username.
+     * @return A {@link Query} matching the account by its document ID.
+     */
+    private static Query byUsername(String username) {
+        return new Query(Criteria.where("_id").is(username));
+    }
 
-        /**
-         * Gets the list of roles assigned to the user.
-         * @return A list of role strings.
-         */
-        public List<String> getRoles() {
-            return roles;
+    /**
+     * Adds the "ROLE_" prefix where missing and removes blank and duplicate roles.
+     *
+     * @param roles The role names as given.
+     * @return The normalized role names, in their original order.
+     */
+    private static List<String> normalizeRoles(List<String> roles) {
+        Set<String> normalized = new LinkedHashSet<>();
+        if (roles != null) {
+            for (String role : roles) {
+                if (role == null || role.isBlank()) {
+                    continue;
+                }
+                String name = role.trim().toUpperCase();
+                normalized.add(name.startsWith(ROLE_PREFIX) ? name : ROLE_PREFIX + name);
+            }
         }
+        return new ArrayList<>(normalized);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,249 @@
+package com.example.recipeoop_1.security;
+
+import com.example.recipeoop_1.exception.TooManyRequestsException;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Runs password verifications on a dedicated, bounded thread pool.
+ * <p>
+ * Verifying a password means computing a BCrypt hash, which deliberately takes tens of milliseconds of
+ * CPU time. Running it on the request threads would let a burst of logins occupy every Tomcat worker and
+ * starve the recipe endpoints. Instead, {@link com.example.recipeoop_1.controller.AuthController} hands the
+ * authentication to this executor and returns the resulting {@link CompletableFuture}, so the request thread
+ * is released while the password is verified (Spring MVC completes the response asynchronously):
+ * </p>
+ * <ul>
+ * <li>At most {@code auth.login.parallelism} verifications run at the same time; further ones wait in a queue
+ * of {@code auth.login.queue-capacity} entries.</li>
+ * <li>When the queue is full, the login is rejected at once with a {@link TooManyRequestsException}
+ * (HTTP 429), whose retry delay is estimated from the queue depth and the average verification time.</li>
+ * <li>A verification that has not finished within {@code auth.login.timeout-ms} milliseconds of being
+ * submitted is cancelled and rejected the same way.</li>
+ * </ul>
+ * <p>
+ * {@link #getStats()} reports the queue depth, the rejections and the queue wait and verification latencies.
+ * </p>
+ *
+ * @author Elie Issa/Michel Ghazaly
+ * @version 1.1
+ * @since 2026-10-16
+ * @see com.example.recipeoop_1.controller.AuthController
+ * @see TooManyRequestsException
+ */
+@Component
+public class LoginExecutor {
+
+    /**
+     * Logger for this class.
+     */
+    private static final Logger log = LoggerFactory.getLogger(LoginExecutor.class);
+
+    /**
+     * The bounded pool on which the verifications are executed.
+     */
+    private final ThreadPoolExecutor executor;
+    /**
+     * The maximum time, in milliseconds, from submitting a verification to its result.
+     */
+    private final long timeoutMillis;
+
+    /**
+     * Number of verifications accepted by the pool.
+     */
+    private final LongAdder submitted = new LongAdder();
+    /**
+     * Number of logins rejected because the queue was full.
+     */
+    private final LongAdder rejected = new LongAdder();
+    /**
+     * Number of logins rejected because the verification did not finish in time.
+     */
+    private final LongAdder timedOut = new LongAdder();
+    /**
+     * Number of verifications that ran, successfully or not.
+     */
+    private final LongAdder verifications = new LongAdder();
+    /**
+     * Total time spent verifying, in nanoseconds.
+     */
+    private final LongAdder verificationNanos = new LongAdder();
+    /**
+     * Total time verifications spent in the queue, in nanoseconds.
+     */
+    private final LongAdder queueWaitNanos = new LongAdder();
+    /**
+     * Longest single verification, in nanoseconds.
+     */
+    private final LongAccumulator maxVerificationNanos = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Constructs a {@code LoginExecutor} with the given pool limits.
+     *
+     * @param parallelism The maximum number of verifications running at the same time.
+     * @param queueCapacity The number of verifications that may wait for a free thread.
+     * @param timeoutMillis The maximum time, in milliseconds, from submitting a verification to its result.
+     */
+    @Autowired
+    public LoginExecutor(@Value("${auth.login.parallelism:4}") int parallelism,
+                         @Value("${auth.login.queue-capacity:64}") int queueCapacity,
+                         @Value("${auth.login.timeout-ms:10000}") long timeoutMillis) {
+        this.timeoutMillis = timeoutMillis;
+        this.executor = new ThreadPoolExecutor(
+                parallelism, parallelism,
+                60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(queueCapacity),
+                new LoginThreadFactory(),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Submits a password verification to the login pool, without waiting for it.
+     *
+     * @param <T> The type of the result.
+     * @param verification The verification to run, e.g. a call to the authentication manager.
+     * @return A future completed on the login pool with the result of the verification, or with the exception
+     * it threw (e.g., a {@link org.springframework.security.authentication.BadCredentialsException}), or with a
+     * {@link TooManyRequestsException} if it did not finish in time. Its non-async dependent stages run on the
+     * login pool, so callers should hand any further work (e.g., database I/O) to another executor.
+     * @throws TooManyRequestsException if the queue is full.
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> verification) {
+        long queuedAt = System.nanoTime();
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Future<?> task;
+        try {
+            task = executor.submit(() -> {
+                long startedAt = System.nanoTime();
+                queueWaitNanos.add(startedAt - queuedAt);
+                T value = null;
+                RuntimeException failure = null;
+                try {
+                    value = verification.get();
+                } catch (RuntimeException e) {
+                    failure = e;
+                }
+                // Recorded before completing: the caller's dependent stages may run on this thread.
+                long elapsed = System.nanoTime() - startedAt;
+                verifications.increment();
+                verificationNanos.add(elapsed);
+                maxVerificationNanos.accumulate(elapsed);
+                if (failure != null) {
+                    result.completeExceptionally(failure);
+                } else {
+                    result.complete(value);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            log.warn("Login rejected: {} verifications queued", executor.getQueue().size());
+            throw new TooManyRequestsException("Too many login attempts, please retry later", retryAfterSeconds());
+        }
+        submitted.increment();
+
+        CompletableFuture<T> timed = new CompletableFuture<>();
+        result.orTimeout(timeoutMillis, TimeUnit.MILLISECONDS).whenComplete((value, failure) -> {
+            if (failure instanceof TimeoutException) {
+                task.cancel(true);
+                timedOut.increment();
+                timed.completeExceptionally(
+                        new TooManyRequestsException("Login timed out, please retry later", retryAfterSeconds()));
+            } else if (failure != null) {
+                timed.completeExceptionally(failure);
+            } else {
+                timed.complete(value);
+            }
+        });
+        return timed;
+    }
+
+    /**
+     * Returns the metrics of the login pool.
+     *
+     * @return A map with the queue depth and capacity, the active threads, the submitted, rejected and
+     * timed out verifications, and the average queue wait and verification times.
+     */
+    public Map<String, Object> getStats() {
+        long count = verifications.sum();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("queueDepth", executor.getQueue().size());
+        result.put("queueRemainingCapacity", executor.getQueue().remainingCapacity());
+        result.put("activeThreads", executor.getActiveCount());
+        result.put("parallelism", executor.getMaximumPoolSize());
+        result.put("submitted", submitted.sum());
+        result.put("rejected", rejected.sum());
+        result.put("timedOut", timedOut.sum());
+        result.put("verifications", count);
+        result.put("averageQueueWaitMillis", count == 0 ? 0.0 : queueWaitNanos.sum() / (double) count / 1_000_000);
+        result.put("averageVerificationMillis", averageVerificationMillis());
+        result.put("maxVerificationMillis", maxVerificationNanos.get() / 1_000_000.0);
+        return result;
+    }
+
+    /**
+     * Stops the login pool when the application context is closed.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Estimates how long the current queue takes to drain.
+     *
+     * @return The estimated delay in seconds, at least 1.
+     */
+    private long retryAfterSeconds() {
+        double drainMillis = (executor.getQueue().size() + 1) * averageVerificationMillis() / executor.getMaximumPoolSize();
+        return Math.max(1, (long) Math.ceil(drainMillis / 1000));
+    }
+
+    /**
+     * @return The average time of the verifications so far, in milliseconds.
+     */
+    private double averageVerificationMillis() {
+        long count = verifications.sum();
+        return count == 0 ? 0.0 : verificationNanos.sum() / (double) count / 1_000_000;
+    }
+
+    /**
+     * Creates named daemon threads for the login pool.
+     */
+    private static class LoginThreadFactory implements ThreadFactory {
+
+        /**
+         * Sequence used to number the threads of the pool.
+         */
+        private final AtomicInteger sequence = new AtomicInteger();
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "login-verify-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
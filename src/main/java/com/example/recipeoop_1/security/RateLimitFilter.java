@@ -0,0 +1,326 @@
+package com.example.recipeoop_1.security;
+
+import com.example.recipeoop_1.exception.TooManyRequestsException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A Spring Security filter that limits the request rate of each client with token buckets.
+ * <p>
+ * Requests are sorted into {@link RouteGroup}s, each with its own limit, and each client gets one bucket per
+ * group. The client is the authenticated user or, for anonymous requests, the remote IP address, which is why
+ * this filter runs after {@link JwtRequestFilter}. A bucket holds up to {@code rate-limit.<group>.capacity}
+ * tokens and gains {@code rate-limit.<group>.refill-per-second} tokens per second; every request takes one,
+ * and a request finding the bucket empty is answered with HTTP 429 and a {@code Retry-After} header through
+ * the {@link com.example.recipeoop_1.exception.GlobalExceptionHandler}.
+ * </p>
+ * <p>
+ * The check costs one map lookup and one compare-and-set, with no locks: a bucket is stored as a single
+ * {@link AtomicLong}, the time at which it will be full again (the "theoretical arrival time" of the generic
+ * cell rate algorithm, which admits exactly the requests a token bucket admits). A bucket whose time has
+ * passed is full and behaves like a new one, so such buckets are evicted every
+ * {@code rate-limit.eviction-interval-ms} milliseconds and the number of buckets follows the number of
+ * recently active clients.
+ * </p>
+ *
+ * @author Elie Issa/Michel Ghazaly
+ * @version 1.1
+ * @since 2026-10-16
+ * @see RouteGroup
+ * @see TooManyRequestsException
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    /**
+     * The groups of routes that are rate limited separately.
+     */
+    public enum RouteGroup {
+        /**
+         * The authentication endpoints ({@code /api/auth/**}), limited per IP address.
+         */
+        AUTH,
+        /**
+         * Reads that may query every category collection: searches ({@code GET /api/recipes/search/**}),
+         * suggestions ({@code GET /api/recipes/suggest}) and the recipe listings ({@code GET /api/recipes},
+         * {@code /api/recipes/my-recipes} and {@code /api/recipes/admin/all}).
+         */
+        SEARCH,
+        /**
+         * Requests creating, updating or deleting recipes ({@code POST}, {@code PUT}, {@code PATCH} and
+         * {@code DELETE} under {@code /api/recipes}).
+         */
+        WRITE
+    }
+
+    /**
+     * Whether requests are limited at all.
+     */
+    private final boolean enabled;
+    /**
+     * Resolver handing rejections to the {@link com.example.recipeoop_1.exception.GlobalExceptionHandler}.
+     */
+    private final HandlerExceptionResolver exceptionResolver;
+    /**
+     * The limit of each group.
+     */
+    private final Map<RouteGroup, Limit> limits = new EnumMap<>(RouteGroup.class);
+    /**
+     * The buckets of each group, by client key.
+     */
+    private final Map<RouteGroup, ConcurrentHashMap<String, AtomicLong>> buckets = new EnumMap<>(RouteGroup.class);
+    /**
+     * Number of requests allowed, per group.
+     */
+    private final Map<RouteGroup, LongAdder> allowed = new EnumMap<>(RouteGroup.class);
+    /**
+     * Number of requests rejected, per group.
+     */
+    private final Map<RouteGroup, LongAdder> rejected = new EnumMap<>(RouteGroup.class);
+    /**
+     * Number of idle buckets evicted.
+     */
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Constructs a {@code RateLimitFilter} with the limits of each route group.
+     *
+     * @param enabled Whether requests are limited at all.
+     * @param exceptionResolver The resolver through which rejections reach the exception handlers.
+     * @param authCapacity The burst size of the {@link RouteGroup#AUTH} group.
+     * @param authRefillPerSecond The sustained rate, in requests per second, of the {@link RouteGroup#AUTH} group.
+     * @param searchCapacity The burst size of the {@link RouteGroup#SEARCH} group.
+     * @param searchRefillPerSecond The sustained rate, in requests per second, of the {@link RouteGroup#SEARCH} group.
+     * @param writeCapacity The burst size of the {@link RouteGroup#WRITE} group.
+     * @param writeRefillPerSecond The sustained rate, in requests per second, of the {@link RouteGroup#WRITE} group.
+     */
+    @Autowired
+    public RateLimitFilter(@Value("${rate-limit.enabled:true}") boolean enabled,
+                           @Qualifier("handlerExceptionResolver") HandlerExceptionResolver exceptionResolver,
+                           @Value("${rate-limit.auth.capacity:20}") long authCapacity,
+                           @Value("${rate-limit.auth.refill-per-second:5}") double authRefillPerSecond,
+                           @Value("${rate-limit.search.capacity:50}") long searchCapacity,
+                           @Value("${rate-limit.search.refill-per-second:20}") double searchRefillPerSecond,
+                           @Value("${rate-limit.write.capacity:30}") long writeCapacity,
+                           @Value("${rate-limit.write.refill-per-second:10}") double writeRefillPerSecond) {
+        this.enabled = enabled;
+        this.exceptionResolver = exceptionResolver;
+        limits.put(RouteGroup.AUTH, new Limit(authCapacity, authRefillPerSecond));
+        limits.put(RouteGroup.SEARCH, new Limit(searchCapacity, searchRefillPerSecond));
+        limits.put(RouteGroup.WRITE, new Limit(writeCapacity, writeRefillPerSecond));
+        for (RouteGroup group : RouteGroup.values()) {
+            buckets.put(group, new ConcurrentHashMap<>());
+            allowed.put(group, new LongAdder());
+            rejected.put(group, new LongAdder());
+        }
+    }
+
+    /**
+     * Skips the requests that belong to no rate-limited route group, or all requests when limiting is disabled.
+     *
+     * @param request The current HTTP request.
+     * @return {@code true} if the filter should not be applied, {@code false} otherwise.
+     */
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || routeGroup(request) == null;
+    }
+
+    /**
+     * Takes a token from the client's bucket of the request's route group, and rejects the request if there is none.
+     *
+     * @param request The {@link HttpServletRequest}.
+     * @param response The {@link HttpServletResponse}.
+     * @param chain The {@link FilterChain} to pass the request and response to the next filter.
+     * @throws ServletException if a servlet-specific error occurs.
+     * @throws IOException if an I/O error occurs.
+     */
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RouteGroup group = routeGroup(request);
+        long waitNanos = tryAcquire(group, clientKey(request, group), System.nanoTime());
+        if (waitNanos > 0) {
+            rejected.get(group).increment();
+            long retryAfterSeconds = TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1);
+            exceptionResolver.resolveException(request, response, null, new TooManyRequestsException(
+                    "Rate limit exceeded for " + group.name().toLowerCase(Locale.ROOT) + " requests", retryAfterSeconds));
+            return;
+        }
+        allowed.get(group).increment();
+        chain.doFilter(request, response);
+    }
+
+    /**
+     * Takes a token from a bucket.
+     *
+     * @param group The route group of the request.
+     * @param key The client key.
+     * @param nowNanos The current time, from {@link System#nanoTime()}.
+     * @return 0 if a token was taken, otherwise the time in nanoseconds until the next token is available.
+     */
+    long tryAcquire(RouteGroup group, String key, long nowNanos) {
+        Limit limit = limits.get(group);
+        AtomicLong bucket = buckets.get(group).get(key);
+        if (bucket == null) {
+            bucket = buckets.get(group).computeIfAbsent(key, k -> new AtomicLong(nowNanos));
+        }
+        while (true) {
+            long fullAt = bucket.get();
+            long next = Math.max(fullAt, nowNanos) + limit.intervalNanos;
+            long excess = next - nowNanos - limit.burstNanos;
+            if (excess > 0) {
+                return excess; // Empty: the bucket stays as it is
+            }
+            if (bucket.compareAndSet(fullAt, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Evicts the buckets that have refilled completely; a new bucket is created when their client returns.
+     */
+    @Scheduled(initialDelayString = "${rate-limit.eviction-interval-ms:60000}",
+            fixedDelayString = "${rate-limit.eviction-interval-ms:60000}")
+    public void evictIdleBuckets() {
+        long now = System.nanoTime();
+        for (ConcurrentHashMap<String, AtomicLong> groupBuckets : buckets.values()) {
+            groupBuckets.values().removeIf(bucket -> {
+                boolean idle = bucket.get() - now <= 0;
+                if (idle) {
+                    evictions.increment();
+                }
+                return idle;
+            });
+        }
+    }
+
+    /**
+     * Returns the rate limiting metrics.
+     *
+     * @return A map with, for each route group, its limit, the number of active buckets and the allowed and
+     * rejected requests, followed by the number of evicted buckets.
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", enabled);
+        for (RouteGroup group : RouteGroup.values()) {
+            Limit limit = limits.get(group);
+            Map<String, Object> groupStats = new LinkedHashMap<>();
+            groupStats.put("capacity", limit.capacity);
+            groupStats.put("refillPerSecond", limit.refillPerSecond);
+            groupStats.put("buckets", buckets.get(group).size());
+            groupStats.put("allowed", allowed.get(group).sum());
+            groupStats.put("rejected", rejected.get(group).sum());
+            result.put(group.name().toLowerCase(Locale.ROOT), groupStats);
+        }
+        result.put("evictions", evictions.sum());
+        return result;
+    }
+
+    /**
+     * Sorts a request into its route group.
+     *
+     * @param request The HTTP request.
+     * @return The route group, or {@code null} if the request is not rate limited.
+     */
+    static RouteGroup routeGroup(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (path.startsWith("/api/auth/")) {
+            return RouteGroup.AUTH;
+        }
+        if (!path.startsWith("/api/recipes")) {
+            return null;
+        }
+        String method = request.getMethod();
+        if ("GET".equals(method)) {
+            return isFanOutRead(path) ? RouteGroup.SEARCH : null;
+        }
+        if ("POST".equals(method) || "PUT".equals(method) || "PATCH".equals(method) || "DELETE".equals(method)) {
+            return RouteGroup.WRITE;
+        }
+        return null;
+    }
+
+    /**
+     * Tells whether a {@code GET} under {@code /api/recipes} may query every category collection. Reads of a
+     * single recipe and of the category list are answered from one collection or from memory, and are not limited.
+     *
+     * @param path The request path, without the context path.
+     * @return {@code true} for the searches, suggestions and recipe listings.
+     */
+    private static boolean isFanOutRead(String path) {
+        return path.startsWith("/api/recipes/search/")
+                || path.equals("/api/recipes") || path.equals("/api/recipes/")
+                || path.equals("/api/recipes/suggest")
+                || path.equals("/api/recipes/my-recipes")
+                || path.equals("/api/recipes/admin/all");
+    }
+
+    /**
+     * Identifies the client of a request: the authenticated user, or the remote IP address for anonymous
+     * requests and for the {@link RouteGroup#AUTH} group, whose requests are made before logging in.
+     * Behind a proxy, the remote address is the client's only because {@code server.forward-headers-strategy}
+     * makes the server take it from the proxy's forwarded headers.
+     *
+     * @param request The HTTP request.
+     * @param group The route group of the request.
+     * @return The client key.
+     */
+    private static String clientKey(HttpServletRequest request, RouteGroup group) {
+        if (group != RouteGroup.AUTH) {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication != null && authentication.isAuthenticated()
+                    && !(authentication instanceof AnonymousAuthenticationToken)) {
+                return "user:" + authentication.getName();
+            }
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    /**
+     * The limit of a route group, with the derived bucket timings.
+     */
+    private static final class Limit {
+        private final long capacity;
+        private final double refillPerSecond;
+        /**
+         * Time, in nanoseconds, to regain one token.
+         */
+        private final long intervalNanos;
+        /**
+         * Time, in nanoseconds, to refill an empty bucket.
+         */
+        private final long burstNanos;
+
+        private Limit(long capacity, double refillPerSecond) {
+            this.capacity = Math.max(1, capacity);
+            this.refillPerSecond = refillPerSecond;
+            this.intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / refillPerSecond));
+            this.burstNanos = this.capacity * intervalNanos;
+        }
+    }
+}
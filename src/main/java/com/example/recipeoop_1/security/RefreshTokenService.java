@@ -0,0 +1,159 @@
+package com.example.recipeoop_1.security;
+
+import com.example.recipeoop_1.model.RefreshToken;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Optional;
+
+/**
+ * Issues and redeems the long-lived refresh tokens handed out at login.
+ * <p>
+ * A refresh token lets a client obtain a new access token through {@code /api/auth/refresh} without sending
+ * the password again, so the expensive BCrypt check only runs at the initial login. Redeeming a token costs
+ * one HMAC and one indexed lookup:
+ * </p>
+ * <ul>
+ * <li>A token is 256 random bits, Base64url encoded. Only its HMAC-SHA256 under a key derived from
+ * {@code jwt.secret} is stored (see {@link RefreshToken}).</li>
+ * <li>Tokens are single-use: {@link #redeem(String)} removes the stored token in the same operation that finds
+ * it, and the caller issues a new one. A token presented twice is therefore rejected the second time.</li>
+ * <li>Tokens expire after {@code jwt.refresh-expiration} seconds and are then deleted by a TTL index.</li>
+ * </ul>
+ *
+ * @author Elie Issa/Michel Ghazaly
+ * @version 1.0
+ * @since 2026-10-16
+ * @see RefreshToken
+ * @see com.example.recipeoop_1.controller.AuthController
+ */
+@Service
+public class RefreshTokenService {
+
+    /**
+     * Logger for this class.
+     */
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    /**
+     * The MAC algorithm used to hash the tokens.
+     */
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    /**
+     * Number of random bytes in a token.
+     */
+    private static final int TOKEN_BYTES = 32;
+
+    /**
+     * MongoTemplate for database interactions.
+     */
+    private final MongoTemplate mongoTemplate;
+    /**
+     * The key under which the tokens are hashed.
+     */
+    private final SecretKeySpec hashKey;
+    /**
+     * How long a token stays valid after it was issued.
+     */
+    private final Duration validity;
+    /**
+     * Source of the token values.
+     */
+    private final SecureRandom random = new SecureRandom();
+
+    /**
+     * Constructs a {@code RefreshTokenService} with the necessary dependencies and settings.
+     *
+     * @param mongoTemplate The Spring Data {@link MongoTemplate} for direct MongoDB interaction.
+     * @param secret The JWT secret, from which the hashing key is derived.
+     * @param validitySeconds How long, in seconds, a token stays valid after it was issued.
+     */
+    @Autowired
+    public RefreshTokenService(MongoTemplate mongoTemplate,
+                               @Value("${jwt.secret:6c0f0014f71deeacf37fa86a8d4eb27d5a9b7a234ec6f945c79bc57c24a32bb5c28f9e01a2e76c3fdfa76152c67b4f12}") String secret,
+                               @Value("${jwt.refresh-expiration:2592000}") long validitySeconds) {
+        this.mongoTemplate = mongoTemplate;
+        this.hashKey = new SecretKeySpec(("refresh-token:" + secret).getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM);
+        this.validity = Duration.ofSeconds(validitySeconds);
+    }
+
+    /**
+     * Creates the TTL index that removes expired tokens, once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndexes() {
+        try {
+            mongoTemplate.indexOps(RefreshToken.class)
+                    .ensureIndex(new Index().on("expiresAt", Sort.Direction.ASC).expire(0));
+        } catch (RuntimeException e) {
+            log.warn("Could not create the TTL index on '{}': {}", RefreshToken.COLLECTION_NAME, e.getMessage());
+        }
+    }
+
+    /**
+     * Issues a new refresh token for a user.
+     *
+     * @param username The username of the user.
+     * @return The token to hand to the client. It is not stored and cannot be recovered.
+     */
+    public String issue(String username) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        mongoTemplate.insert(new RefreshToken(hash(token), username, new Date(System.currentTimeMillis() + validity.toMillis())));
+        return token;
+    }
+
+    /**
+     * Redeems a refresh token: removes it and returns the user it was issued to.
+     *
+     * @param token The token presented by the client.
+     * @return The username, or an empty {@link Optional} if the token is unknown, already used or expired.
+     */
+    public Optional<String> redeem(String token) {
+        if (token == null || token.isBlank()) {
+            return Optional.empty();
+        }
+        RefreshToken stored = mongoTemplate.findAndRemove(
+                new Query(Criteria.where("_id").is(hash(token.trim()))), RefreshToken.class);
+        if (stored == null || stored.getExpiresAt() == null || stored.getExpiresAt().before(new Date())) {
+            return Optional.empty(); // The TTL monitor runs once a minute, so expired tokens may still be present
+        }
+        return Optional.of(stored.getUsername());
+    }
+
+    /**
+     * Computes the stored form of a token.
+     *
+     * @param token The token.
+     * @return The Base64url encoded HMAC-SHA256 of the token.
+     */
+    private String hash(String token) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(hashKey);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(mac.doFinal(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(HMAC_ALGORITHM + " is not available", e); // Required of every JVM
+        }
+    }
+}
@@ -0,0 +1,312 @@
+package com.example.recipeoop_1.security;
+
+import com.example.recipeoop_1.model.RevokedToken;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Revokes access tokens before they expire, and tells {@link JwtRequestFilter} whether a token was revoked.
+ * <p>
+ * Revoked tokens are recorded by their JWT ID in the {@value RevokedToken#COLLECTION_NAME} collection (see
+ * {@link RevokedToken}) until they would have expired. Looking every request up in that collection would add
+ * a database round trip to every authenticated request, so each node also keeps a {@link BloomFilter} of the
+ * revoked IDs:
+ * </p>
+ * <ul>
+ * <li>If the filter does not contain the ID, the token is not revoked. This is the common case and costs no I/O.</li>
+ * <li>Otherwise the ID is looked up in the collection, which rules out the filter's false positives.
+ * Confirmed revocations are cached, so replaying a revoked token does not reach the database either.</li>
+ * <li>Every {@code auth.revocation.refresh-interval-ms} milliseconds, the IDs revoked since the previous refresh
+ * (on any node) are added to the filter. Every {@code auth.revocation.rebuild-interval}, the filter is rebuilt
+ * from the unexpired entries, which drops the expired ones.</li>
+ * </ul>
+ * <p>
+ * A revocation made on another node therefore takes effect here within one refresh interval. Until the filter
+ * has been loaded for the first time, every lookup goes to the collection.
+ * </p>
+ *
+ * @author Elie Issa/Michel Ghazaly
+ * @version 1.0
+ * @since 2026-10-16
+ * @see RevokedToken
+ * @see BloomFilter
+ */
+@Service
+public class TokenRevocationService {
+
+    /**
+     * Logger for this class.
+     */
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    /**
+     * How far back, in milliseconds, an incremental refresh looks before the latest revocation it has seen,
+     * to tolerate clock differences between nodes and writes that became visible late.
+     */
+    private static final long REFRESH_OVERLAP_MILLIS = 10_000;
+
+    /**
+     * MongoTemplate for database interactions.
+     */
+    private final MongoTemplate mongoTemplate;
+    /**
+     * Utility reading the claims of the tokens to revoke.
+     */
+    private final JwtTokenUtil jwtTokenUtil;
+    /**
+     * The number of revoked tokens the filter is sized for.
+     */
+    private final long expectedRevocations;
+    /**
+     * The false positive rate of the filter at that size.
+     */
+    private final double falsePositiveRate;
+    /**
+     * How often the filter is rebuilt from scratch.
+     */
+    private final Duration rebuildInterval;
+    /**
+     * IDs whose revocation has been confirmed against the collection.
+     */
+    private final Cache<String, Boolean> confirmed;
+
+    /**
+     * The current filter; replaced as a whole on every rebuild.
+     */
+    private volatile BloomFilter filter;
+    /**
+     * The latest revocation time added to the filter.
+     */
+    private volatile long latestRevocationMillis;
+    /**
+     * When the filter was last rebuilt, or 0 if it was never loaded.
+     */
+    private volatile long rebuiltAtMillis;
+
+    /**
+     * Number of tokens checked for revocation.
+     */
+    private final LongAdder checks = new LongAdder();
+    /**
+     * Number of checks the filter answered alone, the token being certainly not revoked.
+     */
+    private final LongAdder filterNegatives = new LongAdder();
+    /**
+     * Number of checks that had to look the token up in the collection.
+     */
+    private final LongAdder storeLookups = new LongAdder();
+    /**
+     * Number of lookups for tokens the filter reported but which were not revoked.
+     */
+    private final LongAdder falsePositives = new LongAdder();
+    /**
+     * Number of tokens revoked by this node.
+     */
+    private final LongAdder revocations = new LongAdder();
+    /**
+     * Number of filter loads, refreshes and rebuilds that failed.
+     */
+    private final LongAdder refreshFailures = new LongAdder();
+
+    /**
+     * Constructs a {@code TokenRevocationService} with the necessary dependencies and settings.
+     *
+     * @param mongoTemplate The Spring Data {@link MongoTemplate} for direct MongoDB interaction.
+     * @param jwtTokenUtil The {@link JwtTokenUtil} reading the claims of the tokens to revoke.
+     * @param expectedRevocations The number of unexpired revoked tokens the filter is sized for.
+     * @param falsePositiveRate The false positive rate of the filter at that size.
+     * @param rebuildInterval How often the filter is rebuilt from the unexpired entries.
+     */
+    @Autowired
+    public TokenRevocationService(MongoTemplate mongoTemplate, JwtTokenUtil jwtTokenUtil,
+                                  @Value("${auth.revocation.expected-revocations:100000}") long expectedRevocations,
+                                  @Value("${auth.revocation.false-positive-rate:0.001}") double falsePositiveRate,
+                                  @Value("${auth.revocation.rebuild-interval:PT1H}") Duration rebuildInterval) {
+        this.mongoTemplate = mongoTemplate;
+        this.jwtTokenUtil = jwtTokenUtil;
+        this.expectedRevocations = expectedRevocations;
+        this.falsePositiveRate = falsePositiveRate;
+        this.rebuildInterval = rebuildInterval;
+        this.filter = new BloomFilter(expectedRevocations, falsePositiveRate);
+        this.confirmed = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(rebuildInterval)
+                .build();
+    }
+
+    /**
+     * Creates the TTL index that removes expired entries and the index read by the refreshes, and loads the filter, once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        try {
+            mongoTemplate.indexOps(RevokedToken.class)
+                    .ensureIndex(new Index().on("expiresAt", Sort.Direction.ASC).expire(0));
+            mongoTemplate.indexOps(RevokedToken.class).ensureIndex(new Index().on("revokedAt", Sort.Direction.ASC));
+            rebuild();
+        } catch (RuntimeException e) {
+            refreshFailures.increment();
+            log.warn("Could not load the revoked tokens; checking every token against '{}' until the next refresh: {}",
+                    RevokedToken.COLLECTION_NAME, e.getMessage());
+        }
+    }
+
+    /**
+     * Tells whether the token with the given ID was revoked.
+     *
+     * @param jti The JWT ID of the token, or {@code null} for tokens issued without one.
+     * @return {@code true} if the token was revoked.
+     */
+    public boolean isRevoked(String jti) {
+        if (jti == null) {
+            return false;
+        }
+        checks.increment();
+        if (rebuiltAtMillis != 0 && !filter.mightContain(jti)) {
+            filterNegatives.increment();
+            return false;
+        }
+        if (confirmed.getIfPresent(jti) != null) {
+            return true;
+        }
+        storeLookups.increment();
+        boolean revoked = mongoTemplate.exists(new Query(Criteria.where("_id").is(jti)), RevokedToken.class);
+        if (revoked) {
+            confirmed.put(jti, Boolean.TRUE);
+        } else if (rebuiltAtMillis != 0) {
+            falsePositives.increment();
+        }
+        return revoked;
+    }
+
+    /**
+     * Revokes an access token until it expires.
+     *
+     * @param token The token to revoke; it must be valid.
+     * @return {@code true} if the token was revoked, {@code false} if it has no JWT ID and cannot be revoked.
+     * @throws io.jsonwebtoken.JwtException if the token is malformed, expired, or has an invalid signature.
+     */
+    public boolean revoke(String token) {
+        String jti = jwtTokenUtil.getIdFromToken(token);
+        if (jti == null) {
+            return false; // Issued before tokens carried an ID; it expires normally
+        }
+        mongoTemplate.save(new RevokedToken(jti, jwtTokenUtil.getUsernameFromToken(token),
+                jwtTokenUtil.getExpirationDateFromToken(token), new Date()));
+        filter.put(jti);
+        confirmed.put(jti, Boolean.TRUE);
+        revocations.increment();
+        log.info("Revoked token {} of user '{}'", jti, jwtTokenUtil.getUsernameFromToken(token));
+        return true;
+    }
+
+    /**
+     * Adds the revocations made on any node since the previous refresh to the filter, or rebuilds the filter
+     * when it is due. Failures are logged and counted; the current filter stays in use.
+     */
+    @Scheduled(initialDelayString = "${auth.revocation.refresh-interval-ms:5000}",
+            fixedDelayString = "${auth.revocation.refresh-interval-ms:5000}")
+    public void refresh() {
+        try {
+            if (rebuiltAtMillis == 0 || System.currentTimeMillis() - rebuiltAtMillis >= rebuildInterval.toMillis()) {
+                rebuild();
+            } else {
+                addRevokedSince(latestRevocationMillis - REFRESH_OVERLAP_MILLIS, filter);
+            }
+        } catch (RuntimeException e) {
+            refreshFailures.increment();
+            log.warn("Failed to refresh the revoked token filter: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the metrics of the revocation checks.
+     *
+     * @return A map with the check counters, the share of checks answered by the filter alone, and the filter
+     * size and age.
+     */
+    public Map<String, Object> getStats() {
+        long checkCount = checks.sum();
+        long negatives = filterNegatives.sum();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("checks", checkCount);
+        result.put("filterNegatives", negatives);
+        result.put("filterRatio", checkCount == 0 ? 0.0 : (double) negatives / checkCount);
+        result.put("storeLookups", storeLookups.sum());
+        result.put("falsePositives", falsePositives.sum());
+        result.put("revocations", revocations.sum());
+        result.put("refreshFailures", refreshFailures.sum());
+        result.put("filterBits", filter.bitSize());
+        result.put("filterHashes", filter.hashCount());
+        result.put("ageMillis", rebuiltAtMillis == 0 ? -1L : System.currentTimeMillis() - rebuiltAtMillis);
+        return result;
+    }
+
+    /**
+     * Builds a new filter from the unexpired entries and swaps it in.
+     */
+    private void rebuild() {
+        long startedAt = System.currentTimeMillis();
+        BloomFilter rebuilt = new BloomFilter(expectedRevocations, falsePositiveRate);
+        long latest = addRevoked(new Query(Criteria.where("expiresAt").gt(new Date(startedAt))), rebuilt, 0);
+        // A revocation saved while the entries were read may be missing; the next refresh looks back far enough to add it
+        filter = rebuilt;
+        latestRevocationMillis = latest == 0 ? startedAt : Math.min(latest, startedAt);
+        rebuiltAtMillis = startedAt;
+        log.debug("Rebuilt the revoked token filter in {} ms", System.currentTimeMillis() - startedAt);
+    }
+
+    /**
+     * Adds the IDs revoked at or after the given time to a filter.
+     *
+     * @param sinceMillis The earliest revocation time to add.
+     * @param target The filter to add the IDs to.
+     */
+    private void addRevokedSince(long sinceMillis, BloomFilter target) {
+        long latest = addRevoked(new Query(Criteria.where("revokedAt").gte(new Date(sinceMillis))), target, sinceMillis);
+        latestRevocationMillis = Math.max(latestRevocationMillis, latest);
+    }
+
+    /**
+     * Streams the IDs of the entries matching a query into a filter.
+     *
+     * @param query The entries to add.
+     * @param target The filter to add the IDs to.
+     * @param latest The latest revocation time seen so far.
+     * @return The latest revocation time among {@code latest} and the added entries.
+     */
+    private long addRevoked(Query query, BloomFilter target, long latest) {
+        query.fields().include("_id").include("revokedAt");
+        try (Stream<Document> entries = mongoTemplate.stream(query, Document.class, RevokedToken.COLLECTION_NAME)) {
+            for (Document entry : (Iterable<Document>) entries::iterator) {
+                target.put(String.valueOf(entry.get("_id")));
+                Date revokedAt = entry.getDate("revokedAt");
+                if (revokedAt != null) {
+                    latest = Math.max(latest, revokedAt.getTime());
+                }
+            }
+        }
+        return latest;
+    }
+}
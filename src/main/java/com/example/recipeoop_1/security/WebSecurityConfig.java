@@ -1,11 +1,14 @@
 package com.example.recipeoop_1.security;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.annotation.web.configuration.WebSecurityCustomizer;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -25,14 +28,20 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
  * <li>{@link EnableMethodSecurity}: Enables method-level security annotations like
  * {@code @PreAuthorize} on controller methods.</li>
  * </ul>
+ * <p>
+ * The public resources listed in {@code security.ignored-paths} (static pages and assets, the Javadoc tree and
+ * the health check) bypass Spring Security entirely, so serving them costs a plain servlet dispatch. The
+ * JWT and rate limiting filters only run inside the security filter chain.
+ * </p>
  *
  * @author Elie Issa/Michel Ghazaly
- * @version 1.1
+ * @version 1.3
  * @since 2025-05-14
  * @see HttpSecurity
  * @see SecurityFilterChain
  * @see JwtAuthenticationEntryPoint
  * @see JwtRequestFilter
+ * @see RateLimitFilter
  */
 @Configuration
 @EnableWebSecurity
@@ -41,6 +50,7 @@ public class WebSecurityConfig {
 
     private final JwtAuthenticationEntryPoint jwtAuthenticationEntryPoint;
     private final JwtRequestFilter jwtRequestFilter;
+    private final RateLimitFilter rateLimitFilter;
 
     /**
      * Constructs the {@code WebSecurityConfig} with necessary JWT components.
@@ -48,12 +58,15 @@ public class WebSecurityConfig {
      * @param jwtAuthenticationEntryPoint The entry point to commence authentication when an
      * {@link org.springframework.security.core.AuthenticationException} is thrown.
      * @param jwtRequestFilter            The filter that processes JWT tokens from incoming requests.
+     * @param rateLimitFilter             The filter that limits the request rate of each client.
      */
     @Autowired
     public WebSecurityConfig(JwtAuthenticationEntryPoint jwtAuthenticationEntryPoint,
-                             JwtRequestFilter jwtRequestFilter) {
+                             JwtRequestFilter jwtRequestFilter,
+                             RateLimitFilter rateLimitFilter) {
         this.jwtAuthenticationEntryPoint = jwtAuthenticationEntryPoint;
         this.jwtRequestFilter = jwtRequestFilter;
+        this.rateLimitFilter = rateLimitFilter;
     }
 
     /**
@@ -76,6 +89,7 @@ public class WebSecurityConfig {
      * <li>Configuring session management to be stateless, as JWTs are used for session handling.</li>
      * <li>Adding the {@link JwtRequestFilter} before the standard {@link UsernamePasswordAuthenticationFilter}
      * to process JWTs in requests.</li>
+     * <li>Adding the {@link RateLimitFilter} right after it, so that authenticated clients are limited per user.</li>
      * </ul>
      *
      * @param http The {@link HttpSecurity} object to configure.
@@ -119,7 +133,65 @@ public class WebSecurityConfig {
         // Add the custom JWT request filter before the standard username/password authentication filter.
         // This ensures JWT tokens are processed for authentication before other mechanisms.
         http.addFilterBefore(jwtRequestFilter, UsernamePasswordAuthenticationFilter.class);
+        // Rate limiting needs the user identified by the JWT filter, so it runs right after it.
+        http.addFilterAfter(rateLimitFilter, JwtRequestFilter.class);
 
         return http.build();
     }
-}
\ No newline at end of file
+
+    /**
+     * Excludes the public resources from Spring Security.
+     * <p>
+     * Requests matching these patterns do not enter the security filter chain at all: no security context is
+     * set up, and neither the {@link JwtRequestFilter} nor the authorization rules are evaluated. Only resources
+     * that every client may read belong here; Spring Security logs a warning for each pattern at startup.
+     * </p>
+     *
+     * @param ignoredPaths The path patterns to exclude, from {@code security.ignored-paths}.
+     * @return The customizer registering the patterns.
+     */
+    @Bean
+    public WebSecurityCustomizer ignoredPathsCustomizer(
+            @Value("${security.ignored-paths:/,/index.html,/customer.html,/chef.html,/css/**,/js/**,/images/**,/favicon.ico,/apidocs/**,/health}")
+            String[] ignoredPaths) {
+        return web -> {
+            if (ignoredPaths.length > 0) {
+                web.ignoring().requestMatchers(ignoredPaths);
+            }
+        };
+    }
+
+    /**
+     * Keeps Spring Boot from also registering the {@link JwtRequestFilter} with the servlet container.
+     * <p>
+     * The filter already runs inside the security filter chain; as a container filter it would also run for
+     * the paths excluded from Spring Security.
+     * </p>
+     *
+     * @param jwtRequestFilter The JWT filter.
+     * @return A disabled registration of the filter.
+     */
+    @Bean
+    public FilterRegistrationBean<JwtRequestFilter> jwtRequestFilterRegistration(JwtRequestFilter jwtRequestFilter) {
+        FilterRegistrationBean<JwtRequestFilter> registration = new FilterRegistrationBean<>(jwtRequestFilter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
+    /**
+     * Keeps Spring Boot from also registering the {@link RateLimitFilter} with the servlet container.
+     * <p>
+     * As a filter bean it would otherwise run before the security filter chain, where no user is identified
+     * yet, and {@link org.springframework.web.filter.OncePerRequestFilter} would then skip it inside the chain.
+     * </p>
+     *
+     * @param rateLimitFilter The rate limiting filter.
+     * @return A disabled registration of the filter.
+     */
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilterRegistration(RateLimitFilter rateLimitFilter) {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(rateLimitFilter);
+        registration.setEnabled(false);
+        return registration;
+    }
+}
@@ -0,0 +1,197 @@
+package com.example.recipeoop_1.service;
+
+import com.example.recipeoop_1.exception.CategoryQueryException;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Runs one query per category collection concurrently and merges the results.
+ * <p>
+ * Recipes are stored in one MongoDB collection per category (see {@link CategoryService}),
+ * so every search that is not limited to a single category has to query each collection.
+ * Instead of issuing those queries one after another, this executor submits them all at once
+ * to a bounded thread pool and waits for them together, so the latency of a search is close to
+ * that of the slowest collection rather than the sum of all of them.
+ * </p><p>
+ * The behaviour is as follows:
+ * </p>
+ * <ul>
+ * <li>At most {@code recipe.fanout.parallelism} queries run at the same time; further queries wait
+ * in a queue of {@code recipe.fanout.queue-capacity} entries. When the queue is full, the call is rejected
+ * with a {@link CategoryQueryException} instead of running queries on the calling thread, where the time
+ * budget could not stop them.</li>
+ * <li>All queries of one call share a time budget of {@code recipe.fanout.timeout-ms} milliseconds, counted
+ * from the first submission. Since they run concurrently, this is also the time budget of each individual
+ * query.</li>
+ * <li>As soon as one query fails, or the time budget is used up, all queries that are still
+ * pending or running are cancelled and a {@link CategoryQueryException} is thrown.</li>
+ * <li>The merged result keeps the order of the given collection names, and the order of the
+ * documents within each collection, regardless of which query finishes first.</li>
+ * </ul>
+ *
+ * @author Elie Issa/Michel Ghazaly
+ * @version 1.1
+ * @since 2026-10-16
+ * @see RecipeServiceImpl
+ * @see CategoryQueryException
+ */
+@Component
+public class CategoryFanOutExecutor {
+
+    /**
+     * Logger for this class.
+     */
+    private static final Logger log = LoggerFactory.getLogger(CategoryFanOutExecutor.class);
+
+    /**
+     * The bounded pool on which the per-collection queries are executed.
+     */
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * The time budget, in milliseconds, shared by all queries of a single fan-out call.
+     */
+    private final long timeoutMillis;
+
+    /**
+     * Constructs a {@code CategoryFanOutExecutor} with the given pool limits.
+     *
+     * @param parallelism The maximum number of per-collection queries running at the same time.
+     * @param queueCapacity The number of queries that may wait for a free thread before further calls
+     * are rejected.
+     * @param timeoutMillis The time budget, in milliseconds, of a single fan-out call.
+     */
+    @Autowired
+    public CategoryFanOutExecutor(@Value("${recipe.fanout.parallelism:16}") int parallelism,
+                                  @Value("${recipe.fanout.queue-capacity:512}") int queueCapacity,
+                                  @Value("${recipe.fanout.timeout-ms:5000}") long timeoutMillis) {
+        this.timeoutMillis = timeoutMillis;
+        this.executor = new ThreadPoolExecutor(
+                parallelism, parallelism,
+                60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(queueCapacity),
+                new FanOutThreadFactory(),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Runs {@code perCollectionQuery} against every collection in {@code collectionNames} concurrently
+     * and returns the concatenation of the results.
+     * <p>
+     * A single collection is queried directly on the calling thread, since there is nothing to
+     * parallelize.
+     * </p>
+     *
+     * @param <T> The type of the documents returned by the query.
+     * @param collectionNames The names of the collections to query. The merged result follows this order.
+     * @param perCollectionQuery The query to run, given the name of one collection. Must be thread-safe.
+     * @return A {@link List} containing the results of every collection, in the order of {@code collectionNames}.
+     * @throws CategoryQueryException if any query fails, the time budget is exceeded, the pool's queue is full,
+     * or the calling thread is interrupted while waiting.
+     */
+    public <T> List<T> fanOut(List<String> collectionNames, Function<String, List<T>> perCollectionQuery) {
+        if (collectionNames.isEmpty()) {
+            return new ArrayList<>();
+        }
+        if (collectionNames.size() == 1) {
+            return new ArrayList<>(perCollectionQuery.apply(collectionNames.get(0)));
+        }
+
+        int count = collectionNames.size();
+        CompletionService<List<T>> completionService = new ExecutorCompletionService<>(executor);
+        Map<Future<List<T>>, Integer> positions = new IdentityHashMap<>(count);
+        List<List<T>> resultsByPosition = new ArrayList<>(Collections.nCopies(count, null));
+        boolean completed = false;
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        try {
+            for (int i = 0; i < count; i++) {
+                String collectionName = collectionNames.get(i);
+                positions.put(completionService.submit(() -> perCollectionQuery.apply(collectionName)), i);
+            }
+
+            for (int received = 0; received < count; received++) {
+                Future<List<T>> future = completionService.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                if (future == null) {
+                    throw new CategoryQueryException("Query across " + count + " categories timed out after "
+                            + timeoutMillis + " ms");
+                }
+                resultsByPosition.set(positions.get(future), future.get());
+            }
+            completed = true;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            throw new CategoryQueryException("Query across " + count + " categories failed: " + cause.getMessage(), cause);
+        } catch (RejectedExecutionException e) {
+            log.warn("Fan-out over {} collections rejected: {} queries queued", count, executor.getQueue().size());
+            throw new CategoryQueryException("Too many concurrent queries to query " + count + " categories", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CategoryQueryException("Interrupted while querying " + count + " categories", e);
+        } finally {
+            if (!completed) {
+                positions.keySet().forEach(future -> future.cancel(true));
+                log.debug("Cancelled outstanding queries of an incomplete fan-out over {} collections", count);
+            }
+        }
+
+        List<T> merged = new ArrayList<>();
+        for (List<T> partial : resultsByPosition) {
+            merged.addAll(partial);
+        }
+        return merged;
+    }
+
+    /**
+     * Stops the query pool when the application context is closed.
+     * Queries that are still running are interrupted.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Creates named daemon threads for the query pool, so they are easy to recognize in thread dumps
+     * and never keep the JVM alive on their own.
+     */
+    private static class FanOutThreadFactory implements ThreadFactory {
+
+        /**
+         * Sequence used to number the threads of the pool.
+         */
+        private final AtomicInteger sequence = new AtomicInteger();
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "recipe-fanout-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -1,10 +1,25 @@
 package com.example.recipeoop_1.service;
 
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
 
 /**
@@ -17,10 +32,33 @@ import java.util.stream.Collectors;
  * </p><p>
  * The strategy of using separate MongoDB collections for each category (e.g., "recipe_desserts",
  * "recipe_main_course") is managed here.
+ * </p><p>
+ * To avoid listing the database collections on every request, the known category collections are
+ * kept in an in-memory registry. The registry is an immutable, versioned snapshot that is replaced
+ * whenever it changes:
+ * </p>
+ * <ul>
+ * <li>{@link #ensureCategoryExists(String)} adds newly created collections directly.</li>
+ * <li>{@link #onCategoryCollectionDropped(String)} removes collections dropped by this node.</li>
+ * <li>{@link #refreshCategories()} reloads the snapshot from MongoDB in the background
+ * (every {@code recipe.categories.refresh-interval-ms} milliseconds), picking up collections
+ * created or dropped by other nodes.</li>
+ * </ul>
+ * <p>
+ * Another node may drop a collection that this node's registry still knows, and an insert made here
+ * before the next refresh then re-creates it implicitly, without indexes. The registry therefore keeps
+ * the UUID MongoDB assigns to each collection: a refresh that finds a new UUID under a name re-applies
+ * the declared indexes to that collection, so such a collection is unindexed for at most one refresh interval.
+ * </p>
+ * Hit/miss counters and the age of the snapshot are available through {@link #getRegistryStats()}.
+ * <p>
+ * In {@link RecipeStorage#SINGLE_COLLECTION single-collection} storage mode there are no category
+ * collections. The registry then holds the same "recipe_" names, derived from the distinct category keys
+ * in the {@value RecipeStorage#SINGLE_COLLECTION_NAME} collection, and no collections are created.
  * </p>
  *
  * @author Elie Issa/Michel Ghazaly
- * @version 1.2
+ * @version 1.6
  * @since 2025-05-14
  * @see MongoTemplate
  * @see Service
@@ -28,48 +66,137 @@ import java.util.stream.Collectors;
 @Service
 public class CategoryService {
 
+    /**
+     * Logger for this class.
+     */
+    private static final Logger log = LoggerFactory.getLogger(CategoryService.class);
+
+    /**
+     * The prefix shared by all category collection names; the single place where it is defined.
+     *
+     * @see #isCategoryCollection(String)
+     */
+    public static final String COLLECTION_PREFIX = "recipe_";
+
     /**
      * The Spring Data {@link MongoTemplate} for interacting with MongoDB.
      * This is injected by Spring and used for all database operations within this service.
      */
     private final MongoTemplate mongoTemplate;
 
+    /**
+     * Whether all recipes are stored in a single collection, in which case categories are
+     * derived from the stored category keys instead of collection names.
+     */
+    private final boolean singleCollection;
+
+    /**
+     * RecipeIndexManager applying the declared indexes to newly created category collections.
+     */
+    private final RecipeIndexManager indexManager;
+
+    /**
+     * The current registry snapshot, or {@code null} until it has been loaded for the first time.
+     * Readers never lock; writers replace the whole snapshot while holding this service's monitor.
+     */
+    private volatile CategorySnapshot snapshot;
+
+    /**
+     * Number of registry lookups answered from the snapshot.
+     */
+    private final LongAdder hits = new LongAdder();
+    /**
+     * Number of registry lookups that had to go to MongoDB.
+     */
+    private final LongAdder misses = new LongAdder();
+    /**
+     * Number of completed reloads of the snapshot from MongoDB.
+     */
+    private final LongAdder refreshes = new LongAdder();
+    /**
+     * Number of reloads that failed or were skipped because of a concurrent local change.
+     */
+    private final LongAdder refreshFailures = new LongAdder();
+
     /**
      * Constructs a {@code CategoryService} with the necessary {@link MongoTemplate}.
      *
      * @param mongoTemplate The Spring Data {@link MongoTemplate} for interacting with MongoDB.
+     * @param indexManager The {@link RecipeIndexManager} applying the declared indexes to new collections.
+     * @param storageMode The configured storage layout ({@value RecipeStorage#MODE_PROPERTY}).
      */
     @Autowired
-    public CategoryService(MongoTemplate mongoTemplate) {
+    public CategoryService(MongoTemplate mongoTemplate, RecipeIndexManager indexManager,
+                           @Value("${" + RecipeStorage.MODE_PROPERTY + ":" + RecipeStorage.PER_CATEGORY + "}") String storageMode) {
         this.mongoTemplate = mongoTemplate;
+        this.indexManager = indexManager;
+        this.singleCollection = RecipeStorage.SINGLE_COLLECTION.equals(storageMode);
     }
 
     /**
      * Retrieves a list of all available recipe category names.
      * <p>
-     * Categories are derived by listing all collection names in the MongoDB database
+     * Categories are derived from the names of all collections in the MongoDB database
      * that start with the prefix "recipe_". The "recipe_" prefix is then removed
-     * to yield the user-friendly category name.
+     * to yield the user-friendly category name. The list is served from the in-memory
+     * registry; MongoDB is only queried if the registry has not been loaded yet.
      * </p>
      * Example: If collections "recipe_desserts" and "recipe_main_course" exist,
      * this method will return a list containing "desserts" and "main_course".
      *
-     * @return A {@link List} of strings, where each string is a discovered category name.
-     * Returns an empty list if no collections matching the pattern are found.
+     * @return A {@link List} of strings, where each string is a discovered category name,
+     * in alphabetical order. Returns an empty list if no collections matching the pattern are found.
      */
     public List<String> getAllCategories() {
-        return mongoTemplate.getCollectionNames().stream()
-                .filter(name -> name.startsWith("recipe_"))
-                .map(name -> name.substring("recipe_".length()))
+        CategorySnapshot current = snapshot;
+        if (current != null) {
+            hits.increment();
+        } else {
+            current = currentSnapshot();
+        }
+        return current.collectionNames.stream()
+                .map(name -> name.substring(COLLECTION_PREFIX.length()))
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Checks whether the given category collection exists.
+     * <p>
+     * Collections known to the registry are answered without a database round trip.
+     * Otherwise MongoDB is asked directly, and a collection found there (e.g., created by another
+     * node since the last refresh) is added to the registry.
+     * </p>
+     *
+     * @param collectionName The formatted collection name (e.g., "recipe_main_course").
+     * @return {@code true} if the collection exists, {@code false} otherwise.
+     * @see #formatCollectionName(String)
+     */
+    public boolean categoryCollectionExists(String collectionName) {
+        if (currentSnapshot().collectionNames.contains(collectionName)) {
+            hits.increment();
+            return true;
+        }
+        misses.increment();
+        boolean exists = singleCollection
+                ? mongoTemplate.exists(byCategoryKey(collectionName), RecipeStorage.SINGLE_COLLECTION_NAME)
+                : mongoTemplate.collectionExists(collectionName);
+        if (exists) {
+            registerCollection(collectionName);
+            return true;
+        }
+        return false;
+    }
+
     /**
      * Ensures that a MongoDB collection exists for the specified category.
      * <p>
      * If a collection corresponding to the formatted category name (e.g., "recipe_main_course"
      * for category "Main Course") does not already exist, it will be created.
      * This method is useful for dynamically managing collections as new categories are introduced.
+     * Categories already present in the registry are accepted without a database round trip.
+     * A newly created collection gets the indexes declared on recipes (see {@link RecipeIndexManager}).
+     * If another node dropped a known collection since the last refresh, the following insert re-creates it
+     * without indexes; {@link #refreshCategories()} notices the new collection UUID and applies them.
      * </p>
      *
      * @param category The user-friendly category name (e.g., "Desserts", "Main Course").
@@ -78,11 +205,88 @@ public class CategoryService {
      */
     public void ensureCategoryExists(String category) {
         String collectionName = formatCollectionName(category);
-        if (!mongoTemplate.collectionExists(collectionName)) {
+        if (currentSnapshot().collectionNames.contains(collectionName)) {
+            hits.increment();
+            return;
+        }
+        misses.increment();
+        if (!singleCollection && !mongoTemplate.collectionExists(collectionName)) {
             mongoTemplate.createCollection(collectionName);
+            log.info("Created collection '{}' for category '{}'", collectionName, category);
+            indexManager.applyIndexes(collectionName);
+        }
+        registerCollection(collectionName);
+    }
+
+    /**
+     * Removes a category collection from the registry after it has been dropped.
+     * <p>
+     * Must be called by every code path that drops a category collection, so that the dropped
+     * category disappears from {@link #getAllCategories()} immediately on this node.
+     * </p>
+     *
+     * @param collectionName The formatted name of the dropped collection (e.g., "recipe_main_course").
+     */
+    public synchronized void onCategoryCollectionDropped(String collectionName) {
+        CategorySnapshot current = snapshot;
+        if (current != null && current.collectionNames.contains(collectionName)) {
+            Map<String, Object> collections = new TreeMap<>(current.collections);
+            collections.remove(collectionName);
+            snapshot = new CategorySnapshot(current.version + 1, collections, current.loadedAtMillis);
+            log.debug("Removed collection '{}' from category registry (version {})", collectionName, snapshot.version);
         }
     }
 
+    /**
+     * Reloads the registry from the collection names stored in MongoDB.
+     * <p>
+     * Runs periodically in the background so that categories created or dropped by other nodes
+     * become visible here. If the registry is changed locally while the collection names are
+     * being listed, the reloaded list may already be outdated, so it is discarded and the next
+     * run tries again. Failures are logged and counted; the previous snapshot stays in use.
+     * </p><p>
+     * Collections that are new or have a new UUID since the previous snapshot get the declared indexes,
+     * which covers a collection re-created implicitly by an insert after another node dropped it.
+     * Applying indexes that already exist costs one index listing.
+     * </p>
+     */
+    @Scheduled(initialDelayString = "${recipe.categories.refresh-interval-ms:30000}",
+            fixedDelayString = "${recipe.categories.refresh-interval-ms:30000}")
+    public void refreshCategories() {
+        try {
+            reload();
+        } catch (RuntimeException e) {
+            refreshFailures.increment();
+            log.warn("Failed to refresh category registry: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the registry metrics.
+     * <p>
+     * The returned map contains the snapshot version, the number of known categories,
+     * the age of the snapshot in milliseconds (time since it was last confirmed against MongoDB),
+     * the hit and miss counters with the resulting hit ratio, and the refresh counters.
+     * </p>
+     *
+     * @return A map of metric names to values, in a stable order.
+     */
+    public Map<String, Object> getRegistryStats() {
+        CategorySnapshot current = snapshot;
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("version", current != null ? current.version : 0L);
+        stats.put("categories", current != null ? current.collectionNames.size() : 0);
+        stats.put("ageMillis", current != null ? System.currentTimeMillis() - current.loadedAtMillis : -1L);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRatio", hitCount + missCount == 0 ? 0.0 : (double) hitCount / (hitCount + missCount));
+        stats.put("refreshes", refreshes.sum());
+        stats.put("refreshFailures", refreshFailures.sum());
+        return stats;
+    }
+
     /**
      * Formats a given category string into a MongoDB-safe collection name.
      * <p>
@@ -100,11 +304,169 @@ public class CategoryService {
      * @return A string representing the formatted, MongoDB-safe collection name.
      */
     public static String formatCollectionName(String category) {
+        return COLLECTION_PREFIX + formatCategoryKey(category);
+    }
+
+    /**
+     * Tells whether a collection name is that of a category collection, i.e. starts with {@value #COLLECTION_PREFIX}.
+     *
+     * @param collectionName The name of a collection.
+     * @return {@code true} if it is a category collection name, {@code false} otherwise.
+     */
+    public static boolean isCategoryCollection(String collectionName) {
+        return collectionName.startsWith(COLLECTION_PREFIX);
+    }
+
+    /**
+     * Formats a given category string into its normalized key, i.e. the collection name without the
+     * "recipe_" prefix.
+     * <p>
+     * Example: " Main Course " would be formatted to "main_course". A {@code null} or blank category
+     * is formatted to "uncategorized".
+     * </p>
+     *
+     * @param category The user-friendly category name to format.
+     * @return The normalized category key.
+     * @see #formatCollectionName(String)
+     */
+    public static String formatCategoryKey(String category) {
         if (category == null || category.trim().isEmpty()) {
             category = (category == null) ? "uncategorized" : category.trim();
             if (category.isEmpty()) category = "uncategorized";
         }
-        String formatted = category.toLowerCase().trim().replaceAll("\\s+", "_");
-        return "recipe_" + formatted;
+        return category.toLowerCase().trim().replaceAll("\\s+", "_");
+    }
+
+    /**
+     * Returns the current snapshot, loading it from MongoDB on first use.
+     *
+     * @return The current, non-null registry snapshot.
+     */
+    private CategorySnapshot currentSnapshot() {
+        CategorySnapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        misses.increment();
+        return reload();
+    }
+
+    /**
+     * Lists the category collections in MongoDB and publishes them as a new snapshot.
+     *
+     * @return The snapshot in use after the reload.
+     */
+    private CategorySnapshot reload() {
+        CategorySnapshot before = snapshot;
+        Map<String, Object> collections = singleCollection ? listCategoryKeys() : listCategoryCollections();
+        CategorySnapshot reloaded;
+        synchronized (this) {
+            CategorySnapshot current = snapshot;
+            if (current != before) {
+                // Changed locally while listing; the listing may not reflect that change.
+                refreshFailures.increment();
+                return current;
+            }
+            long version = current == null ? 1
+                    : current.version + (current.collectionNames.equals(collections.keySet()) ? 0 : 1);
+            snapshot = reloaded = new CategorySnapshot(version, collections, System.currentTimeMillis());
+            refreshes.increment();
+        }
+        if (before != null && !singleCollection) {
+            collections.forEach((name, uuid) -> {
+                if (!Objects.equals(before.collections.get(name), uuid)) {
+                    log.info("Collection '{}' is new or was re-created; applying indexes", name);
+                    indexManager.applyIndexes(name);
+                }
+            });
+        }
+        return reloaded;
+    }
+
+    /**
+     * Lists the category collections with their UUIDs.
+     *
+     * @return The collection names, sorted, mapped to their UUIDs ({@code null} if MongoDB reports none).
+     */
+    private Map<String, Object> listCategoryCollections() {
+        Map<String, Object> collections = new TreeMap<>();
+        for (Document collection : mongoTemplate.getDb().listCollections()
+                .filter(new Document("name", new Document("$regex", "^" + COLLECTION_PREFIX)))
+                .into(new ArrayList<>())) {
+            Document info = collection.get("info", Document.class);
+            collections.put(collection.getString("name"), info != null ? info.get("uuid") : null);
+        }
+        return collections;
+    }
+
+    /**
+     * Lists the "recipe_" names of the category keys stored in the single collection.
+     *
+     * @return The names, sorted, each mapped to {@code null} since there is no collection behind them.
+     */
+    private Map<String, Object> listCategoryKeys() {
+        Map<String, Object> collections = new TreeMap<>();
+        for (String key : mongoTemplate.findDistinct(new Query(), RecipeStorage.CATEGORY_KEY_FIELD,
+                RecipeStorage.SINGLE_COLLECTION_NAME, String.class)) {
+            collections.put(COLLECTION_PREFIX + key, null);
+        }
+        return collections;
+    }
+
+    /**
+     * Builds the single-collection query matching the recipes of the given category collection name.
+     *
+     * @param collectionName The formatted collection name (e.g., "recipe_main_course").
+     * @return A {@link Query} on the category key.
+     */
+    private static Query byCategoryKey(String collectionName) {
+        return new Query(Criteria.where(RecipeStorage.CATEGORY_KEY_FIELD)
+                .is(collectionName.substring(COLLECTION_PREFIX.length())));
+    }
+
+    /**
+     * Adds a collection to the registry, if it is not already known.
+     *
+     * @param collectionName The formatted collection name to add.
+     */
+    private synchronized void registerCollection(String collectionName) {
+        CategorySnapshot current = currentSnapshot();
+        if (!current.collectionNames.contains(collectionName)) {
+            Map<String, Object> collections = new TreeMap<>(current.collections);
+            collections.put(collectionName, null);
+            snapshot = new CategorySnapshot(current.version + 1, collections, current.loadedAtMillis);
+            log.debug("Added collection '{}' to category registry (version {})", collectionName, snapshot.version);
+        }
+    }
+
+    /**
+     * An immutable view of the known category collections at a point in time.
+     */
+    private static final class CategorySnapshot {
+
+        /**
+         * Incremented every time the set of known collections changes.
+         */
+        private final long version;
+        /**
+         * The known category collections, sorted alphabetically by name, mapped to their UUIDs. The UUID is
+         * {@code null} until a reload has read it, and in single-collection mode.
+         */
+        private final Map<String, Object> collections;
+        /**
+         * The known category collection names, sorted alphabetically.
+         */
+        private final Set<String> collectionNames;
+        /**
+         * When the snapshot was last confirmed against MongoDB, in epoch milliseconds.
+         */
+        private final long loadedAtMillis;
+
+        private CategorySnapshot(long version, Map<String, Object> collections, long loadedAtMillis) {
+            this.version = version;
+            this.collections = Collections.unmodifiableMap(collections);
+            this.collectionNames = Collections.unmodifiableSet(collections.keySet());
+            this.loadedAtMillis = loadedAtMillis;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,343 @@
+package com.example.recipeoop_1.service;
+
+import com.mongodb.MongoCommandException;
+import com.mongodb.MongoNamespace;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Drops the category collections that have no recipes left, in the background.
+ * <p>
+ * In the per-category layout a category exists as long as its collection does. Deleting the last recipe of a
+ * category used to count the collection and drop it within the user's request, which cost two extra round trips
+ * and a collection drop (which takes an exclusive lock) on every delete. Instead, {@link RecipeServiceImpl} now
+ * only marks the collection it removed a recipe from as a candidate, which costs nothing, and this sweeper:
+ * </p>
+ * <ul>
+ * <li>every {@code recipe.categories.sweep-interval-ms} milliseconds, looks at the candidates marked at least
+ * {@code recipe.categories.sweep-grace} ago;</li>
+ * <li>renames each of them that is still empty to a tombstone name, that no request writes to;</li>
+ * <li>drops the tombstone if it is still empty, and removes the category from the registry.</li>
+ * </ul>
+ * <p>
+ * Checking that a collection is empty and dropping it cannot be done atomically, and a recipe may be inserted in
+ * between, by this node or by another one. The rename settles the race: a recipe inserted before it is found in
+ * the tombstone, which is then renamed back (or, if the category has been created again in the meantime, copied
+ * back); a recipe inserted after it creates the collection again, whose indexes are then applied again. Either
+ * way no recipe is dropped. Tombstones left behind by a node that stopped in the middle of a sweep are restored or
+ * dropped at startup, once they are older than {@value #STALE_TOMBSTONE_MILLIS} milliseconds.
+ * </p>
+ * <p>
+ * Inserting a recipe into a category cancels its candidacy, and the grace period lets a category that is
+ * emptied and refilled shortly afterwards (e.g., a recipe moved out and back) keep its collection and indexes.
+ * The "uncategorized" collection is never dropped. All categories are marked once at startup, so that
+ * collections left empty before a restart are swept too. Until it is swept, an empty category is still listed.
+ * </p>
+ *
+ * @author Elie Issa/Michel Ghazaly
+ * @version 1.1
+ * @since 2026-10-16
+ * @see RecipeServiceImpl
+ * @see CategoryService#onCategoryCollectionDropped(String)
+ */
+@Component
+@ConditionalOnProperty(name = RecipeStorage.MODE_PROPERTY, havingValue = RecipeStorage.PER_CATEGORY, matchIfMissing = true)
+public class EmptyCategorySweeper {
+
+    /**
+     * Logger for this class.
+     */
+    private static final Logger log = LoggerFactory.getLogger(EmptyCategorySweeper.class);
+
+    /**
+     * The collection of uncategorized recipes, which is kept even when empty.
+     */
+    private static final String UNCATEGORIZED_COLLECTION_NAME = CategoryService.formatCollectionName(null);
+
+    /**
+     * The prefix of the name a collection is renamed to before it is dropped, followed by the time of the rename
+     * and the original name.
+     */
+    static final String TOMBSTONE_PREFIX = "tombstone_";
+
+    /**
+     * The age after which a tombstone found at startup is considered abandoned by the sweep that created it.
+     */
+    private static final long STALE_TOMBSTONE_MILLIS = 600_000;
+
+    /**
+     * MongoTemplate for database interactions.
+     */
+    private final MongoTemplate mongoTemplate;
+    /**
+     * CategoryService whose registry is updated when a collection is dropped.
+     */
+    private final CategoryService categoryService;
+    /**
+     * RecipeIndexManager applying the indexes to a collection created again during a sweep.
+     */
+    private final RecipeIndexManager indexManager;
+    /**
+     * How long a candidate must stay marked before it is checked.
+     */
+    private final Duration grace;
+    /**
+     * The candidate collections, with the time they were marked.
+     */
+    private final Map<String, Long> candidates = new ConcurrentHashMap<>();
+
+    /**
+     * The number of sweeps run.
+     */
+    private final LongAdder sweeps = new LongAdder();
+    /**
+     * The number of times a collection was marked as a candidate.
+     */
+    private final LongAdder marked = new LongAdder();
+    /**
+     * The number of candidates withdrawn by an insert before they were checked.
+     */
+    private final LongAdder cancelled = new LongAdder();
+    /**
+     * The number of empty collections dropped.
+     */
+    private final LongAdder dropped = new LongAdder();
+    /**
+     * The number of candidates kept because they held recipes when checked.
+     */
+    private final LongAdder keptNonEmpty = new LongAdder();
+    /**
+     * The number of collections restored from their tombstone because a recipe was inserted before the rename.
+     */
+    private final LongAdder restored = new LongAdder();
+    /**
+     * The number of collections created again by an insert after the rename, whose indexes were applied again.
+     */
+    private final LongAdder recreated = new LongAdder();
+    /**
+     * The number of candidates whose sweep failed, and which were marked again.
+     */
+    private final LongAdder failures = new LongAdder();
+    /**
+     * The duration of the last sweep in milliseconds, or {@code -1} before the first one.
+     */
+    private volatile long lastSweepMillis = -1;
+
+    /**
+     * Constructs an {@code EmptyCategorySweeper} with the necessary dependencies.
+     *
+     * @param mongoTemplate The Spring Data {@link MongoTemplate} for direct MongoDB interaction.
+     * @param categoryService The {@link CategoryService} whose registry is updated when a collection is dropped.
+     * @param indexManager The {@link RecipeIndexManager} applying the indexes to a collection created again.
+     * @param grace How long a candidate must stay marked before it is checked.
+     */
+    @Autowired
+    public EmptyCategorySweeper(MongoTemplate mongoTemplate, CategoryService categoryService,
+                                RecipeIndexManager indexManager,
+                                @Value("${recipe.categories.sweep-grace:PT5M}") Duration grace) {
+        this.mongoTemplate = mongoTemplate;
+        this.categoryService = categoryService;
+        this.indexManager = indexManager;
+        this.grace = grace;
+    }
+
+    /**
+     * Marks a category collection that may have become empty. Restarts its grace period if already marked.
+     *
+     * @param collectionName The formatted collection name (e.g., "recipe_main_course").
+     */
+    public void markCandidate(String collectionName) {
+        if (collectionName.equalsIgnoreCase(UNCATEGORIZED_COLLECTION_NAME)) {
+            return;
+        }
+        candidates.put(collectionName, System.currentTimeMillis());
+        marked.increment();
+    }
+
+    /**
+     * Withdraws the candidacy of a category collection that a recipe is being inserted into.
+     *
+     * @param collectionName The formatted collection name (e.g., "recipe_main_course").
+     */
+    public void cancel(String collectionName) {
+        if (candidates.remove(collectionName) != null) {
+            cancelled.increment();
+        }
+    }
+
+    /**
+     * Marks every known category once the application has started, after recovering the abandoned tombstones.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void markAllCategories() {
+        try {
+            recoverTombstones();
+        } catch (RuntimeException e) {
+            log.warn("Could not recover the tombstone collections: {}", e.getMessage());
+        }
+        try {
+            categoryService.getAllCategories().forEach(category -> markCandidate(CategoryService.formatCollectionName(category)));
+        } catch (RuntimeException e) {
+            log.warn("Could not list the categories to sweep: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Drops the candidates whose grace period has passed and that are still empty. Failures are logged and
+     * counted, and the collection is checked again at a later sweep.
+     */
+    @Scheduled(initialDelayString = "${recipe.categories.sweep-interval-ms:60000}",
+            fixedDelayString = "${recipe.categories.sweep-interval-ms:60000}")
+    public void sweep() {
+        long now = System.currentTimeMillis();
+        for (Map.Entry<String, Long> candidate : candidates.entrySet()) {
+            String collectionName = candidate.getKey();
+            long markedAt = candidate.getValue();
+            // Claim the candidate; fails if it was cancelled or marked again meanwhile
+            if (now - markedAt < grace.toMillis() || !candidates.remove(collectionName, markedAt)) {
+                continue;
+            }
+            try {
+                sweep(collectionName);
+            } catch (RuntimeException e) {
+                failures.increment();
+                candidates.putIfAbsent(collectionName, now);
+                log.warn("Failed to sweep collection '{}': {}", collectionName, e.getMessage());
+            }
+        }
+        sweeps.increment();
+        lastSweepMillis = System.currentTimeMillis() - now;
+    }
+
+    /**
+     * Returns the sweeper metrics.
+     *
+     * @return A map with the number of pending candidates, the sweep counters and the duration of the last sweep.
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("pending", candidates.size());
+        result.put("graceMillis", grace.toMillis());
+        result.put("sweeps", sweeps.sum());
+        result.put("marked", marked.sum());
+        result.put("cancelled", cancelled.sum());
+        result.put("dropped", dropped.sum());
+        result.put("keptNonEmpty", keptNonEmpty.sum());
+        result.put("restored", restored.sum());
+        result.put("recreated", recreated.sum());
+        result.put("failures", failures.sum());
+        result.put("lastSweepMillis", lastSweepMillis);
+        return result;
+    }
+
+    /**
+     * Drops one collection if it still exists and is empty, through a tombstone.
+     *
+     * @param collectionName The formatted collection name.
+     */
+    private void sweep(String collectionName) {
+        if (!categoryService.categoryCollectionExists(collectionName)) {
+            log.debug("Collection '{}' no longer exists; nothing to sweep.", collectionName);
+            return;
+        }
+        if (mongoTemplate.exists(new Query(), collectionName)) {
+            keptNonEmpty.increment();
+            return;
+        }
+        String tombstone = TOMBSTONE_PREFIX + System.currentTimeMillis() + "_" + collectionName;
+        rename(collectionName, tombstone);
+        if (mongoTemplate.exists(new Query(), tombstone)) {
+            log.info("Collection '{}' received recipes while being swept; restoring it.", collectionName);
+            restore(tombstone, collectionName);
+            restored.increment();
+            return;
+        }
+        log.info("Collection '{}' is empty. Dropping collection.", collectionName);
+        mongoTemplate.dropCollection(tombstone);
+        dropped.increment();
+        if (mongoTemplate.collectionExists(collectionName)) {
+            log.info("Collection '{}' was created again while being swept; applying its indexes.", collectionName);
+            indexManager.applyIndexes(collectionName);
+            recreated.increment();
+        } else {
+            categoryService.onCategoryCollectionDropped(collectionName);
+        }
+    }
+
+    /**
+     * Moves the recipes of a tombstone back to the collection it was renamed from, and drops the tombstone.
+     *
+     * @param tombstone The tombstone collection name.
+     * @param collectionName The original collection name.
+     */
+    private void restore(String tombstone, String collectionName) {
+        if (!mongoTemplate.collectionExists(collectionName)) {
+            try {
+                rename(tombstone, collectionName);
+                return;
+            } catch (MongoCommandException e) {
+                log.debug("Collection '{}' was created again meanwhile; copying the recipes back.", collectionName);
+            }
+        }
+        List<Document> recipes = mongoTemplate.findAll(Document.class, tombstone);
+        recipes.forEach(recipe -> mongoTemplate.save(recipe, collectionName));
+        indexManager.applyIndexes(collectionName);
+        mongoTemplate.dropCollection(tombstone);
+    }
+
+    /**
+     * Restores or drops the tombstones left by sweeps that did not finish, e.g. because their node stopped.
+     */
+    private void recoverTombstones() {
+        long now = System.currentTimeMillis();
+        for (String name : mongoTemplate.getCollectionNames()) {
+            if (!name.startsWith(TOMBSTONE_PREFIX)) {
+                continue;
+            }
+            int separator = name.indexOf('_', TOMBSTONE_PREFIX.length());
+            long renamedAt;
+            try {
+                renamedAt = Long.parseLong(name.substring(TOMBSTONE_PREFIX.length(), separator));
+            } catch (RuntimeException e) {
+                continue;
+            }
+            if (now - renamedAt < STALE_TOMBSTONE_MILLIS) {
+                continue;
+            }
+            if (mongoTemplate.exists(new Query(), name)) {
+                log.warn("Restoring abandoned tombstone '{}'.", name);
+                restore(name, name.substring(separator + 1));
+            } else {
+                mongoTemplate.dropCollection(name);
+            }
+        }
+    }
+
+    /**
+     * Renames a collection, failing if the target exists.
+     *
+     * @param from The current collection name.
+     * @param to The new collection name.
+     * @throws MongoCommandException if {@code from} does not exist or {@code to} does.
+     */
+    private void rename(String from, String to) {
+        mongoTemplate.getCollection(from).renameCollection(new MongoNamespace(mongoTemplate.getDb().getName(), to));
+    }
+}
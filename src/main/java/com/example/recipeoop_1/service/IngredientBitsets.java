@@ -0,0 +1,217 @@
+package com.example.recipeoop_1.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntConsumer;
+
+/**
+ * The ingredients of every recipe as a bitset, for scoring all recipes against a pantry in one pass.
+ * <p>
+ * A dictionary gives every ingredient key (see {@link IngredientKeys}) a bit position. Each document (a recipe,
+ * by its document ID in {@link RecipeSearchIndex}) stores the bits of its ingredients as a sparse bitset: only
+ * its non-zero 64-bit words, with their word index. A pantry is encoded as a dense bitset over the dictionary,
+ * and the number of ingredients of a recipe that are in the pantry is the sum of
+ * {@link Long#bitCount(long) bitCount} of its words ANDed with the pantry's, so scoring a recipe costs a few
+ * machine instructions per ingredient word, without any string comparison.
+ * </p><p>
+ * {@link #compact()} renumbers the dictionary by decreasing frequency, so that the common ingredients share the
+ * first words and a typical recipe needs only one or two of them. Ingredients first seen afterwards get the next
+ * free positions.
+ * </p><p>
+ * The bitsets are not thread-safe; {@link RecipeSearchIndex} guards them with a lock.
+ * </p>
+ *
+ * @author Elie Issa/Michel Ghazaly
+ * @version 1.0
+ * @since 2026-10-16
+ * @see RecipeSearchIndex#matchPantry(Collection, int, int)
+ */
+final class IngredientBitsets {
+
+    /**
+     * The bit position of each ingredient key.
+     */
+    private final Map<String, Integer> dictionary = new HashMap<>();
+    /**
+     * The number of documents having each bit set, by bit position.
+     */
+    private int[] frequency = new int[64];
+    /**
+     * The bitset of each document, by document ID; {@code null} for documents without ingredients.
+     */
+    private final List<SparseBits> documents = new ArrayList<>();
+
+    /**
+     * Sets the ingredients of a document, replacing those it had.
+     *
+     * @param doc The document ID.
+     * @param ingredientKeys The ingredient keys of the document.
+     */
+    void put(int doc, Collection<String> ingredientKeys) {
+        remove(doc);
+        int[] positions = new int[ingredientKeys.size()];
+        int count = 0;
+        for (String key : ingredientKeys) {
+            Integer position = dictionary.get(key);
+            if (position == null) {
+                position = dictionary.size();
+                dictionary.put(key, position);
+                if (position == frequency.length) {
+                    frequency = Arrays.copyOf(frequency, frequency.length * 2);
+                }
+            }
+            positions[count++] = position;
+        }
+        SparseBits bits = SparseBits.of(Arrays.copyOf(positions, count));
+        if (bits.cardinality == 0) {
+            return;
+        }
+        while (documents.size() <= doc) {
+            documents.add(null);
+        }
+        documents.set(doc, bits);
+        bits.forEachPosition(position -> frequency[position]++);
+    }
+
+    /**
+     * Removes the ingredients of a document.
+     *
+     * @param doc The document ID.
+     */
+    void remove(int doc) {
+        if (doc < documents.size() && documents.get(doc) != null) {
+            documents.get(doc).forEachPosition(position -> frequency[position]--);
+            documents.set(doc, null);
+        }
+    }
+
+    /**
+     * Renumbers the ingredients by decreasing frequency and re-encodes every bitset accordingly.
+     */
+    void compact() {
+        List<String> keys = new ArrayList<>(dictionary.keySet());
+        keys.sort(Comparator.comparingInt((String key) -> -frequency[dictionary.get(key)]).thenComparing(key -> key));
+        int[] renumbered = new int[frequency.length];
+        int[] newFrequency = new int[Math.max(64, keys.size())];
+        for (int i = 0; i < keys.size(); i++) {
+            int old = dictionary.put(keys.get(i), i);
+            renumbered[old] = i;
+            newFrequency[i] = frequency[old];
+        }
+        frequency = newFrequency;
+        for (int doc = 0; doc < documents.size(); doc++) {
+            SparseBits bits = documents.get(doc);
+            if (bits != null) {
+                int[] positions = new int[bits.cardinality];
+                int[] next = {0};
+                bits.forEachPosition(position -> positions[next[0]++] = renumbered[position]);
+                documents.set(doc, SparseBits.of(positions));
+            }
+        }
+    }
+
+    /**
+     * Scores every document against a pantry.
+     *
+     * @param pantryKeys The ingredient keys of the pantry.
+     * @param maxMissing The largest number of missing ingredients of a returned document.
+     * @return For each document with at least one ingredient in the pantry and at most {@code maxMissing}
+     * others, a triple of its document ID, number of ingredients in the pantry and number of ingredients missing.
+     */
+    List<int[]> match(Collection<String> pantryKeys, int maxMissing) {
+        long[] pantry = new long[(dictionary.size() + 63) >>> 6];
+        for (String key : pantryKeys) {
+            Integer position = dictionary.get(key);
+            if (position != null) {
+                pantry[position >>> 6] |= 1L << position;
+            }
+        }
+
+        List<int[]> matches = new ArrayList<>();
+        for (int doc = 0; doc < documents.size(); doc++) {
+            SparseBits bits = documents.get(doc);
+            if (bits == null) {
+                continue;
+            }
+            int matched = 0;
+            for (int i = 0; i < bits.wordIndexes.length; i++) {
+                int word = bits.wordIndexes[i];
+                if (word < pantry.length) {
+                    matched += Long.bitCount(bits.words[i] & pantry[word]);
+                }
+            }
+            int missing = bits.cardinality - matched;
+            if (matched > 0 && missing <= maxMissing) {
+                matches.add(new int[]{doc, matched, missing});
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Returns the number of distinct ingredients.
+     *
+     * @return The size of the dictionary.
+     */
+    int ingredientCount() {
+        return dictionary.size();
+    }
+
+    /**
+     * A bitset storing only its non-zero words.
+     */
+    private static final class SparseBits {
+        /**
+         * The index of each stored word in the full bitset, in ascending order.
+         */
+        private final int[] wordIndexes;
+        /**
+         * The non-zero words, in the order of {@link #wordIndexes}.
+         */
+        private final long[] words;
+        /**
+         * The number of bits set.
+         */
+        private final int cardinality;
+
+        private SparseBits(int[] wordIndexes, long[] words, int cardinality) {
+            this.wordIndexes = wordIndexes;
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        static SparseBits of(int[] positions) {
+            Arrays.sort(positions);
+            int[] wordIndexes = new int[positions.length];
+            long[] words = new long[positions.length];
+            int count = -1;
+            for (int position : positions) {
+                int word = position >>> 6;
+                if (count < 0 || wordIndexes[count] != word) {
+                    wordIndexes[++count] = word;
+                }
+                words[count] |= 1L << position;
+            }
+            int cardinality = 0;
+            for (int i = 0; i <= count; i++) {
+                cardinality += Long.bitCount(words[i]);
+            }
+            return new SparseBits(Arrays.copyOf(wordIndexes, count + 1), Arrays.copyOf(words, count + 1), cardinality);
+        }
+
+        void forEachPosition(IntConsumer action) {
+            for (int i = 0; i < words.length; i++) {
+                long word = words[i];
+                while (word != 0) {
+                    action.accept((wordIndexes[i] << 6) + Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.recipeoop_1.service;
+
+import com.example.recipeoop_1.model.Recipe;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Derives the normalized ingredient keys stored in {@link Recipe#getIngredientKeys()}.
+ * <p>
+ * Ingredients are free-form text such as "2 cups flour" or "100g Sugar, sifted", which can only be searched
+ * with a regular expression. The key of an ingredient is what remains once its quantity and unit are removed,
+ * lower-cased and with simple plurals reduced to the singular, so that "2 cups flour" and "Flour" both have
+ * the key "flour", and "3 Tomatoes (diced)" has the key "tomato". Keys are indexed (as a multikey index) and
+ * matched exactly.
+ * </p>
+ * <p>
+ * The normalization is deliberately simple and language-specific (English): it removes what comes after a
+ * comma or inside parentheses, leading numbers, fractions and measuring units, and the word "of". Keys are
+ * derived by the services whenever they write a recipe; {@link IngredientKeysBackfill} derives them for the
+ * recipes written before the field existed. Changing the rules therefore requires running the backfill again.
+ * </p>
+ *
+ * @author Elie Issa/Michel Ghazaly
+ * @version 1.0
+ * @since 2026-10-16
+ * @see IngredientKeysBackfill
+ */
+public final class IngredientKeys {
+
+    /**
+     * The field holding the keys, as declared on {@link Recipe}.
+     */
+    public static final String FIELD = "ingredientKeys";
+
+    /**
+     * Measuring units and similar words that are not part of an ingredient's name, singular and plural.
+     */
+    private static final Set<String> UNITS = Set.copyOf(Arrays.asList(
+            "g", "gr", "gram", "grams", "kg", "kilogram", "kilograms", "mg", "ml", "cl", "dl", "l", "liter", "liters",
+            "litre", "litres", "oz", "ounce", "ounces", "lb", "lbs", "pound", "pounds", "cup", "cups", "tbsp", "tbs",
+            "tablespoon", "tablespoons", "tsp", "teaspoon", "teaspoons", "pinch", "pinches", "dash", "dashes",
+            "handful", "handfuls", "can", "cans", "jar", "jars", "package", "packages", "pack", "packs", "slice",
+            "slices", "piece", "pieces", "clove", "cloves", "bunch", "bunches", "sprig", "sprigs", "stick", "sticks",
+            "quart", "quarts", "pint", "pints", "of", "a", "an"));
+
+    /**
+     * A quantity, possibly glued to its unit: "2", "1/2", "1.5", "2-3", "½", "100g".
+     */
+    private static final Pattern QUANTITY = Pattern.compile("[\\d¼½¾⅓⅔]+([./-][\\d¼½¾⅓⅔]+)*[a-z]*");
+
+    private IngredientKeys() {
+    }
+
+    /**
+     * Derives the distinct keys of a list of ingredients.
+     *
+     * @param ingredients The ingredients, as entered; may be {@code null}.
+     * @return The keys, in the order of the ingredients; ingredients without a key are skipped.
+     */
+    public static List<String> of(List<String> ingredients) {
+        Set<String> keys = new LinkedHashSet<>();
+        if (ingredients != null) {
+            for (String ingredient : ingredients) {
+                String key = keyOf(ingredient);
+                if (key != null) {
+                    keys.add(key);
+                }
+            }
+        }
+        return new ArrayList<>(keys);
+    }
+
+    /**
+     * Derives the key of one ingredient.
+     * <p>
+     * Example: "2 cups Brown Sugar, packed" has the key "brown sugar".
+     * </p>
+     *
+     * @param ingredient The ingredient, as entered; may be {@code null}.
+     * @return The key, or {@code null} if nothing but a quantity or unit is left.
+     */
+    public static String keyOf(String ingredient) {
+        if (ingredient == null) {
+            return null;
+        }
+        String text = ingredient.toLowerCase(Locale.ROOT).replaceAll("\\([^)]*\\)", " ");
+        int comma = text.indexOf(',');
+        if (comma >= 0) {
+            text = text.substring(0, comma);
+        }
+
+        List<String> words = new ArrayList<>();
+        for (String word : text.split("[^\\p{L}\\p{N}¼½¾⅓⅔./-]+")) {
+            word = word.replaceAll("^[./-]+|[./-]+$", "");
+            if (word.isEmpty() || UNITS.contains(word) || QUANTITY.matcher(word).matches()) {
+                continue;
+            }
+            words.add(singular(word));
+        }
+        return words.isEmpty() ? null : String.join(" ", words);
+    }
+
+    /**
+     * Reduces a simple English plural to the singular: "berries" to "berry", "tomatoes" to "tomato",
+     * "peaches" to "peach", "eggs" to "egg". Words ending in "ss", "us" or "is" are left as they are.
+     *
+     * @param word A lower-case word.
+     * @return The singular.
+     */
+    static String singular(String word) {
+        if (word.length() <= 3 || !word.endsWith("s") || word.endsWith("ss") || word.endsWith("us") || word.endsWith("is")) {
+            return word;
+        }
+        if (word.endsWith("ies") && word.length() > 4) {
+            return word.substring(0, word.length() - 3) + "y";
+        }
+        if (word.endsWith("oes") || word.endsWith("ches") || word.endsWith("shes") || word.endsWith("xes")
+                || word.endsWith("sses")) {
+            return word.substring(0, word.length() - 2);
+        }
+        return word.substring(0, word.length() - 1);
+    }
+}
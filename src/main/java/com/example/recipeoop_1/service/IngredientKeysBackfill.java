@@ -0,0 +1,147 @@
+package com.example.recipeoop_1.service;
+
+import com.example.recipeoop_1.model.Recipe;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Service that derives the ingredient keys of recipes stored before {@link Recipe#getIngredientKeys()} existed.
+ * <p>
+ * Recipes without keys are not found by the ingredient key search. {@link #backfill()} reads the ingredients of
+ * every recipe that has no {@value IngredientKeys#FIELD} field, in all recipe collections of both storage
+ * layouts, and sets its keys in unordered bulk writes of {@value #BATCH_SIZE}. It runs once in the background
+ * after startup (unless {@code recipe.ingredient-keys.backfill-on-startup} is disabled) and on demand. Recipes
+ * that already have keys are skipped, so running it again only costs one indexed query per collection.
+ * </p>
+ *
+ * @author Elie Issa/Michel Ghazaly
+ * @version 1.0
+ * @since 2026-10-16
+ * @see IngredientKeys
+ */
+@Service
+public class IngredientKeysBackfill {
+
+    /**
+     * Logger for this class.
+     */
+    private static final Logger log = LoggerFactory.getLogger(IngredientKeysBackfill.class);
+
+    /**
+     * Number of updates sent to MongoDB in one bulk write.
+     */
+    private static final int BATCH_SIZE = 500;
+
+    /**
+     * MongoTemplate for database interactions.
+     */
+    private final MongoTemplate mongoTemplate;
+    /**
+     * Whether the backfill runs in the background after startup.
+     */
+    private final boolean backfillOnStartup;
+
+    /**
+     * Constructs an {@code IngredientKeysBackfill} with the necessary dependencies and settings.
+     *
+     * @param mongoTemplate The Spring Data {@link MongoTemplate} for direct MongoDB interaction.
+     * @param backfillOnStartup Whether the backfill runs in the background after startup.
+     */
+    @Autowired
+    public IngredientKeysBackfill(MongoTemplate mongoTemplate,
+                                  @Value("${recipe.ingredient-keys.backfill-on-startup:true}") boolean backfillOnStartup) {
+        this.mongoTemplate = mongoTemplate;
+        this.backfillOnStartup = backfillOnStartup;
+    }
+
+    /**
+     * Sets the ingredient keys of every recipe that has none.
+     *
+     * @return A map with the number of collections scanned, recipes updated and the elapsed time in milliseconds.
+     */
+    public Map<String, Object> backfill() {
+        long start = System.currentTimeMillis();
+        List<String> collectionNames = recipeCollectionNames();
+        long updated = 0;
+
+        for (String collectionName : collectionNames) {
+            Query withoutKeys = new Query(Criteria.where(IngredientKeys.FIELD).exists(false));
+            withoutKeys.fields().include("ingredients");
+
+            BulkOperations bulk = null;
+            int pending = 0;
+            try (Stream<Recipe> recipes = mongoTemplate.stream(withoutKeys, Recipe.class, collectionName)) {
+                for (Recipe recipe : (Iterable<Recipe>) recipes::iterator) {
+                    if (bulk == null) {
+                        bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Recipe.class, collectionName);
+                    }
+                    bulk.updateOne(new Query(Criteria.where("id").is(recipe.getId())),
+                            new Update().set(IngredientKeys.FIELD, IngredientKeys.of(recipe.getIngredients())));
+                    updated++;
+                    if (++pending == BATCH_SIZE) {
+                        bulk.execute();
+                        bulk = null;
+                        pending = 0;
+                    }
+                }
+            }
+            if (bulk != null) {
+                bulk.execute();
+            }
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("collections", collectionNames.size());
+        result.put("updated", updated);
+        result.put("elapsedMillis", System.currentTimeMillis() - start);
+        log.info("Ingredient keys backfill finished: {}", result);
+        return result;
+    }
+
+    /**
+     * Starts the backfill in the background once the application is ready, so that startup is not delayed.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        if (!backfillOnStartup) {
+            return;
+        }
+        Thread thread = new Thread(() -> {
+            try {
+                backfill();
+            } catch (RuntimeException e) {
+                log.warn("Startup ingredient keys backfill failed: {}", e.getMessage());
+            }
+        }, "recipe-ingredient-keys-backfill");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Lists the existing recipe collections: all category collections and, if present, the single collection.
+     *
+     * @return The collection names, in alphabetical order.
+     */
+    private List<String> recipeCollectionNames() {
+        return mongoTemplate.getCollectionNames().stream()
+                .filter(name -> CategoryService.isCategoryCollection(name) || name.equals(RecipeStorage.SINGLE_COLLECTION_NAME))
+                .sorted()
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.recipeoop_1.service;
+
+import com.example.recipeoop_1.dto.PantryMatch;
+import com.example.recipeoop_1.model.Recipe;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Scores and orders the candidate recipes of a pantry search, shared by both storage layouts.
+ * <p>
+ * The score is computed from the ingredients of the recipes as read, not from the stored keys or from
+ * {@link RecipeSearchIndex}, so that candidates found through a stale key or index entry are ranked by their
+ * current ingredients.
+ * </p>
+ *
+ * @author Elie Issa/Michel Ghazaly
+ * @version 1.1
+ * @since 2026-10-16
+ * @see RecipeService#findRecipesByPantry(List, int, int)
+ */
+final class PantryRanking {
+
+    /**
+     * The order of titles between recipes with the same score, also used by
+     * {@link RecipeSearchIndex#matchPantry(Collection, int, int)} so that it keeps the recipes this class returns.
+     */
+    static final Comparator<String> TITLE_ORDER = Comparator.nullsLast(Comparator.naturalOrder());
+
+    /**
+     * The order of the results: fewest missing ingredients first, then most matched ingredients, then title.
+     */
+    static final Comparator<PantryMatch> ORDER = Comparator.comparingInt(PantryMatch::getMissing)
+            .thenComparing(Comparator.comparingInt(PantryMatch::getMatched).reversed())
+            .thenComparing(match -> match.getRecipe().getTitle(), TITLE_ORDER);
+
+    private PantryRanking() {
+    }
+
+    /**
+     * Scores the candidates against the pantry and keeps the best ones.
+     *
+     * @param candidates The candidate recipes.
+     * @param pantryKeys The ingredient keys of the pantry.
+     * @param maxMissing The largest number of missing ingredients of a returned recipe.
+     * @param limit The maximum number of recipes to return.
+     * @return The recipes using at least one ingredient of the pantry and missing at most {@code maxMissing},
+     * in {@link #ORDER}.
+     */
+    static List<PantryMatch> rank(Collection<Recipe> candidates, Collection<String> pantryKeys, int maxMissing, int limit) {
+        Set<String> pantry = new HashSet<>(pantryKeys);
+        List<PantryMatch> matches = new ArrayList<>();
+        for (Recipe recipe : candidates) {
+            List<String> keys = IngredientKeys.of(recipe.getIngredients());
+            List<String> missing = new ArrayList<>();
+            for (String key : keys) {
+                if (!pantry.contains(key)) {
+                    missing.add(key);
+                }
+            }
+            int matched = keys.size() - missing.size();
+            if (matched > 0 && missing.size() <= maxMissing) {
+                matches.add(new PantryMatch(recipe, matched, missing));
+            }
+        }
+        return matches.stream().sorted(ORDER).limit(limit).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,309 @@
+package com.example.recipeoop_1.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * A character trie of weighted terms, where every node keeps its {@code k} heaviest terms.
+ * <p>
+ * A term is a text of a given type (e.g., the ingredient "flour"), matched case-insensitively. Its weight is
+ * adjusted by {@link #add(String, String, int)}, and it is removed once its weight drops to zero. Because every
+ * node stores the {@code k} heaviest terms of its subtree, {@link #top(String, int)} costs one step per character
+ * of the prefix, however many terms start with it. Children are kept in sorted arrays, searched by bisection.
+ * </p><p>
+ * Keeping the per-node lists up to date costs a merge of the children's lists on every node on the path of a
+ * changed term, which is cheap for a single update but not while loading many terms. A trie therefore starts
+ * without lists: {@link #buildTops()} computes them all at once, after which updates maintain them and
+ * {@link #top(String, int)} can be used.
+ * </p><p>
+ * The trie is not thread-safe; {@link RecipeSearchIndex} guards it with a lock.
+ * </p>
+ *
+ * @author Elie Issa/Michel Ghazaly
+ * @version 1.0
+ * @since 2026-10-16
+ * @see RecipeSuggestions
+ */
+final class PrefixTrie {
+
+    /**
+     * The order of the per-node lists: heaviest first, then alphabetical, then by type.
+     */
+    private static final Comparator<Term> ORDER = Comparator.comparingInt((Term term) -> -term.weight)
+            .thenComparing(term -> term.normalized)
+            .thenComparing(term -> term.type);
+
+    /**
+     * The shared empty list of a node without terms.
+     */
+    private static final Term[] NO_TERMS = new Term[0];
+
+    /**
+     * The number of terms kept by every node.
+     */
+    private final int k;
+    /**
+     * The node of the empty prefix.
+     */
+    private final Node root = new Node();
+    /**
+     * The terms, by type and normalized text.
+     */
+    private final Map<String, Term> terms = new HashMap<>();
+    /**
+     * Whether the per-node lists are maintained.
+     */
+    private boolean topsBuilt;
+    /**
+     * The number of nodes, including the root.
+     */
+    private int nodeCount = 1;
+
+    /**
+     * Constructs an empty trie.
+     *
+     * @param k The number of terms kept by every node, i.e. the largest number of terms {@link #top(String, int)}
+     * returns.
+     */
+    PrefixTrie(int k) {
+        this.k = k;
+    }
+
+    /**
+     * Adjusts the weight of a term, adding it if it is new and removing it if its weight drops to zero.
+     *
+     * @param type The type of the term.
+     * @param text The text of the term; the text of its first addition is the one returned by searches.
+     * @param delta The change of weight.
+     */
+    void add(String type, String text, int delta) {
+        String normalized = normalize(text);
+        if (normalized.isEmpty() || delta == 0) {
+            return;
+        }
+        String key = type + '\u0000' + normalized;
+        Term term = terms.get(key);
+        if (term == null) {
+            if (delta < 0) {
+                return;
+            }
+            term = new Term(type, text.trim(), normalized);
+            terms.put(key, term);
+        }
+        term.weight += delta;
+
+        Node[] path = new Node[normalized.length() + 1];
+        path[0] = root;
+        for (int i = 0; i < normalized.length(); i++) {
+            path[i + 1] = path[i].child(normalized.charAt(i), true);
+        }
+        Node node = path[normalized.length()];
+        if (term.weight <= 0) {
+            terms.remove(key);
+            node.terminal.remove(term);
+        } else if (!node.terminal.contains(term)) {
+            node.terminal.add(term);
+        }
+
+        for (int depth = normalized.length(); depth >= 0; depth--) {
+            if (depth > 0 && path[depth].isEmpty()) {
+                path[depth - 1].removeChild(normalized.charAt(depth - 1));
+                nodeCount--;
+            } else if (topsBuilt) {
+                path[depth].top = merge(path[depth]);
+            }
+        }
+    }
+
+    /**
+     * Computes the per-node lists of the whole trie, and maintains them from then on.
+     */
+    void buildTops() {
+        buildTops(root);
+        topsBuilt = true;
+    }
+
+    /**
+     * Returns the heaviest terms starting with a prefix.
+     *
+     * @param prefix The prefix, matched case-insensitively.
+     * @param limit The maximum number of terms to return; at most {@code k} are returned.
+     * @return The terms, heaviest first.
+     * @throws IllegalStateException if {@link #buildTops()} has not been called.
+     */
+    List<Term> top(String prefix, int limit) {
+        if (!topsBuilt) {
+            throw new IllegalStateException("The per-node lists have not been built");
+        }
+        String normalized = normalize(prefix);
+        Node node = root;
+        for (int i = 0; i < normalized.length() && node != null; i++) {
+            node = node.child(normalized.charAt(i), false);
+        }
+        if (node == null) {
+            return List.of();
+        }
+        return List.of(Arrays.copyOf(node.top, Math.min(limit, node.top.length)));
+    }
+
+    /**
+     * Returns the number of terms.
+     *
+     * @return The number of terms with a positive weight.
+     */
+    int termCount() {
+        return terms.size();
+    }
+
+    /**
+     * Returns the number of nodes.
+     *
+     * @return The number of nodes, including the root.
+     */
+    int nodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Normalizes a text or prefix for case-insensitive matching.
+     *
+     * @param text The text.
+     * @return The lower-cased text, without leading or trailing whitespace and with inner whitespace collapsed.
+     */
+    static String normalize(String text) {
+        return text == null ? "" : text.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private void buildTops(Node node) {
+        for (Node child : node.children) {
+            buildTops(child);
+        }
+        node.top = merge(node);
+    }
+
+    /**
+     * Computes the list of a node from its own terms and the lists of its children, which hold every term of the
+     * subtree that can be among the {@code k} heaviest.
+     *
+     * @param node The node.
+     * @return The {@code k} heaviest terms of the subtree of the node.
+     */
+    private Term[] merge(Node node) {
+        List<Term> candidates = new ArrayList<>(node.terminal);
+        for (Node child : node.children) {
+            candidates.addAll(Arrays.asList(child.top));
+        }
+        candidates.sort(ORDER);
+        return candidates.size() > k ? candidates.subList(0, k).toArray(NO_TERMS) : candidates.toArray(NO_TERMS);
+    }
+
+    /**
+     * A term with its weight.
+     */
+    static final class Term {
+        /**
+         * What the text is, e.g. a title or an ingredient.
+         */
+        private final String type;
+        /**
+         * The text as first added.
+         */
+        private final String text;
+        /**
+         * The text as matched against prefixes, from {@link #normalize(String)}.
+         */
+        private final String normalized;
+        /**
+         * The sum of the weights added for the term; it is removed when this drops to zero.
+         */
+        private int weight;
+
+        private Term(String type, String text, String normalized) {
+            this.type = type;
+            this.text = text;
+            this.normalized = normalized;
+        }
+
+        String type() {
+            return type;
+        }
+
+        String text() {
+            return text;
+        }
+
+        int weight() {
+            return weight;
+        }
+    }
+
+    /**
+     * A node, whose children are sorted by their character.
+     */
+    private final class Node {
+        /**
+         * The character leading to each child, in ascending order.
+         */
+        private char[] labels = new char[0];
+        /**
+         * The children, in the order of {@link #labels}.
+         */
+        private Node[] children = new Node[0];
+        /**
+         * The terms whose normalized text ends at this node.
+         */
+        private final List<Term> terminal = new ArrayList<>(1);
+        /**
+         * The {@link #k} heaviest terms under this node, in {@link #ORDER}; empty until the lists are built.
+         */
+        private Term[] top = NO_TERMS;
+
+        Node child(char label, boolean create) {
+            int index = Arrays.binarySearch(labels, label);
+            if (index >= 0) {
+                return children[index];
+            }
+            if (!create) {
+                return null;
+            }
+            int insertAt = -index - 1;
+            Node child = new Node();
+            labels = insert(labels, insertAt, label);
+            Node[] grown = Arrays.copyOf(children, children.length + 1);
+            System.arraycopy(grown, insertAt, grown, insertAt + 1, children.length - insertAt);
+            grown[insertAt] = child;
+            children = grown;
+            nodeCount++;
+            return child;
+        }
+
+        void removeChild(char label) {
+            int index = Arrays.binarySearch(labels, label);
+            char[] newLabels = new char[labels.length - 1];
+            System.arraycopy(labels, 0, newLabels, 0, index);
+            System.arraycopy(labels, index + 1, newLabels, index, labels.length - index - 1);
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(children, 0, newChildren, 0, index);
+            System.arraycopy(children, index + 1, newChildren, index, children.length - index - 1);
+            labels = newLabels;
+            children = newChildren;
+        }
+
+        boolean isEmpty() {
+            return terminal.isEmpty() && children.length == 0;
+        }
+
+        private char[] insert(char[] array, int index, char value) {
+            char[] grown = new char[array.length + 1];
+            System.arraycopy(array, 0, grown, 0, index);
+            grown[index] = value;
+            System.arraycopy(array, index, grown, index + 1, array.length - index);
+            return grown;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.recipeoop_1.service;
+
+/**
+ * How a search spanning all category collections is executed.
+ * <p>
+ * Both strategies return the same recipes; they differ in the number of round trips to MongoDB and in where
+ * results are merged. The default is configured with {@code recipe.cross-category.strategy} and can be
+ * overridden per call, e.g. to compare the two on the same data.
+ * </p>
+ *
+ * @author Elie Issa/Michel Ghazaly
+ * @version 1.0
+ * @since 2026-10-16
+ * @see RecipeServiceImpl
+ * @see CategoryFanOutExecutor
+ */
+public enum QueryStrategy {
+
+    /**
+     * One query per category collection, run concurrently by the {@link CategoryFanOutExecutor}
+     * and merged in the application.
+     */
+    FAN_OUT,
+
+    /**
+     * A single aggregation pipeline that combines all category collections with {@code $unionWith},
+     * filtering inside each branch and sorting/limiting on the server.
+     */
+    UNION_WITH
+}
@@ -0,0 +1,134 @@
+package com.example.recipeoop_1.service;
+
+import com.example.recipeoop_1.model.Recipe;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of recipes by ID, in front of {@link RecipeServiceImpl#getRecipeById(String)}.
+ * <p>
+ * The cache holds at most {@code recipe.cache.max-size} recipes. When it is full, Caffeine evicts with its
+ * W-TinyLFU policy, which keeps frequently read recipes over recently but rarely read ones. Every entry
+ * also expires {@code recipe.cache.ttl} after it was loaded; this bounds how long another instance of the
+ * application can serve a recipe that was changed elsewhere. Within one instance, the service invalidates
+ * the entry whenever it creates, updates or deletes the recipe.
+ * </p><p>
+ * Cached recipes are shared between callers and must not be modified. Lookups of unknown IDs are not
+ * cached: the loader's {@link com.example.recipeoop_1.exception.RecipeNotFoundException} is passed on.
+ * </p>
+ *
+ * @author Elie Issa/Michel Ghazaly
+ * @version 1.0
+ * @since 2026-10-16
+ * @see RecipeServiceImpl#getRecipeById(String)
+ */
+@Service
+public class RecipeCache {
+
+    /**
+     * Bounded in-memory cache of recipe ID to recipe.
+     */
+    private final Cache<String, Recipe> cache;
+    /**
+     * Number of entries evicted because the cache was full.
+     */
+    private final LongAdder sizeEvictions = new LongAdder();
+    /**
+     * Number of entries evicted because their time to live had passed.
+     */
+    private final LongAdder expirations = new LongAdder();
+    /**
+     * Number of explicit invalidations after writes.
+     */
+    private final LongAdder invalidations = new LongAdder();
+
+    /**
+     * Constructs a {@code RecipeCache} with the given limits.
+     *
+     * @param maxSize The maximum number of recipes kept in memory.
+     * @param ttl How long a recipe stays cached after it was loaded.
+     */
+    @Autowired
+    public RecipeCache(@Value("${recipe.cache.max-size:10000}") long maxSize,
+                       @Value("${recipe.cache.ttl:PT10M}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .evictionListener((String id, Recipe recipe, RemovalCause cause) -> {
+                    if (cause == RemovalCause.SIZE) {
+                        sizeEvictions.increment();
+                    } else if (cause == RemovalCause.EXPIRED) {
+                        expirations.increment();
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the cached recipe with the given ID, loading and caching it on a miss.
+     * <p>
+     * Concurrent misses for the same ID share a single load.
+     * </p>
+     *
+     * @param id The ID of the recipe.
+     * @param loader Reads the recipe from MongoDB; throws if it does not exist.
+     * @return The recipe.
+     */
+    public Recipe get(String id, Function<String, Recipe> loader) {
+        return cache.get(id, loader);
+    }
+
+    /**
+     * Removes the recipe with the given ID, so that the next lookup reads it from MongoDB.
+     *
+     * @param id The ID of the recipe; ignored if {@code null}.
+     */
+    public void invalidate(String id) {
+        if (id == null) {
+            return;
+        }
+        cache.invalidate(id);
+        invalidations.increment();
+    }
+
+    /**
+     * Removes all recipes from the cache.
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Returns the metrics of the cache.
+     *
+     * @return A map with the number of cached recipes, the hit and miss counts, the hit ratio, the evictions
+     * by cause, the number of invalidations and the load statistics.
+     */
+    public Map<String, Object> getStats() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", cache.estimatedSize());
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("hitRatio", stats.hitRate());
+        result.put("evictions", stats.evictionCount());
+        result.put("sizeEvictions", sizeEvictions.sum());
+        result.put("expirations", expirations.sum());
+        result.put("invalidations", invalidations.sum());
+        result.put("loadFailures", stats.loadFailureCount());
+        result.put("averageLoadMillis", stats.averageLoadPenalty() / 1_000_000.0);
+        return result;
+    }
+}
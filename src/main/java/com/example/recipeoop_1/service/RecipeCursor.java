@@ -0,0 +1,134 @@
+package com.example.recipeoop_1.service;
+
+import com.example.recipeoop_1.exception.InvalidCursorException;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * The position after the last recipe of a page, handed to clients as an opaque continuation token.
+ * <p>
+ * Recipes are paged in a fixed order: by collection name, then by {@code _id} within a collection. A cursor
+ * records the collection and the {@code _id} of the last recipe returned, so the next page is read with an
+ * indexed {@code _id > lastId} condition in that collection (and from the start in the following ones)
+ * instead of skipping over the previous pages. It also carries the page number, which is only informative.
+ * </p><p>
+ * The token is the Base64url encoding of a small JSON document. Clients must treat it as opaque; its format
+ * may change between versions.
+ * </p>
+ *
+ * @author Elie Issa/Michel Ghazaly
+ * @version 1.1
+ * @since 2026-10-16
+ * @see RecipeService#findRecipesPage(RecipeFilter, int, String)
+ */
+public final class RecipeCursor {
+
+    /**
+     * The name of the collection holding the last recipe returned.
+     */
+    private final String collectionName;
+    /**
+     * The ID of the last recipe returned, as exposed by {@link com.example.recipeoop_1.model.Recipe#getId()}.
+     */
+    private final String lastId;
+    /**
+     * The number (0-indexed) of the page this cursor leads to.
+     */
+    private final int pageNo;
+
+    /**
+     * Constructs a {@code RecipeCursor}.
+     *
+     * @param collectionName The collection of the last recipe returned.
+     * @param lastId The ID of the last recipe returned.
+     * @param pageNo The number (0-indexed) of the page this cursor leads to.
+     */
+    public RecipeCursor(String collectionName, String lastId, int pageNo) {
+        this.collectionName = collectionName;
+        this.lastId = lastId;
+        this.pageNo = pageNo;
+    }
+
+    /**
+     * Decodes a continuation token.
+     *
+     * @param token The token from a previous page, or {@code null} for the first page.
+     * @return The decoded cursor, or {@code null} for the first page.
+     * @throws InvalidCursorException if the token is not a token issued by this service.
+     */
+    public static RecipeCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            Document document = Document.parse(new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8));
+            String collectionName = document.getString("c");
+            String lastId = document.getString("i");
+            Integer pageNo = document.getInteger("p");
+            if (collectionName == null || lastId == null || pageNo == null || pageNo < 0) {
+                throw new InvalidCursorException("Malformed cursor");
+            }
+            return new RecipeCursor(collectionName, lastId, pageNo);
+        } catch (InvalidCursorException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new InvalidCursorException("Malformed cursor", e);
+        }
+    }
+
+    /**
+     * Encodes this cursor as a continuation token.
+     *
+     * @return The URL-safe token.
+     */
+    public String encode() {
+        String json = new Document("c", collectionName).append("i", lastId).append("p", pageNo).toJson();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Builds the condition selecting the recipes after the last one returned, in the collection of the cursor.
+     * <p>
+     * Spring Data stores a string ID that is a valid {@code ObjectId} as an {@code ObjectId}, but does not convert
+     * the operand of a {@code $gt} on {@code _id}. Compared as a string, the ID would sort before every
+     * {@code ObjectId} (BSON orders strings before them) and the condition would match the whole collection. It is
+     * therefore converted here the same way; other IDs are compared as strings, as they are stored.
+     * </p>
+     *
+     * @return The {@code _id > lastId} criterion.
+     */
+    public Criteria afterLastId() {
+        return Criteria.where("_id").gt(ObjectId.isValid(lastId) ? new ObjectId(lastId) : lastId);
+    }
+
+    /**
+     * Gets the collection of the last recipe returned.
+     *
+     * @return The collection of the last recipe returned.
+     */
+    public String getCollectionName() {
+        return collectionName;
+    }
+
+    /**
+     * Gets the ID of the last recipe returned, after which the next page starts.
+     *
+     * @return The ID of the last recipe returned.
+     */
+    public String getLastId() {
+        return lastId;
+    }
+
+    /**
+     * Gets the number of the page this cursor leads to, which is only informative.
+     *
+     * @return The number (0-indexed) of the page this cursor leads to.
+     */
+    public int getPageNo() {
+        return pageNo;
+    }
+}
@@ -0,0 +1,241 @@
+package com.example.recipeoop_1.service;
+
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+/**
+ * The criteria of a recipe list or search, independent of where the recipes are stored.
+ * <p>
+ * All criteria are optional; blank strings are treated as absent. Text criteria (title, ingredient) are
+ * case-insensitive "contains" matches, like the existing search endpoints. The category is not part of
+ * {@link #toQuery()}: it selects a collection in the per-category layout and a
+ * {@value RecipeStorage#CATEGORY_KEY_FIELD} value in the single-collection layout, so each
+ * {@link RecipeService} implementation applies it itself.
+ * </p><p>
+ * A filter may also carry a {@link RecipeProjection}, which {@link #toQuery()} pushes down to MongoDB so that
+ * only the requested fields are read.
+ * </p>
+ *
+ * @author Elie Issa/Michel Ghazaly
+ * @version 1.2
+ * @since 2026-10-16
+ * @see RecipeService#findRecipesPage(RecipeFilter, int, String)
+ */
+public final class RecipeFilter {
+
+    /**
+     * Keyword the title must contain, ignoring case, or {@code null}.
+     */
+    private final String title;
+    /**
+     * Category the recipes must belong to, or {@code null} for all categories.
+     */
+    private final String category;
+    /**
+     * Maximum cooking time in minutes, or {@code null}.
+     */
+    private final Integer maxCookingTime;
+    /**
+     * Keyword one of the ingredients must contain, ignoring case, or {@code null}.
+     */
+    private final String ingredient;
+    /**
+     * Username of the creator the recipes must have, or {@code null}.
+     */
+    private final String createdBy;
+    /**
+     * The fields to read, or {@code null} to read whole recipes.
+     */
+    private final RecipeProjection projection;
+
+    /**
+     * Constructs a {@code RecipeFilter} with the given criteria.
+     *
+     * @param title Keyword contained in the title, or {@code null}.
+     * @param category Category name, or {@code null} for all categories.
+     * @param maxCookingTime Maximum cooking time in minutes, or {@code null}.
+     * @param ingredient Keyword contained in one of the ingredients, or {@code null}.
+     * @param createdBy Username of the creator, or {@code null}.
+     */
+    public RecipeFilter(String title, String category, Integer maxCookingTime, String ingredient, String createdBy) {
+        this(title, category, maxCookingTime, ingredient, createdBy, null);
+    }
+
+    /**
+     * Constructs a {@code RecipeFilter} with the given criteria and projection, trimming the string criteria.
+     *
+     * @param title Keyword contained in the title, or {@code null}.
+     * @param category Category name, or {@code null} for all categories.
+     * @param maxCookingTime Maximum cooking time in minutes, or {@code null}.
+     * @param ingredient Keyword contained in one of the ingredients, or {@code null}.
+     * @param createdBy Username of the creator, or {@code null}.
+     * @param projection The fields to read, or {@code null} for all fields.
+     */
+    private RecipeFilter(String title, String category, Integer maxCookingTime, String ingredient, String createdBy,
+                         RecipeProjection projection) {
+        this.title = trimToNull(title);
+        this.category = trimToNull(category);
+        this.maxCookingTime = maxCookingTime;
+        this.ingredient = trimToNull(ingredient);
+        this.createdBy = trimToNull(createdBy);
+        this.projection = projection;
+    }
+
+    /**
+     * Returns a copy of this filter that reads only the fields of the given projection.
+     *
+     * @param projection The fields to read, or {@code null} for all fields.
+     * @return A new {@code RecipeFilter} with the same criteria.
+     */
+    public RecipeFilter withProjection(RecipeProjection projection) {
+        return new RecipeFilter(title, category, maxCookingTime, ingredient, createdBy, projection);
+    }
+
+    /**
+     * Creates a filter without criteria.
+     *
+     * @return A filter matching every recipe.
+     */
+    public static RecipeFilter all() {
+        return new RecipeFilter(null, null, null, null, null);
+    }
+
+    /**
+     * Creates a filter on the title only.
+     *
+     * @param title Keyword contained in the title.
+     * @return A filter matching recipes by title.
+     */
+    public static RecipeFilter byTitle(String title) {
+        return new RecipeFilter(title, null, null, null, null);
+    }
+
+    /**
+     * Creates a filter on the category only.
+     *
+     * @param category Category name.
+     * @return A filter matching the recipes of one category.
+     */
+    public static RecipeFilter byCategory(String category) {
+        return new RecipeFilter(null, category, null, null, null);
+    }
+
+    /**
+     * Creates a filter on the cooking time only.
+     *
+     * @param maxCookingTime Maximum cooking time in minutes.
+     * @return A filter matching recipes that can be cooked within the given time.
+     */
+    public static RecipeFilter byMaxCookingTime(Integer maxCookingTime) {
+        return new RecipeFilter(null, null, maxCookingTime, null, null);
+    }
+
+    /**
+     * Creates a filter on the ingredients only.
+     *
+     * @param ingredient Keyword contained in one of the ingredients.
+     * @return A filter matching recipes by ingredient.
+     */
+    public static RecipeFilter byIngredient(String ingredient) {
+        return new RecipeFilter(null, null, null, ingredient, null);
+    }
+
+    /**
+     * Creates a filter on the creator only.
+     *
+     * @param username Username of the creator.
+     * @return A filter matching the recipes created by one user.
+     */
+    public static RecipeFilter byCreator(String username) {
+        return new RecipeFilter(null, null, null, null, username);
+    }
+
+    /**
+     * Builds the MongoDB query for all criteria except the category, restricted to the projected fields.
+     *
+     * @return A new {@link Query} without sort or limit.
+     */
+    public Query toQuery() {
+        Query query = new Query();
+        if (title != null) {
+            query.addCriteria(Criteria.where("title").regex(title, "i"));
+        }
+        if (maxCookingTime != null) {
+            query.addCriteria(Criteria.where("cookingTime").lte(maxCookingTime));
+        }
+        if (ingredient != null) {
+            query.addCriteria(Criteria.where("ingredients").regex(ingredient, "i"));
+        }
+        if (createdBy != null) {
+            query.addCriteria(Criteria.where("createdBy").is(createdBy));
+        }
+        if (projection != null) {
+            projection.applyTo(query);
+        }
+        return query;
+    }
+
+    /**
+     * Gets the keyword the title must contain.
+     *
+     * @return The title keyword, or {@code null}.
+     */
+    public String getTitle() {
+        return title;
+    }
+
+    /**
+     * Gets the category the recipes must belong to.
+     *
+     * @return The category name, or {@code null} for all categories.
+     */
+    public String getCategory() {
+        return category;
+    }
+
+    /**
+     * Gets the maximum cooking time.
+     *
+     * @return The maximum cooking time in minutes, or {@code null}.
+     */
+    public Integer getMaxCookingTime() {
+        return maxCookingTime;
+    }
+
+    /**
+     * Gets the keyword one of the ingredients must contain.
+     *
+     * @return The ingredient keyword, or {@code null}.
+     */
+    public String getIngredient() {
+        return ingredient;
+    }
+
+    /**
+     * Gets the username of the creator the recipes must have.
+     *
+     * @return The username of the creator, or {@code null}.
+     */
+    public String getCreatedBy() {
+        return createdBy;
+    }
+
+    /**
+     * Gets the fields to read.
+     *
+     * @return The projection, or {@code null} if all fields are read.
+     */
+    public RecipeProjection getProjection() {
+        return projection;
+    }
+
+    /**
+     * Normalizes a string criterion, so that blank values count as absent.
+     *
+     * @param value A string criterion.
+     * @return The trimmed value, or {@code null} if it is blank.
+     */
+    private static String trimToNull(String value) {
+        return (value == null || value.trim().isEmpty()) ? null : value.trim();
+    }
+}
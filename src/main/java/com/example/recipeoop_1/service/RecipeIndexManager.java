@@ -0,0 +1,289 @@
+package com.example.recipeoop_1.service;
+
+import com.example.recipeoop_1.model.Recipe;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexField;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Service that keeps the indexes of all recipe collections in line with their declaration.
+ * <p>
+ * The required indexes are declared once, with index annotations on {@link Recipe}. Because recipes are stored
+ * in dynamically named collections (one per category, or the single {@value RecipeStorage#SINGLE_COLLECTION_NAME}
+ * collection), the declaration is applied here rather than by Spring Data's automatic index creation:
+ * </p>
+ * <ul>
+ * <li>{@link #applyIndexes(String)} is called by {@link CategoryService} whenever it creates a category collection,
+ * and before data is written to the single collection.</li>
+ * <li>{@link #reconcileAll()} creates missing indexes on all existing recipe collections. It runs once in the
+ * background after startup (unless {@code recipe.indexes.reconcile-on-startup} is disabled) and on demand.</li>
+ * <li>{@link #report()} lists, per collection, the declared indexes that are missing and the existing indexes
+ * that are not declared. Extra indexes are reported but never dropped automatically.</li>
+ * </ul>
+ * Indexes are compared by their keys, not by their names; a text index by the set of fields it covers.
+ *
+ * @author Elie Issa/Michel Ghazaly
+ * @version 1.1
+ * @since 2026-10-16
+ * @see Recipe
+ */
+@Service
+public class RecipeIndexManager {
+
+    /**
+     * Logger for this class.
+     */
+    private static final Logger log = LoggerFactory.getLogger(RecipeIndexManager.class);
+
+    /**
+     * MongoTemplate for database interactions.
+     */
+    private final MongoTemplate mongoTemplate;
+    /**
+     * Whether existing collections are reconciled in the background after startup.
+     */
+    private final boolean reconcileOnStartup;
+    /**
+     * The indexes declared on {@link Recipe}, resolved on first use.
+     */
+    private volatile List<IndexDefinition> declaredIndexes;
+    /**
+     * Number of indexes created by this service.
+     */
+    private final LongAdder created = new LongAdder();
+    /**
+     * Number of index creations that failed.
+     */
+    private final LongAdder failures = new LongAdder();
+
+    /**
+     * Constructs a {@code RecipeIndexManager} with the necessary dependencies and settings.
+     *
+     * @param mongoTemplate The Spring Data {@link MongoTemplate} for direct MongoDB interaction.
+     * @param reconcileOnStartup Whether existing collections are reconciled in the background after startup.
+     */
+    @Autowired
+    public RecipeIndexManager(MongoTemplate mongoTemplate,
+                              @Value("${recipe.indexes.reconcile-on-startup:true}") boolean reconcileOnStartup) {
+        this.mongoTemplate = mongoTemplate;
+        this.reconcileOnStartup = reconcileOnStartup;
+    }
+
+    /**
+     * Returns the indexes a recipe collection must have.
+     * <p>
+     * Category collections need all declared indexes except those on the category key, which is only stored
+     * in the single collection.
+     * </p>
+     *
+     * @param collectionName The name of a recipe collection.
+     * @return The required index definitions.
+     */
+    public List<IndexDefinition> requiredIndexes(String collectionName) {
+        List<IndexDefinition> declared = declaredIndexes();
+        if (RecipeStorage.SINGLE_COLLECTION_NAME.equals(collectionName)) {
+            return declared;
+        }
+        return declared.stream()
+                .filter(index -> !index.getIndexKeys().containsKey(RecipeStorage.CATEGORY_KEY_FIELD))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Creates the required indexes that are missing on the given collection.
+     * <p>
+     * Failures are logged and counted but not propagated: a missing index makes queries slower, not wrong,
+     * and is created by the next reconciliation.
+     * </p>
+     *
+     * @param collectionName The name of a recipe collection.
+     * @return The number of indexes created.
+     */
+    public int applyIndexes(String collectionName) {
+        int createdHere = 0;
+        try {
+            IndexOperations indexOps = mongoTemplate.indexOps(collectionName);
+            Set<String> existing = existingIndexKeys(indexOps);
+            for (IndexDefinition index : requiredIndexes(collectionName)) {
+                if (!existing.contains(describe(index.getIndexKeys()))) {
+                    indexOps.ensureIndex(index);
+                    created.increment();
+                    createdHere++;
+                    log.info("Created index {} on collection '{}'", index.getIndexKeys().toJson(), collectionName);
+                }
+            }
+        } catch (RuntimeException e) {
+            failures.increment();
+            log.warn("Failed to apply indexes to collection '{}': {}", collectionName, e.getMessage());
+        }
+        return createdHere;
+    }
+
+    /**
+     * Creates the missing indexes on every existing recipe collection.
+     *
+     * @return A map with the number of collections checked, indexes created and the elapsed time in milliseconds.
+     */
+    public Map<String, Object> reconcileAll() {
+        long start = System.currentTimeMillis();
+        List<String> collectionNames = recipeCollectionNames();
+        int createdNow = 0;
+        for (String collectionName : collectionNames) {
+            createdNow += applyIndexes(collectionName);
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("collections", collectionNames.size());
+        result.put("created", createdNow);
+        result.put("elapsedMillis", System.currentTimeMillis() - start);
+        log.info("Index reconciliation finished: {}", result);
+        return result;
+    }
+
+    /**
+     * Compares the existing indexes of every recipe collection with the declared ones.
+     *
+     * @return A map with a {@code consistent} flag, the counters of this service and, per collection that
+     * differs from the declaration, the {@code missing} and {@code extra} index keys.
+     */
+    public Map<String, Object> report() {
+        Map<String, Object> collections = new LinkedHashMap<>();
+        List<String> collectionNames = recipeCollectionNames();
+        for (String collectionName : collectionNames) {
+            Set<String> existing = existingIndexKeys(mongoTemplate.indexOps(collectionName));
+            existing.remove(describe(new Document("_id", 1)));
+            Set<String> required = requiredIndexes(collectionName).stream()
+                    .map(index -> describe(index.getIndexKeys()))
+                    .collect(Collectors.toCollection(LinkedHashSet::new));
+
+            List<String> missing = required.stream().filter(key -> !existing.contains(key)).collect(Collectors.toList());
+            List<String> extra = existing.stream().filter(key -> !required.contains(key)).collect(Collectors.toList());
+            if (!missing.isEmpty() || !extra.isEmpty()) {
+                Map<String, Object> differences = new LinkedHashMap<>();
+                differences.put("missing", missing);
+                differences.put("extra", extra);
+                collections.put(collectionName, differences);
+            }
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("consistent", collections.isEmpty());
+        report.put("collectionsChecked", collectionNames.size());
+        report.put("indexesCreated", created.sum());
+        report.put("failures", failures.sum());
+        report.put("collections", collections);
+        return report;
+    }
+
+    /**
+     * Starts the reconciliation of existing collections in the background once the application is ready,
+     * so that startup is not delayed by index builds.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileOnStartup() {
+        if (!reconcileOnStartup) {
+            return;
+        }
+        Thread thread = new Thread(() -> {
+            try {
+                reconcileAll();
+            } catch (RuntimeException e) {
+                failures.increment();
+                log.warn("Startup index reconciliation failed: {}", e.getMessage());
+            }
+        }, "recipe-index-reconcile");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Lists the existing recipe collections: all category collections and, if present, the single collection.
+     *
+     * @return The collection names, in alphabetical order.
+     */
+    private List<String> recipeCollectionNames() {
+        return mongoTemplate.getCollectionNames().stream()
+                .filter(name -> CategoryService.isCategoryCollection(name) || name.equals(RecipeStorage.SINGLE_COLLECTION_NAME))
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Resolves the index annotations on {@link Recipe} once.
+     *
+     * @return The declared index definitions.
+     */
+    private List<IndexDefinition> declaredIndexes() {
+        List<IndexDefinition> declared = declaredIndexes;
+        if (declared == null) {
+            declared = new ArrayList<>();
+            IndexResolver resolver = IndexResolver.create(mongoTemplate.getConverter().getMappingContext());
+            for (IndexDefinition index : resolver.resolveIndexFor(Recipe.class)) {
+                declared.add(index);
+            }
+            declaredIndexes = declared;
+        }
+        return declared;
+    }
+
+    /**
+     * Reads the keys of the indexes present on a collection.
+     *
+     * @param indexOps The index operations of the collection.
+     * @return The described index keys, e.g. "createdBy: 1".
+     */
+    private static Set<String> existingIndexKeys(IndexOperations indexOps) {
+        Set<String> keys = new LinkedHashSet<>();
+        for (IndexInfo info : indexOps.getIndexInfo()) {
+            Document fields = new Document();
+            for (IndexField field : info.getIndexFields()) {
+                fields.put(field.getKey(), field.isText() ? "text" : field.getDirection() == null ? "special"
+                        : field.getDirection() == Sort.Direction.ASC ? 1 : -1);
+            }
+            keys.add(describe(fields));
+        }
+        return keys;
+    }
+
+    /**
+     * Describes index keys in a stable, readable form used to compare declared and existing indexes.
+     * <p>
+     * The fields of a text index are sorted by name, since their order has no meaning and MongoDB does not
+     * keep it.
+     * </p>
+     *
+     * @param keys The index keys.
+     * @return The description, e.g. "categoryKey: 1, _id: 1" or "ingredients: text, title: text".
+     */
+    private static String describe(Document keys) {
+        Stream<Map.Entry<String, Object>> entries = keys.entrySet().stream();
+        if (keys.containsValue("text")) {
+            entries = entries.sorted(Map.Entry.comparingByKey());
+        }
+        return entries
+                .map(entry -> entry.getKey() + ": "
+                        + (entry.getValue() instanceof Number number ? String.valueOf(number.intValue()) : entry.getValue()))
+                .collect(Collectors.joining(", "));
+    }
+}
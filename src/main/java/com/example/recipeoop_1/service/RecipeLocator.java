@@ -0,0 +1,254 @@
+package com.example.recipeoop_1.service;
+
+import com.example.recipeoop_1.model.Recipe;
+import com.example.recipeoop_1.model.RecipeLocation;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Service that maps recipe IDs to the category collection holding each recipe.
+ * <p>
+ * The mapping is persisted in the {@value RecipeLocation#COLLECTION_NAME} collection (see
+ * {@link RecipeLocation}) and cached in memory in a bounded cache of
+ * {@code recipe.locator.cache-size} entries. {@link RecipeServiceImpl} keeps it up to date in the
+ * same code paths that create, move and delete recipes, so that a recipe can be read by ID
+ * with one targeted query.
+ * </p><p>
+ * Recipes created before the locator existed have no entry. {@link #rebuild()} backfills the
+ * entries of all existing recipes. Until that has been run, {@code recipe.locator.fallback-scan}
+ * should stay enabled, so that IDs without an entry are still looked up in every category.
+ * Once the locator is complete, disabling the fallback makes unknown IDs fail fast.
+ * </p>
+ *
+ * @author Elie Issa/Michel Ghazaly
+ * @version 1.0
+ * @since 2026-10-16
+ * @see RecipeLocation
+ * @see RecipeServiceImpl#getRecipeById(String)
+ */
+@Service
+public class RecipeLocator {
+
+    /**
+     * Logger for this class.
+     */
+    private static final Logger log = LoggerFactory.getLogger(RecipeLocator.class);
+
+    /**
+     * Number of upserts sent to MongoDB in one bulk write during {@link #rebuild()}.
+     */
+    private static final int REBUILD_BATCH_SIZE = 500;
+
+    /**
+     * MongoTemplate for database interactions.
+     */
+    private final MongoTemplate mongoTemplate;
+    /**
+     * CategoryService used to enumerate the category collections during a rebuild.
+     */
+    private final CategoryService categoryService;
+    /**
+     * Bounded in-memory cache of recipe ID to collection name.
+     */
+    private final Cache<String, String> cache;
+    /**
+     * Whether IDs without a locator entry are looked up in every category collection.
+     */
+    private final boolean fallbackScanEnabled;
+    /**
+     * Number of locator writes that failed and were only logged.
+     */
+    private final LongAdder writeFailures = new LongAdder();
+
+    /**
+     * Constructs a {@code RecipeLocator} with the necessary dependencies and settings.
+     *
+     * @param mongoTemplate The Spring Data {@link MongoTemplate} for direct MongoDB interaction.
+     * @param categoryService The {@link CategoryService} used to enumerate category collections.
+     * @param cacheSize The maximum number of entries kept in memory.
+     * @param fallbackScanEnabled Whether IDs without a locator entry are looked up in every category.
+     */
+    @Autowired
+    public RecipeLocator(MongoTemplate mongoTemplate, CategoryService categoryService,
+                         @Value("${recipe.locator.cache-size:100000}") long cacheSize,
+                         @Value("${recipe.locator.fallback-scan:true}") boolean fallbackScanEnabled) {
+        this.mongoTemplate = mongoTemplate;
+        this.categoryService = categoryService;
+        this.fallbackScanEnabled = fallbackScanEnabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Looks up the collection holding the recipe with the given ID.
+     * <p>
+     * The in-memory cache is consulted first; on a cache miss the entry is read from MongoDB
+     * by its {@code _id} and cached.
+     * </p>
+     *
+     * @param recipeId The ID of the recipe.
+     * @return The collection name, or an empty {@link Optional} if the locator has no entry for this ID.
+     */
+    public Optional<String> locate(String recipeId) {
+        String collectionName = cache.getIfPresent(recipeId);
+        if (collectionName != null) {
+            return Optional.of(collectionName);
+        }
+        RecipeLocation location = mongoTemplate.findById(recipeId, RecipeLocation.class);
+        if (location == null) {
+            return Optional.empty();
+        }
+        cache.put(recipeId, location.getCollectionName());
+        return Optional.of(location.getCollectionName());
+    }
+
+    /**
+     * Records that the recipe with the given ID is stored in the given collection.
+     * <p>
+     * A failure to write the entry is logged but not propagated: the recipe itself has already been
+     * written, and lookups can still find it through the fallback scan (which also repairs the entry).
+     * </p>
+     *
+     * @param recipeId The ID of the recipe.
+     * @param collectionName The name of the collection now holding the recipe.
+     */
+    public void record(String recipeId, String collectionName) {
+        if (recipeId == null) {
+            return;
+        }
+        cache.put(recipeId, collectionName);
+        try {
+            mongoTemplate.upsert(byRecipeId(recipeId), new Update().set("collectionName", collectionName), RecipeLocation.class);
+        } catch (RuntimeException e) {
+            writeFailures.increment();
+            log.error("Failed to record location of recipe ID '{}' in '{}': {}", recipeId, collectionName, e.getMessage());
+        }
+    }
+
+    /**
+     * Removes the locator entry of a deleted recipe.
+     * <p>
+     * As with {@link #record(String, String)}, failures are logged but not propagated.
+     * A leftover entry only costs one wasted query on a later lookup.
+     * </p>
+     *
+     * @param recipeId The ID of the deleted recipe.
+     */
+    public void forget(String recipeId) {
+        cache.invalidate(recipeId);
+        try {
+            mongoTemplate.remove(byRecipeId(recipeId), RecipeLocation.class);
+        } catch (RuntimeException e) {
+            writeFailures.increment();
+            log.error("Failed to remove location of recipe ID '{}': {}", recipeId, e.getMessage());
+        }
+    }
+
+    /**
+     * Indicates whether IDs without a locator entry should be looked up in every category collection.
+     *
+     * @return {@code true} if the fallback scan is enabled ({@code recipe.locator.fallback-scan}).
+     */
+    public boolean isFallbackScanEnabled() {
+        return fallbackScanEnabled;
+    }
+
+    /**
+     * Backfills the locator from the recipes currently stored in all category collections.
+     * <p>
+     * Reads only the IDs of each collection through a cursor and upserts the entries in unordered
+     * bulk writes of {@value #REBUILD_BATCH_SIZE}, so memory use does not depend on the number of recipes.
+     * It is safe to run while the application serves traffic, and safe to run again.
+     * </p>
+     *
+     * @return A map with the number of collections scanned, entries written and the elapsed time in milliseconds.
+     */
+    public Map<String, Object> rebuild() {
+        long start = System.currentTimeMillis();
+        List<String> categories = categoryService.getAllCategories();
+        long indexed = 0;
+
+        for (String category : categories) {
+            String collectionName = CategoryService.formatCollectionName(category);
+            Query idsOnly = new Query();
+            idsOnly.fields().include("_id");
+
+            BulkOperations bulk = null;
+            int pending = 0;
+            try (Stream<Recipe> recipes = mongoTemplate.stream(idsOnly, Recipe.class, collectionName)) {
+                for (Recipe recipe : (Iterable<Recipe>) recipes::iterator) {
+                    if (bulk == null) {
+                        bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, RecipeLocation.class);
+                    }
+                    bulk.upsert(byRecipeId(recipe.getId()), new Update().set("collectionName", collectionName));
+                    cache.put(recipe.getId(), collectionName);
+                    indexed++;
+                    if (++pending == REBUILD_BATCH_SIZE) {
+                        bulk.execute();
+                        bulk = null;
+                        pending = 0;
+                    }
+                }
+            }
+            if (bulk != null) {
+                bulk.execute();
+            }
+            log.info("Locator rebuild: indexed collection '{}'", collectionName);
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("collections", categories.size());
+        result.put("indexed", indexed);
+        result.put("elapsedMillis", System.currentTimeMillis() - start);
+        log.info("Locator rebuild finished: {}", result);
+        return result;
+    }
+
+    /**
+     * Returns the cache metrics of the locator.
+     *
+     * @return A map with the cache size, hit and miss counts, hit ratio, evictions and failed writes.
+     */
+    public Map<String, Object> getStats() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", cache.estimatedSize());
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("hitRatio", stats.hitRate());
+        result.put("evictions", stats.evictionCount());
+        result.put("writeFailures", writeFailures.sum());
+        result.put("fallbackScanEnabled", fallbackScanEnabled);
+        return result;
+    }
+
+    /**
+     * Builds the query selecting the locator entry of one recipe.
+     *
+     * @param recipeId The ID of the recipe.
+     * @return A {@link Query} matching the entry by its document ID.
+     */
+    private static Query byRecipeId(String recipeId) {
+        return new Query(Criteria.where("recipeId").is(recipeId));
+    }
+}
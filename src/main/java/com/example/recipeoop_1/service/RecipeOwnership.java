@@ -0,0 +1,108 @@
+package com.example.recipeoop_1.service;
+
+import com.example.recipeoop_1.exception.RecipeAccessDeniedException;
+import com.example.recipeoop_1.exception.RecipeNotFoundException;
+import com.example.recipeoop_1.model.Recipe;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+
+import java.util.List;
+
+/**
+ * Building blocks for the ownership-checked writes of both storage layouts.
+ * <p>
+ * A recipe may only be modified by its creator or by an administrator. Instead of reading the recipe to
+ * compare its creator and then writing it, the creator is made part of the write's filter
+ * ({@link #ownedQuery(String, String, boolean)}), so that a single {@code findAndModify} or
+ * {@code findAndRemove} both checks and writes. Only when nothing matched is a second query made, to tell a
+ * missing recipe from somebody else's ({@link #notModified(MongoTemplate, String, String)}).
+ * </p>
+ *
+ * @author Elie Issa/Michel Ghazaly
+ * @version 1.1
+ * @since 2026-10-16
+ * @see RecipeService#updateRecipe(String, Recipe, String, boolean)
+ * @see RecipeService#deleteRecipe(String, String, boolean)
+ */
+final class RecipeOwnership {
+
+    private RecipeOwnership() {
+    }
+
+    /**
+     * Builds the filter of an ownership-checked write.
+     *
+     * @param id The ID of the recipe.
+     * @param username The user modifying the recipe.
+     * @param admin Whether the user is an administrator, who may modify any recipe.
+     * @return A query matching the recipe if the user may modify it.
+     */
+    static Query ownedQuery(String id, String username, boolean admin) {
+        Criteria criteria = Criteria.where("id").is(id);
+        if (!admin) {
+            criteria = criteria.and("createdBy").is(username);
+        }
+        return new Query(criteria);
+    }
+
+    /**
+     * Builds an update that replaces a stored recipe with new details while keeping its ID and creator.
+     * <p>
+     * This has the effect of saving the details with the stored ID and creator, without reading the stored
+     * recipe first: the pipeline merges the new document with the two stored fields. The new document is
+     * wrapped in {@code $literal}, so that values starting with {@code $} are not read as field paths.
+     * </p>
+     *
+     * @param converter The converter writing the recipe as a document.
+     * @param recipeDetails The new details of the recipe.
+     * @return The update.
+     */
+    static UpdateDefinition replaceKeepingCreator(MongoConverter converter, Recipe recipeDetails) {
+        Document replacement = new Document();
+        converter.write(recipeDetails, replacement);
+        replacement.remove("_id");
+        replacement.remove("createdBy");
+        Document merged = new Document("$mergeObjects", List.of(
+                new Document("$literal", replacement),
+                new Document("_id", "$_id").append("createdBy", "$createdBy")));
+        AggregationOperation replaceWith = context -> new Document("$replaceWith", merged);
+        return AggregationUpdate.from(List.of(replaceWith));
+    }
+
+    /**
+     * Explains why an ownership-checked write matched nothing.
+     *
+     * @param mongoTemplate The template to query with.
+     * @param id The ID of the recipe.
+     * @param collectionName The collection the write was made in.
+     * @return A {@link RecipeAccessDeniedException} if the recipe is in the collection, which means it belongs
+     * to another user, or a {@link RecipeNotFoundException} otherwise.
+     */
+    static RuntimeException notModified(MongoTemplate mongoTemplate, String id, String collectionName) {
+        return notModified(mongoTemplate, Criteria.where("id").is(id), id, collectionName);
+    }
+
+    /**
+     * Explains why an ownership-checked write restricted to some recipes (e.g., those of a category) matched
+     * nothing.
+     *
+     * @param mongoTemplate The template to query with.
+     * @param recipe The filter of the write, without the ownership condition.
+     * @param id The ID of the recipe.
+     * @param collectionName The collection the write was made in.
+     * @return A {@link RecipeAccessDeniedException} if a recipe matches {@code recipe}, which means it belongs
+     * to another user, or a {@link RecipeNotFoundException} otherwise.
+     */
+    static RuntimeException notModified(MongoTemplate mongoTemplate, Criteria recipe, String id, String collectionName) {
+        if (mongoTemplate.exists(new Query(recipe), Recipe.class, collectionName)) {
+            return new RecipeAccessDeniedException("Recipe " + id + " belongs to another user");
+        }
+        return new RecipeNotFoundException("Recipe not found with id: " + id);
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.recipeoop_1.service;
+
+import com.example.recipeoop_1.exception.InvalidFieldsException;
+import com.example.recipeoop_1.model.Recipe;
+import org.springframework.data.mongodb.core.query.MongoExpression;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A sparse fieldset: the recipe fields a client asked for with the {@code fields} parameter.
+ * <p>
+ * The fieldset is pushed down to MongoDB as a projection (see {@link RecipeFilter#toQuery()}), so the omitted
+ * fields, typically the long {@code instructions} text and the {@code ingredients} arrays, are neither
+ * transferred from the database nor deserialized. The recipe ID is always included. The value {@value #SUMMARY}
+ * selects the fields needed to render a recipe card: {@value #SUMMARY_FIELDS}.
+ * </p>
+ * <p>
+ * {@value #INGREDIENT_COUNT} is not stored: the database computes it from the ingredients, so a card can show
+ * how many ingredients a recipe has without receiving them.
+ * </p>
+ *
+ * @author Elie Issa/Michel Ghazaly
+ * @version 1.1
+ * @since 2026-10-16
+ * @see RecipeFilter#withProjection(RecipeProjection)
+ */
+public final class RecipeProjection {
+
+    /**
+     * The {@code fields} value selecting the summary view.
+     */
+    public static final String SUMMARY = "summary";
+
+    /**
+     * The fields of the summary view.
+     */
+    static final String SUMMARY_FIELDS = "title,category,cookingTime,ingredientCount,createdBy";
+
+    /**
+     * The computed field holding the number of ingredients.
+     */
+    static final String INGREDIENT_COUNT = "ingredientCount";
+
+    /**
+     * The recipe fields that can be requested.
+     */
+    private static final List<String> KNOWN_FIELDS =
+            List.of("id", "title", "ingredients", "ingredientCount", "instructions", "cookingTime", "category", "createdBy");
+
+    /**
+     * The selected field names, in the order they were requested.
+     */
+    private final Set<String> fields;
+
+    /**
+     * Constructs a {@code RecipeProjection} of the given fields.
+     *
+     * @param fields The selected field names, all known recipe fields.
+     */
+    private RecipeProjection(Set<String> fields) {
+        this.fields = Collections.unmodifiableSet(fields);
+    }
+
+    /**
+     * Parses the value of a {@code fields} parameter.
+     *
+     * @param fields A comma-separated list of recipe fields, {@value #SUMMARY}, or {@code null}.
+     * @return The projection, or {@code null} if all fields are requested.
+     * @throws InvalidFieldsException if a field is not a recipe field.
+     */
+    public static RecipeProjection parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+        String list = SUMMARY.equalsIgnoreCase(fields.trim()) ? SUMMARY_FIELDS : fields;
+        Set<String> selected = new LinkedHashSet<>();
+        for (String field : list.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!KNOWN_FIELDS.contains(name)) {
+                throw new InvalidFieldsException("Unknown recipe field '" + name + "'; expected one of "
+                        + KNOWN_FIELDS + " or '" + SUMMARY + "'");
+            }
+            selected.add(name);
+        }
+        return selected.isEmpty() ? null : new RecipeProjection(selected);
+    }
+
+    /**
+     * Restricts the fields returned by a query to this fieldset.
+     *
+     * @param query The query to restrict.
+     */
+    void applyTo(Query query) {
+        fields.stream().filter(field -> !field.equals("id") && !field.equals(INGREDIENT_COUNT))
+                .forEach(field -> query.fields().include(field));
+        if (fields.contains(INGREDIENT_COUNT)) {
+            query.fields().project(MongoExpression.create("{ $size: { $ifNull: ['$ingredients', []] } }"))
+                    .as(INGREDIENT_COUNT);
+        }
+        if (fields.size() == 1 && fields.contains("id")) {
+            query.fields().include("_id");
+        }
+    }
+
+    /**
+     * Clears the fields a projected recipe only holds because of their initial value in {@link Recipe},
+     * so that they are not mistaken for data.
+     *
+     * @param recipe A recipe read with this projection.
+     * @return The same recipe.
+     */
+    public Recipe strip(Recipe recipe) {
+        if (!fields.contains("ingredients")) {
+            recipe.setIngredients(null);
+        }
+        return recipe;
+    }
+
+    /**
+     * Gets the recipe fields this projection reads; the ID is read even when it is not listed.
+     *
+     * @return The selected field names.
+     */
+    public Set<String> getFields() {
+        return fields;
+    }
+}
@@ -0,0 +1,530 @@
+package com.example.recipeoop_1.service;
+
+import com.example.recipeoop_1.dto.Suggestion;
+import com.example.recipeoop_1.model.Recipe;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * In-memory substring index over the titles and ingredients of all recipes.
+ * <p>
+ * A case-insensitive, unanchored {@code $regex} cannot use an index, so searching recipes by a part of their
+ * title or of an ingredient scans every category collection. This service keeps a {@link TrigramIndex} of the
+ * titles and one of the ingredients, which tell which recipes contain the searched text, and in which
+ * collections they are. {@link RecipeServiceImpl} then only reads those recipes, by ID.
+ * </p><p>
+ * The index is built from all category collections at startup, and kept up to date by
+ * {@link RecipeServiceImpl} as it creates, updates and deletes recipes. Writes made by other instances of the
+ * application, or directly in the database, are only picked up by the next rebuild, every
+ * {@code recipe.search-index.rebuild-interval-ms} milliseconds. Because the recipes read by ID are still
+ * filtered with the original regular expression, a stale entry can make a search miss a recipe but never
+ * return one that does not match. Until the first build has finished, and for texts containing regular
+ * expression metacharacters, {@link #findByTitle(String)} and {@link #findByIngredient(String)} return an
+ * empty {@link Optional} and the search scans the collections as before.
+ * </p><p>
+ * The index also holds the {@link IngredientKeys ingredient keys} of every recipe as {@link IngredientBitsets},
+ * from which {@link #matchPantry(Collection, int, int)} scores all recipes against a pantry without reading them,
+ * and a {@link PrefixTrie} of the titles, categories and ingredient keys, from which {@link #suggest(String, int)}
+ * answers autocomplete requests without any database access.
+ * </p>
+ *
+ * @author Elie Issa/Michel Ghazaly
+ * @version 1.3
+ * @since 2026-10-16
+ * @see TrigramIndex
+ * @see IngredientBitsets
+ * @see PrefixTrie
+ * @see RecipeServiceImpl#searchRecipesByTitle(String, QueryStrategy)
+ */
+@Service
+@ConditionalOnProperty(name = RecipeStorage.MODE_PROPERTY, havingValue = RecipeStorage.PER_CATEGORY, matchIfMissing = true)
+public class RecipeSearchIndex {
+
+    /**
+     * Logger for this class.
+     */
+    private static final Logger log = LoggerFactory.getLogger(RecipeSearchIndex.class);
+
+    /**
+     * The characters that give a search text a meaning other than a plain substring.
+     */
+    private static final String REGEX_METACHARACTERS = "\\^$.|?*+()[]{}";
+
+    /**
+     * MongoTemplate for database interactions.
+     */
+    private final MongoTemplate mongoTemplate;
+    /**
+     * CategoryService used to enumerate the category collections during a rebuild.
+     */
+    private final CategoryService categoryService;
+    /**
+     * Whether searches use the index.
+     */
+    private final boolean enabled;
+    /**
+     * The number of suggestions kept for every prefix.
+     */
+    private final int suggestionsPerPrefix;
+    /**
+     * Guards {@link #state} and {@link #replay}.
+     */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    /**
+     * The index searched and updated; replaced by each rebuild.
+     */
+    private State state;
+    /**
+     * The updates made while a rebuild runs, which are applied again to the rebuilt index; {@code null} otherwise.
+     */
+    private List<Consumer<State>> replay;
+    /**
+     * Whether the index has been built once.
+     */
+    private volatile boolean ready;
+
+    /**
+     * Number of title and ingredient searches answered from the index.
+     */
+    private final LongAdder queries = new LongAdder();
+    /**
+     * Number of searches left to MongoDB because the index was disabled or not built yet.
+     */
+    private final LongAdder bypassed = new LongAdder();
+    /**
+     * Number of pantry searches answered from the ingredient bitsets.
+     */
+    private final LongAdder pantryQueries = new LongAdder();
+    /**
+     * Number of autocomplete requests answered from the suggestion trie.
+     */
+    private final LongAdder suggestQueries = new LongAdder();
+    /**
+     * Number of completed rebuilds.
+     */
+    private final LongAdder rebuilds = new LongAdder();
+    /**
+     * Number of rebuilds that failed, leaving the previous index in use.
+     */
+    private final LongAdder rebuildFailures = new LongAdder();
+    /**
+     * Duration of the last completed rebuild in milliseconds, or {@code -1} before the first one.
+     */
+    private volatile long lastRebuildMillis = -1;
+    /**
+     * When the index in use was built, in epoch milliseconds.
+     */
+    private volatile long builtAt;
+
+    /**
+     * Constructs a {@code RecipeSearchIndex} with the necessary dependencies and settings.
+     *
+     * @param mongoTemplate The Spring Data {@link MongoTemplate} for direct MongoDB interaction.
+     * @param categoryService The {@link CategoryService} used to enumerate category collections.
+     * @param enabled Whether searches use the index.
+     * @param suggestionsPerPrefix The number of suggestions kept for every prefix.
+     */
+    @Autowired
+    public RecipeSearchIndex(MongoTemplate mongoTemplate, CategoryService categoryService,
+                             @Value("${recipe.search-index.enabled:true}") boolean enabled,
+                             @Value("${recipe.search-index.suggestions-per-prefix:10}") int suggestionsPerPrefix) {
+        this.mongoTemplate = mongoTemplate;
+        this.categoryService = categoryService;
+        this.enabled = enabled;
+        this.suggestionsPerPrefix = suggestionsPerPrefix;
+        this.state = new State(suggestionsPerPrefix);
+    }
+
+    /**
+     * Builds the index once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        refresh();
+    }
+
+    /**
+     * Rebuilds the index periodically, to pick up the writes this instance did not make.
+     */
+    @Scheduled(initialDelayString = "${recipe.search-index.rebuild-interval-ms:600000}",
+            fixedDelayString = "${recipe.search-index.rebuild-interval-ms:600000}")
+    public void refresh() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.warn("Could not rebuild the recipe search index: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Adds a recipe to the index, or updates its entry.
+     *
+     * @param recipe The recipe as stored.
+     * @param collectionName The collection now holding the recipe.
+     */
+    public void index(Recipe recipe, String collectionName) {
+        if (recipe == null || recipe.getId() == null) {
+            return;
+        }
+        String id = recipe.getId();
+        String title = recipe.getTitle();
+        String category = recipe.getCategory();
+        List<String> ingredients = recipe.getIngredients() != null ? new ArrayList<>(recipe.getIngredients()) : List.of();
+        apply(index -> index.put(id, collectionName, title, category, ingredients));
+    }
+
+    /**
+     * Removes a deleted recipe from the index.
+     *
+     * @param recipeId The ID of the deleted recipe.
+     */
+    public void remove(String recipeId) {
+        apply(index -> index.remove(recipeId));
+    }
+
+    /**
+     * Finds the recipes whose title contains the given text, ignoring case.
+     *
+     * @param title The text to look for.
+     * @return The IDs of the matching recipes by collection name, in alphabetical order of the collections; or an
+     * empty {@link Optional} if the index cannot answer, in which case the collections must be searched.
+     */
+    public Optional<Map<String, List<String>>> findByTitle(String title) {
+        return find(title, false);
+    }
+
+    /**
+     * Finds the recipes with an ingredient containing the given text, ignoring case.
+     *
+     * @param ingredient The text to look for.
+     * @return The IDs of the matching recipes by collection name, in alphabetical order of the collections; or an
+     * empty {@link Optional} if the index cannot answer, in which case the collections must be searched.
+     */
+    public Optional<Map<String, List<String>>> findByIngredient(String ingredient) {
+        return find(ingredient, true);
+    }
+
+    /**
+     * Finds the recipes that can be cooked, or almost, with the ingredients of a pantry.
+     *
+     * @param pantryKeys The {@link IngredientKeys keys} of the ingredients in the pantry.
+     * @param maxMissing The largest number of missing ingredients of a returned recipe.
+     * @param limit The maximum number of recipes to return.
+     * @return The IDs of the best {@code limit} recipes using at least one ingredient of the pantry, by collection
+     * name; or an empty {@link Optional} if the index cannot answer, in which case the collections must be searched.
+     * Recipes with the same score are ordered by {@link PantryRanking#TITLE_ORDER title}, as in
+     * {@link PantryRanking#ORDER}, so the cut at {@code limit} keeps the recipes the ranking returns.
+     */
+    public Optional<Map<String, List<String>>> matchPantry(Collection<String> pantryKeys, int maxMissing, int limit) {
+        if (!enabled || !ready) {
+            bypassed.increment();
+            return Optional.empty();
+        }
+        pantryQueries.increment();
+        lock.readLock().lock();
+        try {
+            int[] docs = state.pantry.match(pantryKeys, maxMissing).stream()
+                    .sorted(Comparator.comparingInt((int[] match) -> match[2])
+                            .thenComparingInt(match -> -match[1])
+                            .thenComparing(match -> state.recipeTitles.get(match[0]), PantryRanking.TITLE_ORDER)
+                            .thenComparingInt(match -> match[0]))
+                    .limit(limit)
+                    .mapToInt(match -> match[0])
+                    .toArray();
+            return Optional.of(state.byCollection(docs));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Suggests the titles, categories and ingredients starting with a prefix, for autocomplete.
+     *
+     * @param prefix The prefix, matched case-insensitively.
+     * @param limit The maximum number of suggestions; at most {@code recipe.search-index.suggestions-per-prefix}
+     * are returned.
+     * @return The suggestions, by decreasing number of recipes; or an empty {@link Optional} if the index cannot
+     * answer, in which case the collections must be searched.
+     */
+    public Optional<List<Suggestion>> suggest(String prefix, int limit) {
+        if (!enabled || !ready) {
+            bypassed.increment();
+            return Optional.empty();
+        }
+        suggestQueries.increment();
+        lock.readLock().lock();
+        try {
+            return Optional.of(RecipeSuggestions.toSuggestions(state.suggestions.top(prefix, limit)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rebuilds the index from the recipes currently stored in all category collections.
+     * <p>
+     * Only the titles, categories and ingredients are read, through a cursor. Searches keep using the previous index
+     * until the new one is complete. The ingredient bitsets of the new index are then
+     * {@link IngredientBitsets#compact() compacted}, and the suggestions of every prefix
+     * {@link PrefixTrie#buildTops() computed}, still without blocking searches or writes. Only then is the lock
+     * taken, to apply to the new index the updates made in the meantime (which were applied to the previous one
+     * too) and to swap it in.
+     * </p>
+     *
+     * @return A map with the number of collections scanned, recipes indexed and the elapsed time in milliseconds.
+     */
+    public synchronized Map<String, Object> rebuild() {
+        long start = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            replay = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        State rebuilt = new State(suggestionsPerPrefix);
+        List<String> categories;
+        try {
+            categories = categoryService.getAllCategories();
+            for (String category : categories) {
+                String collectionName = CategoryService.formatCollectionName(category);
+                Query textsOnly = new Query();
+                textsOnly.fields().include("title").include("category").include("ingredients");
+                try (Stream<Recipe> recipes = mongoTemplate.stream(textsOnly, Recipe.class, collectionName)) {
+                    recipes.forEach(recipe -> rebuilt.put(recipe.getId(), collectionName, recipe.getTitle(),
+                            recipe.getCategory(), recipe.getIngredients() != null ? recipe.getIngredients() : List.of()));
+                }
+            }
+        } catch (RuntimeException e) {
+            rebuildFailures.increment();
+            lock.writeLock().lock();
+            try {
+                replay = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        // Not yet visible to searches: the whole-catalog passes run without the lock
+        rebuilt.pantry.compact();
+        rebuilt.suggestions.buildTops();
+        lock.writeLock().lock();
+        try {
+            replay.forEach(update -> update.accept(rebuilt));
+            replay = null;
+            state = rebuilt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        ready = true;
+        builtAt = System.currentTimeMillis();
+        lastRebuildMillis = builtAt - start;
+        rebuilds.increment();
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("collections", categories.size());
+        result.put("indexed", rebuilt.recipeCount());
+        result.put("elapsedMillis", lastRebuildMillis);
+        log.info("Search index rebuild finished: {}", result);
+        return result;
+    }
+
+    /**
+     * Returns the index metrics.
+     *
+     * @return A map with the size of the index, the number of searches answered and bypassed, and the rebuilds.
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", enabled);
+        result.put("ready", ready);
+        lock.readLock().lock();
+        try {
+            result.put("recipes", state.recipeCount());
+            result.put("titleTrigrams", state.titles.trigramCount());
+            result.put("ingredientTrigrams", state.ingredients.trigramCount());
+            result.put("postings", state.titles.postingCount() + state.ingredients.postingCount());
+            result.put("pantryIngredients", state.pantry.ingredientCount());
+            result.put("suggestionTerms", state.suggestions.termCount());
+            result.put("suggestionNodes", state.suggestions.nodeCount());
+        } finally {
+            lock.readLock().unlock();
+        }
+        result.put("queries", queries.sum());
+        result.put("pantryQueries", pantryQueries.sum());
+        result.put("suggestQueries", suggestQueries.sum());
+        result.put("bypassed", bypassed.sum());
+        result.put("rebuilds", rebuilds.sum());
+        result.put("rebuildFailures", rebuildFailures.sum());
+        result.put("lastRebuildMillis", lastRebuildMillis);
+        result.put("ageMillis", ready ? System.currentTimeMillis() - builtAt : -1);
+        return result;
+    }
+
+    /**
+     * Searches one of the two trigram indexes.
+     *
+     * @param text The text to look for.
+     * @param ingredients {@code true} to search the ingredients, {@code false} to search the titles.
+     * @return The IDs of the matching recipes by collection name, or an empty {@link Optional}.
+     */
+    private Optional<Map<String, List<String>>> find(String text, boolean ingredients) {
+        if (!enabled || !ready || text == null || text.chars().anyMatch(c -> REGEX_METACHARACTERS.indexOf(c) >= 0)) {
+            bypassed.increment();
+            return Optional.empty();
+        }
+        queries.increment();
+        lock.readLock().lock();
+        try {
+            int[] docs = (ingredients ? state.ingredients : state.titles).search(text);
+            return Optional.of(state.byCollection(docs));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Applies an update to the index, and records it for the rebuild in progress, if any.
+     *
+     * @param update The update.
+     */
+    private void apply(Consumer<State> update) {
+        lock.writeLock().lock();
+        try {
+            update.accept(state);
+            if (replay != null) {
+                replay.add(update);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * The two trigram indexes, the ingredient bitsets, the suggestion trie and the recipe of each of their document IDs.
+     * <p>
+     * A recipe keeps its document ID when it is updated. The IDs of deleted recipes are not reused until the
+     * next rebuild.
+     * </p>
+     */
+    private static final class State {
+        /**
+         * The trigram index of the titles.
+         */
+        private final TrigramIndex titles = new TrigramIndex();
+        /**
+         * The trigram index of the ingredients.
+         */
+        private final TrigramIndex ingredients = new TrigramIndex();
+        /**
+         * The ingredient keys of each document, for pantry searches.
+         */
+        private final IngredientBitsets pantry = new IngredientBitsets();
+        /**
+         * The titles, categories and ingredient keys, for suggestions.
+         */
+        private final PrefixTrie suggestions;
+        /**
+         * The document ID of each indexed recipe, by recipe ID.
+         */
+        private final Map<String, Integer> docs = new HashMap<>();
+        /**
+         * The recipe ID of each document, by document ID; {@code null} once the recipe is removed.
+         */
+        private final List<String> recipeIds = new ArrayList<>();
+        /**
+         * The collection holding each document, by document ID; {@code null} once the recipe is removed.
+         */
+        private final List<String> collectionNames = new ArrayList<>();
+        /**
+         * The title of each document, by document ID, breaking ties between pantry matches.
+         */
+        private final List<String> recipeTitles = new ArrayList<>();
+        /**
+         * The terms each document added to {@link #suggestions}, by document ID, so they can be taken back.
+         */
+        private final List<List<String[]>> suggestionTerms = new ArrayList<>();
+
+        State(int suggestionsPerPrefix) {
+            suggestions = new PrefixTrie(suggestionsPerPrefix);
+        }
+
+        void put(String recipeId, String collectionName, String title, String category, List<String> recipeIngredients) {
+            Integer doc = docs.get(recipeId);
+            if (doc == null) {
+                doc = recipeIds.size();
+                docs.put(recipeId, doc);
+                recipeIds.add(recipeId);
+                collectionNames.add(collectionName);
+                recipeTitles.add(title);
+                suggestionTerms.add(List.of());
+            } else {
+                collectionNames.set(doc, collectionName);
+                recipeTitles.set(doc, title);
+            }
+            List<String> ingredientKeys = IngredientKeys.of(recipeIngredients);
+            titles.add(doc, Collections.singletonList(title));
+            ingredients.add(doc, recipeIngredients);
+            pantry.put(doc, ingredientKeys);
+            List<String[]> terms = RecipeSuggestions.terms(title, category, ingredientKeys);
+            List<String[]> previous = suggestionTerms.set(doc, terms);
+            RecipeSuggestions.add(suggestions, terms, 1);
+            RecipeSuggestions.add(suggestions, previous, -1);
+        }
+
+        void remove(String recipeId) {
+            Integer doc = docs.remove(recipeId);
+            if (doc == null) {
+                return;
+            }
+            titles.remove(doc);
+            ingredients.remove(doc);
+            pantry.remove(doc);
+            RecipeSuggestions.add(suggestions, suggestionTerms.set(doc, List.of()), -1);
+            recipeIds.set(doc, null);
+            collectionNames.set(doc, null);
+            recipeTitles.set(doc, null);
+        }
+
+        int recipeCount() {
+            return docs.size();
+        }
+
+        Map<String, List<String>> byCollection(int[] matches) {
+            Map<String, List<String>> result = new TreeMap<>();
+            for (int doc : matches) {
+                result.computeIfAbsent(collectionNames.get(doc), key -> new ArrayList<>()).add(recipeIds.get(doc));
+            }
+            return result;
+        }
+    }
+}
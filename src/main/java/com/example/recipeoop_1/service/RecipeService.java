@@ -1,9 +1,16 @@
 package com.example.recipeoop_1.service;
 
+import com.example.recipeoop_1.dto.PantryMatch;
+import com.example.recipeoop_1.dto.RecipeResponse;
+import com.example.recipeoop_1.dto.Suggestion;
+import com.example.recipeoop_1.exception.RecipeAccessDeniedException;
 import com.example.recipeoop_1.model.Recipe;
 import com.example.recipeoop_1.exception.RecipeNotFoundException; // Assuming this exception exists for getRecipeById
 
+import java.util.Comparator;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 /**
  * Service interface defining operations for managing recipes.
@@ -15,7 +22,7 @@ import java.util.List;
  * </p>
  *
  * @author Elie Issa/Michel Ghazaly
- * @version 1.0
+ * @version 1.9
  * @since 2025-05-14
  * @see Recipe
  * @see RecipeServiceImpl
@@ -46,6 +53,18 @@ public interface RecipeService {
     // Original comment: Get all recipes (across all categories)
     List<Recipe> getAllRecipes();
 
+    /**
+     * Retrieves all recipes, executing the cross-category query with the given strategy.
+     * <p>
+     * Implementations that do not query several collections ignore the strategy; this default does so.
+     * </p>
+     * @param strategy The {@link QueryStrategy} to use, or {@code null} for the configured default.
+     * @return A {@link List} of all {@link Recipe} objects.
+     */
+    default List<Recipe> getAllRecipes(QueryStrategy strategy) {
+        return getAllRecipes();
+    }
+
     /**
      * Retrieves a specific recipe by its category and unique identifier (ID).
      *
@@ -98,6 +117,59 @@ public interface RecipeService {
     // Original comment: Delete recipe
     void deleteRecipe(String id) throws RecipeNotFoundException;
 
+    /**
+     * Updates an existing recipe on behalf of a user, provided the user may modify it.
+     * <p>
+     * Only the creator of the recipe and administrators may update it. The condition is part of the write
+     * itself: the recipe is matched by ID and, unless {@code admin} is set, by creator, so that checking and
+     * writing take one database operation instead of a read followed by a write. The creator of the recipe is
+     * preserved.
+     * </p>
+     *
+     * @param id The unique ID of the recipe to update. Must not be {@code null} or empty.
+     * @param recipeDetails A {@link Recipe} object containing the new details for the recipe.
+     * Must not be {@code null}.
+     * @param username The username of the user updating the recipe.
+     * @param admin Whether the user is an administrator, who may update any recipe.
+     * @return The updated {@link Recipe} object.
+     * @throws RecipeNotFoundException if no recipe with the given ID exists.
+     * @throws RecipeAccessDeniedException if the recipe exists but was created by another user.
+     */
+    Recipe updateRecipe(String id, Recipe recipeDetails, String username, boolean admin)
+            throws RecipeNotFoundException, RecipeAccessDeniedException;
+
+    /**
+     * Deletes a recipe on behalf of a user, provided the user may modify it.
+     * <p>
+     * Only the creator of the recipe and administrators may delete it. As with
+     * {@link #updateRecipe(String, Recipe, String, boolean)}, the condition is part of the delete itself.
+     * </p>
+     *
+     * @param id The unique ID of the recipe to delete. Must not be {@code null} or empty.
+     * @param username The username of the user deleting the recipe.
+     * @param admin Whether the user is an administrator, who may delete any recipe.
+     * @throws RecipeNotFoundException if no recipe with the given ID exists.
+     * @throws RecipeAccessDeniedException if the recipe exists but was created by another user.
+     */
+    void deleteRecipe(String id, String username, boolean admin) throws RecipeNotFoundException, RecipeAccessDeniedException;
+
+    /**
+     * Deletes a recipe of a given category on behalf of a user, provided the user may modify it.
+     * <p>
+     * As {@link #deleteRecipe(String, String, boolean)}, but the recipe is only looked for in the given category,
+     * which spares locating it.
+     * </p>
+     *
+     * @param category The category of the recipe.
+     * @param id The unique ID of the recipe to delete. Must not be {@code null} or empty.
+     * @param username The username of the user deleting the recipe.
+     * @param admin Whether the user is an administrator, who may delete any recipe.
+     * @throws RecipeNotFoundException if no recipe with the given ID exists in the category.
+     * @throws RecipeAccessDeniedException if the recipe exists but was created by another user.
+     */
+    void deleteRecipe(String category, String id, String username, boolean admin)
+            throws RecipeNotFoundException, RecipeAccessDeniedException;
+
     /**
      * Retrieves all recipes created by a specific user.
      *
@@ -109,6 +181,18 @@ public interface RecipeService {
     // Original comment: Get recipes by user
     List<Recipe> getRecipesByUser(String username);
 
+    /**
+     * Retrieves all recipes created by a specific user, executing the cross-category query with the given strategy.
+     *
+     * @param username The username of the user whose recipes are to be retrieved.
+     * @param strategy The {@link QueryStrategy} to use, or {@code null} for the configured default.
+     * @return A {@link List} of {@link Recipe} objects created by the specified user.
+     * @see #getAllRecipes(QueryStrategy)
+     */
+    default List<Recipe> getRecipesByUser(String username, QueryStrategy strategy) {
+        return getRecipesByUser(username);
+    }
+
     /**
      * Searches for recipes whose titles contain the given keyword.
      * The search should ideally be case-insensitive.
@@ -120,6 +204,18 @@ public interface RecipeService {
     // Original comment: Search recipes by title
     List<Recipe> searchRecipesByTitle(String title);
 
+    /**
+     * Searches for recipes by title, executing the cross-category query with the given strategy.
+     *
+     * @param title The keyword to search for within recipe titles.
+     * @param strategy The {@link QueryStrategy} to use, or {@code null} for the configured default.
+     * @return A {@link List} of {@link Recipe} objects whose titles match the keyword.
+     * @see #getAllRecipes(QueryStrategy)
+     */
+    default List<Recipe> searchRecipesByTitle(String title, QueryStrategy strategy) {
+        return searchRecipesByTitle(title);
+    }
+
     /**
      * Retrieves all recipes belonging to a specific category.
      *
@@ -140,6 +236,18 @@ public interface RecipeService {
     // Original comment: Search recipes by cooking time
     List<Recipe> searchRecipesByCookingTime(Integer cookingTime);
 
+    /**
+     * Searches for recipes by maximum cooking time, executing the cross-category query with the given strategy.
+     *
+     * @param cookingTime The maximum cooking time in minutes.
+     * @param strategy The {@link QueryStrategy} to use, or {@code null} for the configured default.
+     * @return A {@link List} of {@link Recipe} objects that meet the cooking time criteria.
+     * @see #getAllRecipes(QueryStrategy)
+     */
+    default List<Recipe> searchRecipesByCookingTime(Integer cookingTime, QueryStrategy strategy) {
+        return searchRecipesByCookingTime(cookingTime);
+    }
+
     /**
      * Searches for recipes that contain a specific ingredient.
      * The search should ideally be case-insensitive and match partial ingredient names.
@@ -151,6 +259,80 @@ public interface RecipeService {
     // Original comment: Search recipes by ingredient
     List<Recipe> searchRecipesByIngredient(String ingredient);
 
+    /**
+     * Searches for recipes by ingredient, executing the cross-category query with the given strategy.
+     *
+     * @param ingredient The ingredient keyword to search for.
+     * @param strategy The {@link QueryStrategy} to use, or {@code null} for the configured default.
+     * @return A {@link List} of {@link Recipe} objects that contain the specified ingredient.
+     * @see #getAllRecipes(QueryStrategy)
+     */
+    default List<Recipe> searchRecipesByIngredient(String ingredient, QueryStrategy strategy) {
+        return searchRecipesByIngredient(ingredient);
+    }
+
+    /**
+     * Finds the recipes using all, or any, of the given ingredients, by their normalized name.
+     * <p>
+     * Both the given ingredients and those of the recipes are reduced to their {@link IngredientKeys key}
+     * (e.g., "2 cups flour" and "Flour" to "flour", "eggs" to "egg"), which are compared exactly, through an
+     * index. Unlike {@link #searchRecipesByIngredient(String)}, "egg" therefore does not find "eggplant".
+     * Recipes stored before their keys were derived are only found once {@link IngredientKeysBackfill} has run.
+     * </p>
+     *
+     * @param ingredients The ingredients to look for.
+     * @param matchAll {@code true} to find the recipes using all of the ingredients, {@code false} for any of them.
+     * @return A {@link List} of matching {@link Recipe} objects; empty if no ingredient has a key.
+     */
+    List<Recipe> searchRecipesByIngredientKeys(List<String> ingredients, boolean matchAll);
+
+    /**
+     * Finds the recipes that can be cooked with the ingredients of a pantry, or with few more.
+     * <p>
+     * Ingredients are compared by their {@link IngredientKeys key}, as in
+     * {@link #searchRecipesByIngredientKeys(List, boolean)}. Recipes are ranked by how well the pantry covers
+     * them: those that can be cooked first, then those missing one ingredient, and so on; among recipes missing
+     * as many ingredients, those using more of the pantry come first.
+     * </p>
+     *
+     * @param ingredients The ingredients in the pantry.
+     * @param maxMissing The largest number of missing ingredients of a returned recipe; {@code 0} for the recipes
+     * that can be cooked with the pantry alone.
+     * @param limit The maximum number of recipes to return; must be positive.
+     * @return At most {@code limit} recipes using at least one of the ingredients, best first, each with the
+     * ingredients it misses; empty if no ingredient has a key.
+     */
+    List<PantryMatch> findRecipesByPantry(List<String> ingredients, int maxMissing, int limit);
+
+    /**
+     * Suggests recipe titles, categories and ingredients starting with a prefix, for autocomplete.
+     * <p>
+     * Suggestions are ranked by the number of recipes they apply to: recipes with the title, in the category,
+     * or using the ingredient. Ingredients are suggested by their {@link IngredientKeys key}.
+     * </p>
+     *
+     * @param prefix The typed prefix, matched case-insensitively.
+     * @param limit The maximum number of suggestions; must be positive.
+     * @return At most {@code limit} suggestions, most frequent first.
+     */
+    List<Suggestion> suggest(String prefix, int limit);
+
+    /**
+     * Performs a full-text search over the title, ingredients and instructions of all recipes, most relevant first.
+     * <p>
+     * The search uses the weighted text index declared on {@link Recipe}: a match in the title counts more than
+     * one in the ingredients, which counts more than one in the instructions. Words are matched by their stem
+     * (e.g., "tomatoes" finds "tomato"), ignoring case and stop words.
+     * </p>
+     *
+     * @param text The words to search for, in MongoDB {@code $text} syntax: a recipe matches any of the words,
+     * a quoted phrase must appear as such, and a word preceded by {@code -} must not appear.
+     * @param limit The maximum number of recipes to return; must be positive.
+     * @return At most {@code limit} matching recipes, by decreasing relevance, each with its
+     * {@link Recipe#getScore() score} set.
+     */
+    List<Recipe> searchRecipesByText(String text, int limit);
+
     /**
      * Performs an advanced search for recipes based on multiple optional criteria.
      * <p>
@@ -167,4 +349,79 @@ public interface RecipeService {
      */
     // Original comment: Advanced search with multiple criteria
     List<Recipe> advancedSearch(String title, String category, Integer maxCookingTime, String ingredient);
-}
\ No newline at end of file
+
+    /**
+     * Performs an advanced search with the given cross-category strategy, optionally returning only the
+     * first {@code limit} matches.
+     * <p>
+     * When a limit is given, the matches are ordered by recipe ID (i.e., by creation time for generated IDs)
+     * and only the first {@code limit} are returned, so that implementations can stop early.
+     * This default runs the unlimited search and truncates its result.
+     * </p>
+     *
+     * @param title Optional: A keyword to search for in recipe titles.
+     * @param category Optional: The category name to filter by.
+     * @param maxCookingTime Optional: The maximum cooking time in minutes.
+     * @param ingredient Optional: An ingredient keyword to search for.
+     * @param strategy The {@link QueryStrategy} to use, or {@code null} for the configured default.
+     * @param limit Optional: The maximum number of recipes to return; {@code null} or non-positive for no limit.
+     * @return A {@link List} of {@link Recipe} objects that match all provided criteria.
+     */
+    default List<Recipe> advancedSearch(String title, String category, Integer maxCookingTime, String ingredient,
+                                        QueryStrategy strategy, Integer limit) {
+        List<Recipe> results = advancedSearch(title, category, maxCookingTime, ingredient);
+        if (limit == null || limit <= 0) {
+            return results;
+        }
+        return results.stream()
+                .sorted(Comparator.comparing(Recipe::getId, Comparator.nullsLast(Comparator.naturalOrder())))
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Returns all recipes matching the given filter, reading only the fields of its projection.
+     * <p>
+     * This is the general form of the search methods above; the fields left out by the filter's
+     * {@link RecipeProjection} are not read from the database and are {@code null} in the result.
+     * </p>
+     *
+     * @param filter The {@link RecipeFilter} to apply.
+     * @param strategy The {@link QueryStrategy} for a search across all categories, or {@code null} for the
+     * configured default.
+     * @param limit Optional: The maximum number of recipes to return, ordered by recipe ID as in
+     * {@link #advancedSearch(String, String, Integer, String, QueryStrategy, Integer)}; {@code null} or
+     * non-positive for no limit.
+     * @return A {@link List} of matching {@link Recipe} objects.
+     */
+    List<Recipe> findRecipes(RecipeFilter filter, QueryStrategy strategy, Integer limit);
+
+    /**
+     * Returns one page of the recipes matching the given filter, continuing after the given cursor.
+     * <p>
+     * Pages follow a stable order (by collection, then by recipe ID) and are read with keyset conditions on
+     * {@code _id} rather than by skipping earlier results, so a deep page costs the same as the first one.
+     * Recipes created after a page was read appear on a later page only if they sort after its cursor.
+     * </p>
+     *
+     * @param filter The {@link RecipeFilter} to apply.
+     * @param size The maximum number of recipes on the page; must be positive.
+     * @param cursor The {@code nextCursor} of the previous page, or {@code null} for the first page.
+     * @return A {@link RecipeResponse} with the recipes of the page and the cursor of the next one.
+     * @throws com.example.recipeoop_1.exception.InvalidCursorException if the cursor cannot be decoded.
+     */
+    RecipeResponse findRecipesPage(RecipeFilter filter, int size, String cursor);
+
+    /**
+     * Passes every recipe matching the given filter to the consumer, as it is read from the database.
+     * <p>
+     * Recipes are read through MongoDB cursors and never collected into a list, so memory use does not grow
+     * with the number of results. The consumer runs on the calling thread; an exception it throws stops the
+     * stream and closes the open cursor.
+     * </p>
+     *
+     * @param filter The {@link RecipeFilter} to apply.
+     * @param consumer Receives each matching recipe, in the order of {@link #findRecipesPage(RecipeFilter, int, String)}.
+     */
+    void streamRecipes(RecipeFilter filter, Consumer<Recipe> consumer);
+}
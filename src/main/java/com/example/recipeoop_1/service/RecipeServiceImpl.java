@@ -1,17 +1,41 @@
 package com.example.recipeoop_1.service;
 
 import com.example.recipeoop_1.model.Recipe;
+import com.example.recipeoop_1.dto.PantryMatch;
+import com.example.recipeoop_1.dto.RecipeResponse;
+import com.example.recipeoop_1.dto.Suggestion;
+import com.example.recipeoop_1.exception.CategoryQueryException;
+import com.example.recipeoop_1.exception.RecipeAccessDeniedException;
 import com.example.recipeoop_1.exception.RecipeNotFoundException;
+import org.bson.Document;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.UnionWithOperation;
 import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.MongoExpression;
 import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Implementation of the {@link RecipeService} interface.
@@ -21,22 +45,45 @@ import java.util.List;
  * directly with {@link MongoTemplate} for database operations and uses
  * {@link CategoryService} to manage recipe categories, which are stored
  * as separate MongoDB collections (e.g., "recipe_desserts").
- * When a recipe is deleted, if its category collection becomes empty and is not
- * the default "uncategorized" collection, the category collection itself is deleted.
- * Similarly, when a recipe's category is updated, if the old category collection
- * becomes empty, it is also deleted (unless it's "uncategorized").
+ * When a recipe is deleted or moved to another category, the collection it left is marked for the
+ * {@link EmptyCategorySweeper}, which deletes it in the background if it stays empty (unless it is
+ * the default "uncategorized" collection).
+ * </p><p>
+ * Searches that span all categories query every category collection concurrently through the
+ * {@link CategoryFanOutExecutor}, instead of one collection after another. The category collections
+ * are taken from the registry kept by {@link CategoryService}, which is notified whenever a
+ * collection is dropped.
+ * </p><p>
+ * Alternatively, each cross-category search can run as a single aggregation pipeline that combines all
+ * category collections with {@code $unionWith} ({@link QueryStrategy#UNION_WITH}). The strategy is configured
+ * with {@code recipe.cross-category.strategy} and can be chosen per call through the overloads taking a
+ * {@link QueryStrategy}.
+ * </p><p>
+ * Lookups by recipe ID go through the {@link RecipeLocator}, which this class keeps up to date
+ * whenever a recipe is created, moved to another category or deleted. The recipes themselves are
+ * cached by ID in the {@link RecipeCache}, which is invalidated by every write; a recipe read just
+ * before it is updated or deleted (for example for an ownership check) is therefore not read twice.
+ * Searches by a part of the title or of an ingredient are answered by the {@link RecipeSearchIndex},
+ * which every write updates as well.
+ * </p><p>
+ * This is the default storage layout. It is replaced by {@link SingleCollectionRecipeService} when
+ * {@value RecipeStorage#MODE_PROPERTY} is set to {@value RecipeStorage#SINGLE_COLLECTION}.
  * </p>
  *
  * @author Elie Issa/Michel Ghazaly
- * @version 1.3
+ * @version 1.16
  * @since 2025-05-17
  * @see RecipeService
  * @see MongoTemplate
  * @see CategoryService
+ * @see CategoryFanOutExecutor
+ * @see RecipeLocator
+ * @see RecipeCache
  * @see Recipe
  * @see RecipeNotFoundException
  */
 @Service
+@ConditionalOnProperty(name = RecipeStorage.MODE_PROPERTY, havingValue = RecipeStorage.PER_CATEGORY, matchIfMissing = true)
 public class RecipeServiceImpl implements RecipeService {
 
     /**
@@ -52,13 +99,42 @@ public class RecipeServiceImpl implements RecipeService {
      * CategoryService for managing categories.
      */
     private final CategoryService categoryService;
+    /**
+     * Executor that runs the per-category queries of cross-category searches concurrently.
+     */
+    private final CategoryFanOutExecutor fanOutExecutor;
+    /**
+     * Locator mapping recipe IDs to the collection holding each recipe.
+     */
+    private final RecipeLocator recipeLocator;
+    /**
+     * Read-through cache of recipes by ID.
+     */
+    private final RecipeCache recipeCache;
+    /**
+     * The strategy used for cross-category searches when the caller does not choose one.
+     */
+    private final QueryStrategy defaultStrategy;
+    /**
+     * Sweeper dropping the category collections left empty by updates and deletes.
+     */
+    private final EmptyCategorySweeper emptyCategorySweeper;
+    /**
+     * In-memory substring index over the titles and ingredients of all recipes.
+     */
+    private final RecipeSearchIndex searchIndex;
 
     /**
-     * Name of the collection used for recipes that are not explicitly categorized
-     * or whose category name resolves to empty. This collection will not be
-     * automatically deleted even if it becomes empty.
+     * Orders recipes by ID, matching the server-side sort on {@code _id} used for limited searches.
      */
-    private static final String UNCATEGORIZED_COLLECTION_NAME = "recipe_uncategorized";
+    private static final Comparator<Recipe> BY_ID =
+            Comparator.comparing(Recipe::getId, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    /**
+     * Orders recipes by decreasing full-text search score, then by ID.
+     */
+    private static final Comparator<Recipe> BY_SCORE =
+            Comparator.comparing(Recipe::getScore, Comparator.nullsLast(Comparator.reverseOrder())).thenComparing(BY_ID);
 
     /**
      * Constructs a {@code RecipeServiceImpl} with the necessary dependencies.
@@ -66,11 +142,156 @@ public class RecipeServiceImpl implements RecipeService {
      * @param mongoTemplate The Spring Data {@link MongoTemplate} for direct MongoDB interaction.
      * @param categoryService The {@link CategoryService} for managing category-specific logic,
      * such as ensuring category collections exist and formatting names.
+     * @param fanOutExecutor The {@link CategoryFanOutExecutor} used to query all category collections concurrently.
+     * @param recipeLocator The {@link RecipeLocator} used to find the collection of a recipe by its ID.
+     * @param recipeCache The {@link RecipeCache} holding recently read recipes.
+     * @param defaultStrategy The {@link QueryStrategy} used for cross-category searches by default;
+     * {@link QueryStrategy#FAN_OUT} if {@code null}.
+     * @param emptyCategorySweeper The {@link EmptyCategorySweeper} told about collections that may have become empty.
+     * @param searchIndex The {@link RecipeSearchIndex} answering title and ingredient searches.
      */
     @Autowired
-    public RecipeServiceImpl(MongoTemplate mongoTemplate, CategoryService categoryService) {
+    public RecipeServiceImpl(MongoTemplate mongoTemplate, CategoryService categoryService,
+                             CategoryFanOutExecutor fanOutExecutor, RecipeLocator recipeLocator,
+                             RecipeCache recipeCache,
+                             @Value("${recipe.cross-category.strategy:FAN_OUT}") QueryStrategy defaultStrategy,
+                             EmptyCategorySweeper emptyCategorySweeper, RecipeSearchIndex searchIndex) {
         this.mongoTemplate = mongoTemplate;
         this.categoryService = categoryService;
+        this.fanOutExecutor = fanOutExecutor;
+        this.recipeLocator = recipeLocator;
+        this.recipeCache = recipeCache;
+        this.defaultStrategy = defaultStrategy != null ? defaultStrategy : QueryStrategy.FAN_OUT;
+        this.emptyCategorySweeper = emptyCategorySweeper;
+        this.searchIndex = searchIndex;
+    }
+
+    /**
+     * Runs the given query against every known category collection concurrently and merges the results.
+     * <p>
+     * The collections are taken from the category registry, without checking each one against the
+     * database. They are queried in alphabetical order of their names, so the merged list has a stable
+     * order across calls. A collection that no longer exists (e.g., dropped by another node since the
+     * registry was refreshed) simply contributes no results.
+     * </p>
+     *
+     * @param perCollectionQuery The query to run, given the name of one category collection.
+     * @return The merged results of all category collections.
+     * @throws com.example.recipeoop_1.exception.CategoryQueryException if any of the queries fails or times out.
+     */
+    private List<Recipe> findAcrossCategories(Function<String, List<Recipe>> perCollectionQuery) {
+        return fanOutExecutor.fanOut(categoryCollectionNames(), perCollectionQuery);
+    }
+
+    /**
+     * Runs the given query against every known category collection with the given strategy.
+     * <p>
+     * Without a limit, both strategies return the recipes grouped by collection, in alphabetical order of
+     * the collection names. With a limit, the first {@code limit} matches by recipe ID are returned: each
+     * collection only contributes its own first {@code limit} matches, which are then merged and cut again.
+     * </p>
+     *
+     * @param query The filter to apply in every collection. Must not contain a sort or limit.
+     * @param strategy The strategy to use, or {@code null} for the configured default.
+     * @param limit The maximum number of recipes to return, or {@code null} for no limit.
+     * @return The matching recipes of all category collections.
+     * @throws CategoryQueryException if a query fails or times out.
+     */
+    private List<Recipe> findAcrossCategories(Query query, QueryStrategy strategy, Integer limit) {
+        if ((strategy != null ? strategy : defaultStrategy) == QueryStrategy.UNION_WITH) {
+            return unionAcrossCategories(query, limit);
+        }
+        if (limit == null) {
+            return findAcrossCategories(collectionName -> mongoTemplate.find(query, Recipe.class, collectionName));
+        }
+        query.with(Sort.by(Sort.Direction.ASC, "_id")).limit(limit);
+        return findAcrossCategories(collectionName -> mongoTemplate.find(query, Recipe.class, collectionName)).stream()
+                .sorted(BY_ID)
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Runs the given query against every known category collection as one aggregation pipeline.
+     * <p>
+     * The pipeline starts on the first collection and appends each other collection with a
+     * {@code $unionWith} stage. The filter (and, with a limit, a {@code $sort} on {@code _id} and a
+     * {@code $limit}) is applied inside every branch, so each collection can use its indexes and stop after
+     * {@code limit} documents. A field projection of the query becomes a {@code $project} stage of every branch. The combined result is then sorted and limited once more on the server.
+     * </p>
+     *
+     * @param query The filter to apply in every collection.
+     * @param limit The maximum number of recipes to return, or {@code null} for no limit.
+     * @return The matching recipes of all category collections.
+     * @throws CategoryQueryException if the aggregation fails.
+     */
+    private List<Recipe> unionAcrossCategories(Query query, Integer limit) {
+        List<String> collectionNames = categoryCollectionNames();
+        if (collectionNames.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<AggregationOperation> branch = new ArrayList<>();
+        Document filter = query.getQueryObject();
+        if (!filter.isEmpty()) {
+            branch.add(context -> new Document("$match", filter));
+        }
+        Document fields = new Document();
+        // Computed fields (e.g., the ingredient count) are held as expressions until the query is mapped.
+        query.getFieldsObject().forEach((field, value) ->
+                fields.put(field, value instanceof MongoExpression expression ? expression.toDocument() : value));
+        if (!fields.isEmpty()) {
+            branch.add(context -> new Document("$project", fields));
+        }
+        if (limit != null) {
+            branch.add(Aggregation.sort(Sort.Direction.ASC, "_id"));
+            branch.add(Aggregation.limit(limit));
+        }
+
+        List<AggregationOperation> pipeline = new ArrayList<>(branch);
+        for (String collectionName : collectionNames.subList(1, collectionNames.size())) {
+            pipeline.add(branch.isEmpty()
+                    ? UnionWithOperation.unionWith(collectionName)
+                    : UnionWithOperation.unionWith(collectionName).pipeline(branch));
+        }
+        if (limit != null) {
+            pipeline.add(Aggregation.sort(Sort.Direction.ASC, "_id"));
+            pipeline.add(Aggregation.limit(limit));
+        }
+
+        try {
+            return mongoTemplate.aggregate(Aggregation.newAggregation(pipeline), collectionNames.get(0), Recipe.class)
+                    .getMappedResults();
+        } catch (RuntimeException e) {
+            throw new CategoryQueryException("Cross-category aggregation over " + collectionNames.size()
+                    + " collections failed: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Lists the collection names of all known categories, in alphabetical order.
+     *
+     * @return The formatted collection names (e.g., "recipe_main_course").
+     */
+    private List<String> categoryCollectionNames() {
+        return categoryService.getAllCategories().stream()
+                .map(CategoryService::formatCollectionName)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Lists the collections a filter applies to: the collection of its category, if it has one and that
+     * collection exists, or else all category collections.
+     *
+     * @param filter The {@link RecipeFilter} to apply.
+     * @return The collection names, in alphabetical order.
+     */
+    private List<String> collectionNamesFor(RecipeFilter filter) {
+        if (filter.getCategory() == null) {
+            return categoryCollectionNames();
+        }
+        String collectionName = CategoryService.formatCollectionName(filter.getCategory());
+        return categoryService.categoryCollectionExists(collectionName) ? List.of(collectionName) : List.of();
     }
 
     /**
@@ -86,6 +307,7 @@ public class RecipeServiceImpl implements RecipeService {
     @Override
     public Recipe createRecipe(Recipe recipeDetails, String username) {
         recipeDetails.setCreatedBy(username);
+        recipeDetails.setIngredientKeys(IngredientKeys.of(recipeDetails.getIngredients()));
 
         String category = recipeDetails.getCategory();
         if (category == null || category.trim().isEmpty()) {
@@ -97,34 +319,36 @@ public class RecipeServiceImpl implements RecipeService {
         String collectionName = CategoryService.formatCollectionName(category);
 
         log.info("Creating recipe '{}' in collection '{}' by user '{}'", recipeDetails.getTitle(), collectionName, username);
-        return mongoTemplate.insert(recipeDetails, collectionName);
+        emptyCategorySweeper.cancel(collectionName);
+        Recipe created = mongoTemplate.insert(recipeDetails, collectionName);
+        recipeLocator.record(created.getId(), collectionName);
+        recipeCache.invalidate(created.getId());
+        searchIndex.index(created, collectionName);
+        return created;
     }
 
     /**
      * {@inheritDoc}
      * <p>
-     * This implementation iterates through all known category collections (obtained via
-     * {@link CategoryService#getAllCategories()}), fetches all recipes from each,
-     * and aggregates them into a single list. It defensively checks if a collection
-     * exists before querying.
+     * This implementation fetches all recipes from every known category collection (obtained via
+     * {@link CategoryService#getAllCategories()}) concurrently, and aggregates them into a single list.
      * </p>
      */
     @Override
     public List<Recipe> getAllRecipes() {
-        List<Recipe> allRecipes = new ArrayList<>();
-        List<String> categories = categoryService.getAllCategories();
-        log.debug("Fetching all recipes from categories: {}", categories);
+        return getAllRecipes(null);
+    }
 
-        for (String categoryName : categories) {
-            String collectionName = CategoryService.formatCollectionName(categoryName);
-            if (mongoTemplate.collectionExists(collectionName)) {
-                List<Recipe> categoryRecipes = mongoTemplate.findAll(Recipe.class, collectionName);
-                allRecipes.addAll(categoryRecipes);
-            } else {
-                log.warn("Collection '{}' for category '{}' not found during getAllRecipes, though category was listed.", collectionName, categoryName);
-            }
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Recipe> getAllRecipes(QueryStrategy strategy) {
+        log.debug("Fetching all recipes from all categories");
+        if ((strategy != null ? strategy : defaultStrategy) == QueryStrategy.UNION_WITH) {
+            return unionAcrossCategories(new Query(), null);
         }
-        return allRecipes;
+        return findAcrossCategories(collectionName -> mongoTemplate.findAll(Recipe.class, collectionName));
     }
 
     /**
@@ -149,9 +373,10 @@ public class RecipeServiceImpl implements RecipeService {
 
     /**
      * {@inheritDoc}
-     * This implementation iterates through all known category collections to find the recipe.
-     * For each category, it attempts to find the recipe using {@link #getRecipeById(String, String)}.
-     * The first matching recipe found is returned.
+     * <p>
+     * This implementation returns the recipe from the {@link RecipeCache} if it is cached. Otherwise it
+     * loads it with {@link #loadRecipeById(String)} and caches it.
+     * </p>
      *
      * @param id The unique ID of the recipe to retrieve. Must not be {@code null} or empty.
      * @return The found {@link Recipe} object.
@@ -159,15 +384,50 @@ public class RecipeServiceImpl implements RecipeService {
      */
     @Override
     public Recipe getRecipeById(String id) throws RecipeNotFoundException {
+        return recipeCache.get(id, this::loadRecipeById);
+    }
+
+    /**
+     * Reads a recipe by ID from MongoDB.
+     * <p>
+     * This method first asks the {@link RecipeLocator} which collection holds the recipe
+     * and reads it from that collection with a single query. If the locator has no entry for the ID
+     * and its fallback scan is enabled, or if its entry turns out to be stale, it iterates through all
+     * known category collections using {@link #getRecipeById(String, String)}. A recipe found this way
+     * is recorded in the locator, so the next lookup is direct.
+     * </p>
+     *
+     * @param id The unique ID of the recipe to retrieve. Must not be {@code null} or empty.
+     * @return The found {@link Recipe} object.
+     * @throws RecipeNotFoundException if no recipe with the given ID exists in any category.
+     */
+    private Recipe loadRecipeById(String id) throws RecipeNotFoundException {
+        Optional<String> located = recipeLocator.locate(id);
+        if (located.isPresent()) {
+            Recipe recipe = mongoTemplate.findOne(new Query(Criteria.where("id").is(id)), Recipe.class, located.get());
+            if (recipe != null) {
+                log.debug("Found recipe ID '{}' in collection '{}' through the locator", id, located.get());
+                return recipe;
+            }
+            log.warn("Locator entry for recipe ID '{}' points to '{}', but the recipe is not there.", id, located.get());
+        } else if (!recipeLocator.isFallbackScanEnabled()) {
+            log.warn("Recipe with ID '{}' is not known to the locator.", id);
+            throw new RecipeNotFoundException("Recipe not found with id: " + id);
+        }
+
         log.debug("Attempting to find recipe by ID '{}' across all categories", id);
         List<String> categories = categoryService.getAllCategories();
         for (String categoryName : categories) {
             Recipe recipe = getRecipeById(categoryName, id);
             if (recipe != null) {
                 log.info("Found recipe ID '{}' in category '{}'", id, categoryName);
+                recipeLocator.record(id, CategoryService.formatCollectionName(categoryName));
                 return recipe;
             }
         }
+        if (located.isPresent()) {
+            recipeLocator.forget(id);
+        }
         log.warn("Recipe with ID '{}' not found in any category.", id);
         throw new RecipeNotFoundException("Recipe not found with id: " + id);
     }
@@ -180,11 +440,13 @@ public class RecipeServiceImpl implements RecipeService {
      * If the category of the recipe has changed in {@code recipeDetails}:
      * </p> * <ol>
      * <li>The existing recipe is deleted from its old category collection.</li>
-     * <li>If the old category collection becomes empty (and is not "uncategorized"), it is dropped.</li>
+     * <li>The old category collection is handed to the {@link EmptyCategorySweeper}, which drops it later if
+     * it is left empty (and is not "uncategorized").</li>
      * <li>The recipe (with its original ID and creator) is then re-created in the new category's collection.
      * The new category collection is ensured to exist.</li>
      * </ol>
      * <p> * If the category has not changed, the recipe is updated in place within its current collection.
+     * The cached copy of the recipe is invalidated afterwards, also when the update fails halfway.
      * </p>
      *
      * @param id The unique ID of the recipe to update. Must not be {@code null} or empty.
@@ -195,42 +457,48 @@ public class RecipeServiceImpl implements RecipeService {
     @Override
     public Recipe updateRecipe(String id, Recipe recipeDetails) throws RecipeNotFoundException {
         Recipe existingRecipe = getRecipeById(id);
-        log.info("Updating recipe ID '{}', current title '{}'", id, existingRecipe.getTitle());
+        try {
+            log.info("Updating recipe ID '{}', current title '{}'", id, existingRecipe.getTitle());
 
-        String oldCategoryUserFriendly = existingRecipe.getCategory();
-        String newCategoryUserFriendly = recipeDetails.getCategory();
+            recipeDetails.setIngredientKeys(IngredientKeys.of(recipeDetails.getIngredients()));
+            String oldCategoryUserFriendly = existingRecipe.getCategory();
+            String newCategoryUserFriendly = recipeDetails.getCategory();
 
-        if (newCategoryUserFriendly == null || newCategoryUserFriendly.trim().isEmpty()) {
-            newCategoryUserFriendly = "uncategorized";
-            recipeDetails.setCategory(newCategoryUserFriendly);
-        }
+            if (newCategoryUserFriendly == null || newCategoryUserFriendly.trim().isEmpty()) {
+                newCategoryUserFriendly = "uncategorized";
+                recipeDetails.setCategory(newCategoryUserFriendly);
+            }
 
-        String oldCollectionName = CategoryService.formatCollectionName(oldCategoryUserFriendly);
-        String newCollectionName = CategoryService.formatCollectionName(newCategoryUserFriendly);
+            String oldCollectionName = CategoryService.formatCollectionName(oldCategoryUserFriendly);
+            String newCollectionName = CategoryService.formatCollectionName(newCategoryUserFriendly);
 
-        if (!oldCollectionName.equalsIgnoreCase(newCollectionName)) {
-            log.info("Category changed for recipe ID '{}'. Moving from collection '{}' to '{}'.", id, oldCollectionName, newCollectionName);
-            Query deleteQuery = new Query(Criteria.where("id").is(id));
-            mongoTemplate.remove(deleteQuery, Recipe.class, oldCollectionName);
-            log.debug("Removed recipe ID '{}' from old collection '{}'", id, oldCollectionName);
+            if (!oldCollectionName.equalsIgnoreCase(newCollectionName)) {
+                log.info("Category changed for recipe ID '{}'. Moving from collection '{}' to '{}'.", id, oldCollectionName, newCollectionName);
+                Query deleteQuery = new Query(Criteria.where("id").is(id));
+                mongoTemplate.remove(deleteQuery, Recipe.class, oldCollectionName);
+                log.debug("Removed recipe ID '{}' from old collection '{}'", id, oldCollectionName);
 
-            if (mongoTemplate.collectionExists(oldCollectionName) &&
-                    !oldCollectionName.equalsIgnoreCase(UNCATEGORIZED_COLLECTION_NAME) &&
-                    mongoTemplate.count(new Query(), oldCollectionName) == 0) {
-                log.info("Old collection '{}' is now empty and not 'uncategorized'. Deleting collection.", oldCollectionName);
-                mongoTemplate.dropCollection(oldCollectionName);
-            }
+                emptyCategorySweeper.markCandidate(oldCollectionName);
 
-            recipeDetails.setId(existingRecipe.getId()); // Preserve original ID
-            recipeDetails.setCreatedBy(existingRecipe.getCreatedBy()); // Preserve original creator
-            categoryService.ensureCategoryExists(newCategoryUserFriendly);
-            log.debug("Inserting recipe ID '{}' into new collection '{}'", id, newCollectionName);
-            return mongoTemplate.insert(recipeDetails, newCollectionName);
-        } else {
-            log.debug("Category for recipe ID '{}' remains collection '{}'. Updating in place.", id, newCollectionName);
-            recipeDetails.setId(id); // Ensure ID is set for save operation
-            recipeDetails.setCreatedBy(existingRecipe.getCreatedBy()); // Preserve creator
-            return mongoTemplate.save(recipeDetails, newCollectionName);
+                recipeDetails.setId(existingRecipe.getId()); // Preserve original ID
+                recipeDetails.setCreatedBy(existingRecipe.getCreatedBy()); // Preserve original creator
+                categoryService.ensureCategoryExists(newCategoryUserFriendly);
+                log.debug("Inserting recipe ID '{}' into new collection '{}'", id, newCollectionName);
+                emptyCategorySweeper.cancel(newCollectionName);
+                Recipe moved = mongoTemplate.insert(recipeDetails, newCollectionName);
+                recipeLocator.record(id, newCollectionName);
+                searchIndex.index(moved, newCollectionName);
+                return moved;
+            } else {
+                log.debug("Category for recipe ID '{}' remains collection '{}'. Updating in place.", id, newCollectionName);
+                recipeDetails.setId(id); // Ensure ID is set for save operation
+                recipeDetails.setCreatedBy(existingRecipe.getCreatedBy()); // Preserve creator
+                Recipe saved = mongoTemplate.save(recipeDetails, newCollectionName);
+                searchIndex.index(saved, newCollectionName);
+                return saved;
+            }
+        } finally {
+            recipeCache.invalidate(id);
         }
     }
 
@@ -239,9 +507,9 @@ public class RecipeServiceImpl implements RecipeService {
      * <p>
      * This implementation first retrieves the recipe using {@link #getRecipeById(String)}
      * to determine its category. Then, it constructs a query to remove the recipe
-     * from the appropriate category-specific collection. If, after deletion, the category
-     * collection becomes empty and is not the "uncategorized" collection, the collection
-     * itself is dropped from the database.
+     * from the appropriate category-specific collection. The collection is then marked for the
+     * {@link EmptyCategorySweeper}, which drops it in the background if it stays empty and is not
+     * the "uncategorized" collection.
      * </p>
      * @throws RecipeNotFoundException if the recipe to delete is not found.
      */
@@ -253,85 +521,209 @@ public class RecipeServiceImpl implements RecipeService {
 
         Query query = new Query(Criteria.where("id").is(id));
         mongoTemplate.remove(query, Recipe.class, collectionName);
+        recipeLocator.forget(id);
+        recipeCache.invalidate(id);
+        searchIndex.remove(id);
         log.debug("Recipe ID '{}' removed from collection '{}'", id, collectionName);
+        emptyCategorySweeper.markCandidate(collectionName);
+    }
 
-        // Check if the collection (still) exists and if it's empty and not the default one
-        if (mongoTemplate.collectionExists(collectionName) &&
-                !collectionName.equalsIgnoreCase(UNCATEGORIZED_COLLECTION_NAME)) {
-            long count = mongoTemplate.count(new Query(), collectionName);
-            log.debug("Collection '{}' now has {} recipes.", collectionName, count);
-            if (count == 0) {
-                log.info("Collection '{}' is now empty and is not the default 'uncategorized' collection. Deleting collection.", collectionName);
-                mongoTemplate.dropCollection(collectionName);
-                log.info("Collection '{}' dropped.", collectionName);
-            }
-        } else if (collectionName.equalsIgnoreCase(UNCATEGORIZED_COLLECTION_NAME)) {
-            log.debug("Collection '{}' is the default 'uncategorized' collection and will not be automatically deleted even if empty.", collectionName);
-        } else {
-            // This case means the collection didn't exist even before trying to check its count,
-            // which is unusual if we just deleted from it, unless another process dropped it.
-            log.debug("Collection '{}' did not exist or was already dropped when checking if empty post-delete.", collectionName);
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This implementation takes the recipe's collection from the {@link RecipeLocator}, and only reads the
+     * recipe (from the {@link RecipeCache}, or by scanning the categories) if the locator does not know it.
+     * If the category is unchanged, the recipe is replaced with a single {@code findAndModify} whose filter
+     * includes the ownership condition. If the category changed, the recipe is taken out of its collection with
+     * a single {@code findAndRemove} under the same condition and inserted into the new category's collection.
+     * The old collection is marked for the sweeper, as in {@link #updateRecipe(String, Recipe)}.
+     * </p>
+     */
+    @Override
+    public Recipe updateRecipe(String id, Recipe recipeDetails, String username, boolean admin)
+            throws RecipeNotFoundException, RecipeAccessDeniedException {
+        recipeDetails.setIngredientKeys(IngredientKeys.of(recipeDetails.getIngredients()));
+        String newCategory = recipeDetails.getCategory();
+        if (newCategory == null || newCategory.trim().isEmpty()) {
+            newCategory = "uncategorized";
+            recipeDetails.setCategory(newCategory);
+        }
+        String newCollectionName = CategoryService.formatCollectionName(newCategory);
+        String category = newCategory;
+        try {
+            Recipe updated = writeOwned(id, username, admin, (collectionName, query) -> {
+                if (collectionName.equalsIgnoreCase(newCollectionName)) {
+                    log.debug("Updating recipe ID '{}' in place in collection '{}'", id, collectionName);
+                    return mongoTemplate.findAndModify(query,
+                            RecipeOwnership.replaceKeepingCreator(mongoTemplate.getConverter(), recipeDetails),
+                            FindAndModifyOptions.options().returnNew(true), Recipe.class, collectionName);
+                }
+                Recipe removed = mongoTemplate.findAndRemove(query, Recipe.class, collectionName);
+                if (removed == null) {
+                    return null;
+                }
+                log.info("Category changed for recipe ID '{}'. Moving from collection '{}' to '{}'.", id, collectionName, newCollectionName);
+                emptyCategorySweeper.markCandidate(collectionName);
+                recipeDetails.setId(id); // Preserve original ID
+                recipeDetails.setCreatedBy(removed.getCreatedBy()); // Preserve original creator
+                categoryService.ensureCategoryExists(category);
+                emptyCategorySweeper.cancel(newCollectionName);
+                Recipe moved = mongoTemplate.insert(recipeDetails, newCollectionName);
+                recipeLocator.record(id, newCollectionName);
+                return moved;
+            });
+            searchIndex.index(updated, newCollectionName);
+            return updated;
+        } finally {
+            recipeCache.invalidate(id);
         }
     }
 
     /**
      * {@inheritDoc}
      * <p>
-     * This implementation iterates through all known category collections, queries each
-     * for recipes where the {@code createdBy} field matches the given username,
-     * and aggregates the results. It defensively checks if a collection
-     * exists before querying.
+     * This implementation finds the recipe's collection as {@link #updateRecipe(String, Recipe, String, boolean)}
+     * does and removes the recipe with a single {@code findAndRemove} whose filter includes the ownership
+     * condition. The collection is then marked for the sweeper, as in {@link #deleteRecipe(String)}.
      * </p>
      */
     @Override
-    public List<Recipe> getRecipesByUser(String username) {
-        List<Recipe> userRecipes = new ArrayList<>();
-        log.debug("Fetching recipes created by user '{}'", username);
-        List<String> categories = categoryService.getAllCategories();
+    public void deleteRecipe(String id, String username, boolean admin)
+            throws RecipeNotFoundException, RecipeAccessDeniedException {
+        Recipe removed = writeOwned(id, username, admin,
+                (collectionName, query) -> mongoTemplate.findAndRemove(query, Recipe.class, collectionName));
+        String collectionName = CategoryService.formatCollectionName(removed.getCategory());
+        log.info("Deleted recipe ID '{}' with title '{}' from collection '{}'", id, removed.getTitle(), collectionName);
+        recipeLocator.forget(id);
+        recipeCache.invalidate(id);
+        searchIndex.remove(id);
+        emptyCategorySweeper.markCandidate(collectionName);
+    }
 
-        for (String categoryName : categories) {
-            String collectionName = CategoryService.formatCollectionName(categoryName);
-            if(mongoTemplate.collectionExists(collectionName)) {
-                Query query = new Query(Criteria.where("createdBy").is(username));
-                List<Recipe> categoryUserRecipes = mongoTemplate.find(query, Recipe.class, collectionName);
-                userRecipes.addAll(categoryUserRecipes);
-            }
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This implementation removes the recipe from the category's collection with a single {@code findAndRemove}
+     * whose filter includes the ownership condition. The collection is then marked for the sweeper, as in
+     * {@link #deleteRecipe(String)}.
+     * </p>
+     */
+    @Override
+    public void deleteRecipe(String category, String id, String username, boolean admin)
+            throws RecipeNotFoundException, RecipeAccessDeniedException {
+        String collectionName = CategoryService.formatCollectionName(category);
+        Recipe removed = mongoTemplate.findAndRemove(RecipeOwnership.ownedQuery(id, username, admin), Recipe.class, collectionName);
+        if (removed == null) {
+            throw RecipeOwnership.notModified(mongoTemplate, id, collectionName);
         }
-        return userRecipes;
+        log.info("Deleted recipe ID '{}' with title '{}' from collection '{}'", id, removed.getTitle(), collectionName);
+        recipeLocator.forget(id);
+        recipeCache.invalidate(id);
+        searchIndex.remove(id);
+        emptyCategorySweeper.markCandidate(collectionName);
+    }
+
+    /**
+     * Applies an ownership-checked write to the collection holding a recipe.
+     * <p>
+     * The collection is taken from the {@link RecipeLocator}, or from the recipe itself if the locator has no
+     * entry. If the write matches nothing although the recipe exists elsewhere (a stale locator or cache
+     * entry), the recipe is read again and the write is retried once in its actual collection.
+     * </p>
+     *
+     * @param id The ID of the recipe.
+     * @param username The user modifying the recipe.
+     * @param admin Whether the user is an administrator.
+     * @param write Applies the write to a collection with the filter of {@link RecipeOwnership#ownedQuery};
+     * returns {@code null} if the filter matched nothing.
+     * @return The result of the write.
+     * @throws RecipeNotFoundException if the recipe does not exist.
+     * @throws RecipeAccessDeniedException if the recipe belongs to another user.
+     */
+    private Recipe writeOwned(String id, String username, boolean admin, BiFunction<String, Query, Recipe> write) {
+        Query query = RecipeOwnership.ownedQuery(id, username, admin);
+        String collectionName = recipeLocator.locate(id)
+                .orElseGet(() -> CategoryService.formatCollectionName(getRecipeById(id).getCategory()));
+        Recipe result = write.apply(collectionName, query);
+        if (result != null) {
+            return result;
+        }
+        RuntimeException failure = RecipeOwnership.notModified(mongoTemplate, id, collectionName);
+        if (failure instanceof RecipeAccessDeniedException) {
+            throw failure;
+        }
+        recipeCache.invalidate(id);
+        Recipe current = loadRecipeById(id); // Throws if the recipe is gone
+        String currentCollectionName = CategoryService.formatCollectionName(current.getCategory());
+        if (currentCollectionName.equalsIgnoreCase(collectionName)) {
+            throw failure; // Deleted and re-created concurrently; report what the write saw
+        }
+        log.debug("Recipe ID '{}' is in collection '{}', not '{}'; retrying the write there.", id, currentCollectionName, collectionName);
+        result = write.apply(currentCollectionName, query);
+        if (result == null) {
+            throw RecipeOwnership.notModified(mongoTemplate, id, currentCollectionName);
+        }
+        return result;
     }
 
     /**
      * {@inheritDoc}
      * <p>
-     * This implementation iterates through all category collections, performing a case-insensitive
-     * regular expression search on the {@code title} field within each collection.
-     * All matching recipes are aggregated. It defensively checks if a collection
-     * exists before querying.
+     * This implementation concurrently queries all known category collections for recipes where
+     * the {@code createdBy} field matches the given username, and aggregates the results.
+     * </p>
+     */
+    @Override
+    public List<Recipe> getRecipesByUser(String username) {
+        return getRecipesByUser(username, null);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Recipe> getRecipesByUser(String username, QueryStrategy strategy) {
+        log.debug("Fetching recipes created by user '{}'", username);
+        Query query = new Query(Criteria.where("createdBy").is(username));
+        return findAcrossCategories(query, strategy, null);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This implementation asks the {@link RecipeSearchIndex} which recipes have a matching title, and reads
+     * only those, by ID, from their collections. If the index cannot answer (e.g., it is still being built, or
+     * the title contains regular expression metacharacters), it concurrently performs a case-insensitive
+     * regular expression search on the {@code title} field within every category collection instead.
+     * All matching recipes are aggregated.
      * </p>
      */
     @Override
     public List<Recipe> searchRecipesByTitle(String title) {
-        List<Recipe> matchingRecipes = new ArrayList<>();
+        return searchRecipesByTitle(title, null);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Recipe> searchRecipesByTitle(String title, QueryStrategy strategy) {
         String regexPattern = (title != null) ? title.trim() : "";
         log.debug("Searching for recipes with title containing '{}'", regexPattern);
-        List<String> categories = categoryService.getAllCategories();
-
-        for (String categoryName : categories) {
-            String collectionName = CategoryService.formatCollectionName(categoryName);
-            if(mongoTemplate.collectionExists(collectionName)) {
-                Query query = new Query(Criteria.where("title").regex(regexPattern, "i")); // "i" for case-insensitive
-                List<Recipe> categoryMatches = mongoTemplate.find(query, Recipe.class, collectionName);
-                matchingRecipes.addAll(categoryMatches);
-            }
+        Criteria criteria = Criteria.where("title").regex(regexPattern, "i"); // "i" for case-insensitive
+        Optional<Map<String, List<String>>> indexed = searchIndex.findByTitle(regexPattern);
+        if (indexed.isPresent()) {
+            return findIndexed(indexed.get(), criteria);
         }
-        return matchingRecipes;
+        return findAcrossCategories(new Query(criteria), strategy, null);
     }
 
     /**
      * {@inheritDoc}
      * <p>
      * This implementation formats the given category name to a collection name using
-     * {@link CategoryService#formatCollectionName(String)}. If the collection exists,
+     * {@link CategoryService#formatCollectionName(String)}. If the collection exists
+     * (according to {@link CategoryService#categoryCollectionExists(String)}),
      * it retrieves all recipes from that collection. Otherwise, it returns an empty list.
      * </p>
      */
@@ -339,7 +731,7 @@ public class RecipeServiceImpl implements RecipeService {
     public List<Recipe> searchRecipesByCategory(String category) {
         String collectionName = CategoryService.formatCollectionName(category);
         log.debug("Searching for recipes in category '{}' (collection '{}')", category, collectionName);
-        if (mongoTemplate.collectionExists(collectionName)) {
+        if (categoryService.categoryCollectionExists(collectionName)) {
             return mongoTemplate.findAll(Recipe.class, collectionName);
         }
         log.warn("Category '{}' (collection '{}') not found for search.", category, collectionName);
@@ -349,58 +741,164 @@ public class RecipeServiceImpl implements RecipeService {
     /**
      * {@inheritDoc}
      * <p>
-     * This implementation iterates through all category collections, querying each for recipes
-     * where the {@code cookingTime} field is less than or equal to ({@code lte}) the specified time.
-     * All matching recipes are aggregated. It defensively checks if a collection
-     * exists before querying.
+     * This implementation concurrently queries all category collections for recipes where the
+     * {@code cookingTime} field is less than or equal to ({@code lte}) the specified time.
+     * All matching recipes are aggregated.
      * </p>
      */
     @Override
     public List<Recipe> searchRecipesByCookingTime(Integer cookingTime) {
-        List<Recipe> matchingRecipes = new ArrayList<>();
+        return searchRecipesByCookingTime(cookingTime, null);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Recipe> searchRecipesByCookingTime(Integer cookingTime, QueryStrategy strategy) {
         if (cookingTime == null || cookingTime < 0) {
             log.warn("Invalid cooking time for search: {}", cookingTime);
-            return matchingRecipes; // Return empty list for invalid input
+            return new ArrayList<>(); // Return empty list for invalid input
         }
         log.debug("Searching for recipes with cooking time <= {} minutes", cookingTime);
-        List<String> categories = categoryService.getAllCategories();
-
-        for (String categoryName : categories) {
-            String collectionName = CategoryService.formatCollectionName(categoryName);
-            if(mongoTemplate.collectionExists(collectionName)) {
-                Query query = new Query(Criteria.where("cookingTime").lte(cookingTime));
-                List<Recipe> categoryMatches = mongoTemplate.find(query, Recipe.class, collectionName);
-                matchingRecipes.addAll(categoryMatches);
-            }
-        }
-        return matchingRecipes;
+        Query query = new Query(Criteria.where("cookingTime").lte(cookingTime));
+        return findAcrossCategories(query, strategy, null);
     }
 
     /**
      * {@inheritDoc}
      * <p>
-     * This implementation iterates through all category collections, performing a case-insensitive
-     * regular expression search on the {@code ingredients} array/list field within each collection.
-     * All matching recipes are aggregated. It defensively checks if a collection
-     * exists before querying.
+     * This implementation answers from the {@link RecipeSearchIndex} as
+     * {@link #searchRecipesByTitle(String, QueryStrategy)} does. Otherwise, it concurrently performs a
+     * case-insensitive regular expression search on the {@code ingredients} array/list field within every
+     * category collection. All matching recipes are aggregated.
      * </p>
      */
     @Override
     public List<Recipe> searchRecipesByIngredient(String ingredient) {
-        List<Recipe> matchingRecipes = new ArrayList<>();
+        return searchRecipesByIngredient(ingredient, null);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Recipe> searchRecipesByIngredient(String ingredient, QueryStrategy strategy) {
         String regexPattern = (ingredient != null) ? ingredient.trim() : "";
         log.debug("Searching for recipes containing ingredient '{}'", regexPattern);
-        List<String> categories = categoryService.getAllCategories();
+        Criteria criteria = Criteria.where("ingredients").regex(regexPattern, "i"); // "i" for case-insensitive
+        Optional<Map<String, List<String>>> indexed = searchIndex.findByIngredient(regexPattern);
+        if (indexed.isPresent()) {
+            return findIndexed(indexed.get(), criteria);
+        }
+        return findAcrossCategories(new Query(criteria), strategy, null);
+    }
 
-        for (String categoryName : categories) {
-            String collectionName = CategoryService.formatCollectionName(categoryName);
-            if(mongoTemplate.collectionExists(collectionName)) {
-                Query query = new Query(Criteria.where("ingredients").regex(regexPattern, "i")); // "i" for case-insensitive
-                List<Recipe> categoryMatches = mongoTemplate.find(query, Recipe.class, collectionName);
-                matchingRecipes.addAll(categoryMatches);
-            }
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This implementation concurrently queries every category collection through its multikey index on
+     * {@value IngredientKeys#FIELD}.
+     * </p>
+     */
+    @Override
+    public List<Recipe> searchRecipesByIngredientKeys(List<String> ingredients, boolean matchAll) {
+        List<String> keys = IngredientKeys.of(ingredients);
+        if (keys.isEmpty()) {
+            return new ArrayList<>();
+        }
+        log.debug("Searching for recipes with {} of the ingredients {}", matchAll ? "all" : "any", keys);
+        Criteria criteria = Criteria.where(IngredientKeys.FIELD);
+        return findAcrossCategories(new Query(matchAll ? criteria.all(keys) : criteria.in(keys)), null, null);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This implementation scores every recipe against the pantry with the ingredient bitsets of the
+     * {@link RecipeSearchIndex}, and only reads the best {@code limit} recipes, by ID. Until the index is ready,
+     * it concurrently reads the recipes using any of the ingredients from every category collection instead. In
+     * both cases the recipes read are ranked again from their current ingredients. The recipes found through the
+     * index are read by ID only, so a recipe whose ingredient keys have not been stored yet (see
+     * {@link IngredientKeysBackfill}) is still found; the fallback query relies on the stored keys.
+     * </p>
+     */
+    @Override
+    public List<PantryMatch> findRecipesByPantry(List<String> ingredients, int maxMissing, int limit) {
+        List<String> keys = IngredientKeys.of(ingredients);
+        if (keys.isEmpty()) {
+            return new ArrayList<>();
         }
-        return matchingRecipes;
+        log.debug("Searching for recipes missing at most {} ingredients besides {}", maxMissing, keys);
+        Criteria criteria = Criteria.where(IngredientKeys.FIELD).in(keys);
+        Optional<Map<String, List<String>>> indexed = searchIndex.matchPantry(keys, maxMissing, limit);
+        List<Recipe> candidates = indexed.isPresent()
+                ? findIndexed(indexed.get(), null)
+                : findAcrossCategories(new Query(criteria), null, null);
+        return PantryRanking.rank(candidates, keys, maxMissing, limit);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This implementation answers from the prefix trie of the {@link RecipeSearchIndex}, which keeps the best
+     * suggestions of every prefix in memory. Until the index is ready, it reads up to
+     * {@value RecipeSuggestions#SCAN_LIMIT} recipes with a title, category or ingredient key starting with the
+     * prefix from the category collections, and counts the suggestions among them.
+     * </p>
+     */
+    @Override
+    public List<Suggestion> suggest(String prefix, int limit) {
+        Optional<List<Suggestion>> indexed = searchIndex.suggest(prefix, limit);
+        if (indexed.isPresent()) {
+            return indexed.get();
+        }
+        return RecipeSuggestions.rank(findAcrossCategories(RecipeSuggestions.candidates(prefix), null,
+                RecipeSuggestions.SCAN_LIMIT), prefix, limit);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This implementation concurrently runs a {@code $text} query in every category collection, each sorted by
+     * text score and limited to {@code limit} recipes on the server, and keeps the {@code limit} best of the
+     * merged results. Scores are comparable across collections: a text score only depends on the recipe itself
+     * and on the index weights, which all collections share.
+     * </p>
+     */
+    @Override
+    public List<Recipe> searchRecipesByText(String text, int limit) {
+        log.debug("Full-text search for '{}' across all categories, limit {}", text, limit);
+        TextCriteria criteria = TextCriteria.forDefaultLanguage().matching(text);
+        return findAcrossCategories(collectionName -> mongoTemplate.find(
+                TextQuery.queryText(criteria).sortByScore().limit(limit), Recipe.class, collectionName)).stream()
+                .sorted(BY_SCORE)
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Reads the recipes found by the {@link RecipeSearchIndex} from their collections, concurrently.
+     * <p>
+     * The search criteria are applied again to the recipes read by ID, so that an index entry that is out of
+     * date (e.g., a recipe changed by another node) does not return a recipe that no longer matches.
+     * </p>
+     *
+     * @param idsByCollection The IDs of the matching recipes by collection name, in the order to return them.
+     * @param criteria The search criteria, or {@code null} if the caller checks the recipes read itself.
+     * @return The matching recipes.
+     */
+    private List<Recipe> findIndexed(Map<String, List<String>> idsByCollection, Criteria criteria) {
+        if (idsByCollection.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return fanOutExecutor.fanOut(new ArrayList<>(idsByCollection.keySet()), collectionName -> {
+            Query query = new Query(Criteria.where("id").in(idsByCollection.get(collectionName)));
+            if (criteria != null) {
+                query.addCriteria(criteria);
+            }
+            return mongoTemplate.find(query, Recipe.class, collectionName);
+        });
     }
 
     /**
@@ -408,15 +906,31 @@ public class RecipeServiceImpl implements RecipeService {
      * <p>
      * This implementation builds a dynamic MongoDB {@link Query}.
      * If a specific {@code category} is provided and not empty, the search is confined to that
-     * category's collection. Otherwise, it iterates through all category collections, applying
+     * category's collection. Otherwise, it concurrently queries all category collections, applying
      * the filter criteria (title, maxCookingTime, ingredient) to each.
      * All criteria are optional and are added to the query only if provided.
      * Searches involving text (title, ingredient) are case-insensitive.
-     * It defensively checks if collections exist before querying.
+     * The existence of a specific category is checked against the category registry.
      * </p>
      */
     @Override
     public List<Recipe> advancedSearch(String title, String category, Integer maxCookingTime, String ingredient) {
+        return advancedSearch(title, category, maxCookingTime, ingredient, null, null);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * A search confined to one category runs a single query in that category's collection, sorted and
+     * limited on the server if a limit is given. A search across all categories uses the given strategy;
+     * with {@link QueryStrategy#UNION_WITH} and a limit, MongoDB only reads the first {@code limit}
+     * matches of each collection.
+     * </p>
+     */
+    @Override
+    public List<Recipe> advancedSearch(String title, String category, Integer maxCookingTime, String ingredient,
+                                       QueryStrategy strategy, Integer limit) {
+        Integer topK = (limit != null && limit > 0) ? limit : null;
         List<Recipe> results;
         log.debug("Performing advanced search with title: '{}', category: '{}', maxCookingTime: {}, ingredient: '{}'",
                 title, category, maxCookingTime, ingredient);
@@ -428,7 +942,7 @@ public class RecipeServiceImpl implements RecipeService {
 
         if (searchCategory != null) { // Search within a specific category
             String collectionName = CategoryService.formatCollectionName(searchCategory);
-            if (!mongoTemplate.collectionExists(collectionName)) {
+            if (!categoryService.categoryCollectionExists(collectionName)) {
                 log.warn("Advanced search: Category '{}' (collection '{}') does not exist.", searchCategory, collectionName);
                 return new ArrayList<>(); // Category specified but doesn't exist
             }
@@ -443,41 +957,124 @@ public class RecipeServiceImpl implements RecipeService {
             if (searchIngredient != null) {
                 query.addCriteria(Criteria.where("ingredients").regex(searchIngredient, "i"));
             }
+            if (topK != null) {
+                query.with(Sort.by(Sort.Direction.ASC, "_id")).limit(topK);
+            }
             results = mongoTemplate.find(query, Recipe.class, collectionName);
 
         } else { // Search across all categories
-            results = new ArrayList<>();
-            List<String> allCategories = categoryService.getAllCategories();
-            for (String catName : allCategories) {
-                String collectionName = CategoryService.formatCollectionName(catName);
-                if (!mongoTemplate.collectionExists(collectionName)) {
-                    continue; // Skip if collection for this category doesn't exist
-                }
-
-                Query query = new Query();
-                // Apply other filters if present
-                if (searchTitle != null) {
-                    query.addCriteria(Criteria.where("title").regex(searchTitle, "i"));
-                }
-                if (maxCookingTime != null && maxCookingTime >= 0) {
-                    query.addCriteria(Criteria.where("cookingTime").lte(maxCookingTime));
-                }
-                if (searchIngredient != null) {
-                    query.addCriteria(Criteria.where("ingredients").regex(searchIngredient, "i"));
-                }
-                // Only execute query if there are actual criteria or if we intend to list all from category
-                if (!query.getQueryObject().isEmpty() || (searchTitle == null && maxCookingTime == null && searchIngredient == null)) {
-                    results.addAll(mongoTemplate.find(query, Recipe.class, collectionName));
-                } else if (query.getQueryObject().isEmpty() && (searchTitle != null || maxCookingTime != null || searchIngredient != null)) {
-                    // This case means some search parameters were given but none were valid to form a query object,
-                    // effectively meaning no specific criteria applied to this category.
-                    // If the intent is to only return if specific criteria match, this category would yield no results.
-                    // If the intent is to list all from this category if no other criteria match, then findAll.
-                    // Current logic: if query is empty but search params were non-null, it means no criteria matched for this category.
-                }
+            Query query = new Query();
+            // Apply other filters if present
+            if (searchTitle != null) {
+                query.addCriteria(Criteria.where("title").regex(searchTitle, "i"));
+            }
+            if (maxCookingTime != null && maxCookingTime >= 0) {
+                query.addCriteria(Criteria.where("cookingTime").lte(maxCookingTime));
+            }
+            if (searchIngredient != null) {
+                query.addCriteria(Criteria.where("ingredients").regex(searchIngredient, "i"));
+            }
+            // Only execute query if there are actual criteria or if we intend to list all from each category.
+            // If some search parameters were given but none were valid to form a query object (e.g., a negative
+            // maxCookingTime alone), no specific criteria apply and no category yields results.
+            if (!query.getQueryObject().isEmpty() || (searchTitle == null && maxCookingTime == null && searchIngredient == null)) {
+                results = findAcrossCategories(query, strategy, topK);
+            } else {
+                results = new ArrayList<>();
             }
         }
         log.info("Advanced search found {} results.", results.size());
         return results;
     }
-}
\ No newline at end of file
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * A filter with a category reads that category's collection only; otherwise the category collections are
+     * queried with the given strategy. The projection is part of every per-collection query.
+     * </p>
+     */
+    @Override
+    public List<Recipe> findRecipes(RecipeFilter filter, QueryStrategy strategy, Integer limit) {
+        Integer topK = (limit != null && limit > 0) ? limit : null;
+        Query query = filter.toQuery();
+        if (filter.getCategory() == null) {
+            return findAcrossCategories(query, strategy, topK);
+        }
+        List<String> collectionNames = collectionNamesFor(filter);
+        if (collectionNames.isEmpty()) {
+            return new ArrayList<>();
+        }
+        if (topK != null) {
+            query.with(Sort.by(Sort.Direction.ASC, "_id")).limit(topK);
+        }
+        return mongoTemplate.find(query, Recipe.class, collectionNames.get(0));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The category collections are visited in alphabetical order, starting with the collection of the cursor.
+     * Each visited collection gets one query filtered with {@code _id > lastId} (in the cursor's collection
+     * only), sorted on {@code _id} and limited to the recipes still missing from the page plus one, which tells
+     * whether another page follows. Collections before the cursor are not queried at all.
+     * </p>
+     */
+    @Override
+    public RecipeResponse findRecipesPage(RecipeFilter filter, int size, String cursor) {
+        RecipeCursor position = RecipeCursor.decode(cursor);
+        List<String> collectionNames = collectionNamesFor(filter);
+
+        List<Recipe> page = new ArrayList<>(size);
+        String lastCollection = null;
+        boolean hasMore = false;
+        for (String collectionName : collectionNames) {
+            if (position != null && collectionName.compareTo(position.getCollectionName()) < 0) {
+                continue;
+            }
+            Query query = filter.toQuery();
+            if (position != null && collectionName.equals(position.getCollectionName())) {
+                query.addCriteria(position.afterLastId());
+            }
+            query.with(Sort.by(Sort.Direction.ASC, "_id")).limit(size + 1 - page.size());
+            for (Recipe recipe : mongoTemplate.find(query, Recipe.class, collectionName)) {
+                if (page.size() == size) {
+                    hasMore = true;
+                    break;
+                }
+                page.add(recipe);
+                lastCollection = collectionName;
+            }
+            if (hasMore) {
+                break;
+            }
+        }
+
+        int pageNo = position != null ? position.getPageNo() : 0;
+        String nextCursor = hasMore
+                ? new RecipeCursor(lastCollection, page.get(page.size() - 1).getId(), pageNo + 1).encode()
+                : null;
+        log.debug("Read page {} of {} recipes ({} collections in scope)", pageNo, page.size(), collectionNames.size());
+        return RecipeResponse.fromKeyset(page, pageNo, size, nextCursor);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The category collections are streamed one after the other, in alphabetical order, each through its own
+     * cursor sorted on {@code _id}. Unlike the list searches, the collections are not queried concurrently: the
+     * consumer (typically an HTTP response) sets the pace, and at most one cursor is open at a time.
+     * </p>
+     */
+    @Override
+    public void streamRecipes(RecipeFilter filter, Consumer<Recipe> consumer) {
+        List<String> collectionNames = collectionNamesFor(filter);
+
+        for (String collectionName : collectionNames) {
+            Query query = filter.toQuery().with(Sort.by(Sort.Direction.ASC, "_id"));
+            try (Stream<Recipe> recipes = mongoTemplate.stream(query, Recipe.class, collectionName)) {
+                recipes.forEach(consumer);
+            }
+        }
+    }
+}
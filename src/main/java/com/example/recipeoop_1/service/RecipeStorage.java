@@ -0,0 +1,48 @@
+package com.example.recipeoop_1.service;
+
+import com.example.recipeoop_1.model.Recipe;
+
+/**
+ * Constants shared by the two recipe storage layouts.
+ * <p>
+ * The layout is selected with the {@value #MODE_PROPERTY} property:
+ * </p>
+ * <ul>
+ * <li>{@value #PER_CATEGORY} (default): one collection per category, e.g. "recipe_desserts"
+ * ({@link RecipeServiceImpl}).</li>
+ * <li>{@value #SINGLE_COLLECTION}: all recipes in the {@value #SINGLE_COLLECTION_NAME} collection,
+ * filtered by the indexed {@value #CATEGORY_KEY_FIELD} field ({@link SingleCollectionRecipeService}).</li>
+ * </ul>
+ * Existing per-category data is copied into the single collection with {@link RecipeStorageMigrationService}
+ * before switching the property.
+ *
+ * @author Elie Issa/Michel Ghazaly
+ * @version 1.0
+ * @since 2026-10-16
+ */
+public final class RecipeStorage {
+
+    /**
+     * The property selecting the storage layout.
+     */
+    public static final String MODE_PROPERTY = "recipe.storage.mode";
+    /**
+     * Value of {@value #MODE_PROPERTY} for one collection per category.
+     */
+    public static final String PER_CATEGORY = "per-category";
+    /**
+     * Value of {@value #MODE_PROPERTY} for a single collection holding all recipes.
+     */
+    public static final String SINGLE_COLLECTION = "single-collection";
+    /**
+     * The name of the collection holding all recipes in single-collection mode, as declared on {@link Recipe}.
+     */
+    public static final String SINGLE_COLLECTION_NAME = "recipes";
+    /**
+     * The field holding the normalized category in single-collection mode.
+     */
+    public static final String CATEGORY_KEY_FIELD = "categoryKey";
+
+    private RecipeStorage() {
+    }
+}
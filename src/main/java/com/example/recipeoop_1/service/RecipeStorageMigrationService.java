@@ -0,0 +1,262 @@
+package com.example.recipeoop_1.service;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Service that copies recipes from the per-category layout into the single-collection layout.
+ * <p>
+ * The migration runs online, while the application keeps serving requests in
+ * {@value RecipeStorage#PER_CATEGORY} mode. Each "recipe_" collection is read through a cursor and
+ * copied into the {@value RecipeStorage#SINGLE_COLLECTION_NAME} collection in unordered bulk writes of
+ * {@code recipe.storage.migration.batch-size} documents. Every document is upserted by its {@code _id}
+ * with its category key added. The copies of recipes that are no longer in their source collection (deleted, or
+ * moved to another category, since an earlier run) are then removed, as are those of categories whose collection
+ * no longer exists. The migration can therefore be run repeatedly: later runs catch up with the recipes created,
+ * changed, moved and deleted in the meantime. The source collections are never modified.
+ * </p><p>
+ * Once the application runs in {@value RecipeStorage#SINGLE_COLLECTION} mode, the target collection receives
+ * recipes that are in no source collection, so later runs only copy and no longer remove anything. Recipes
+ * deleted in the per-category layout during the switch must then be deleted again.
+ * </p><p>
+ * The intended procedure is to run {@link #migrateToSingleCollection()}, check the report with
+ * {@link #verify()}, switch {@value RecipeStorage#MODE_PROPERTY} to {@value RecipeStorage#SINGLE_COLLECTION}
+ * and restart, then run the migration once more to pick up writes made during the switch.
+ * </p>
+ *
+ * @author Elie Issa/Michel Ghazaly
+ * @version 1.1
+ * @since 2026-10-16
+ * @see RecipeStorage
+ * @see SingleCollectionRecipeService
+ */
+@Service
+public class RecipeStorageMigrationService {
+
+    /**
+     * Logger for this class.
+     */
+    private static final Logger log = LoggerFactory.getLogger(RecipeStorageMigrationService.class);
+
+    /**
+     * MongoTemplate for database interactions.
+     */
+    private final MongoTemplate mongoTemplate;
+    /**
+     * RecipeIndexManager applying the declared indexes to the target collection.
+     */
+    private final RecipeIndexManager indexManager;
+    /**
+     * Number of documents written to MongoDB in one bulk write.
+     */
+    private final int batchSize;
+    /**
+     * Whether the application already runs in the single-collection layout, in which case nothing is removed
+     * from the target collection.
+     */
+    private final boolean targetInUse;
+
+    /**
+     * Constructs a {@code RecipeStorageMigrationService} with the necessary dependencies and settings.
+     *
+     * @param mongoTemplate The Spring Data {@link MongoTemplate} for direct MongoDB interaction.
+     * @param indexManager The {@link RecipeIndexManager} applying the declared indexes to the target collection.
+     * @param batchSize The number of documents written in one bulk write.
+     * @param storageMode The configured storage layout ({@value RecipeStorage#MODE_PROPERTY}).
+     */
+    @Autowired
+    public RecipeStorageMigrationService(MongoTemplate mongoTemplate, RecipeIndexManager indexManager,
+                                         @Value("${recipe.storage.migration.batch-size:500}") int batchSize,
+                                         @Value("${" + RecipeStorage.MODE_PROPERTY + ":" + RecipeStorage.PER_CATEGORY + "}") String storageMode) {
+        this.mongoTemplate = mongoTemplate;
+        this.indexManager = indexManager;
+        this.batchSize = batchSize;
+        this.targetInUse = RecipeStorage.SINGLE_COLLECTION.equalsIgnoreCase(storageMode);
+    }
+
+    /**
+     * Copies all per-category collections into the {@value RecipeStorage#SINGLE_COLLECTION_NAME} collection
+     * and verifies the result.
+     * <p>
+     * The indexes of the target collection are created first, so the upserts by {@code _id} and the
+     * verification counts do not scan the collection.
+     * </p>
+     *
+     * @return A map with the number of documents copied and removed, the elapsed time in milliseconds and
+     * the verification report of {@link #verify()}.
+     */
+    public Map<String, Object> migrateToSingleCollection() {
+        long start = System.currentTimeMillis();
+        indexManager.applyIndexes(RecipeStorage.SINGLE_COLLECTION_NAME);
+
+        long copied = 0;
+        long removed = 0;
+        List<String> categoryKeys = new ArrayList<>();
+        for (String collectionName : categoryCollectionNames()) {
+            String categoryKey = collectionName.substring(CategoryService.COLLECTION_PREFIX.length());
+            categoryKeys.add(categoryKey);
+            Set<Object> sourceIds = new HashSet<>();
+            long copiedFromCollection = copyCollection(collectionName, sourceIds);
+            long removedFromCategory = targetInUse ? 0 : removeMissing(categoryKey, sourceIds);
+            log.info("Storage migration: copied {} documents from '{}', removed {} no longer there",
+                    copiedFromCollection, collectionName, removedFromCategory);
+            copied += copiedFromCollection;
+            removed += removedFromCategory;
+        }
+        if (!targetInUse) {
+            removed += mongoTemplate.remove(new Query(Criteria.where(RecipeStorage.CATEGORY_KEY_FIELD).nin(categoryKeys)),
+                    RecipeStorage.SINGLE_COLLECTION_NAME).getDeletedCount();
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("copied", copied);
+        result.put("removed", removed);
+        result.put("elapsedMillis", System.currentTimeMillis() - start);
+        result.put("verification", verify());
+        log.info("Storage migration finished: copied {} documents in {} ms", copied, result.get("elapsedMillis"));
+        return result;
+    }
+
+    /**
+     * Compares the number of recipes in every per-category collection with the number of recipes of that
+     * category in the {@value RecipeStorage#SINGLE_COLLECTION_NAME} collection.
+     * <p>
+     * While the application still writes to the per-category collections, small differences are expected
+     * and are resolved by running the migration again. Recipes of the target collection whose category has no
+     * source collection are counted as {@code orphaned}.
+     * </p>
+     *
+     * @return A map with a {@code verified} flag (all counts match and nothing is orphaned), the total counts,
+     * the orphaned count and, per category key, the source and target counts.
+     */
+    public Map<String, Object> verify() {
+        Map<String, Object> categories = new LinkedHashMap<>();
+        long sourceTotal = 0;
+        long targetTotal = 0;
+        boolean verified = true;
+        List<String> categoryKeys = new ArrayList<>();
+
+        for (String collectionName : categoryCollectionNames()) {
+            String categoryKey = collectionName.substring(CategoryService.COLLECTION_PREFIX.length());
+            categoryKeys.add(categoryKey);
+            long source = mongoTemplate.count(new Query(), collectionName);
+            long target = mongoTemplate.count(
+                    new Query(Criteria.where(RecipeStorage.CATEGORY_KEY_FIELD).is(categoryKey)),
+                    RecipeStorage.SINGLE_COLLECTION_NAME);
+            Map<String, Object> counts = new LinkedHashMap<>();
+            counts.put("source", source);
+            counts.put("target", target);
+            categories.put(categoryKey, counts);
+            sourceTotal += source;
+            targetTotal += target;
+            verified &= source == target;
+        }
+        long orphaned = mongoTemplate.count(new Query(Criteria.where(RecipeStorage.CATEGORY_KEY_FIELD).nin(categoryKeys)),
+                RecipeStorage.SINGLE_COLLECTION_NAME);
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("verified", verified && orphaned == 0);
+        report.put("sourceTotal", sourceTotal);
+        report.put("targetTotal", targetTotal);
+        report.put("orphaned", orphaned);
+        report.put("categories", categories);
+        return report;
+    }
+
+    /**
+     * Copies one per-category collection into the single collection.
+     *
+     * @param collectionName The name of the source collection (e.g., "recipe_main_course").
+     * @param sourceIds Receives the {@code _id} of every document copied.
+     * @return The number of documents copied.
+     */
+    private long copyCollection(String collectionName, Set<Object> sourceIds) {
+        String categoryKey = collectionName.substring(CategoryService.COLLECTION_PREFIX.length());
+        FindAndReplaceOptions upsert = FindAndReplaceOptions.options().upsert();
+        long copied = 0;
+        BulkOperations bulk = null;
+        int pending = 0;
+
+        try (Stream<Document> documents = mongoTemplate.stream(new Query(), Document.class, collectionName)) {
+            for (Document document : (Iterable<Document>) documents::iterator) {
+                if (bulk == null) {
+                    bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, RecipeStorage.SINGLE_COLLECTION_NAME);
+                }
+                document.put(RecipeStorage.CATEGORY_KEY_FIELD, categoryKey);
+                sourceIds.add(document.get("_id"));
+                bulk.replaceOne(new Query(Criteria.where("_id").is(document.get("_id"))), document, upsert);
+                copied++;
+                if (++pending == batchSize) {
+                    bulk.execute();
+                    bulk = null;
+                    pending = 0;
+                }
+            }
+        }
+        if (bulk != null) {
+            bulk.execute();
+        }
+        return copied;
+    }
+
+    /**
+     * Removes the copies of a category's recipes that are no longer in its source collection, in batches.
+     * <p>
+     * Only the {@code _id} of the target documents is read. The removal is restricted to the category, so the
+     * copy of a recipe moved to another category is kept if that category has already been copied.
+     * </p>
+     *
+     * @param categoryKey The category key (e.g., "main_course").
+     * @param sourceIds The {@code _id} of every document of the source collection.
+     * @return The number of documents removed.
+     */
+    private long removeMissing(String categoryKey, Set<Object> sourceIds) {
+        Query targetIds = new Query(Criteria.where(RecipeStorage.CATEGORY_KEY_FIELD).is(categoryKey));
+        targetIds.fields().include("_id");
+        List<Object> missing = new ArrayList<>();
+        try (Stream<Document> documents = mongoTemplate.stream(targetIds, Document.class, RecipeStorage.SINGLE_COLLECTION_NAME)) {
+            for (Document document : (Iterable<Document>) documents::iterator) {
+                if (!sourceIds.contains(document.get("_id"))) {
+                    missing.add(document.get("_id"));
+                }
+            }
+        }
+        long removed = 0;
+        for (int from = 0; from < missing.size(); from += batchSize) {
+            List<Object> batch = missing.subList(from, Math.min(from + batchSize, missing.size()));
+            removed += mongoTemplate.remove(new Query(Criteria.where("_id").in(batch)),
+                    RecipeStorage.SINGLE_COLLECTION_NAME).getDeletedCount();
+        }
+        return removed;
+    }
+
+    /**
+     * Lists the per-category collections currently present in the database, in alphabetical order.
+     *
+     * @return The names of all collections starting with "recipe_".
+     */
+    private List<String> categoryCollectionNames() {
+        return mongoTemplate.getCollectionNames().stream()
+                .filter(CategoryService::isCategoryCollection)
+                .sorted()
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.recipeoop_1.service;
+
+import com.example.recipeoop_1.dto.Suggestion;
+import com.example.recipeoop_1.model.Recipe;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * The terms a recipe contributes to autocomplete suggestions, shared by {@link RecipeSearchIndex} and the
+ * services answering without it.
+ * <p>
+ * A recipe contributes its title, its category and its {@link IngredientKeys ingredient keys}, each with a weight
+ * of one, so a suggestion is ranked by the number of recipes it applies to.
+ * </p>
+ *
+ * @author Elie Issa/Michel Ghazaly
+ * @version 1.0
+ * @since 2026-10-16
+ * @see PrefixTrie
+ */
+final class RecipeSuggestions {
+
+    /**
+     * The type of the terms taken from recipe titles.
+     */
+    static final String TITLE = "title";
+    /**
+     * The type of the terms taken from ingredient keys.
+     */
+    static final String INGREDIENT = "ingredient";
+    /**
+     * The type of the terms taken from categories.
+     */
+    static final String CATEGORY = "category";
+
+    /**
+     * The maximum number of recipes read to compute suggestions when no index can answer.
+     */
+    static final int SCAN_LIMIT = 500;
+
+    /**
+     * A character to escape in a regular expression. Escaping them one by one, rather than quoting the whole
+     * prefix, keeps the expression a plain anchored prefix, which MongoDB can match through an index.
+     */
+    private static final Pattern REGEX_METACHARACTER = Pattern.compile("[\\\\^$.|?*+()\\[\\]{}]");
+
+    private RecipeSuggestions() {
+    }
+
+    /**
+     * Lists the terms of a recipe.
+     *
+     * @param title The title of the recipe; may be {@code null}.
+     * @param category The category of the recipe; may be {@code null}.
+     * @param ingredientKeys The ingredient keys of the recipe.
+     * @return Pairs of type and text.
+     */
+    static List<String[]> terms(String title, String category, List<String> ingredientKeys) {
+        List<String[]> terms = new ArrayList<>(ingredientKeys.size() + 2);
+        if (title != null) {
+            terms.add(new String[]{TITLE, title});
+        }
+        if (category != null) {
+            terms.add(new String[]{CATEGORY, category});
+        }
+        for (String key : ingredientKeys) {
+            terms.add(new String[]{INGREDIENT, key});
+        }
+        return terms;
+    }
+
+    /**
+     * Adds the terms of a recipe to a trie, or removes them.
+     *
+     * @param trie The trie.
+     * @param terms The terms, as listed by {@link #terms(String, String, List)}.
+     * @param delta {@code 1} to add the recipe, {@code -1} to remove it.
+     */
+    static void add(PrefixTrie trie, List<String[]> terms, int delta) {
+        for (String[] term : terms) {
+            trie.add(term[0], term[1], delta);
+        }
+    }
+
+    /**
+     * Converts the terms found in a trie.
+     *
+     * @param terms The terms, heaviest first.
+     * @return The suggestions, in the same order.
+     */
+    static List<Suggestion> toSuggestions(List<PrefixTrie.Term> terms) {
+        return terms.stream()
+                .map(term -> new Suggestion(term.text(), term.type(), term.weight()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Builds the query for the recipes with a title, category or ingredient key starting with a prefix, which are
+     * read to compute suggestions when no index can answer.
+     *
+     * @param prefix The prefix.
+     * @return The query, reading only the fields that give terms. Ingredient keys are lower-case, so their
+     * anchored, case-sensitive match can use their index.
+     */
+    static Query candidates(String prefix) {
+        String normalized = PrefixTrie.normalize(prefix);
+        String startsWith = "^" + REGEX_METACHARACTER.matcher(normalized).replaceAll("\\\\$0");
+        Query query = new Query(new Criteria().orOperator(
+                Criteria.where("title").regex(startsWith, "i"),
+                Criteria.where("category").regex(startsWith, "i"),
+                Criteria.where(IngredientKeys.FIELD).regex(startsWith)));
+        query.fields().include("title").include("category").include("ingredients");
+        return query;
+    }
+
+    /**
+     * Computes suggestions from the recipes read with {@link #candidates(String)}.
+     * <p>
+     * The number of recipes of each suggestion is only counted among those recipes, so it is a lower bound
+     * when {@value #SCAN_LIMIT} recipes were read.
+     * </p>
+     *
+     * @param recipes The recipes read.
+     * @param prefix The prefix.
+     * @param limit The maximum number of suggestions.
+     * @return The suggestions, most frequent first.
+     */
+    static List<Suggestion> rank(List<Recipe> recipes, String prefix, int limit) {
+        PrefixTrie trie = new PrefixTrie(limit);
+        for (Recipe recipe : recipes) {
+            add(trie, terms(recipe.getTitle(), recipe.getCategory(), IngredientKeys.of(recipe.getIngredients())), 1);
+        }
+        trie.buildTops();
+        return toSuggestions(trie.top(prefix, limit));
+    }
+}
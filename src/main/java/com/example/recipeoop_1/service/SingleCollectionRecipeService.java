@@ -0,0 +1,577 @@
+package com.example.recipeoop_1.service;
+
+import com.example.recipeoop_1.dto.PantryMatch;
+import com.example.recipeoop_1.dto.RecipeResponse;
+import com.example.recipeoop_1.dto.Suggestion;
+import com.example.recipeoop_1.exception.RecipeAccessDeniedException;
+import com.example.recipeoop_1.exception.RecipeNotFoundException;
+import com.example.recipeoop_1.model.Recipe;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Implementation of the {@link RecipeService} interface that keeps all recipes in one collection.
+ * <p>
+ * Active when {@value RecipeStorage#MODE_PROPERTY} is set to {@value RecipeStorage#SINGLE_COLLECTION}.
+ * All recipes are stored in the {@value RecipeStorage#SINGLE_COLLECTION_NAME} collection, and each recipe
+ * carries its normalized category in the {@value RecipeStorage#CATEGORY_KEY_FIELD} field (the same value
+ * that names the category's collection in the per-category layout, e.g. "main_course"). Every search is
+ * therefore a single query that can use one index across all recipes, and changing a recipe's category is
+ * an update in place instead of a move between collections.
+ * </p><p>
+ * Categories remain visible through {@link CategoryService}, which derives them from the stored category keys
+ * in this mode. A category disappears once its last recipe has been deleted or moved.
+ * </p><p>
+ * Data stored in the per-category layout is copied into this layout with {@link RecipeStorageMigrationService}.
+ * </p>
+ *
+ * @author Elie Issa/Michel Ghazaly
+ * @version 1.7
+ * @since 2026-10-16
+ * @see RecipeServiceImpl
+ * @see RecipeStorage
+ */
+@Service
+@ConditionalOnProperty(name = RecipeStorage.MODE_PROPERTY, havingValue = RecipeStorage.SINGLE_COLLECTION)
+public class SingleCollectionRecipeService implements RecipeService {
+
+    /**
+     * Logger for this class.
+     */
+    private static final Logger log = LoggerFactory.getLogger(SingleCollectionRecipeService.class);
+
+    /**
+     * The collection holding all recipes.
+     */
+    private static final String COLLECTION_NAME = RecipeStorage.SINGLE_COLLECTION_NAME;
+
+    /**
+     * MongoTemplate for database interactions.
+     */
+    private final MongoTemplate mongoTemplate;
+    /**
+     * CategoryService for keeping the category registry up to date.
+     */
+    private final CategoryService categoryService;
+    /**
+     * RecipeIndexManager applying the declared indexes to the collection.
+     */
+    private final RecipeIndexManager indexManager;
+
+    /**
+     * Constructs a {@code SingleCollectionRecipeService} with the necessary dependencies.
+     *
+     * @param mongoTemplate The Spring Data {@link MongoTemplate} for direct MongoDB interaction.
+     * @param categoryService The {@link CategoryService} whose category registry is kept up to date.
+     * @param indexManager The {@link RecipeIndexManager} applying the declared indexes to the collection.
+     */
+    @Autowired
+    public SingleCollectionRecipeService(MongoTemplate mongoTemplate, CategoryService categoryService,
+                                         RecipeIndexManager indexManager) {
+        this.mongoTemplate = mongoTemplate;
+        this.categoryService = categoryService;
+        this.indexManager = indexManager;
+    }
+
+    /**
+     * Creates the indexes of the {@value RecipeStorage#SINGLE_COLLECTION_NAME} collection on startup.
+     * <p>
+     * Failures are logged by the {@link RecipeIndexManager} but do not prevent startup; queries still work
+     * without the indexes, only slower.
+     * </p>
+     */
+    @PostConstruct
+    public void ensureIndexes() {
+        indexManager.applyIndexes(COLLECTION_NAME);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This implementation sets the creator's username and the category key on the recipe and inserts it into
+     * the {@value RecipeStorage#SINGLE_COLLECTION_NAME} collection. If the category is null or empty, it
+     * defaults to "uncategorized".
+     * </p>
+     */
+    @Override
+    public Recipe createRecipe(Recipe recipeDetails, String username) {
+        recipeDetails.setCreatedBy(username);
+
+        String category = recipeDetails.getCategory();
+        if (category == null || category.trim().isEmpty()) {
+            category = "uncategorized"; // Default category
+            recipeDetails.setCategory(category);
+        }
+        recipeDetails.setCategoryKey(CategoryService.formatCategoryKey(category));
+        recipeDetails.setIngredientKeys(IngredientKeys.of(recipeDetails.getIngredients()));
+
+        categoryService.ensureCategoryExists(category);
+        log.info("Creating recipe '{}' in category '{}' by user '{}'", recipeDetails.getTitle(), recipeDetails.getCategoryKey(), username);
+        return mongoTemplate.insert(recipeDetails, COLLECTION_NAME);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Recipe> getAllRecipes() {
+        log.debug("Fetching all recipes");
+        return mongoTemplate.findAll(Recipe.class, COLLECTION_NAME);
+    }
+
+    /**
+     * {@inheritDoc}
+     * This implementation looks the recipe up by its ID and only returns it if it belongs to the given category.
+     *
+     * @return The found {@link Recipe}, or {@code null} if not found in the specified category.
+     */
+    @Override
+    public Recipe getRecipeById(String category, String id) {
+        String categoryKey = CategoryService.formatCategoryKey(category);
+        Query query = new Query(Criteria.where("id").is(id).and(RecipeStorage.CATEGORY_KEY_FIELD).is(categoryKey));
+        log.debug("Fetching recipe by ID '{}' from category '{}'", id, categoryKey);
+        Recipe recipe = mongoTemplate.findOne(query, Recipe.class, COLLECTION_NAME);
+        if (recipe == null) {
+            log.warn("Recipe with ID '{}' not found in category '{}'", id, categoryKey);
+        }
+        return recipe;
+    }
+
+    /**
+     * {@inheritDoc}
+     * This implementation looks the recipe up by its ID with a single query.
+     *
+     * @param id The unique ID of the recipe to retrieve. Must not be {@code null} or empty.
+     * @return The found {@link Recipe} object.
+     * @throws RecipeNotFoundException if no recipe with the given ID exists.
+     */
+    @Override
+    public Recipe getRecipeById(String id) throws RecipeNotFoundException {
+        Recipe recipe = mongoTemplate.findById(id, Recipe.class, COLLECTION_NAME);
+        if (recipe == null) {
+            log.warn("Recipe with ID '{}' not found.", id);
+            throw new RecipeNotFoundException("Recipe not found with id: " + id);
+        }
+        return recipe;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This implementation replaces the stored recipe, preserving its ID and creator. A change of category only
+     * changes the category key. If no recipe is left in the old category, it is removed from the category registry.
+     * </p>
+     *
+     * @param id The unique ID of the recipe to update. Must not be {@code null} or empty.
+     * @param recipeDetails A {@link Recipe} object containing the new details for the recipe. Must not be {@code null}.
+     * @return The updated {@link Recipe} object.
+     * @throws RecipeNotFoundException if the recipe to update is not found.
+     */
+    @Override
+    public Recipe updateRecipe(String id, Recipe recipeDetails) throws RecipeNotFoundException {
+        Recipe existingRecipe = getRecipeById(id);
+        log.info("Updating recipe ID '{}', current title '{}'", id, existingRecipe.getTitle());
+
+        String newCategory = recipeDetails.getCategory();
+        if (newCategory == null || newCategory.trim().isEmpty()) {
+            newCategory = "uncategorized";
+            recipeDetails.setCategory(newCategory);
+        }
+        String oldCategoryKey = CategoryService.formatCategoryKey(existingRecipe.getCategory());
+        recipeDetails.setCategoryKey(CategoryService.formatCategoryKey(newCategory));
+        recipeDetails.setIngredientKeys(IngredientKeys.of(recipeDetails.getIngredients()));
+        recipeDetails.setId(id); // Ensure ID is set for save operation
+        recipeDetails.setCreatedBy(existingRecipe.getCreatedBy()); // Preserve creator
+
+        categoryService.ensureCategoryExists(newCategory);
+        Recipe updated = mongoTemplate.save(recipeDetails, COLLECTION_NAME);
+        if (!oldCategoryKey.equals(recipeDetails.getCategoryKey())) {
+            log.info("Category changed for recipe ID '{}' from '{}' to '{}'.", id, oldCategoryKey, recipeDetails.getCategoryKey());
+            unregisterIfEmpty(oldCategoryKey);
+        }
+        return updated;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This implementation removes the recipe by its ID. If no recipe is left in its category,
+     * the category is removed from the category registry.
+     * </p>
+     * @throws RecipeNotFoundException if the recipe to delete is not found.
+     */
+    @Override
+    public void deleteRecipe(String id) throws RecipeNotFoundException {
+        Recipe recipe = getRecipeById(id); // This will throw if not found, handling that case.
+        log.info("Deleting recipe ID '{}' with title '{}'", id, recipe.getTitle());
+        mongoTemplate.remove(new Query(Criteria.where("id").is(id)), Recipe.class, COLLECTION_NAME);
+        unregisterIfEmpty(CategoryService.formatCategoryKey(recipe.getCategory()));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This implementation replaces the recipe with a single {@code findAndModify} whose filter includes the
+     * ownership condition, keeping the stored ID and creator. If no recipe is left in the old category, it is
+     * removed from the category registry.
+     * </p>
+     */
+    @Override
+    public Recipe updateRecipe(String id, Recipe recipeDetails, String username, boolean admin)
+            throws RecipeNotFoundException, RecipeAccessDeniedException {
+        String newCategory = recipeDetails.getCategory();
+        if (newCategory == null || newCategory.trim().isEmpty()) {
+            newCategory = "uncategorized";
+            recipeDetails.setCategory(newCategory);
+        }
+        recipeDetails.setCategoryKey(CategoryService.formatCategoryKey(newCategory));
+        recipeDetails.setIngredientKeys(IngredientKeys.of(recipeDetails.getIngredients()));
+
+        Recipe previous = mongoTemplate.findAndModify(RecipeOwnership.ownedQuery(id, username, admin),
+                RecipeOwnership.replaceKeepingCreator(mongoTemplate.getConverter(), recipeDetails),
+                Recipe.class, COLLECTION_NAME); // Returns the recipe as it was before the update
+        if (previous == null) {
+            throw RecipeOwnership.notModified(mongoTemplate, id, COLLECTION_NAME);
+        }
+        log.info("Updated recipe ID '{}', previous title '{}'", id, previous.getTitle());
+        categoryService.ensureCategoryExists(newCategory);
+        recipeDetails.setId(id);
+        recipeDetails.setCreatedBy(previous.getCreatedBy());
+        String oldCategoryKey = CategoryService.formatCategoryKey(previous.getCategory());
+        if (!oldCategoryKey.equals(recipeDetails.getCategoryKey())) {
+            log.info("Category changed for recipe ID '{}' from '{}' to '{}'.", id, oldCategoryKey, recipeDetails.getCategoryKey());
+            unregisterIfEmpty(oldCategoryKey);
+        }
+        return recipeDetails;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This implementation removes the recipe with a single {@code findAndRemove} whose filter includes the
+     * ownership condition. If no recipe is left in its category, the category is removed from the category
+     * registry.
+     * </p>
+     */
+    @Override
+    public void deleteRecipe(String id, String username, boolean admin)
+            throws RecipeNotFoundException, RecipeAccessDeniedException {
+        Recipe removed = mongoTemplate.findAndRemove(RecipeOwnership.ownedQuery(id, username, admin),
+                Recipe.class, COLLECTION_NAME);
+        if (removed == null) {
+            throw RecipeOwnership.notModified(mongoTemplate, id, COLLECTION_NAME);
+        }
+        log.info("Deleted recipe ID '{}' with title '{}'", id, removed.getTitle());
+        unregisterIfEmpty(CategoryService.formatCategoryKey(removed.getCategory()));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This implementation adds the category key to the filter of
+     * {@link #deleteRecipe(String, String, boolean)}.
+     * </p>
+     */
+    @Override
+    public void deleteRecipe(String category, String id, String username, boolean admin)
+            throws RecipeNotFoundException, RecipeAccessDeniedException {
+        String categoryKey = CategoryService.formatCategoryKey(category);
+        Recipe removed = mongoTemplate.findAndRemove(RecipeOwnership.ownedQuery(id, username, admin)
+                .addCriteria(Criteria.where(RecipeStorage.CATEGORY_KEY_FIELD).is(categoryKey)), Recipe.class, COLLECTION_NAME);
+        if (removed == null) {
+            throw RecipeOwnership.notModified(mongoTemplate,
+                    Criteria.where("id").is(id).and(RecipeStorage.CATEGORY_KEY_FIELD).is(categoryKey), id, COLLECTION_NAME);
+        }
+        log.info("Deleted recipe ID '{}' with title '{}' from category '{}'", id, removed.getTitle(), categoryKey);
+        unregisterIfEmpty(categoryKey);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Recipe> getRecipesByUser(String username) {
+        log.debug("Fetching recipes created by user '{}'", username);
+        return mongoTemplate.find(new Query(Criteria.where("createdBy").is(username)), Recipe.class, COLLECTION_NAME);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This implementation performs a case-insensitive regular expression search on the {@code title} field.
+     * </p>
+     */
+    @Override
+    public List<Recipe> searchRecipesByTitle(String title) {
+        String regexPattern = (title != null) ? title.trim() : "";
+        log.debug("Searching for recipes with title containing '{}'", regexPattern);
+        Query query = new Query(Criteria.where("title").regex(regexPattern, "i")); // "i" for case-insensitive
+        return mongoTemplate.find(query, Recipe.class, COLLECTION_NAME);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This implementation matches the normalized category key, so "Main Course" and "main course"
+     * find the same recipes, as they would share a collection in the per-category layout.
+     * </p>
+     */
+    @Override
+    public List<Recipe> searchRecipesByCategory(String category) {
+        String categoryKey = CategoryService.formatCategoryKey(category);
+        log.debug("Searching for recipes in category '{}'", categoryKey);
+        return mongoTemplate.find(new Query(Criteria.where(RecipeStorage.CATEGORY_KEY_FIELD).is(categoryKey)),
+                Recipe.class, COLLECTION_NAME);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This implementation finds recipes whose {@code cookingTime} is less than or equal to ({@code lte})
+     * the specified time.
+     * </p>
+     */
+    @Override
+    public List<Recipe> searchRecipesByCookingTime(Integer cookingTime) {
+        if (cookingTime == null || cookingTime < 0) {
+            log.warn("Invalid cooking time for search: {}", cookingTime);
+            return new ArrayList<>(); // Return empty list for invalid input
+        }
+        log.debug("Searching for recipes with cooking time <= {} minutes", cookingTime);
+        return mongoTemplate.find(new Query(Criteria.where("cookingTime").lte(cookingTime)), Recipe.class, COLLECTION_NAME);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This implementation performs a case-insensitive regular expression search on the {@code ingredients} field.
+     * </p>
+     */
+    @Override
+    public List<Recipe> searchRecipesByIngredient(String ingredient) {
+        String regexPattern = (ingredient != null) ? ingredient.trim() : "";
+        log.debug("Searching for recipes containing ingredient '{}'", regexPattern);
+        Query query = new Query(Criteria.where("ingredients").regex(regexPattern, "i")); // "i" for case-insensitive
+        return mongoTemplate.find(query, Recipe.class, COLLECTION_NAME);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This implementation runs one query on the multikey index on {@value IngredientKeys#FIELD}.
+     * </p>
+     */
+    @Override
+    public List<Recipe> searchRecipesByIngredientKeys(List<String> ingredients, boolean matchAll) {
+        List<String> keys = IngredientKeys.of(ingredients);
+        if (keys.isEmpty()) {
+            return new ArrayList<>();
+        }
+        log.debug("Searching for recipes with {} of the ingredients {}", matchAll ? "all" : "any", keys);
+        Criteria criteria = Criteria.where(IngredientKeys.FIELD);
+        return mongoTemplate.find(new Query(matchAll ? criteria.all(keys) : criteria.in(keys)), Recipe.class, COLLECTION_NAME);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This implementation reads the recipes using any of the ingredients through the multikey index on
+     * {@value IngredientKeys#FIELD}, and ranks them in memory.
+     * </p>
+     */
+    @Override
+    public List<PantryMatch> findRecipesByPantry(List<String> ingredients, int maxMissing, int limit) {
+        List<String> keys = IngredientKeys.of(ingredients);
+        if (keys.isEmpty()) {
+            return new ArrayList<>();
+        }
+        log.debug("Searching for recipes missing at most {} ingredients besides {}", maxMissing, keys);
+        List<Recipe> candidates = mongoTemplate.find(new Query(Criteria.where(IngredientKeys.FIELD).in(keys)),
+                Recipe.class, COLLECTION_NAME);
+        return PantryRanking.rank(candidates, keys, maxMissing, limit);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This implementation reads up to {@value RecipeSuggestions#SCAN_LIMIT} recipes with a title, category or
+     * ingredient key starting with the prefix, and counts the suggestions among them.
+     * </p>
+     */
+    @Override
+    public List<Suggestion> suggest(String prefix, int limit) {
+        Query query = RecipeSuggestions.candidates(prefix).limit(RecipeSuggestions.SCAN_LIMIT);
+        return RecipeSuggestions.rank(mongoTemplate.find(query, Recipe.class, COLLECTION_NAME), prefix, limit);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This implementation runs one {@code $text} query on the single collection, sorted by text score and
+     * limited on the server.
+     * </p>
+     */
+    @Override
+    public List<Recipe> searchRecipesByText(String text, int limit) {
+        log.debug("Full-text search for '{}', limit {}", text, limit);
+        Query query = TextQuery.queryText(TextCriteria.forDefaultLanguage().matching(text)).sortByScore().limit(limit);
+        return mongoTemplate.find(query, Recipe.class, COLLECTION_NAME);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This implementation combines all given criteria (category key, title, maxCookingTime, ingredient)
+     * into a single query. As in the per-category layout, if some search parameters were given but none
+     * of them produced a criterion (e.g., a negative maxCookingTime alone), no recipes are returned.
+     * </p>
+     */
+    @Override
+    public List<Recipe> advancedSearch(String title, String category, Integer maxCookingTime, String ingredient) {
+        return advancedSearch(title, category, maxCookingTime, ingredient, null, null);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * There is nothing to fan out in this layout, so the strategy is ignored. A limit is applied on the
+     * server, together with the sort on {@code _id}.
+     * </p>
+     */
+    @Override
+    public List<Recipe> advancedSearch(String title, String category, Integer maxCookingTime, String ingredient,
+                                       QueryStrategy strategy, Integer limit) {
+        log.debug("Performing advanced search with title: '{}', category: '{}', maxCookingTime: {}, ingredient: '{}'",
+                title, category, maxCookingTime, ingredient);
+
+        // Trim inputs, default to null if effectively empty after trimming
+        String searchTitle = (title != null && !title.trim().isEmpty()) ? title.trim() : null;
+        String searchCategory = (category != null && !category.trim().isEmpty()) ? category.trim() : null;
+        String searchIngredient = (ingredient != null && !ingredient.trim().isEmpty()) ? ingredient.trim() : null;
+
+        Query query = new Query();
+        if (searchCategory != null) {
+            query.addCriteria(Criteria.where(RecipeStorage.CATEGORY_KEY_FIELD).is(CategoryService.formatCategoryKey(searchCategory)));
+        }
+        if (searchTitle != null) {
+            query.addCriteria(Criteria.where("title").regex(searchTitle, "i"));
+        }
+        if (maxCookingTime != null && maxCookingTime >= 0) {
+            query.addCriteria(Criteria.where("cookingTime").lte(maxCookingTime));
+        }
+        if (searchIngredient != null) {
+            query.addCriteria(Criteria.where("ingredients").regex(searchIngredient, "i"));
+        }
+
+        if (limit != null && limit > 0) {
+            query.with(Sort.by(Sort.Direction.ASC, "_id")).limit(limit);
+        }
+
+        List<Recipe> results;
+        if (!query.getQueryObject().isEmpty() || (searchTitle == null && maxCookingTime == null && searchIngredient == null)) {
+            results = mongoTemplate.find(query, Recipe.class, COLLECTION_NAME);
+        } else {
+            results = new ArrayList<>();
+        }
+        log.info("Advanced search found {} results.", results.size());
+        return results;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * There is nothing to fan out in this layout, so the strategy is ignored. A limit is applied on the server.
+     * </p>
+     */
+    @Override
+    public List<Recipe> findRecipes(RecipeFilter filter, QueryStrategy strategy, Integer limit) {
+        Query query = toQuery(filter);
+        if (limit != null && limit > 0) {
+            query.with(Sort.by(Sort.Direction.ASC, "_id")).limit(limit);
+        }
+        return mongoTemplate.find(query, Recipe.class, COLLECTION_NAME);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Recipes are paged by {@code _id} across the whole collection, so every page is one query on the
+     * {@code _id} index, filtered by category key if a category is given. The collection recorded in the
+     * cursor is not needed here.
+     * </p>
+     */
+    @Override
+    public RecipeResponse findRecipesPage(RecipeFilter filter, int size, String cursor) {
+        RecipeCursor position = RecipeCursor.decode(cursor);
+        Query query = toQuery(filter);
+        if (position != null) {
+            query.addCriteria(position.afterLastId());
+        }
+        query.with(Sort.by(Sort.Direction.ASC, "_id")).limit(size + 1);
+
+        List<Recipe> page = mongoTemplate.find(query, Recipe.class, COLLECTION_NAME);
+        int pageNo = position != null ? position.getPageNo() : 0;
+        String nextCursor = null;
+        if (page.size() > size) {
+            page = new ArrayList<>(page.subList(0, size));
+            nextCursor = new RecipeCursor(COLLECTION_NAME, page.get(size - 1).getId(), pageNo + 1).encode();
+        }
+        return RecipeResponse.fromKeyset(page, pageNo, size, nextCursor);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * A single cursor sorted on {@code _id} is open for the whole stream.
+     * </p>
+     */
+    @Override
+    public void streamRecipes(RecipeFilter filter, Consumer<Recipe> consumer) {
+        Query query = toQuery(filter).with(Sort.by(Sort.Direction.ASC, "_id"));
+        try (Stream<Recipe> recipes = mongoTemplate.stream(query, Recipe.class, COLLECTION_NAME)) {
+            recipes.forEach(consumer);
+        }
+    }
+
+    /**
+     * Builds the query of a filter in this layout, where the category is a field of each recipe.
+     *
+     * @param filter The {@link RecipeFilter} to apply.
+     * @return A new {@link Query} without sort or limit.
+     */
+    private static Query toQuery(RecipeFilter filter) {
+        Query query = filter.toQuery();
+        if (filter.getCategory() != null) {
+            query.addCriteria(Criteria.where(RecipeStorage.CATEGORY_KEY_FIELD).is(CategoryService.formatCategoryKey(filter.getCategory())));
+        }
+        return query;
+    }
+
+    /**
+     * Removes a category from the category registry if no recipe is left in it.
+     *
+     * @param categoryKey The normalized category key (e.g., "main_course").
+     */
+    private void unregisterIfEmpty(String categoryKey) {
+        Query query = new Query(Criteria.where(RecipeStorage.CATEGORY_KEY_FIELD).is(categoryKey));
+        if (!mongoTemplate.exists(query, COLLECTION_NAME)) {
+            log.info("Category '{}' has no recipes left.", categoryKey);
+            categoryService.onCategoryCollectionDropped(CategoryService.formatCollectionName(categoryKey));
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package com.example.recipeoop_1.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An inverted index from the trigrams (three-character substrings) of short texts to the documents containing
+ * them, answering case-insensitive substring queries.
+ * <p>
+ * Each document is an integer ID with one or more texts (e.g., a title, or the ingredients of a recipe). The
+ * posting list of a trigram is a sorted {@code int[]}, so a million postings take about 4 MB. A query of at
+ * least three characters intersects the posting lists of its trigrams, starting with the shortest one, and
+ * then confirms each candidate by searching its texts, since having all the trigrams of the query does not
+ * mean containing it. Shorter queries have no trigram and are answered by searching every text.
+ * </p><p>
+ * The index is not thread-safe; {@link RecipeSearchIndex} guards it with a lock.
+ * </p>
+ *
+ * @author Elie Issa/Michel Ghazaly
+ * @version 1.0
+ * @since 2026-10-16
+ * @see RecipeSearchIndex
+ */
+final class TrigramIndex {
+
+    /**
+     * The posting list of each trigram, keyed by the three characters packed in a {@code long}.
+     */
+    private final Map<Long, Postings> postings = new HashMap<>();
+    /**
+     * The lower-cased texts of each document.
+     */
+    private final Map<Integer, String[]> texts = new HashMap<>();
+    /**
+     * The total number of entries in all posting lists.
+     */
+    private long postingCount;
+
+    /**
+     * Adds a document, replacing it if it is already indexed. Null texts are ignored.
+     *
+     * @param doc The document ID.
+     * @param documentTexts The texts of the document.
+     */
+    void add(int doc, Collection<String> documentTexts) {
+        remove(doc);
+        String[] lowerCased = documentTexts.stream()
+                .filter(text -> text != null)
+                .map(TrigramIndex::normalize)
+                .toArray(String[]::new);
+        if (lowerCased.length == 0) {
+            return;
+        }
+        texts.put(doc, lowerCased);
+        for (long trigram : trigramsOf(lowerCased)) {
+            if (postings.computeIfAbsent(trigram, key -> new Postings()).add(doc)) {
+                postingCount++;
+            }
+        }
+    }
+
+    /**
+     * Removes a document if it is indexed.
+     *
+     * @param doc The document ID.
+     */
+    void remove(int doc) {
+        String[] removed = texts.remove(doc);
+        if (removed == null) {
+            return;
+        }
+        for (long trigram : trigramsOf(removed)) {
+            Postings list = postings.get(trigram);
+            if (list != null && list.remove(doc)) {
+                postingCount--;
+                if (list.size == 0) {
+                    postings.remove(trigram);
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds the documents with a text containing the given string, ignoring case.
+     *
+     * @param query The string to look for.
+     * @return The IDs of the matching documents, in ascending order.
+     */
+    int[] search(String query) {
+        String needle = normalize(query);
+        if (needle.length() < 3) {
+            return texts.entrySet().stream()
+                    .filter(entry -> containedIn(needle, entry.getValue()))
+                    .mapToInt(Map.Entry::getKey)
+                    .sorted()
+                    .toArray();
+        }
+
+        List<Postings> lists = new ArrayList<>();
+        for (long trigram : trigramsOf(new String[]{needle})) {
+            Postings list = postings.get(trigram);
+            if (list == null) {
+                return new int[0];
+            }
+            lists.add(list);
+        }
+        lists.sort((a, b) -> Integer.compare(a.size, b.size));
+
+        int[] candidates = Arrays.copyOf(lists.get(0).ids, lists.get(0).size);
+        int count = candidates.length;
+        for (int i = 1; i < lists.size() && count > 0; i++) {
+            count = intersect(candidates, count, lists.get(i));
+        }
+
+        int confirmed = 0;
+        for (int i = 0; i < count; i++) {
+            if (containedIn(needle, texts.get(candidates[i]))) {
+                candidates[confirmed++] = candidates[i];
+            }
+        }
+        return Arrays.copyOf(candidates, confirmed);
+    }
+
+    /**
+     * Returns the number of indexed documents.
+     *
+     * @return The number of documents with at least one text.
+     */
+    int documentCount() {
+        return texts.size();
+    }
+
+    /**
+     * Returns the number of distinct trigrams.
+     *
+     * @return The number of posting lists.
+     */
+    int trigramCount() {
+        return postings.size();
+    }
+
+    /**
+     * Returns the number of postings.
+     *
+     * @return The total length of all posting lists.
+     */
+    long postingCount() {
+        return postingCount;
+    }
+
+    /**
+     * Normalizes a text or query for case-insensitive matching.
+     *
+     * @param text The text.
+     * @return The lower-cased text.
+     */
+    static String normalize(String text) {
+        return text.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Keeps the candidates that are also in the given posting list.
+     *
+     * @param candidates The candidates, in ascending order; overwritten with the intersection.
+     * @param count The number of candidates.
+     * @param list The posting list.
+     * @return The number of candidates left.
+     */
+    private static int intersect(int[] candidates, int count, Postings list) {
+        int kept = 0;
+        int j = 0;
+        for (int i = 0; i < count && j < list.size; i++) {
+            int doc = candidates[i];
+            while (j < list.size && list.ids[j] < doc) {
+                j++;
+            }
+            if (j < list.size && list.ids[j] == doc) {
+                candidates[kept++] = doc;
+            }
+        }
+        return kept;
+    }
+
+    private static boolean containedIn(String needle, String[] haystack) {
+        for (String text : haystack) {
+            if (text.contains(needle)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Collects the distinct trigrams of some texts. Trigrams do not span two texts.
+     *
+     * @param lowerCased The normalized texts.
+     * @return The trigrams, each packed in a {@code long}.
+     */
+    private static Set<Long> trigramsOf(String[] lowerCased) {
+        Set<Long> trigrams = new HashSet<>();
+        for (String text : lowerCased) {
+            for (int i = 0; i + 3 <= text.length(); i++) {
+                trigrams.add(((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2));
+            }
+        }
+        return trigrams;
+    }
+
+    /**
+     * A sorted, growable list of document IDs.
+     */
+    private static final class Postings {
+        private int[] ids = new int[4];
+        private int size;
+
+        /**
+         * Inserts a document ID at its position.
+         *
+         * @param doc The document ID.
+         * @return {@code false} if the ID was already present.
+         */
+        boolean add(int doc) {
+            int position = Arrays.binarySearch(ids, 0, size, doc);
+            if (position >= 0) {
+                return false;
+            }
+            position = -position - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size + (size >> 1) + 1);
+            }
+            System.arraycopy(ids, position, ids, position + 1, size - position);
+            ids[position] = doc;
+            size++;
+            return true;
+        }
+
+        /**
+         * Removes a document ID.
+         *
+         * @param doc The document ID.
+         * @return {@code false} if the ID was not present.
+         */
+        boolean remove(int doc) {
+            int position = Arrays.binarySearch(ids, 0, size, doc);
+            if (position < 0) {
+                return false;
+            }
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            size--;
+            return true;
+        }
+    }
+}
@@ -1,12 +1,21 @@
 package com.example.recipeoop_1.controller;
 
+import com.example.recipeoop_1.dto.PantryMatch;
+import com.example.recipeoop_1.dto.RecipeResponse;
+import com.example.recipeoop_1.dto.Suggestion;
+import com.example.recipeoop_1.exception.InvalidCursorException;
+import com.example.recipeoop_1.exception.RecipeAccessDeniedException;
 import com.example.recipeoop_1.model.Recipe;
 import com.example.recipeoop_1.repository.RecipeRepository; // Import RecipeRepository
 import com.example.recipeoop_1.security.JwtAuthenticationEntryPoint;
 import com.example.recipeoop_1.security.JwtTokenUtil;
 import com.example.recipeoop_1.security.JwtUserDetailsService;
+import com.example.recipeoop_1.security.TokenRevocationService;
 import com.example.recipeoop_1.service.CategoryService;
+import com.example.recipeoop_1.service.QueryStrategy;
+import com.example.recipeoop_1.service.RecipeFilter;
 import com.example.recipeoop_1.service.RecipeService;
+import com.example.recipeoop_1.exception.CategoryQueryException;
 import com.example.recipeoop_1.exception.RecipeNotFoundException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
@@ -27,6 +36,7 @@ import org.springframework.security.core.userdetails.User;
 import org.springframework.security.test.context.support.WithAnonymousUser;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 // Import security config to be used by @WebMvcTest
 import com.example.recipeoop_1.security.WebSecurityConfig;
 import com.example.recipeoop_1.config.AppConfig; // Import AppConfig for PasswordEncoder and AuthManager if needed by WebSecurityConfig indirectly
@@ -41,9 +51,11 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
@@ -75,7 +87,7 @@ class RecipeControllerTest {
     @MockBean
     private CategoryService categoryService;
 
-    @MockBean
+    @MockBean(name = "jwtUserDetailsService") // The name JwtRequestFilter's qualifier resolves
     private JwtUserDetailsService jwtUserDetailsService;
 
     @MockBean
@@ -84,6 +96,9 @@ class RecipeControllerTest {
     @MockBean
     private JwtAuthenticationEntryPoint jwtAuthenticationEntryPoint;
 
+    @MockBean
+    private TokenRevocationService tokenRevocationService;
+
     @MockBean // Mock the repository to prevent context loading issues with @EnableMongoRepositories
     private RecipeRepository recipeRepository;
 
@@ -280,8 +295,7 @@ class RecipeControllerTest {
         returnedRecipe.setCreatedBy("user1");
 
 
-        when(recipeService.getRecipeById(recipeId)).thenReturn(testRecipe1);
-        when(recipeService.updateRecipe(eq(recipeId), any(Recipe.class))).thenReturn(returnedRecipe);
+        when(recipeService.updateRecipe(eq(recipeId), any(Recipe.class), eq("user1"), eq(false))).thenReturn(returnedRecipe);
 
         // Act & Assert
         mockMvc.perform(put("/api/recipes/{id}", recipeId)
@@ -291,8 +305,8 @@ class RecipeControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.title", is("Super Pasta Carbonara")));
 
-        verify(recipeService).getRecipeById(recipeId);
-        verify(recipeService).updateRecipe(eq(recipeId), any(Recipe.class));
+        verify(recipeService).updateRecipe(eq(recipeId), any(Recipe.class), eq("user1"), eq(false));
+        verify(recipeService, never()).getRecipeById(recipeId);
         SecurityContextHolder.clearContext();
     }
 
@@ -318,8 +332,7 @@ class RecipeControllerTest {
         returnedRecipe.setCategory(updatedDetails.getCategory());
         returnedRecipe.setCreatedBy("user1");
 
-        when(recipeService.getRecipeById(recipeId)).thenReturn(testRecipe1);
-        when(recipeService.updateRecipe(eq(recipeId), any(Recipe.class))).thenReturn(returnedRecipe);
+        when(recipeService.updateRecipe(eq(recipeId), any(Recipe.class), eq("adminUser"), eq(true))).thenReturn(returnedRecipe);
 
         // Act & Assert
         mockMvc.perform(put("/api/recipes/{id}", recipeId)
@@ -347,7 +360,8 @@ class RecipeControllerTest {
         Recipe updatedDetails = new Recipe();
         updatedDetails.setTitle("Illegal Update");
 
-        when(recipeService.getRecipeById(recipeId)).thenReturn(testRecipe1);
+        when(recipeService.updateRecipe(eq(recipeId), any(Recipe.class), eq("anotherUser"), eq(false)))
+                .thenThrow(new RecipeAccessDeniedException("Recipe belongs to another user"));
 
         // Act & Assert
         mockMvc.perform(put("/api/recipes/{id}", recipeId)
@@ -356,7 +370,6 @@ class RecipeControllerTest {
                         .content(objectMapper.writeValueAsString(updatedDetails)))
                 .andExpect(status().isForbidden());
 
-        verify(recipeService).getRecipeById(recipeId);
         verify(recipeService, never()).updateRecipe(anyString(), any(Recipe.class));
         SecurityContextHolder.clearContext();
     }
@@ -371,7 +384,8 @@ class RecipeControllerTest {
         Recipe recipeDetails = new Recipe();
         recipeDetails.setTitle("Title");
 
-        when(recipeService.getRecipeById(recipeId)).thenThrow(new RecipeNotFoundException("Not found"));
+        when(recipeService.updateRecipe(eq(recipeId), any(Recipe.class), anyString(), anyBoolean()))
+                .thenThrow(new RecipeNotFoundException("Not found"));
 
         mockMvc.perform(put("/api/recipes/{id}", recipeId)
                         .with(csrf())
@@ -393,15 +407,14 @@ class RecipeControllerTest {
         );
         String recipeId = testRecipe1.getId();
 
-        when(recipeService.getRecipeById(recipeId)).thenReturn(testRecipe1);
-        doNothing().when(recipeService).deleteRecipe(recipeId);
+        doNothing().when(recipeService).deleteRecipe(recipeId, "user1", false);
 
         // Act & Assert
         mockMvc.perform(delete("/api/recipes/{id}", recipeId).with(csrf()))
                 .andExpect(status().isNoContent());
 
-        verify(recipeService).getRecipeById(recipeId);
-        verify(recipeService).deleteRecipe(recipeId);
+        verify(recipeService).deleteRecipe(recipeId, "user1", false);
+        verify(recipeService, never()).getRecipeById(recipeId);
         SecurityContextHolder.clearContext();
     }
 
@@ -416,11 +429,11 @@ class RecipeControllerTest {
         );
         String recipeId = testRecipe1.getId();
 
-        when(recipeService.getRecipeById(recipeId)).thenReturn(testRecipe1);
-        doNothing().when(recipeService).deleteRecipe(recipeId);
+        doNothing().when(recipeService).deleteRecipe(recipeId, "adminUser", true);
 
         mockMvc.perform(delete("/api/recipes/{id}", recipeId).with(csrf()))
                 .andExpect(status().isNoContent());
+        verify(recipeService).deleteRecipe(recipeId, "adminUser", true);
         SecurityContextHolder.clearContext();
     }
 
@@ -431,9 +444,72 @@ class RecipeControllerTest {
     @WithMockUser(roles = "ADMIN") // Admin to bypass ownership check for non-existence
     void deleteRecipe_nonExistent_shouldReturnNotFound() throws Exception {
         String recipeId = "nonExistentId";
-        when(recipeService.getRecipeById(recipeId)).thenThrow(new RecipeNotFoundException("Not found"));
+        doThrow(new RecipeNotFoundException("Not found")).when(recipeService).deleteRecipe(eq(recipeId), anyString(), anyBoolean());
+
+        mockMvc.perform(delete("/api/recipes/{id}", recipeId).with(csrf()))
+                .andExpect(status().isNotFound());
+    }
+
+    /**
+     * Test deleting a recipe through an unavailable category. Expects 503, not 404.
+     */
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void deleteRecipe_whenCategoryQueryFails_shouldReturnServiceUnavailable() throws Exception {
+        String recipeId = "someId";
+        doThrow(new CategoryQueryException("Category lookup failed")).when(recipeService).deleteRecipe(eq(recipeId), anyString(), anyBoolean());
 
         mockMvc.perform(delete("/api/recipes/{id}", recipeId).with(csrf()))
+                .andExpect(status().isServiceUnavailable());
+    }
+
+    /**
+     * Test deleting a recipe of a category by its creator. Expects 204 No Content, with the ownership check left
+     * to the service.
+     */
+    @Test
+    @WithMockUser(username = "user1", roles = "USER")
+    void deleteRecipeByCategoryAndId_asCreator_shouldReturnNoContent() throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(mockUserDetailsUser, null, mockUserDetailsUser.getAuthorities())
+        );
+        String recipeId = testRecipe1.getId();
+
+        mockMvc.perform(delete("/api/recipes/category/{category}/id/{id}", "Italian", recipeId).with(csrf()))
+                .andExpect(status().isNoContent());
+
+        verify(recipeService).deleteRecipe("Italian", recipeId, "user1", false);
+        verify(recipeService, never()).getRecipeById(anyString(), anyString());
+        verify(recipeService, never()).deleteRecipe(recipeId);
+        SecurityContextHolder.clearContext();
+    }
+
+    /**
+     * Test deleting a recipe of a category created by another user. Expects 403 Forbidden.
+     */
+    @Test
+    @WithMockUser(username = "user1", roles = "USER")
+    void deleteRecipeByCategoryAndId_notCreator_shouldReturnForbidden() throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(mockUserDetailsUser, null, mockUserDetailsUser.getAuthorities())
+        );
+        doThrow(new RecipeAccessDeniedException("Not yours")).when(recipeService).deleteRecipe("Italian", "otherId", "user1", false);
+
+        mockMvc.perform(delete("/api/recipes/category/{category}/id/{id}", "Italian", "otherId").with(csrf()))
+                .andExpect(status().isForbidden());
+        SecurityContextHolder.clearContext();
+    }
+
+    /**
+     * Test deleting a recipe missing from the category. Expects 404 Not Found.
+     */
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void deleteRecipeByCategoryAndId_nonExistent_shouldReturnNotFound() throws Exception {
+        doThrow(new RecipeNotFoundException("Not found")).when(recipeService)
+                .deleteRecipe(eq("Italian"), eq("nonExistentId"), anyString(), anyBoolean());
+
+        mockMvc.perform(delete("/api/recipes/category/{category}/id/{id}", "Italian", "nonExistentId").with(csrf()))
                 .andExpect(status().isNotFound());
     }
 
@@ -502,6 +578,102 @@ class RecipeControllerTest {
         verify(recipeService).searchRecipesByIngredient(ingredient);
     }
 
+    /**
+     * The ingredient key search passes all requested ingredients, and matches all of them by default.
+     */
+    @Test
+    @WithMockUser(roles = "USER")
+    void searchRecipesByIngredientKeys_shouldMatchAllByDefault() throws Exception {
+        when(recipeService.searchRecipesByIngredientKeys(Arrays.asList("eggs", "2 cups flour"), true))
+                .thenReturn(Collections.singletonList(testRecipe1));
+
+        mockMvc.perform(get("/api/recipes/search/ingredients").param("name", "eggs", "2 cups flour"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)));
+        mockMvc.perform(get("/api/recipes/search/ingredients").param("name", "eggs").param("match", "some"))
+                .andExpect(status().isBadRequest());
+        verify(recipeService, times(1)).searchRecipesByIngredientKeys(anyList(), anyBoolean());
+    }
+
+    /**
+     * The full-text search returns the ranked recipes with their score, and caps the limit.
+     */
+    @Test
+    @WithMockUser(roles = "USER")
+    void searchRecipesByText_shouldReturnRankedRecipesWithScore() throws Exception {
+        testRecipe1.setScore(11.5f);
+        when(recipeService.searchRecipesByText("pasta eggs", 100)).thenReturn(Collections.singletonList(testRecipe1));
+
+        mockMvc.perform(get("/api/recipes/search/text").param("q", " pasta eggs ").param("limit", "500"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].score", is(11.5)));
+        verify(recipeService).searchRecipesByText("pasta eggs", 100);
+    }
+
+    /**
+     * A blank full-text query is rejected without searching.
+     */
+    @Test
+    @WithMockUser(roles = "USER")
+    void searchRecipesByText_withBlankQuery_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/recipes/search/text").param("q", " "))
+                .andExpect(status().isBadRequest());
+        verify(recipeService, never()).searchRecipesByText(anyString(), anyInt());
+    }
+
+    /**
+     * The pantry search returns the ranked matches with their missing ingredients, and rejects a negative maxMissing.
+     */
+    @Test
+    @WithMockUser(roles = "USER")
+    void findRecipesByPantry_shouldReturnMatchesWithMissingIngredients() throws Exception {
+        when(recipeService.findRecipesByPantry(Arrays.asList("eggs", "flour"), 1, 20))
+                .thenReturn(Collections.singletonList(new PantryMatch(testRecipe1, 2, List.of("milk"))));
+
+        mockMvc.perform(get("/api/recipes/search/pantry").param("name", "eggs", "flour").param("maxMissing", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].matched", is(2)))
+                .andExpect(jsonPath("$[0].missing", is(1)))
+                .andExpect(jsonPath("$[0].missingIngredients[0]", is("milk")));
+        mockMvc.perform(get("/api/recipes/search/pantry").param("name", "eggs").param("maxMissing", "-1"))
+                .andExpect(status().isBadRequest());
+        verify(recipeService, times(1)).findRecipesByPantry(anyList(), anyInt(), anyInt());
+    }
+
+    /**
+     * The suggest endpoint returns the suggestions with their type and count, and rejects a blank prefix.
+     */
+    @Test
+    @WithMockUser(roles = "USER")
+    void suggest_shouldReturnSuggestions() throws Exception {
+        when(recipeService.suggest("choc", 10)).thenReturn(Arrays.asList(
+                new Suggestion("chocolate", "ingredient", 12), new Suggestion("Chocolate Cake", "title", 2)));
+
+        mockMvc.perform(get("/api/recipes/suggest").param("prefix", "choc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].type", is("ingredient")))
+                .andExpect(jsonPath("$[0].recipes", is(12)));
+        mockMvc.perform(get("/api/recipes/suggest").param("prefix", " "))
+                .andExpect(status().isBadRequest());
+        verify(recipeService, times(1)).suggest(anyString(), anyInt());
+    }
+
+    /**
+     * A limit above the number of suggestions the index keeps per prefix is capped at that number.
+     */
+    @Test
+    @WithMockUser(roles = "USER")
+    void suggest_withLimitAboveIndexedSuggestions_shouldCapLimit() throws Exception {
+        when(recipeService.suggest("choc", 10)).thenReturn(Collections.emptyList());
+
+        mockMvc.perform(get("/api/recipes/suggest").param("prefix", "choc").param("limit", "50"))
+                .andExpect(status().isOk());
+        verify(recipeService).suggest("choc", 10);
+    }
+
     /**
      * Test advanced search endpoint.
      */
@@ -527,6 +699,148 @@ class RecipeControllerTest {
         verify(recipeService).advancedSearch(title, category, maxCookingTime, ingredient);
     }
 
+    /**
+     * Test advanced search endpoint with an explicit query strategy and limit.
+     */
+    @Test
+    @WithMockUser(roles = "USER")
+    void advancedSearch_withStrategyAndLimit_shouldPassThemToService() throws Exception {
+        when(recipeService.advancedSearch(null, null, null, "Flour", QueryStrategy.UNION_WITH, 5))
+                .thenReturn(Collections.singletonList(testRecipe2));
+
+        mockMvc.perform(get("/api/recipes/search/advanced")
+                        .param("ingredient", "Flour")
+                        .param("strategy", "UNION_WITH")
+                        .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)));
+        verify(recipeService, never()).advancedSearch(any(), any(), any(), any());
+    }
+
+    /**
+     * Test the paginated form of the list endpoint: the page size is capped and the cursor is passed through.
+     */
+    @Test
+    @WithMockUser(roles = "USER")
+    void getAllRecipesPage_shouldReturnPageWithNextCursor() throws Exception {
+        when(recipeService.findRecipesPage(any(RecipeFilter.class), eq(RecipeController.MAX_PAGE_SIZE), eq("abc")))
+                .thenReturn(RecipeResponse.fromKeyset(Collections.singletonList(testRecipe1), 1, RecipeController.MAX_PAGE_SIZE, "next"));
+
+        mockMvc.perform(get("/api/recipes").param("size", "1000").param("cursor", "abc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.pageNo", is(1)))
+                .andExpect(jsonPath("$.last", is(false)))
+                .andExpect(jsonPath("$.nextCursor", is("next")));
+        verify(recipeService, never()).getAllRecipes();
+    }
+
+    /**
+     * Test the NDJSON form of the list endpoint: one JSON recipe per line, written asynchronously.
+     */
+    @Test
+    @WithMockUser(roles = "USER")
+    @SuppressWarnings("unchecked")
+    void streamAllRecipes_withNdjsonAccept_shouldWriteOneRecipePerLine() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<Recipe> consumer = invocation.getArgument(1);
+            consumer.accept(testRecipe1);
+            consumer.accept(testRecipe2);
+            return null;
+        }).when(recipeService).streamRecipes(any(RecipeFilter.class), any(Consumer.class));
+
+        MvcResult result = mockMvc.perform(get("/api/recipes").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(testRecipe1.getTitle(), objectMapper.readValue(lines[0], Recipe.class).getTitle());
+        assertEquals(testRecipe2.getTitle(), objectMapper.readValue(lines[1], Recipe.class).getTitle());
+        verify(recipeService, never()).getAllRecipes();
+    }
+
+    /**
+     * Test an NDJSON stream authenticated by a bearer token: the ASYNC dispatch completing the response is
+     * authorized with the authentication the JWT filter saved in the request, not as an anonymous request.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void streamAllRecipes_withBearerToken_shouldStayAuthenticatedInAsyncDispatch() throws Exception {
+        when(jwtTokenUtil.getUsernameFromToken("token")).thenReturn("user1");
+        when(jwtTokenUtil.getIdFromToken("token")).thenReturn("jti");
+        when(tokenRevocationService.isRevoked("jti")).thenReturn(false);
+        when(jwtUserDetailsService.loadUserByUsername("user1")).thenReturn(mockUserDetailsUser);
+        when(jwtTokenUtil.validateToken(eq("token"), any())).thenReturn(true);
+        doAnswer(invocation -> {
+            Consumer<Recipe> consumer = invocation.getArgument(1);
+            consumer.accept(testRecipe1);
+            return null;
+        }).when(recipeService).streamRecipes(any(RecipeFilter.class), any(Consumer.class));
+
+        MvcResult result = mockMvc.perform(get("/api/recipes")
+                        .header("Authorization", "Bearer token")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertEquals(testRecipe1.getTitle(), objectMapper.readValue(body.trim(), Recipe.class).getTitle());
+        verify(jwtAuthenticationEntryPoint, never()).commence(any(), any(), any());
+    }
+
+    /**
+     * Test the summary view: the projection reaches the service and the omitted fields are not returned.
+     */
+    @Test
+    @WithMockUser(roles = "USER")
+    void getAllRecipes_withSummaryFields_shouldPushProjectionToService() throws Exception {
+        Recipe summary = new Recipe();
+        summary.setId("recipe1_id");
+        summary.setTitle("Pasta Carbonara");
+        summary.setIngredients(null);
+        when(recipeService.findRecipes(argThat(filter -> filter.getProjection() != null
+                && !filter.getProjection().getFields().contains("instructions")), isNull(), isNull()))
+                .thenReturn(new ArrayList<>(List.of(summary)));
+
+        mockMvc.perform(get("/api/recipes").param("fields", "summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].title", is("Pasta Carbonara")))
+                .andExpect(jsonPath("$[0].instructions").doesNotExist());
+        verify(recipeService, never()).getAllRecipes();
+    }
+
+    /**
+     * Test that an unknown field in the sparse fieldset results in 400 Bad Request.
+     */
+    @Test
+    @WithMockUser(roles = "USER")
+    void searchRecipesByTitle_withUnknownField_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/recipes/search/title/{title}", "Pasta").param("fields", "title,password"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(recipeService);
+    }
+
+    /**
+     * Test that a cursor the service cannot decode results in 400 Bad Request.
+     */
+    @Test
+    @WithMockUser(roles = "USER")
+    void searchRecipesByTitlePage_withInvalidCursor_shouldReturnBadRequest() throws Exception {
+        when(recipeService.findRecipesPage(any(RecipeFilter.class), eq(10), eq("garbage")))
+                .thenThrow(new InvalidCursorException("Malformed cursor"));
+
+        mockMvc.perform(get("/api/recipes/search/title/{title}", "Pasta").param("size", "10").param("cursor", "garbage"))
+                .andExpect(status().isBadRequest());
+    }
+
 
     /**
      * Test getting "my-recipes" for an authenticated user.
@@ -0,0 +1,76 @@
+package com.example.recipeoop_1.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link JwtTokenUtil}, with the settings normally injected from the application properties.
+ */
+class JwtTokenUtilTest {
+
+    private JwtTokenUtil jwtTokenUtil;
+    private UserDetails user;
+
+    @BeforeEach
+    void setUp() {
+        jwtTokenUtil = new JwtTokenUtil();
+        ReflectionTestUtils.setField(jwtTokenUtil, "secret",
+                "6c0f0014f71deeacf37fa86a8d4eb27d5a9b7a234ec6f945c79bc57c24a32bb5c28f9e01a2e76c3fdfa76152c67b4f12");
+        ReflectionTestUtils.setField(jwtTokenUtil, "expiration", 3600L);
+        ReflectionTestUtils.setField(jwtTokenUtil, "verifiedCacheMaxSize", 100L);
+        jwtTokenUtil.init();
+        user = new User("user", "password", Collections.emptyList());
+    }
+
+    /**
+     * A generated token is valid for its user, and its claims are verified once and then served from the cache.
+     */
+    @Test
+    void validateToken_shouldVerifyOnceAndReuseClaims() {
+        String token = jwtTokenUtil.generateToken(user);
+
+        assertTrue(jwtTokenUtil.validateToken(token, user));
+        assertEquals("user", jwtTokenUtil.getUsernameFromToken(token));
+        Claims first = jwtTokenUtil.getClaimFromToken(token, Function.identity());
+        assertSame(first, jwtTokenUtil.getClaimFromToken(token, Function.identity()));
+    }
+
+    /**
+     * A token with a changed signature is rejected, even after the original token has been cached.
+     */
+    @Test
+    void getUsernameFromToken_withTamperedSignature_shouldThrow() {
+        String token = jwtTokenUtil.generateToken(user);
+        jwtTokenUtil.getUsernameFromToken(token);
+        int position = token.lastIndexOf('.') + 10; // Inside the signature
+        char replacement = token.charAt(position) == 'A' ? 'B' : 'A';
+        String tampered = token.substring(0, position) + replacement + token.substring(position + 1);
+
+        assertThrows(JwtException.class, () -> jwtTokenUtil.getUsernameFromToken(tampered));
+    }
+
+    /**
+     * The user's authorities are signed into the token, so they can be read back without loading the user.
+     */
+    @Test
+    void getRolesFromToken_shouldReturnAuthoritiesOfUser() {
+        UserDetails admin = new User("admin", "password",
+                List.of(new SimpleGrantedAuthority("ROLE_ADMIN"), new SimpleGrantedAuthority("ROLE_USER")));
+
+        String token = jwtTokenUtil.generateToken(admin);
+
+        assertEquals(List.of("ROLE_ADMIN", "ROLE_USER"), jwtTokenUtil.getRolesFromToken(token));
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.recipeoop_1.security;
+
+import com.example.recipeoop_1.model.AppUser;
+import com.mongodb.client.result.UpdateResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link JwtUserDetailsService}, with the user collection mocked.
+ */
+@ExtendWith(MockitoExtension.class)
+class JwtUserDetailsServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    private JwtUserDetailsService userDetailsService;
+
+    @BeforeEach
+    void setUp() {
+        userDetailsService = new JwtUserDetailsService(passwordEncoder, mongoTemplate, 100, Duration.ofMinutes(5), false);
+    }
+
+    /**
+     * A user is read from MongoDB once, and every lookup returns a new instance whose credentials are intact,
+     * even after Spring Security erased those of an earlier one.
+     */
+    @Test
+    void loadUserByUsername_shouldCacheAccountAndReturnFreshInstances() {
+        when(mongoTemplate.findById("alice", AppUser.class))
+                .thenReturn(new AppUser("alice", "{hash}", List.of("ROLE_USER")));
+
+        UserDetails first = userDetailsService.loadUserByUsername("alice");
+        ((User) first).eraseCredentials();
+        UserDetails second = userDetailsService.loadUserByUsername("alice");
+
+        assertEquals("{hash}", second.getPassword());
+        assertEquals("ROLE_USER", second.getAuthorities().iterator().next().getAuthority());
+        verify(mongoTemplate, times(1)).findById("alice", AppUser.class);
+    }
+
+    /**
+     * Changing the roles of a user evicts the cached account, so the next lookup sees the new roles.
+     */
+    @Test
+    void updateRoles_shouldNormalizeRolesAndEvictUser() {
+        when(mongoTemplate.findById("alice", AppUser.class))
+                .thenReturn(new AppUser("alice", "{hash}", List.of("ROLE_USER")))
+                .thenReturn(new AppUser("alice", "{hash}", List.of("ROLE_ADMIN")));
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(AppUser.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+        userDetailsService.loadUserByUsername("alice");
+
+        assertTrue(userDetailsService.updateRoles("alice", List.of("admin")));
+
+        assertEquals("ROLE_ADMIN",
+                userDetailsService.loadUserByUsername("alice").getAuthorities().iterator().next().getAuthority());
+        verify(mongoTemplate).updateFirst(any(Query.class), eq(Update.update("roles", List.of("ROLE_ADMIN"))),
+                eq(AppUser.class));
+    }
+
+    /**
+     * Unknown users are reported with the exception required by the {@code UserDetailsService} contract.
+     */
+    @Test
+    void loadUserByUsername_whenNotExists_shouldThrow() {
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("nobody"));
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.recipeoop_1.security;
+
+import com.example.recipeoop_1.exception.TooManyRequestsException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link LoginExecutor}.
+ * A pool of one thread with a queue of one entry is saturated with verifications that block on a latch.
+ */
+class LoginExecutorTest {
+
+    private final LoginExecutor executor = new LoginExecutor(1, 1, 2000);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    /**
+     * A login beyond the queue is rejected at once with a retry delay, while the queued ones still complete.
+     */
+    @Test
+    void submit_whenQueueIsFull_shouldRejectImmediately() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> first = executor.submit(() -> {
+            running.countDown();
+            await(release);
+            return "first";
+        });
+        assertTrue(running.await(1, TimeUnit.SECONDS));
+        CompletableFuture<String> second = executor.submit(() -> "second");
+
+        TooManyRequestsException exception =
+                assertThrows(TooManyRequestsException.class, () -> executor.submit(() -> "third"));
+
+        release.countDown();
+        assertTrue(exception.getRetryAfterSeconds() >= 1);
+        assertEquals("first", first.get(1, TimeUnit.SECONDS));
+        assertEquals("second", second.get(1, TimeUnit.SECONDS));
+        assertEquals(1L, executor.getStats().get("rejected"));
+        assertEquals(2L, executor.getStats().get("verifications"));
+    }
+
+    /**
+     * The exceptions of the verification reach the caller unchanged, so failed logins are still answered with 401.
+     */
+    @Test
+    void submit_whenVerificationFails_shouldCompleteWithItsException() {
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> executor.<String>submit(() -> {
+            throw new BadCredentialsException("Bad credentials");
+        }).get(1, TimeUnit.SECONDS));
+
+        assertInstanceOf(BadCredentialsException.class, exception.getCause());
+    }
+
+    /**
+     * The verification is recorded before its future completes, so work chained on the future is not counted in it.
+     */
+    @Test
+    void submit_shouldRecordVerificationBeforeCompleting() throws Exception {
+        CompletableFuture<Object> recorded = executor.submit(() -> "token")
+                .thenApply(value -> executor.getStats().get("verifications"));
+
+        assertEquals(1L, recorded.get(1, TimeUnit.SECONDS));
+    }
+
+    /**
+     * The caller is not blocked: a verification running past the timeout completes its future with a retry delay.
+     */
+    @Test
+    void submit_whenVerificationTimesOut_shouldCompleteWithTooManyRequests() throws Exception {
+        LoginExecutor impatient = new LoginExecutor(1, 1, 50);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            CompletableFuture<String> login = impatient.submit(() -> {
+                await(release);
+                return "late";
+            });
+            assertFalse(login.isDone());
+
+            ExecutionException exception = assertThrows(ExecutionException.class, () -> login.get(1, TimeUnit.SECONDS));
+
+            assertInstanceOf(TooManyRequestsException.class, exception.getCause());
+            assertEquals(1L, impatient.getStats().get("timedOut"));
+        } finally {
+            release.countDown();
+            impatient.shutdown();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
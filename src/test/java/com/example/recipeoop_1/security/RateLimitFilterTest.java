@@ -0,0 +1,91 @@
+package com.example.recipeoop_1.security;
+
+import com.example.recipeoop_1.exception.TooManyRequestsException;
+import com.example.recipeoop_1.security.RateLimitFilter.RouteGroup;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link RateLimitFilter}.
+ */
+@ExtendWith(MockitoExtension.class)
+class RateLimitFilterTest {
+
+    @Mock
+    private HandlerExceptionResolver exceptionResolver;
+
+    @Mock
+    private FilterChain chain;
+
+    private RateLimitFilter rateLimitFilter;
+
+    @BeforeEach
+    void setUp() {
+        rateLimitFilter = new RateLimitFilter(true, exceptionResolver, 2, 1, 3, 10, 1, 1);
+    }
+
+    /**
+     * A bucket admits its capacity at once, then one request per refill interval.
+     */
+    @Test
+    void tryAcquire_shouldAllowBurstThenRefillAtConfiguredRate() {
+        long now = 0;
+        assertEquals(0, rateLimitFilter.tryAcquire(RouteGroup.AUTH, "ip:1", now));
+        assertEquals(0, rateLimitFilter.tryAcquire(RouteGroup.AUTH, "ip:1", now));
+        assertEquals(TimeUnit.SECONDS.toNanos(1), rateLimitFilter.tryAcquire(RouteGroup.AUTH, "ip:1", now));
+        assertEquals(0, rateLimitFilter.tryAcquire(RouteGroup.AUTH, "ip:2", now), "Clients have separate buckets");
+
+        assertEquals(0, rateLimitFilter.tryAcquire(RouteGroup.AUTH, "ip:1", now + TimeUnit.SECONDS.toNanos(1)));
+    }
+
+    /**
+     * Only searches, writes and authentication requests are limited.
+     */
+    @Test
+    void routeGroup_shouldClassifyRequests() {
+        assertEquals(RouteGroup.AUTH, RateLimitFilter.routeGroup(new MockHttpServletRequest("POST", "/api/auth/login")));
+        assertEquals(RouteGroup.SEARCH, RateLimitFilter.routeGroup(new MockHttpServletRequest("GET", "/api/recipes/search/advanced")));
+        assertEquals(RouteGroup.WRITE, RateLimitFilter.routeGroup(new MockHttpServletRequest("DELETE", "/api/recipes/r1")));
+        assertEquals(RouteGroup.SEARCH, RateLimitFilter.routeGroup(new MockHttpServletRequest("GET", "/api/recipes")));
+        assertEquals(RouteGroup.SEARCH, RateLimitFilter.routeGroup(new MockHttpServletRequest("GET", "/api/recipes/suggest")));
+        assertEquals(RouteGroup.SEARCH, RateLimitFilter.routeGroup(new MockHttpServletRequest("GET", "/api/recipes/my-recipes")));
+        assertEquals(RouteGroup.SEARCH, RateLimitFilter.routeGroup(new MockHttpServletRequest("GET", "/api/recipes/admin/all")));
+        assertNull(RateLimitFilter.routeGroup(new MockHttpServletRequest("GET", "/api/recipes/r1")));
+        assertNull(RateLimitFilter.routeGroup(new MockHttpServletRequest("GET", "/api/recipes/categories")));
+        assertNull(RateLimitFilter.routeGroup(new MockHttpServletRequest("GET", "/health")));
+    }
+
+    /**
+     * A request over the limit is handed to the exception handlers instead of the rest of the chain.
+     */
+    @Test
+    void doFilter_whenBucketIsEmpty_shouldRejectWithRetryAfter() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("PUT", "/api/recipes/r1");
+        rateLimitFilter.doFilter(request, new MockHttpServletResponse(), chain);
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        rateLimitFilter.doFilter(new MockHttpServletRequest("PUT", "/api/recipes/r1"), rejected, chain);
+
+        verify(chain, times(1)).doFilter(any(), any());
+        verify(exceptionResolver).resolveException(any(), eq(rejected), isNull(),
+                argThat(e -> e instanceof TooManyRequestsException
+                        && ((TooManyRequestsException) e).getRetryAfterSeconds() == 1));
+        @SuppressWarnings("unchecked")
+        Map<String, Object> write = (Map<String, Object>) rateLimitFilter.getStats().get("write");
+        assertEquals(1L, write.get("rejected"));
+    }
+}
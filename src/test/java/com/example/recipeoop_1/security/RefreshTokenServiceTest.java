@@ -0,0 +1,65 @@
+package com.example.recipeoop_1.security;
+
+import com.example.recipeoop_1.model.RefreshToken;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.Date;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link RefreshTokenService}, with the token collection mocked.
+ */
+@ExtendWith(MockitoExtension.class)
+class RefreshTokenServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private RefreshTokenService refreshTokenService;
+
+    @BeforeEach
+    void setUp() {
+        refreshTokenService = new RefreshTokenService(mongoTemplate, "test-secret", 3600);
+    }
+
+    /**
+     * Only a hash of the token is stored, and redeeming the token removes exactly that document.
+     */
+    @Test
+    void issueAndRedeem_shouldStoreHashAndRemoveItOnUse() {
+        String token = refreshTokenService.issue("alice");
+
+        ArgumentCaptor<RefreshToken> stored = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(mongoTemplate).insert(stored.capture());
+        assertNotEquals(token, stored.getValue().getTokenHash());
+        assertEquals("alice", stored.getValue().getUsername());
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        when(mongoTemplate.findAndRemove(query.capture(), eq(RefreshToken.class))).thenReturn(stored.getValue());
+        assertEquals(Optional.of("alice"), refreshTokenService.redeem(token));
+        assertEquals(stored.getValue().getTokenHash(), query.getValue().getQueryObject().get("_id"));
+    }
+
+    /**
+     * An expired token is rejected even if the TTL index has not removed it yet.
+     */
+    @Test
+    void redeem_whenExpired_shouldReturnEmpty() {
+        when(mongoTemplate.findAndRemove(any(Query.class), eq(RefreshToken.class)))
+                .thenReturn(new RefreshToken("hash", "alice", new Date(System.currentTimeMillis() - 1000)));
+
+        assertEquals(Optional.empty(), refreshTokenService.redeem("some-token"));
+    }
+}
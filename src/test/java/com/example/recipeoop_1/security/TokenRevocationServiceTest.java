@@ -0,0 +1,77 @@
+package com.example.recipeoop_1.security;
+
+import com.example.recipeoop_1.model.RevokedToken;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link TokenRevocationService}, with the revoked token collection mocked.
+ */
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private JwtTokenUtil jwtTokenUtil;
+
+    private TokenRevocationService tokenRevocationService;
+
+    @BeforeEach
+    void setUp() {
+        tokenRevocationService = new TokenRevocationService(mongoTemplate, jwtTokenUtil, 1000, 0.001, Duration.ofHours(1));
+    }
+
+    /**
+     * Once the filter is loaded, tokens it does not contain are accepted without a database lookup, and
+     * tokens it contains are confirmed against the collection.
+     */
+    @Test
+    void isRevoked_afterLoad_shouldOnlyLookUpFilterHits() {
+        Document revoked = new Document("_id", "revoked-jti").append("revokedAt", new Date());
+        when(mongoTemplate.stream(any(Query.class), eq(Document.class), eq(RevokedToken.COLLECTION_NAME)))
+                .thenReturn(Stream.of(revoked));
+        tokenRevocationService.refresh();
+
+        assertFalse(tokenRevocationService.isRevoked("other-jti"));
+        verify(mongoTemplate, never()).exists(any(Query.class), eq(RevokedToken.class));
+
+        when(mongoTemplate.exists(any(Query.class), eq(RevokedToken.class))).thenReturn(true);
+        assertTrue(tokenRevocationService.isRevoked("revoked-jti"));
+        assertTrue(tokenRevocationService.isRevoked("revoked-jti"));
+        verify(mongoTemplate, times(1)).exists(any(Query.class), eq(RevokedToken.class));
+        assertEquals(1L, tokenRevocationService.getStats().get("filterNegatives"));
+    }
+
+    /**
+     * A token revoked on this node is rejected at once, before the next refresh.
+     */
+    @Test
+    void revoke_shouldStoreTheTokenAndRejectItImmediately() {
+        when(jwtTokenUtil.getIdFromToken("token")).thenReturn("jti");
+        when(jwtTokenUtil.getUsernameFromToken("token")).thenReturn("alice");
+        when(jwtTokenUtil.getExpirationDateFromToken("token")).thenReturn(new Date(System.currentTimeMillis() + 60_000));
+
+        assertTrue(tokenRevocationService.revoke("token"));
+
+        verify(mongoTemplate).save(any(RevokedToken.class));
+        assertTrue(tokenRevocationService.isRevoked("jti"));
+        assertFalse(tokenRevocationService.isRevoked(null));
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.recipeoop_1.service;
+
+import com.example.recipeoop_1.exception.CategoryQueryException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link CategoryFanOutExecutor}.
+ * These tests use plain in-memory queries to check ordering, failure and timeout handling.
+ */
+class CategoryFanOutExecutorTest {
+
+    private final CategoryFanOutExecutor executor = new CategoryFanOutExecutor(4, 16, 2000);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    /**
+     * The merged result follows the order of the collection names, not the order of completion.
+     */
+    @Test
+    void fanOut_shouldMergeResultsInCollectionOrder() {
+        List<String> collections = Arrays.asList("recipe_a", "recipe_b", "recipe_c");
+
+        List<String> results = executor.fanOut(collections, name -> {
+            if (name.equals("recipe_a")) {
+                sleep(100); // Finishes last
+            }
+            return Arrays.asList(name + "#1", name + "#2");
+        });
+
+        assertEquals(Arrays.asList("recipe_a#1", "recipe_a#2", "recipe_b#1", "recipe_b#2", "recipe_c#1", "recipe_c#2"), results);
+    }
+
+    /**
+     * A failing query fails the whole call and cancels the queries that are still running.
+     */
+    @Test
+    void fanOut_whenOneQueryFails_shouldThrowAndCancelOthers() throws InterruptedException {
+        CountDownLatch slowQueryStarted = new CountDownLatch(1);
+        AtomicBoolean slowQueryInterrupted = new AtomicBoolean(false);
+        CountDownLatch slowQueryFinished = new CountDownLatch(1);
+
+        CategoryQueryException exception = assertThrows(CategoryQueryException.class, () ->
+                executor.fanOut(Arrays.asList("recipe_slow", "recipe_broken"), name -> {
+                    if (name.equals("recipe_slow")) {
+                        slowQueryStarted.countDown();
+                        try {
+                            Thread.sleep(10_000);
+                        } catch (InterruptedException e) {
+                            slowQueryInterrupted.set(true);
+                        } finally {
+                            slowQueryFinished.countDown();
+                        }
+                        return Collections.emptyList();
+                    }
+                    awaitQuietly(slowQueryStarted);
+                    throw new IllegalStateException("connection reset");
+                }));
+
+        assertTrue(exception.getMessage().contains("connection reset"));
+        assertTrue(slowQueryFinished.await(2, TimeUnit.SECONDS));
+        assertTrue(slowQueryInterrupted.get());
+    }
+
+    /**
+     * A call that exceeds its time budget fails instead of returning partial results.
+     */
+    @Test
+    void fanOut_whenTimeBudgetExceeded_shouldThrow() {
+        CategoryFanOutExecutor fastTimeout = new CategoryFanOutExecutor(2, 4, 50);
+        try {
+            assertThrows(CategoryQueryException.class, () ->
+                    fastTimeout.fanOut(Arrays.asList("recipe_a", "recipe_b"), name -> {
+                        sleep(1_000);
+                        return Collections.singletonList(name);
+                    }));
+        } finally {
+            fastTimeout.shutdown();
+        }
+    }
+
+    /**
+     * A saturated pool rejects the call within its time budget instead of running queries on the calling thread.
+     */
+    @Test
+    void fanOut_whenQueueIsFull_shouldFailWithinTimeBudget() {
+        CategoryFanOutExecutor saturated = new CategoryFanOutExecutor(1, 1, 200);
+        try {
+            long start = System.nanoTime();
+            assertThrows(CategoryQueryException.class, () ->
+                    saturated.fanOut(Arrays.asList("recipe_a", "recipe_b", "recipe_c", "recipe_d"), name -> {
+                        sleep(2_000);
+                        return Collections.singletonList(name);
+                    }));
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            assertTrue(elapsedMillis < 1_000, "Took " + elapsedMillis + " ms");
+        } finally {
+            saturated.shutdown();
+        }
+    }
+
+    /**
+     * An empty collection list yields an empty result without touching the pool.
+     */
+    @Test
+    void fanOut_withNoCollections_shouldReturnEmptyList() {
+        List<String> results = executor.fanOut(Collections.emptyList(), name -> Collections.singletonList(name));
+        assertTrue(results.isEmpty());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(2, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
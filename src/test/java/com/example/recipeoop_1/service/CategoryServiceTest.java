@@ -0,0 +1,175 @@
+package com.example.recipeoop_1.service;
+
+import com.mongodb.client.ListCollectionsIterable;
+import com.mongodb.client.MongoDatabase;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the category registry kept by {@link CategoryService}.
+ * MongoTemplate is mocked so the number of database round trips can be verified.
+ */
+@ExtendWith(MockitoExtension.class)
+class CategoryServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private RecipeIndexManager indexManager;
+
+    @Mock
+    private MongoDatabase database;
+
+    @Mock
+    private ListCollectionsIterable<Document> listing;
+
+    @InjectMocks
+    private CategoryService categoryService;
+
+    /**
+     * The category collections MongoDB lists, with their UUIDs.
+     */
+    private final Map<String, UUID> collections = new LinkedHashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        collections.put("recipe_main_course", UUID.randomUUID());
+        collections.put("recipe_dessert", UUID.randomUUID());
+        when(mongoTemplate.getDb()).thenReturn(database);
+        when(database.listCollections()).thenReturn(listing);
+        when(listing.filter(any())).thenReturn(listing);
+        when(listing.into(any())).thenAnswer(invocation -> {
+            List<Document> target = invocation.getArgument(0);
+            collections.forEach((name, uuid) -> target.add(new Document("name", name).append("info", new Document("uuid", uuid))));
+            return target;
+        });
+    }
+
+    /**
+     * The collection list is read once and then served from the registry, sorted and without the prefix.
+     */
+    @Test
+    void getAllCategories_shouldLoadOnceAndServeFromRegistry() {
+        List<String> first = categoryService.getAllCategories();
+        List<String> second = categoryService.getAllCategories();
+
+        assertEquals(Arrays.asList("dessert", "main_course"), first);
+        assertEquals(first, second);
+        verify(database, times(1)).listCollections();
+    }
+
+    /**
+     * A known category is accepted without asking MongoDB whether its collection exists.
+     */
+    @Test
+    void ensureCategoryExists_whenKnown_shouldNotQueryDatabase() {
+        categoryService.ensureCategoryExists("Main Course");
+
+        verify(mongoTemplate, never()).collectionExists(anyString());
+        verify(mongoTemplate, never()).createCollection(anyString());
+    }
+
+    /**
+     * A new category is created once and becomes visible in the registry immediately.
+     */
+    @Test
+    void ensureCategoryExists_whenNew_shouldCreateAndRegister() {
+        when(mongoTemplate.collectionExists("recipe_appetizer")).thenReturn(false);
+
+        categoryService.ensureCategoryExists("Appetizer");
+        categoryService.ensureCategoryExists("Appetizer");
+
+        verify(mongoTemplate, times(1)).createCollection("recipe_appetizer");
+        verify(indexManager, times(1)).applyIndexes("recipe_appetizer");
+        assertEquals(Arrays.asList("appetizer", "dessert", "main_course"), categoryService.getAllCategories());
+        assertEquals(2L, categoryService.getRegistryStats().get("version"));
+    }
+
+    /**
+     * A dropped collection disappears from the registry without a reload.
+     */
+    @Test
+    void onCategoryCollectionDropped_shouldRemoveCategory() {
+        categoryService.getAllCategories();
+
+        categoryService.onCategoryCollectionDropped("recipe_dessert");
+
+        assertEquals(List.of("main_course"), categoryService.getAllCategories());
+        verify(database, times(1)).listCollections();
+    }
+
+    /**
+     * An unknown collection falls back to MongoDB, and a collection created by another node is registered.
+     */
+    @Test
+    void categoryCollectionExists_whenUnknown_shouldFallBackToDatabaseAndRegister() {
+        when(mongoTemplate.collectionExists("recipe_soup")).thenReturn(true);
+
+        assertTrue(categoryService.categoryCollectionExists("recipe_soup"));
+        assertTrue(categoryService.categoryCollectionExists("recipe_soup"));
+
+        verify(mongoTemplate, times(1)).collectionExists("recipe_soup");
+        Map<String, Object> stats = categoryService.getRegistryStats();
+        assertEquals(1L, stats.get("hits"));
+        assertEquals(2L, stats.get("misses")); // Initial load and the first lookup
+    }
+
+    /**
+     * A background refresh picks up collections created or dropped by other nodes.
+     */
+    @Test
+    void refreshCategories_shouldPickUpRemoteChanges() {
+        categoryService.getAllCategories();
+        collections.clear();
+        collections.put("recipe_soup", UUID.randomUUID());
+
+        categoryService.refreshCategories();
+
+        assertEquals(List.of("soup"), categoryService.getAllCategories());
+        assertEquals(2L, categoryService.getRegistryStats().get("refreshes"));
+    }
+
+    /**
+     * A collection dropped by another node and re-created by an insert here, while the registry still knew it,
+     * has no indexes. The refresh notices its new UUID and applies them, and leaves unchanged collections alone.
+     */
+    @Test
+    void refreshCategories_whenCollectionRecreated_shouldApplyIndexes() {
+        categoryService.ensureCategoryExists("Dessert");
+        collections.put("recipe_dessert", UUID.randomUUID());
+
+        categoryService.refreshCategories();
+
+        verify(indexManager).applyIndexes("recipe_dessert");
+        verify(indexManager, never()).applyIndexes("recipe_main_course");
+        verify(mongoTemplate, never()).createCollection(anyString());
+    }
+
+    /**
+     * Only the names built by formatCollectionName are category collections, not the other recipe collections.
+     */
+    @Test
+    void isCategoryCollection_shouldOnlyMatchFormattedNames() {
+        assertTrue(CategoryService.isCategoryCollection(CategoryService.formatCollectionName("Main Course")));
+        assertFalse(CategoryService.isCategoryCollection(RecipeStorage.SINGLE_COLLECTION_NAME));
+        assertFalse(CategoryService.isCategoryCollection(EmptyCategorySweeper.TOMBSTONE_PREFIX + "1_recipe_dessert"));
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.recipeoop_1.service;
+
+import com.mongodb.MongoNamespace;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link EmptyCategorySweeper}.
+ */
+@ExtendWith(MockitoExtension.class)
+class EmptyCategorySweeperTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private CategoryService categoryService;
+
+    @Mock
+    private RecipeIndexManager indexManager;
+
+    @Mock
+    private MongoDatabase database;
+
+    @Mock
+    private MongoCollection<Document> collection;
+
+    @Mock
+    private MongoCollection<Document> tombstone;
+
+    /**
+     * Stubs the rename of "recipe_dessert" to its tombstone, and reports whether the tombstone holds recipes.
+     *
+     * @param tombstoneHasRecipes Whether a recipe was inserted between the emptiness check and the rename.
+     */
+    private void stubRename(boolean tombstoneHasRecipes) {
+        when(categoryService.categoryCollectionExists("recipe_dessert")).thenReturn(true);
+        when(mongoTemplate.exists(any(Query.class), eq("recipe_dessert"))).thenReturn(false);
+        when(mongoTemplate.getDb()).thenReturn(database);
+        when(database.getName()).thenReturn("recipes");
+        when(mongoTemplate.getCollection("recipe_dessert")).thenReturn(collection);
+        when(mongoTemplate.exists(any(Query.class), startsWith(EmptyCategorySweeper.TOMBSTONE_PREFIX)))
+                .thenReturn(tombstoneHasRecipes);
+    }
+
+    /**
+     * A candidate whose grace period has passed is dropped if it is still empty, and only once.
+     */
+    @Test
+    void sweep_whenCandidateIsEmpty_shouldDropCollection() {
+        EmptyCategorySweeper sweeper = new EmptyCategorySweeper(mongoTemplate, categoryService, indexManager, Duration.ZERO);
+        stubRename(false);
+
+        sweeper.markCandidate("recipe_dessert");
+        sweeper.sweep();
+        sweeper.sweep();
+
+        verify(collection).renameCollection(argThat(ns -> ns.getCollectionName().endsWith("_recipe_dessert")
+                && ns.getCollectionName().startsWith(EmptyCategorySweeper.TOMBSTONE_PREFIX)));
+        verify(mongoTemplate, times(1)).dropCollection(startsWith(EmptyCategorySweeper.TOMBSTONE_PREFIX));
+        verify(mongoTemplate, never()).dropCollection("recipe_dessert");
+        verify(categoryService).onCategoryCollectionDropped("recipe_dessert");
+        assertEquals(1L, sweeper.getStats().get("dropped"));
+        assertEquals(0, sweeper.getStats().get("pending"));
+    }
+
+    /**
+     * A recipe inserted after the emptiness check but before the rename ends up in the tombstone, which is renamed
+     * back instead of being dropped.
+     */
+    @Test
+    void sweep_whenInsertLandsBeforeRename_shouldRestoreCollection() {
+        EmptyCategorySweeper sweeper = new EmptyCategorySweeper(mongoTemplate, categoryService, indexManager, Duration.ZERO);
+        stubRename(true);
+        when(mongoTemplate.getCollection(startsWith(EmptyCategorySweeper.TOMBSTONE_PREFIX))).thenReturn(tombstone);
+        when(mongoTemplate.collectionExists("recipe_dessert")).thenReturn(false);
+
+        sweeper.markCandidate("recipe_dessert");
+        sweeper.sweep();
+
+        verify(tombstone).renameCollection(new MongoNamespace("recipes", "recipe_dessert"));
+        verify(mongoTemplate, never()).dropCollection(anyString());
+        verify(categoryService, never()).onCategoryCollectionDropped(anyString());
+        assertEquals(1L, sweeper.getStats().get("restored"));
+    }
+
+    /**
+     * A recipe inserted after the rename creates the collection again; only the empty tombstone is dropped, the
+     * indexes are applied to the new collection and the category stays registered.
+     */
+    @Test
+    void sweep_whenInsertLandsAfterRename_shouldKeepRecreatedCollection() {
+        EmptyCategorySweeper sweeper = new EmptyCategorySweeper(mongoTemplate, categoryService, indexManager, Duration.ZERO);
+        stubRename(false);
+        when(mongoTemplate.collectionExists("recipe_dessert")).thenReturn(true);
+
+        sweeper.markCandidate("recipe_dessert");
+        sweeper.sweep();
+
+        verify(mongoTemplate).dropCollection(startsWith(EmptyCategorySweeper.TOMBSTONE_PREFIX));
+        verify(mongoTemplate, never()).dropCollection("recipe_dessert");
+        verify(indexManager).applyIndexes("recipe_dessert");
+        verify(categoryService, never()).onCategoryCollectionDropped(anyString());
+        assertEquals(1L, sweeper.getStats().get("recreated"));
+    }
+
+    /**
+     * A collection that received recipes again is kept.
+     */
+    @Test
+    void sweep_whenCandidateIsNotEmpty_shouldKeepCollection() {
+        EmptyCategorySweeper sweeper = new EmptyCategorySweeper(mongoTemplate, categoryService, indexManager, Duration.ZERO);
+        when(categoryService.categoryCollectionExists("recipe_dessert")).thenReturn(true);
+        when(mongoTemplate.exists(any(Query.class), eq("recipe_dessert"))).thenReturn(true);
+
+        sweeper.markCandidate("recipe_dessert");
+        sweeper.sweep();
+
+        verify(mongoTemplate, never()).dropCollection(anyString());
+        assertEquals(1L, sweeper.getStats().get("keptNonEmpty"));
+    }
+
+    /**
+     * Candidates still within their grace period, cancelled candidates and "uncategorized" are not checked.
+     */
+    @Test
+    void sweep_whenWithinGraceOrCancelled_shouldNotTouchDatabase() {
+        EmptyCategorySweeper sweeper = new EmptyCategorySweeper(mongoTemplate, categoryService, indexManager, Duration.ofMinutes(5));
+        sweeper.markCandidate("recipe_dessert");
+        sweeper.sweep();
+        assertEquals(1, sweeper.getStats().get("pending"));
+
+        EmptyCategorySweeper noGrace = new EmptyCategorySweeper(mongoTemplate, categoryService, indexManager, Duration.ZERO);
+        noGrace.markCandidate("recipe_dessert");
+        noGrace.cancel("recipe_dessert");
+        noGrace.markCandidate("recipe_uncategorized");
+        noGrace.sweep();
+
+        verifyNoInteractions(mongoTemplate, categoryService, indexManager);
+        assertEquals(1L, noGrace.getStats().get("cancelled"));
+    }
+}
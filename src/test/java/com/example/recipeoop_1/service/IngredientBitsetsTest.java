@@ -0,0 +1,58 @@
+package com.example.recipeoop_1.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link IngredientBitsets}.
+ */
+class IngredientBitsetsTest {
+
+    /**
+     * Documents are scored by popcount against the pantry, and filtered by missing count and at least one match.
+     */
+    @Test
+    void match_shouldCountMatchedAndMissingIngredients() {
+        IngredientBitsets bitsets = new IngredientBitsets();
+        bitsets.put(0, List.of("egg", "flour", "milk"));
+        bitsets.put(1, List.of("egg", "pancetta", "pecorino", "spaghetti"));
+        bitsets.put(2, List.of("rice", "saffron"));
+
+        List<int[]> matches = bitsets.match(List.of("egg", "flour", "butter"), 2);
+
+        assertEquals(1, matches.size());
+        assertArrayEquals(new int[]{0, 2, 1}, matches.get(0));
+        assertArrayEquals(new int[]{1, 1, 3}, bitsets.match(List.of("egg"), 3).get(1));
+    }
+
+    /**
+     * Scores are unchanged by the renumbering, across several words, and after replacing or removing documents.
+     */
+    @Test
+    void compact_shouldKeepScoresAcrossWords() {
+        IngredientBitsets bitsets = new IngredientBitsets();
+        List<String> many = new ArrayList<>();
+        for (int i = 0; i < 150; i++) {
+            many.add("spice " + i);
+        }
+        bitsets.put(0, many);
+        bitsets.put(1, List.of("spice 149", "salt"));
+        bitsets.put(2, List.of("salt", "spice 0"));
+        bitsets.put(3, List.of("water"));
+        bitsets.put(3, List.of("salt"));
+        bitsets.remove(2);
+
+        bitsets.compact();
+
+        assertEquals(152, bitsets.ingredientCount());
+        List<int[]> matches = bitsets.match(List.of("spice 0", "spice 149", "salt"), 148);
+        assertEquals(3, matches.size());
+        assertArrayEquals(new int[]{0, 2, 148}, matches.get(0));
+        assertArrayEquals(new int[]{1, 2, 0}, matches.get(1));
+        assertArrayEquals(new int[]{3, 1, 0}, matches.get(2));
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.recipeoop_1.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link IngredientKeys}.
+ */
+class IngredientKeysTest {
+
+    /**
+     * Quantities, units, notes and simple plurals are removed from the ingredient's name.
+     */
+    @Test
+    void keyOf_shouldKeepOnlyTheNormalizedName() {
+        assertEquals("flour", IngredientKeys.keyOf("2 cups flour"));
+        assertEquals("sugar", IngredientKeys.keyOf("100g Sugar, sifted"));
+        assertEquals("tomato", IngredientKeys.keyOf("3 Tomatoes (diced)"));
+        assertEquals("brown sugar", IngredientKeys.keyOf("1/2 cup of brown sugar"));
+        assertEquals("berry", IngredientKeys.keyOf("1.5 lbs berries"));
+        assertEquals("peach", IngredientKeys.keyOf("2-3 peaches"));
+        assertEquals("egg", IngredientKeys.keyOf("Eggs"));
+        assertEquals("couscous", IngredientKeys.keyOf("couscous"));
+        assertNull(IngredientKeys.keyOf("2 tbsp"));
+        assertNull(IngredientKeys.keyOf(null));
+    }
+
+    /**
+     * The keys of a recipe are distinct and keep the order of its ingredients.
+     */
+    @Test
+    void of_shouldReturnDistinctKeysInOrder() {
+        assertEquals(List.of("spaghetti", "egg", "pecorino romano"),
+                IngredientKeys.of(Arrays.asList("Spaghetti", "2 Eggs", "1 egg", "50 g Pecorino Romano", "", null)));
+        assertEquals(List.of(), IngredientKeys.of(null));
+    }
+}
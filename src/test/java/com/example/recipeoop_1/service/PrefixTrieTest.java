@@ -0,0 +1,62 @@
+package com.example.recipeoop_1.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link PrefixTrie}.
+ */
+class PrefixTrieTest {
+
+    /**
+     * Every prefix returns its heaviest terms, case-insensitively, and at most {@code k} of them.
+     */
+    @Test
+    void top_shouldReturnHeaviestTermsOfThePrefix() {
+        PrefixTrie trie = new PrefixTrie(2);
+        trie.add("ingredient", "chocolate", 5);
+        trie.add("ingredient", "chicken", 3);
+        trie.add("title", "Chocolate Cake", 1);
+        trie.add("category", "Chocolate cake", 2);
+        trie.buildTops();
+
+        assertEquals(List.of("chocolate", "chicken"), texts(trie.top("C", 10)));
+        assertEquals(List.of("chocolate", "Chocolate cake"), texts(trie.top("choc", 10)));
+        assertEquals(List.of("Chocolate cake", "Chocolate Cake"), texts(trie.top("chocolate  CAKE", 10)));
+        assertEquals(List.of("chocolate"), texts(trie.top("c", 1)));
+        assertEquals(List.of(), texts(trie.top("x", 10)));
+    }
+
+    /**
+     * After the lists are built, weight changes reorder them, and terms dropping to zero are removed with their nodes.
+     */
+    @Test
+    void add_shouldMaintainTopsAndPruneRemovedTerms() {
+        PrefixTrie trie = new PrefixTrie(3);
+        trie.add("ingredient", "egg", 1);
+        trie.add("ingredient", "eggplant", 2);
+        trie.buildTops();
+        int nodes = trie.nodeCount();
+
+        trie.add("ingredient", "egg", 4);
+        assertEquals(List.of("egg", "eggplant"), texts(trie.top("eg", 3)));
+        assertEquals(5, trie.top("egg", 1).get(0).weight());
+
+        trie.add("title", "Eggnog", 1);
+        trie.add("ingredient", "eggplant", -2);
+        assertEquals(List.of("egg", "Eggnog"), texts(trie.top("e", 3)));
+        assertEquals(List.of(), texts(trie.top("eggp", 3)));
+        assertEquals(2, trie.termCount());
+
+        trie.add("title", "Eggnog", -1);
+        assertEquals(nodes - "plant".length(), trie.nodeCount());
+    }
+
+    private static List<String> texts(List<PrefixTrie.Term> terms) {
+        return terms.stream().map(PrefixTrie.Term::text).collect(Collectors.toList());
+    }
+}
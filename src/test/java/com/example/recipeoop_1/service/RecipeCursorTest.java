@@ -0,0 +1,57 @@
+package com.example.recipeoop_1.service;
+
+import com.example.recipeoop_1.exception.InvalidCursorException;
+import com.example.recipeoop_1.model.Recipe;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Query;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link RecipeCursor}.
+ * The keyset criterion is mapped with Spring Data's own {@link QueryMapper}, as {@code MongoTemplate} does before
+ * sending a query, rather than with mocks.
+ */
+class RecipeCursorTest {
+
+    /**
+     * A token decodes to the cursor it was encoded from.
+     */
+    @Test
+    void decode_shouldReadEncodedCursor() {
+        RecipeCursor cursor = RecipeCursor.decode(new RecipeCursor("recipe_dessert", "r1", 3).encode());
+
+        assertEquals("recipe_dessert", cursor.getCollectionName());
+        assertEquals("r1", cursor.getLastId());
+        assertEquals(3, cursor.getPageNo());
+        assertNull(RecipeCursor.decode(" "));
+        assertThrows(InvalidCursorException.class, () -> RecipeCursor.decode("not-a-cursor"));
+    }
+
+    /**
+     * The ID of an ObjectId-keyed recipe is compared as an ObjectId, like the stored {@code _id} values, once the
+     * query is mapped for {@link Recipe}; other IDs stay strings.
+     */
+    @Test
+    void afterLastId_whenMappedForRecipes_shouldCompareObjectIds() {
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.afterPropertiesSet();
+        QueryMapper mapper = new QueryMapper(converter);
+        String lastId = new ObjectId().toHexString();
+
+        Document mapped = mapper.getMappedObject(new Query(new RecipeCursor("recipe_dessert", lastId, 1).afterLastId())
+                .getQueryObject(), mappingContext.getPersistentEntity(Recipe.class));
+        Document custom = mapper.getMappedObject(new Query(new RecipeCursor("recipe_dessert", "legacy-7", 1).afterLastId())
+                .getQueryObject(), mappingContext.getPersistentEntity(Recipe.class));
+
+        assertEquals(new ObjectId(lastId), mapped.get("_id", Document.class).get("$gt"));
+        assertEquals("legacy-7", custom.get("_id", Document.class).get("$gt"));
+    }
+}
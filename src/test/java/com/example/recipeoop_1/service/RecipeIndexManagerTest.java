@@ -0,0 +1,113 @@
+package com.example.recipeoop_1.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexField;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link RecipeIndexManager}.
+ * The indexes are resolved from the real annotations on the recipe model; only the index operations are mocked.
+ */
+@ExtendWith(MockitoExtension.class)
+class RecipeIndexManagerTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private IndexOperations indexOps;
+
+    private RecipeIndexManager indexManager;
+
+    @BeforeEach
+    void setUp() {
+        when(mongoTemplate.getConverter())
+                .thenReturn(new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, new MongoMappingContext()));
+        indexManager = new RecipeIndexManager(mongoTemplate, false);
+    }
+
+    private static IndexInfo index(String field) {
+        return new IndexInfo(List.of(IndexField.create(field, Sort.Direction.ASC)), field + "_1", false, false, null);
+    }
+
+    /**
+     * The text index as MongoDB lists it: one text field per weight, in an order of its own.
+     */
+    private static IndexInfo textIndex() {
+        return new IndexInfo(List.of(IndexField.text("instructions", 1f), IndexField.text("title", 10f),
+                IndexField.text("ingredients", 5f)), "Recipe_TextIndex", false, false, null);
+    }
+
+    /**
+     * Only the missing indexes are created, and a category collection does not get the category key index.
+     * An existing text index is recognized whatever the order of its fields.
+     */
+    @Test
+    void applyIndexes_onCategoryCollection_shouldCreateOnlyMissingIndexes() {
+        when(mongoTemplate.indexOps("recipe_dessert")).thenReturn(indexOps);
+        when(indexOps.getIndexInfo()).thenReturn(Arrays.asList(index("_id"), index("createdBy"), textIndex()));
+
+        int created = indexManager.applyIndexes("recipe_dessert");
+
+        ArgumentCaptor<IndexDefinition> captor = ArgumentCaptor.forClass(IndexDefinition.class);
+        verify(indexOps, times(3)).ensureIndex(captor.capture());
+        assertEquals(3, created);
+        assertEquals(new HashSet<>(Arrays.asList("ingredients", "ingredientKeys", "cookingTime")),
+                captor.getAllValues().stream()
+                        .flatMap(index -> index.getIndexKeys().keySet().stream())
+                        .collect(Collectors.toSet()));
+    }
+
+    /**
+     * The single collection also needs the compound category key index.
+     */
+    @Test
+    void requiredIndexes_forSingleCollection_shouldIncludeCategoryKeyIndex() {
+        assertEquals(6, indexManager.requiredIndexes(RecipeStorage.SINGLE_COLLECTION_NAME).size());
+        assertEquals(5, indexManager.requiredIndexes("recipe_dessert").size());
+    }
+
+    /**
+     * The report lists missing and undeclared indexes per collection, ignoring the _id index.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void report_shouldListMissingAndExtraIndexes() {
+        when(mongoTemplate.getCollectionNames()).thenReturn(new HashSet<>(Arrays.asList("recipe_dessert", "users")));
+        when(mongoTemplate.indexOps("recipe_dessert")).thenReturn(indexOps);
+        when(indexOps.getIndexInfo()).thenReturn(Arrays.asList(
+                index("_id"), index("createdBy"), index("ingredients"), index("title")));
+
+        Map<String, Object> report = indexManager.report();
+
+        assertEquals(false, report.get("consistent"));
+        assertEquals(1, report.get("collectionsChecked"));
+        Map<String, Object> differences =
+                (Map<String, Object>) ((Map<String, Object>) report.get("collections")).get("recipe_dessert");
+        assertEquals(List.of("ingredients: text, instructions: text, title: text", "cookingTime: 1", "ingredientKeys: 1"),
+                differences.get("missing"));
+        assertEquals(List.of("title: 1"), differences.get("extra"));
+        verify(indexOps, never()).ensureIndex(any());
+    }
+}
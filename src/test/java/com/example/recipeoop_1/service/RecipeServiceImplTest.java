@@ -1,22 +1,43 @@
 package com.example.recipeoop_1.service;
 
+import com.example.recipeoop_1.dto.PantryMatch;
+import com.example.recipeoop_1.dto.RecipeResponse;
 import com.example.recipeoop_1.model.Recipe;
+import com.example.recipeoop_1.exception.RecipeAccessDeniedException;
 import com.example.recipeoop_1.exception.RecipeNotFoundException;
 import org.bson.Document;
+import org.bson.types.ObjectId;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.MongoExpression;
 import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -39,6 +60,21 @@ class RecipeServiceImplTest {
     @Mock
     private CategoryService categoryService;
 
+    @Spy
+    private CategoryFanOutExecutor fanOutExecutor = new CategoryFanOutExecutor(4, 16, 5000);
+
+    @Mock
+    private RecipeLocator recipeLocator;
+
+    @Spy
+    private RecipeCache recipeCache = new RecipeCache(100, Duration.ofMinutes(10));
+
+    @Mock
+    private EmptyCategorySweeper emptyCategorySweeper;
+
+    @Mock
+    private RecipeSearchIndex searchIndex;
+
     @InjectMocks
     private RecipeServiceImpl recipeService;
 
@@ -92,6 +128,7 @@ class RecipeServiceImplTest {
         assertEquals("TestCategory", createdRecipe.getCategory());
         verify(categoryService).ensureCategoryExists(eq("TestCategory"));
         verify(mongoTemplate).insert(eq(newRecipe), eq(formattedCollectionName));
+        verify(recipeLocator).record(createdRecipe.getId(), formattedCollectionName);
     }
 
     /**
@@ -139,8 +176,6 @@ class RecipeServiceImplTest {
         String dessertCollection = "recipe_dessert";
 
         when(categoryService.getAllCategories()).thenReturn(categories);
-        when(mongoTemplate.collectionExists(mainCourseCollection)).thenReturn(true);
-        when(mongoTemplate.collectionExists(dessertCollection)).thenReturn(true);
         when(mongoTemplate.findAll(Recipe.class, mainCourseCollection)).thenReturn(Collections.singletonList(testRecipe1));
         when(mongoTemplate.findAll(Recipe.class, dessertCollection)).thenReturn(Collections.singletonList(testRecipe2));
 
@@ -209,6 +244,7 @@ class RecipeServiceImplTest {
         String mainCourseCollection = "recipe_main_course";
         String dessertCollection = "recipe_dessert";
 
+        when(recipeLocator.isFallbackScanEnabled()).thenReturn(true);
         when(categoryService.getAllCategories()).thenReturn(categories);
         // Using forgiving any(Query.class)
         when(mongoTemplate.findOne(any(Query.class), eq(Recipe.class), eq(mainCourseCollection))).thenReturn(null);
@@ -224,6 +260,7 @@ class RecipeServiceImplTest {
         verify(categoryService).getAllCategories();
         verify(mongoTemplate).findOne(any(Query.class), eq(Recipe.class), eq(mainCourseCollection));
         verify(mongoTemplate).findOne(any(Query.class), eq(Recipe.class), eq(dessertCollection));
+        verify(recipeLocator).record(recipeId, dessertCollection); // Found by the scan, so the locator learns it
     }
 
     /**
@@ -237,6 +274,7 @@ class RecipeServiceImplTest {
         String mainCourseCollection = "recipe_main_course";
         String dessertCollection = "recipe_dessert";
 
+        when(recipeLocator.isFallbackScanEnabled()).thenReturn(true);
         when(categoryService.getAllCategories()).thenReturn(categories);
         when(mongoTemplate.findOne(any(Query.class), eq(Recipe.class), eq(mainCourseCollection))).thenReturn(null);
         when(mongoTemplate.findOne(any(Query.class), eq(Recipe.class), eq(dessertCollection))).thenReturn(null);
@@ -247,6 +285,103 @@ class RecipeServiceImplTest {
         verify(mongoTemplate, times(2)).findOne(any(Query.class), eq(Recipe.class), anyString());
     }
 
+    /**
+     * Test retrieving a recipe by ID when the locator knows its collection: only that collection is queried.
+     */
+    @Test
+    void getRecipeById_locatorHit_shouldQueryOnlyLocatedCollection() {
+        // Arrange
+        String recipeId = "recipe2_id";
+        String dessertCollection = "recipe_dessert";
+        when(recipeLocator.locate(recipeId)).thenReturn(Optional.of(dessertCollection));
+        when(mongoTemplate.findOne(any(Query.class), eq(Recipe.class), eq(dessertCollection))).thenReturn(testRecipe2);
+
+        // Act
+        Recipe foundRecipe = recipeService.getRecipeById(recipeId);
+
+        // Assert
+        assertEquals(testRecipe2, foundRecipe);
+        verify(mongoTemplate, times(1)).findOne(any(Query.class), eq(Recipe.class), anyString());
+        verify(categoryService, never()).getAllCategories();
+    }
+
+    /**
+     * Test retrieving a recipe by ID when the locator has a stale entry: the scan finds it and repairs the entry.
+     */
+    @Test
+    void getRecipeById_staleLocatorEntry_shouldScanAndRecordNewLocation() {
+        // Arrange
+        String recipeId = "recipe2_id";
+        when(recipeLocator.locate(recipeId)).thenReturn(Optional.of("recipe_main_course"));
+        when(categoryService.getAllCategories()).thenReturn(Arrays.asList("Main Course", "Dessert"));
+        when(mongoTemplate.findOne(any(Query.class), eq(Recipe.class), eq("recipe_main_course"))).thenReturn(null);
+        when(mongoTemplate.findOne(any(Query.class), eq(Recipe.class), eq("recipe_dessert"))).thenReturn(testRecipe2);
+
+        // Act
+        Recipe foundRecipe = recipeService.getRecipeById(recipeId);
+
+        // Assert
+        assertEquals(testRecipe2, foundRecipe);
+        verify(recipeLocator).record(recipeId, "recipe_dessert");
+        verify(recipeLocator, never()).isFallbackScanEnabled(); // Stale entries are always rescanned
+    }
+
+    /**
+     * Test retrieving an unknown recipe ID with the fallback scan disabled: fails without scanning.
+     */
+    @Test
+    void getRecipeById_locatorMiss_fallbackDisabled_shouldThrowWithoutScanning() {
+        // Arrange
+        String recipeId = "non_existent_id";
+        when(recipeLocator.isFallbackScanEnabled()).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(RecipeNotFoundException.class, () -> recipeService.getRecipeById(recipeId));
+        verify(categoryService, never()).getAllCategories();
+        verify(mongoTemplate, never()).findOne(any(Query.class), eq(Recipe.class), anyString());
+    }
+
+    /**
+     * Test that a recipe read twice is loaded from MongoDB once, and read again after an update.
+     */
+    @Test
+    void getRecipeById_cached_shouldLoadOnceUntilUpdated() {
+        // Arrange
+        String recipeId = testRecipe1.getId();
+        String collectionName = "recipe_main_course";
+        when(recipeLocator.locate(recipeId)).thenReturn(Optional.of(collectionName));
+        when(mongoTemplate.findOne(any(Query.class), eq(Recipe.class), eq(collectionName))).thenReturn(testRecipe1);
+        when(mongoTemplate.save(any(Recipe.class), eq(collectionName))).thenAnswer(invocation -> invocation.getArgument(0));
+        Recipe recipeDetailsToUpdate = new Recipe();
+        recipeDetailsToUpdate.setTitle("Updated Pasta Carbonara");
+        recipeDetailsToUpdate.setCategory("Main Course");
+
+        // Act
+        recipeService.getRecipeById(recipeId);
+        recipeService.getRecipeById(recipeId); // Ownership check in the controller
+        recipeService.updateRecipe(recipeId, recipeDetailsToUpdate);
+        recipeService.getRecipeById(recipeId);
+
+        // Assert
+        verify(mongoTemplate, times(2)).findOne(any(Query.class), eq(Recipe.class), eq(collectionName));
+        verify(recipeCache).invalidate(recipeId);
+        assertEquals(2L, recipeCache.getStats().get("hits"));
+    }
+
+    /**
+     * Test that unknown IDs are not cached.
+     */
+    @Test
+    void getRecipeById_notFound_shouldNotBeCached() {
+        // Arrange
+        when(recipeLocator.isFallbackScanEnabled()).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(RecipeNotFoundException.class, () -> recipeService.getRecipeById("non_existent_id"));
+        assertThrows(RecipeNotFoundException.class, () -> recipeService.getRecipeById("non_existent_id"));
+        verify(recipeLocator, times(2)).locate("non_existent_id");
+    }
+
     /**
      * Test updating a recipe when its category does not change.
      */
@@ -260,7 +395,7 @@ class RecipeServiceImplTest {
 
         String collectionName = "recipe_main_course";
 
-        when(categoryService.getAllCategories()).thenReturn(Collections.singletonList("Main Course"));
+        when(recipeLocator.locate(recipeId)).thenReturn(Optional.of(collectionName));
         // Using forgiving any(Query.class) for findOne
         when(mongoTemplate.findOne(any(Query.class), eq(Recipe.class), eq(collectionName))).thenReturn(testRecipe1);
         when(mongoTemplate.save(any(Recipe.class), eq(collectionName))).thenAnswer(invocation -> invocation.getArgument(0));
@@ -284,7 +419,7 @@ class RecipeServiceImplTest {
      * Test updating a recipe when its category changes.
      */
     @Test
-    void updateRecipe_categoryChanged_shouldMoveRecipeAndDropOldCollectionIfEmpty() {
+    void updateRecipe_categoryChanged_shouldMoveRecipeAndMarkOldCollection() {
         // Arrange
         String recipeId = testRecipe1.getId();
         Recipe recipeDetailsToUpdate = new Recipe();
@@ -294,14 +429,11 @@ class RecipeServiceImplTest {
         String oldCollectionName = "recipe_main_course";
         String newCollectionName = "recipe_appetizer";
 
-        when(categoryService.getAllCategories()).thenReturn(Arrays.asList("Main Course", "Dessert"));
+        when(recipeLocator.locate(recipeId)).thenReturn(Optional.of(oldCollectionName));
         // Using forgiving any(Query.class) for findOne
         when(mongoTemplate.findOne(any(Query.class), eq(Recipe.class), eq(oldCollectionName))).thenReturn(testRecipe1);
         // Using forgiving any(Query.class) for remove
         when(mongoTemplate.remove(any(Query.class), eq(Recipe.class), eq(oldCollectionName))).thenReturn(null);
-        when(mongoTemplate.collectionExists(oldCollectionName)).thenReturn(true);
-        when(mongoTemplate.count(any(Query.class), eq(oldCollectionName))).thenReturn(0L);
-        doNothing().when(mongoTemplate).dropCollection(oldCollectionName);
         doNothing().when(categoryService).ensureCategoryExists(eq("Appetizer"));
         when(mongoTemplate.insert(any(Recipe.class), eq(newCollectionName))).thenAnswer(invocation -> {
             Recipe inserted = invocation.getArgument(0);
@@ -319,11 +451,12 @@ class RecipeServiceImplTest {
         assertEquals("Pasta moved to Appetizers", updatedRecipe.getTitle());
         assertEquals("Appetizer", updatedRecipe.getCategory());
         verify(mongoTemplate).remove(any(Query.class), eq(Recipe.class), eq(oldCollectionName));
-        verify(mongoTemplate).collectionExists(oldCollectionName);
-        verify(mongoTemplate).count(any(Query.class), eq(oldCollectionName));
-        verify(mongoTemplate).dropCollection(oldCollectionName);
+        verify(emptyCategorySweeper).markCandidate(oldCollectionName);
+        verify(emptyCategorySweeper).cancel(newCollectionName);
+        verify(mongoTemplate, never()).dropCollection(anyString());
         verify(categoryService).ensureCategoryExists(eq("Appetizer"));
         verify(mongoTemplate).insert(any(Recipe.class), eq(newCollectionName));
+        verify(recipeLocator).record(recipeId, newCollectionName);
         verify(mongoTemplate, never()).save(any(Recipe.class), anyString());
     }
 
@@ -342,7 +475,7 @@ class RecipeServiceImplTest {
         String oldCollectionName = "recipe_uncategorized";
         String newCollectionName = "recipe_newcategory";
 
-        when(categoryService.getAllCategories()).thenReturn(Collections.singletonList("uncategorized"));
+        when(recipeLocator.locate(recipeId)).thenReturn(Optional.of(oldCollectionName));
         // Using forgiving any(Query.class) for findOne
         when(mongoTemplate.findOne(any(Query.class), eq(Recipe.class), eq(oldCollectionName))).thenReturn(testRecipe1);
         // Using forgiving any(Query.class) for remove
@@ -356,37 +489,118 @@ class RecipeServiceImplTest {
         // Assert
         verify(mongoTemplate).remove(any(Query.class), eq(Recipe.class), eq(oldCollectionName));
         verify(mongoTemplate, never()).dropCollection(oldCollectionName);
+        verify(mongoTemplate, never()).count(any(Query.class), eq(oldCollectionName));
         verify(categoryService).ensureCategoryExists(eq("NewCategory"));
         verify(mongoTemplate).insert(any(Recipe.class), eq(newCollectionName));
     }
 
 
     /**
-     * Test deleting a recipe successfully.
+     * Test deleting a recipe successfully. The collection is only marked for the sweeper, not counted or dropped.
      */
     @Test
-    void deleteRecipe_shouldDeleteRecipeAndDropCollectionIfEmpty() {
+    void deleteRecipe_shouldDeleteRecipeAndMarkCollection() {
         // Arrange
         String recipeId = testRecipe1.getId();
         String collectionName = "recipe_main_course";
 
-        when(categoryService.getAllCategories()).thenReturn(Collections.singletonList("Main Course"));
+        when(recipeLocator.locate(recipeId)).thenReturn(Optional.of(collectionName));
         // Using forgiving any(Query.class) for findOne
         when(mongoTemplate.findOne(any(Query.class), eq(Recipe.class), eq(collectionName))).thenReturn(testRecipe1);
         // Using forgiving any(Query.class) for remove
         when(mongoTemplate.remove(any(Query.class), eq(Recipe.class), eq(collectionName))).thenReturn(null);
-        when(mongoTemplate.collectionExists(collectionName)).thenReturn(true);
-        when(mongoTemplate.count(any(Query.class), eq(collectionName))).thenReturn(0L);
-        doNothing().when(mongoTemplate).dropCollection(collectionName);
 
         // Act
         recipeService.deleteRecipe(recipeId);
 
         // Assert
         verify(mongoTemplate).remove(any(Query.class), eq(Recipe.class), eq(collectionName));
-        verify(mongoTemplate).collectionExists(collectionName);
-        verify(mongoTemplate).count(any(Query.class), eq(collectionName));
-        verify(mongoTemplate).dropCollection(collectionName);
+        verify(emptyCategorySweeper).markCandidate(collectionName);
+        verify(mongoTemplate, never()).count(any(Query.class), eq(collectionName));
+        verify(mongoTemplate, never()).dropCollection(anyString());
+        verify(recipeLocator).forget(recipeId);
+        verify(recipeCache).invalidate(recipeId);
+    }
+
+    /**
+     * An owner-checked delete is a single findAndRemove on the located collection, with the creator in its filter.
+     */
+    @Test
+    void deleteRecipeAsOwner_shouldRemoveInOneOperation() {
+        String collectionName = "recipe_main_course";
+        when(recipeLocator.locate("recipe1_id")).thenReturn(Optional.of(collectionName));
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        when(mongoTemplate.findAndRemove(query.capture(), eq(Recipe.class), eq(collectionName))).thenReturn(testRecipe1);
+
+        recipeService.deleteRecipe("recipe1_id", "user1", false);
+
+        assertEquals("user1", query.getValue().getQueryObject().get("createdBy"));
+        verify(mongoTemplate, never()).findOne(any(Query.class), eq(Recipe.class), anyString());
+        verify(recipeLocator).forget("recipe1_id");
+        verify(emptyCategorySweeper).markCandidate(collectionName);
+    }
+
+    /**
+     * When the owner-checked delete matches nothing but the recipe exists, it belongs to someone else.
+     */
+    @Test
+    void deleteRecipeAsOwner_whenCreatedByAnotherUser_shouldThrowAccessDenied() {
+        String collectionName = "recipe_main_course";
+        String id = "65f1a2b3c4d5e6f708192a3b";
+        when(recipeLocator.locate(id)).thenReturn(Optional.of(collectionName));
+        when(mongoTemplate.findAndRemove(any(Query.class), eq(Recipe.class), eq(collectionName))).thenReturn(null);
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        when(mongoTemplate.exists(query.capture(), eq(Recipe.class), eq(collectionName))).thenReturn(true);
+
+        assertThrows(RecipeAccessDeniedException.class, () -> recipeService.deleteRecipe(id, "user2", false));
+        verify(recipeLocator, never()).forget(anyString());
+        // Mapped against Recipe, the filter is on _id as an ObjectId, as the write's filter is.
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        QueryMapper queryMapper = new QueryMapper(new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext));
+        Document mapped = queryMapper.getMappedObject(query.getValue().getQueryObject(),
+                mappingContext.getPersistentEntity(Recipe.class));
+        assertEquals(new Document("_id", new ObjectId(id)), mapped);
+    }
+
+    /**
+     * A category-scoped delete removes from the category's collection directly, without locating the recipe.
+     */
+    @Test
+    void deleteRecipeInCategory_shouldRemoveFromCategoryCollection() {
+        String collectionName = "recipe_main_course";
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        when(mongoTemplate.findAndRemove(query.capture(), eq(Recipe.class), eq(collectionName))).thenReturn(testRecipe1);
+
+        recipeService.deleteRecipe("Main Course", "recipe1_id", "user1", false);
+
+        assertEquals("user1", query.getValue().getQueryObject().get("createdBy"));
+        verify(recipeLocator, never()).locate(anyString());
+        verify(recipeLocator).forget("recipe1_id");
+        verify(recipeCache).invalidate("recipe1_id");
+        verify(emptyCategorySweeper).markCandidate(collectionName);
+    }
+
+    /**
+     * An admin's update in the same category is a single findAndModify without a creator condition.
+     */
+    @Test
+    void updateRecipeAsOwner_asAdminCategoryUnchanged_shouldModifyInOneOperation() {
+        String collectionName = "recipe_main_course";
+        Recipe details = new Recipe();
+        details.setTitle("Carbonara v2");
+        details.setCategory("Main Course");
+        when(recipeLocator.locate("recipe1_id")).thenReturn(Optional.of(collectionName));
+        when(mongoTemplate.getConverter()).thenReturn(
+                new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, new MongoMappingContext()));
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        when(mongoTemplate.findAndModify(query.capture(), any(UpdateDefinition.class), any(FindAndModifyOptions.class),
+                eq(Recipe.class), eq(collectionName))).thenReturn(testRecipe1);
+
+        assertSame(testRecipe1, recipeService.updateRecipe("recipe1_id", details, "admin", true));
+
+        assertFalse(query.getValue().getQueryObject().containsKey("createdBy"));
+        verify(mongoTemplate, never()).findAndRemove(any(Query.class), any(), anyString());
+        verify(recipeCache).invalidate("recipe1_id");
     }
 
     /**
@@ -396,6 +610,7 @@ class RecipeServiceImplTest {
     void deleteRecipe_whenNotExists_shouldThrowRecipeNotFoundException() {
         // Arrange
         String recipeId = "non_existent_id";
+        when(recipeLocator.isFallbackScanEnabled()).thenReturn(true);
         when(categoryService.getAllCategories()).thenReturn(Collections.emptyList());
 
         // Act & Assert
@@ -422,8 +637,6 @@ class RecipeServiceImplTest {
         user1Appetizer.setCreatedBy(username);
 
         when(categoryService.getAllCategories()).thenReturn(categories);
-        when(mongoTemplate.collectionExists(mainCourseCollection)).thenReturn(true);
-        when(mongoTemplate.collectionExists(appetizerCollection)).thenReturn(true);
 
         // Using forgiving any(Query.class)
         when(mongoTemplate.find(any(Query.class), eq(Recipe.class), eq(mainCourseCollection)))
@@ -457,7 +670,6 @@ class RecipeServiceImplTest {
         String collectionName = "recipe_main_course";
 
         when(categoryService.getAllCategories()).thenReturn(categories);
-        when(mongoTemplate.collectionExists(collectionName)).thenReturn(true);
         // Using forgiving any(Query.class)
         when(mongoTemplate.find(any(Query.class), eq(Recipe.class), eq(collectionName)))
                 .thenReturn(Collections.singletonList(testRecipe1));
@@ -472,6 +684,73 @@ class RecipeServiceImplTest {
         verify(mongoTemplate).find(any(Query.class), eq(Recipe.class), eq(collectionName));
     }
 
+    /**
+     * When the search index answers, only the collections holding matches are read, by ID and with the title filter.
+     */
+    @Test
+    void searchRecipesByTitle_whenIndexed_shouldReadOnlyMatchingRecipes() {
+        String collectionName = "recipe_main_course";
+        when(searchIndex.findByTitle("Pasta"))
+                .thenReturn(Optional.of(Map.of(collectionName, List.of(testRecipe1.getId()))));
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        when(mongoTemplate.find(query.capture(), eq(Recipe.class), eq(collectionName)))
+                .thenReturn(Collections.singletonList(testRecipe1));
+
+        List<Recipe> foundRecipes = recipeService.searchRecipesByTitle("Pasta");
+
+        assertEquals(Collections.singletonList(testRecipe1), foundRecipes);
+        Document filter = query.getValue().getQueryObject();
+        assertTrue(filter.containsKey("id"));
+        assertTrue(filter.containsKey("title"));
+        verify(categoryService, never()).getAllCategories();
+        verify(mongoTemplate, times(1)).find(any(Query.class), eq(Recipe.class), anyString());
+    }
+
+    /**
+     * Pantry matches found by the index are read by ID only, so a recipe whose ingredient keys are not stored yet
+     * is still returned and ranked from its ingredients.
+     */
+    @Test
+    void findRecipesByPantry_whenIndexed_shouldReadByIdOnly() {
+        String collectionName = "recipe_main_course";
+        List<String> pantry = Arrays.asList("Spaghetti", "Eggs", "Pancetta", "Pecorino Romano");
+        when(searchIndex.matchPantry(IngredientKeys.of(pantry), 1, 10))
+                .thenReturn(Optional.of(Map.of(collectionName, List.of(testRecipe1.getId()))));
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        when(mongoTemplate.find(query.capture(), eq(Recipe.class), eq(collectionName)))
+                .thenReturn(Collections.singletonList(testRecipe1));
+
+        List<PantryMatch> matches = recipeService.findRecipesByPantry(pantry, 1, 10);
+
+        assertEquals(1, matches.size());
+        assertEquals(List.of("black pepper"), matches.get(0).getMissingIngredients());
+        assertEquals(Set.of("id"), query.getValue().getQueryObject().keySet());
+    }
+
+    /**
+     * A full-text search keeps the best-scored recipes of all collections, each collection being limited on the server.
+     */
+    @Test
+    void searchRecipesByText_shouldMergeCollectionsByScore() {
+        testRecipe1.setScore(2.0f);
+        testRecipe2.setScore(7.5f);
+        Recipe weakMatch = new Recipe();
+        weakMatch.setId("recipe3_id");
+        weakMatch.setScore(0.6f);
+        when(categoryService.getAllCategories()).thenReturn(Arrays.asList("Dessert", "Main Course"));
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        when(mongoTemplate.find(query.capture(), eq(Recipe.class), eq("recipe_main_course")))
+                .thenReturn(Arrays.asList(testRecipe1, weakMatch));
+        when(mongoTemplate.find(any(Query.class), eq(Recipe.class), eq("recipe_dessert")))
+                .thenReturn(Collections.singletonList(testRecipe2));
+
+        List<Recipe> found = recipeService.searchRecipesByText("chocolate pasta", 2);
+
+        assertEquals(Arrays.asList(testRecipe2, testRecipe1), found);
+        assertEquals(2, query.getValue().getLimit());
+        assertTrue(query.getValue().getQueryObject().containsKey("$text"));
+    }
+
     /**
      * Test searching recipes by a specific category.
      */
@@ -481,7 +760,7 @@ class RecipeServiceImplTest {
         String categoryToSearch = "Dessert";
         String collectionName = "recipe_dessert";
 
-        when(mongoTemplate.collectionExists(collectionName)).thenReturn(true);
+        when(categoryService.categoryCollectionExists(collectionName)).thenReturn(true);
         when(mongoTemplate.findAll(Recipe.class, collectionName)).thenReturn(Collections.singletonList(testRecipe2));
 
         // Act
@@ -503,7 +782,7 @@ class RecipeServiceImplTest {
         // Arrange
         String categoryToSearch = "NonExistentCategory";
         String collectionName = "recipe_nonexistentcategory";
-        when(mongoTemplate.collectionExists(collectionName)).thenReturn(false);
+        when(categoryService.categoryCollectionExists(collectionName)).thenReturn(false);
 
         // Act
         List<Recipe> foundRecipes = recipeService.searchRecipesByCategory(categoryToSearch);
@@ -527,8 +806,6 @@ class RecipeServiceImplTest {
         String dessertCollection = "recipe_dessert";
 
         when(categoryService.getAllCategories()).thenReturn(categories);
-        when(mongoTemplate.collectionExists(mainCourseCollection)).thenReturn(true);
-        when(mongoTemplate.collectionExists(dessertCollection)).thenReturn(true);
 
         // Using forgiving any(Query.class)
         when(mongoTemplate.find(any(Query.class), eq(Recipe.class), eq(mainCourseCollection)))
@@ -559,8 +836,6 @@ class RecipeServiceImplTest {
         String dessertCollection = "recipe_dessert";
 
         when(categoryService.getAllCategories()).thenReturn(categories);
-        when(mongoTemplate.collectionExists(mainCourseCollection)).thenReturn(true);
-        when(mongoTemplate.collectionExists(dessertCollection)).thenReturn(true);
 
         // Using forgiving any(Query.class)
         when(mongoTemplate.find(any(Query.class), eq(Recipe.class), eq(mainCourseCollection)))
@@ -591,7 +866,7 @@ class RecipeServiceImplTest {
         String ingredient = "Flour";
         String dessertCollection = "recipe_dessert";
 
-        when(mongoTemplate.collectionExists(dessertCollection)).thenReturn(true);
+        when(categoryService.categoryCollectionExists(dessertCollection)).thenReturn(true);
         // Using forgiving any(Query.class)
         when(mongoTemplate.find(any(Query.class), eq(Recipe.class), eq(dessertCollection)))
                 .thenReturn(Collections.singletonList(testRecipe2));
@@ -619,8 +894,6 @@ class RecipeServiceImplTest {
         String dessertCollection = "recipe_dessert";
 
         when(categoryService.getAllCategories()).thenReturn(Arrays.asList("Main Course", "Dessert"));
-        when(mongoTemplate.collectionExists(mainCourseCollection)).thenReturn(true);
-        when(mongoTemplate.collectionExists(dessertCollection)).thenReturn(true);
 
         // Using forgiving any(Query.class)
         when(mongoTemplate.find(any(Query.class), eq(Recipe.class), eq(mainCourseCollection)))
@@ -648,7 +921,7 @@ class RecipeServiceImplTest {
         // Arrange
         String category = "NonExistent";
         String collectionName = "recipe_nonexistent";
-        when(mongoTemplate.collectionExists(collectionName)).thenReturn(false);
+        when(categoryService.categoryCollectionExists(collectionName)).thenReturn(false);
 
         // Act
         List<Recipe> results = recipeService.advancedSearch(null, category, null, null);
@@ -658,4 +931,151 @@ class RecipeServiceImplTest {
         assertTrue(results.isEmpty());
         verify(mongoTemplate, never()).find(any(Query.class), any(Class.class), anyString());
     }
-}
\ No newline at end of file
+
+    /**
+     * Test advanced search with the $unionWith strategy: one aggregation, filtered and limited in every branch.
+     */
+    @Test
+    void advancedSearch_unionWithStrategy_shouldRunSingleAggregation() {
+        // Arrange
+        when(categoryService.getAllCategories()).thenReturn(Arrays.asList("Dessert", "Main Course"));
+        ArgumentCaptor<Aggregation> aggregation = ArgumentCaptor.forClass(Aggregation.class);
+        when(mongoTemplate.aggregate(aggregation.capture(), eq("recipe_dessert"), eq(Recipe.class)))
+                .thenReturn(new AggregationResults<>(Collections.singletonList(testRecipe1), new Document()));
+
+        // Act
+        List<Recipe> results = recipeService.advancedSearch("Pasta", null, null, null, QueryStrategy.UNION_WITH, 10);
+
+        // Assert
+        assertEquals(Collections.singletonList(testRecipe1), results);
+        List<Document> pipeline = aggregation.getValue().toPipeline(Aggregation.DEFAULT_CONTEXT);
+        assertEquals(Arrays.asList("$match", "$sort", "$limit", "$unionWith", "$sort", "$limit"),
+                pipeline.stream().map(stage -> stage.keySet().iterator().next()).collect(Collectors.toList()));
+        Document unionWith = pipeline.get(3).get("$unionWith", Document.class);
+        assertEquals("recipe_main_course", unionWith.get("coll"));
+        assertEquals(3, unionWith.getList("pipeline", Document.class).size());
+        verify(mongoTemplate, never()).find(any(Query.class), eq(Recipe.class), anyString());
+    }
+
+    /**
+     * Test advanced search with a limit using fan-out: the first recipes by ID across all collections are kept.
+     */
+    @Test
+    void advancedSearch_fanOutWithLimit_shouldMergeByIdAndTruncate() {
+        // Arrange
+        when(categoryService.getAllCategories()).thenReturn(Arrays.asList("Dessert", "Main Course"));
+        when(mongoTemplate.find(any(Query.class), eq(Recipe.class), eq("recipe_dessert")))
+                .thenReturn(Collections.singletonList(testRecipe2));
+        when(mongoTemplate.find(any(Query.class), eq(Recipe.class), eq("recipe_main_course")))
+                .thenReturn(Collections.singletonList(testRecipe1));
+
+        // Act
+        List<Recipe> results = recipeService.advancedSearch(null, null, 90, null, QueryStrategy.FAN_OUT, 1);
+
+        // Assert
+        assertEquals(Collections.singletonList(testRecipe1), results); // "recipe1_id" sorts before "recipe2_id"
+        verify(mongoTemplate, never()).aggregate(any(Aggregation.class), anyString(), eq(Recipe.class));
+    }
+
+    /**
+     * Test a keyset page: collections before the cursor are skipped, the cursor's collection continues after
+     * the last ID, and the next cursor points at the last recipe of the page.
+     */
+    @Test
+    void findRecipesPage_withCursor_shouldContinueAfterLastIdAndReturnNextCursor() {
+        // Arrange
+        Recipe extra = new Recipe();
+        extra.setId("recipe3_id");
+        when(categoryService.getAllCategories()).thenReturn(Arrays.asList("Appetizer", "Dessert", "Main Course"));
+        ArgumentCaptor<Query> dessertQuery = ArgumentCaptor.forClass(Query.class);
+        when(mongoTemplate.find(dessertQuery.capture(), eq(Recipe.class), eq("recipe_dessert")))
+                .thenReturn(Collections.singletonList(testRecipe2));
+        ArgumentCaptor<Query> mainCourseQuery = ArgumentCaptor.forClass(Query.class);
+        when(mongoTemplate.find(mainCourseQuery.capture(), eq(Recipe.class), eq("recipe_main_course")))
+                .thenReturn(Arrays.asList(testRecipe1, extra));
+        String cursor = new RecipeCursor("recipe_dessert", "recipe0_id", 2).encode();
+
+        // Act
+        RecipeResponse page = recipeService.findRecipesPage(RecipeFilter.all(), 2, cursor);
+
+        // Assert
+        assertEquals(Arrays.asList(testRecipe2, testRecipe1), page.getContent());
+        assertEquals(2, page.getPageNo());
+        assertFalse(page.isLast());
+        RecipeCursor next = RecipeCursor.decode(page.getNextCursor());
+        assertEquals("recipe_main_course", next.getCollectionName());
+        assertEquals("recipe1_id", next.getLastId());
+        assertEquals(3, next.getPageNo());
+
+        assertEquals(new Document("$gt", "recipe0_id"), dessertQuery.getValue().getQueryObject().get("_id"));
+        assertEquals(3, dessertQuery.getValue().getLimit());
+        assertFalse(mainCourseQuery.getValue().getQueryObject().containsKey("_id"));
+        assertEquals(2, mainCourseQuery.getValue().getLimit());
+        verify(mongoTemplate, never()).find(any(Query.class), eq(Recipe.class), eq("recipe_appetizer"));
+    }
+
+    /**
+     * Test streaming across categories: one cursor per collection, and every recipe reaches the consumer.
+     */
+    @Test
+    void streamRecipes_shouldStreamEachCategoryCollection() {
+        // Arrange
+        when(categoryService.getAllCategories()).thenReturn(Arrays.asList("Dessert", "Main Course"));
+        when(mongoTemplate.stream(any(Query.class), eq(Recipe.class), eq("recipe_dessert")))
+                .thenReturn(Stream.of(testRecipe2));
+        when(mongoTemplate.stream(any(Query.class), eq(Recipe.class), eq("recipe_main_course")))
+                .thenReturn(Stream.of(testRecipe1));
+        List<Recipe> received = new ArrayList<>();
+
+        // Act
+        recipeService.streamRecipes(RecipeFilter.byMaxCookingTime(90), received::add);
+
+        // Assert
+        assertEquals(Arrays.asList(testRecipe2, testRecipe1), received);
+        verify(mongoTemplate, never()).find(any(Query.class), eq(Recipe.class), anyString());
+    }
+
+    /**
+     * Test that a sparse fieldset is sent to MongoDB as a projection.
+     */
+    @Test
+    void findRecipes_withProjection_shouldOnlyReadRequestedFields() {
+        // Arrange
+        when(categoryService.categoryCollectionExists("recipe_dessert")).thenReturn(true);
+        ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.forClass(Query.class);
+        when(mongoTemplate.find(queryCaptor.capture(), eq(Recipe.class), eq("recipe_dessert")))
+                .thenReturn(Collections.singletonList(testRecipe2));
+        RecipeFilter filter = RecipeFilter.byCategory("Dessert").withProjection(RecipeProjection.parse("title,cookingTime"));
+
+        // Act
+        List<Recipe> results = recipeService.findRecipes(filter, null, null);
+
+        // Assert
+        assertEquals(Collections.singletonList(testRecipe2), results);
+        assertEquals(new Document("title", 1).append("cookingTime", 1), queryCaptor.getValue().getFieldsObject());
+        verify(categoryService, never()).getAllCategories();
+    }
+
+    /**
+     * Test that the summary view reads an ingredient count computed by MongoDB instead of the ingredients.
+     */
+    @Test
+    void findRecipes_withSummaryProjection_shouldCountIngredientsInsteadOfReadingThem() {
+        // Arrange
+        when(categoryService.categoryCollectionExists("recipe_dessert")).thenReturn(true);
+        ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.forClass(Query.class);
+        when(mongoTemplate.find(queryCaptor.capture(), eq(Recipe.class), eq("recipe_dessert")))
+                .thenReturn(Collections.singletonList(testRecipe2));
+        RecipeFilter filter = RecipeFilter.byCategory("Dessert").withProjection(RecipeProjection.parse("summary"));
+
+        // Act
+        recipeService.findRecipes(filter, null, null);
+
+        // Assert
+        Document fields = queryCaptor.getValue().getFieldsObject();
+        assertFalse(fields.containsKey("ingredients"));
+        assertFalse(fields.containsKey("instructions"));
+        MongoExpression count = assertInstanceOf(MongoExpression.class, fields.get("ingredientCount"));
+        assertEquals(Document.parse("{ $size: { $ifNull: ['$ingredients', []] } }"), count.toDocument());
+    }
+}
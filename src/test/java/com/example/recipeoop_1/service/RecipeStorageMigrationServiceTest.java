@@ -0,0 +1,98 @@
+package com.example.recipeoop_1.service;
+
+import com.mongodb.client.result.DeleteResult;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link RecipeStorageMigrationService}.
+ */
+@ExtendWith(MockitoExtension.class)
+class RecipeStorageMigrationServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private RecipeIndexManager indexManager;
+
+    @Mock
+    private BulkOperations bulk;
+
+    /**
+     * A recipe deleted from its category collection after a first run is removed from the target by the next run,
+     * so the counts match again.
+     */
+    @Test
+    void migrate_whenRecipeDeletedBetweenRuns_shouldRemoveItsCopy() {
+        RecipeStorageMigrationService migration =
+                new RecipeStorageMigrationService(mongoTemplate, indexManager, 500, RecipeStorage.PER_CATEGORY);
+        when(mongoTemplate.getCollectionNames()).thenReturn(Set.of("recipe_dessert", "users"));
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, RecipeStorage.SINGLE_COLLECTION_NAME)).thenReturn(bulk);
+        when(mongoTemplate.stream(any(Query.class), eq(Document.class), eq("recipe_dessert")))
+                .thenReturn(Stream.of(recipe("a"), recipe("b")))
+                .thenReturn(Stream.of(recipe("a")));
+        when(mongoTemplate.stream(any(Query.class), eq(Document.class), eq(RecipeStorage.SINGLE_COLLECTION_NAME)))
+                .thenReturn(Stream.of(new Document("_id", "a"), new Document("_id", "b")))
+                .thenReturn(Stream.of(new Document("_id", "a"), new Document("_id", "b")));
+        when(mongoTemplate.remove(any(Query.class), eq(RecipeStorage.SINGLE_COLLECTION_NAME)))
+                .thenAnswer(invocation -> DeleteResult.acknowledged(
+                        invocation.getArgument(0, Query.class).getQueryObject().containsKey("_id") ? 1 : 0));
+        when(mongoTemplate.count(any(Query.class), anyString())).thenAnswer(invocation ->
+                invocation.getArgument(0, Query.class).getQueryObject().toJson().contains("$nin") ? 0L : 1L);
+
+        migration.migrateToSingleCollection();
+        verify(mongoTemplate, never()).remove(argThat((Query query) -> query.getQueryObject().containsKey("_id")),
+                eq(RecipeStorage.SINGLE_COLLECTION_NAME));
+
+        Map<String, Object> result = migration.migrateToSingleCollection();
+
+        ArgumentCaptor<Query> removed = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate, times(3)).remove(removed.capture(), eq(RecipeStorage.SINGLE_COLLECTION_NAME));
+        Document byId = removed.getAllValues().get(1).getQueryObject();
+        assertEquals(new Document("$in", List.of("b")), byId.get("_id"));
+        assertEquals(1L, result.get("removed"));
+        assertEquals(true, ((Map<?, ?>) result.get("verification")).get("verified"));
+    }
+
+    /**
+     * Once the application runs in the single-collection layout, a run only copies.
+     */
+    @Test
+    void migrate_whenTargetInUse_shouldNotRemoveAnything() {
+        RecipeStorageMigrationService migration =
+                new RecipeStorageMigrationService(mongoTemplate, indexManager, 500, RecipeStorage.SINGLE_COLLECTION);
+        when(mongoTemplate.getCollectionNames()).thenReturn(Set.of("recipe_dessert"));
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, RecipeStorage.SINGLE_COLLECTION_NAME)).thenReturn(bulk);
+        when(mongoTemplate.stream(any(Query.class), eq(Document.class), eq("recipe_dessert")))
+                .thenReturn(Stream.of(recipe("a")));
+        when(mongoTemplate.count(any(Query.class), anyString())).thenReturn(1L);
+
+        Map<String, Object> result = migration.migrateToSingleCollection();
+
+        verify(mongoTemplate, never()).remove(any(Query.class), anyString());
+        assertEquals(0L, result.get("removed"));
+    }
+
+    private static Document recipe(String id) {
+        return new Document("_id", id).append("title", "Recipe " + id);
+    }
+}
@@ -0,0 +1,192 @@
+package com.example.recipeoop_1.service;
+
+import com.example.recipeoop_1.exception.RecipeNotFoundException;
+import com.example.recipeoop_1.model.Recipe;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link SingleCollectionRecipeService}.
+ * Every operation is expected to hit the single "recipes" collection with one query.
+ */
+@ExtendWith(MockitoExtension.class)
+class SingleCollectionRecipeServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private CategoryService categoryService;
+
+    @InjectMocks
+    private SingleCollectionRecipeService recipeService;
+
+    private Recipe testRecipe;
+
+    @BeforeEach
+    void setUp() {
+        testRecipe = new Recipe();
+        testRecipe.setId("recipe1_id");
+        testRecipe.setTitle("Pasta Carbonara");
+        testRecipe.setCategory("Main Course");
+        testRecipe.setCategoryKey("main_course");
+        testRecipe.setCreatedBy("user1");
+    }
+
+    /**
+     * A new recipe is stored in the "recipes" collection with its normalized category key.
+     */
+    @Test
+    void createRecipe_shouldStoreCategoryKeyInSingleCollection() {
+        Recipe newRecipe = new Recipe();
+        newRecipe.setTitle("Tiramisu");
+        newRecipe.setCategory(" Italian Dessert ");
+        when(mongoTemplate.insert(any(Recipe.class), eq("recipes"))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Recipe created = recipeService.createRecipe(newRecipe, "user1");
+
+        assertEquals("italian_dessert", created.getCategoryKey());
+        assertEquals("user1", created.getCreatedBy());
+        verify(categoryService).ensureCategoryExists(" Italian Dessert ");
+    }
+
+    /**
+     * A lookup by ID is a single query against the "recipes" collection.
+     */
+    @Test
+    void getRecipeById_shouldUseSingleLookup() {
+        when(mongoTemplate.findById("recipe1_id", Recipe.class, "recipes")).thenReturn(testRecipe);
+
+        assertEquals(testRecipe, recipeService.getRecipeById("recipe1_id"));
+        verify(categoryService, never()).getAllCategories();
+    }
+
+    /**
+     * An unknown ID results in a {@link RecipeNotFoundException}.
+     */
+    @Test
+    void getRecipeById_whenNotExists_shouldThrowRecipeNotFoundException() {
+        when(mongoTemplate.findById("missing", Recipe.class, "recipes")).thenReturn(null);
+
+        assertThrows(RecipeNotFoundException.class, () -> recipeService.getRecipeById("missing"));
+    }
+
+    /**
+     * A category search filters on the normalized key, so differently written names match the same recipes.
+     */
+    @Test
+    void searchRecipesByCategory_shouldFilterOnCategoryKey() {
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        when(mongoTemplate.find(query.capture(), eq(Recipe.class), eq("recipes"))).thenReturn(List.of(testRecipe));
+
+        List<Recipe> results = recipeService.searchRecipesByCategory("MAIN  course");
+
+        assertEquals(1, results.size());
+        assertEquals(new Document("categoryKey", "main_course"), query.getValue().getQueryObject());
+    }
+
+    /**
+     * Changing the category updates the recipe in place and unregisters the old category once it is empty.
+     */
+    @Test
+    void updateRecipe_categoryChanged_shouldUpdateInPlaceAndUnregisterEmptyCategory() {
+        Recipe details = new Recipe();
+        details.setTitle("Pasta as a starter");
+        details.setCategory("Appetizer");
+        when(mongoTemplate.findById("recipe1_id", Recipe.class, "recipes")).thenReturn(testRecipe);
+        when(mongoTemplate.save(any(Recipe.class), eq("recipes"))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(mongoTemplate.exists(any(Query.class), eq("recipes"))).thenReturn(false);
+
+        Recipe updated = recipeService.updateRecipe("recipe1_id", details);
+
+        assertEquals("recipe1_id", updated.getId());
+        assertEquals("appetizer", updated.getCategoryKey());
+        assertEquals("user1", updated.getCreatedBy());
+        verify(categoryService).onCategoryCollectionDropped("recipe_main_course");
+        verify(mongoTemplate, never()).insert(any(Recipe.class), anyString());
+        verify(mongoTemplate, never()).remove(any(Query.class), eq(Recipe.class), anyString());
+    }
+
+    /**
+     * Deleting a recipe keeps its category registered while other recipes remain in it.
+     */
+    @Test
+    void deleteRecipe_whenCategoryNotEmpty_shouldKeepCategory() {
+        when(mongoTemplate.findById("recipe1_id", Recipe.class, "recipes")).thenReturn(testRecipe);
+        when(mongoTemplate.exists(any(Query.class), eq("recipes"))).thenReturn(true);
+
+        recipeService.deleteRecipe("recipe1_id");
+
+        verify(mongoTemplate).remove(any(Query.class), eq(Recipe.class), eq("recipes"));
+        verify(categoryService, never()).onCategoryCollectionDropped(anyString());
+    }
+
+    /**
+     * An owner-checked update is one findAndModify; the creator comes from the replaced recipe.
+     */
+    @Test
+    void updateRecipeAsOwner_shouldModifyInOneOperation() {
+        Recipe details = new Recipe();
+        details.setTitle("Pasta Carbonara v2");
+        details.setCategory("Main Course");
+        when(mongoTemplate.getConverter()).thenReturn(
+                new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, new MongoMappingContext()));
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        when(mongoTemplate.findAndModify(query.capture(), any(UpdateDefinition.class), eq(Recipe.class), eq("recipes")))
+                .thenReturn(testRecipe);
+
+        Recipe updated = recipeService.updateRecipe("recipe1_id", details, "user1", false);
+
+        assertEquals("recipe1_id", updated.getId());
+        assertEquals("user1", updated.getCreatedBy());
+        assertEquals("user1", query.getValue().getQueryObject().get("createdBy"));
+        verify(mongoTemplate, never()).findById(anyString(), any(), anyString());
+        verify(categoryService, never()).onCategoryCollectionDropped(anyString());
+    }
+
+    /**
+     * An owner-checked delete of a missing recipe is reported as not found.
+     */
+    @Test
+    void deleteRecipeAsOwner_whenMissing_shouldThrowNotFound() {
+        when(mongoTemplate.findAndRemove(any(Query.class), eq(Recipe.class), eq("recipes"))).thenReturn(null);
+        when(mongoTemplate.exists(any(Query.class), eq(Recipe.class), eq("recipes"))).thenReturn(false);
+
+        assertThrows(RecipeNotFoundException.class, () -> recipeService.deleteRecipe("missing", "user1", false));
+    }
+
+    /**
+     * An advanced search without a category is one query, not one per category.
+     */
+    @Test
+    void advancedSearch_shouldRunSingleQuery() {
+        when(mongoTemplate.find(any(Query.class), eq(Recipe.class), eq("recipes"))).thenReturn(Collections.singletonList(testRecipe));
+
+        List<Recipe> results = recipeService.advancedSearch("pasta", null, 30, null);
+
+        assertEquals(1, results.size());
+        verify(mongoTemplate, times(1)).find(any(Query.class), eq(Recipe.class), anyString());
+        verify(categoryService, never()).getAllCategories();
+    }
+}
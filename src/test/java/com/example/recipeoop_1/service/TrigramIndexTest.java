@@ -0,0 +1,51 @@
+package com.example.recipeoop_1.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link TrigramIndex}.
+ */
+class TrigramIndexTest {
+
+    /**
+     * Documents containing all trigrams of the query but not the query itself are filtered out.
+     */
+    @Test
+    void search_shouldIntersectPostingsAndConfirmCandidates() {
+        TrigramIndex index = new TrigramIndex();
+        index.add(1, List.of("Pasta Carbonara"));
+        index.add(2, List.of("Carbonara pasta"));
+        index.add(3, List.of("Astaire's pasta bake"));
+        index.add(4, List.of("Chocolate Cake"));
+
+        assertArrayEquals(new int[]{1, 2, 3}, index.search("PASTA"));
+        assertArrayEquals(new int[]{1}, index.search("pasta car"));
+        assertArrayEquals(new int[0], index.search("lasagna"));
+        assertArrayEquals(new int[]{3, 4}, index.search("ak"), "Short queries scan the texts");
+    }
+
+    /**
+     * Trigrams do not span two texts of a document, and removed or replaced texts no longer match.
+     */
+    @Test
+    void addAndRemove_shouldKeepPostingsInLineWithTexts() {
+        TrigramIndex index = new TrigramIndex();
+        index.add(7, List.of("egg", "salt"));
+        assertArrayEquals(new int[0], index.search("eggsalt"));
+        assertArrayEquals(new int[]{7}, index.search("sal"));
+
+        index.add(7, List.of("pepper"));
+        assertArrayEquals(new int[0], index.search("sal"));
+        assertArrayEquals(new int[]{7}, index.search("pepp"));
+
+        index.remove(7);
+        assertArrayEquals(new int[0], index.search("pepp"));
+        assertEquals(0, index.documentCount());
+        assertEquals(0, index.trigramCount());
+        assertEquals(0, index.postingCount());
+    }
+}